@@ -2,6 +2,8 @@
 -- DATABASE: short_term_training (MVP Version)
 -- Description: Hệ thống quản lý đào tạo ngắn hạn - TỐI GIẢN
 -- Tech Stack: Spring Boot 3.x + MySQL 8.0+
+-- Lưu ý: schema chạy thật do Flyway quản lý (src/main/resources/db/migration),
+--         file này chỉ giữ để tham khảo thiết kế ban đầu
 -- =====================================================
 
 CREATE DATABASE IF NOT EXISTS short_term_training
@@ -0,0 +1,168 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.TrainingApplication;
+import com.nute.training.dto.BulkScheduleCreateDto;
+import com.nute.training.entity.Attendance;
+import com.nute.training.entity.Schedule;
+import com.nute.training.entity.User;
+import com.nute.training.service.AttendanceService;
+import com.nute.training.service.CertificateService;
+import com.nute.training.service.ScheduleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: tốc độ INSERT của các đường ghi hàng loạt (điểm danh cả lớp, tạo lịch hàng loạt, cấp chứng chỉ cho lớp)
+ * trên ứng dụng thật (Spring context, Hibernate, H2 chế độ MySQL, dữ liệu db/bulkinsert/afterMigrate.sql).
+ * H2 chạy dạng TCP server trong JVM benchmark: mỗi lần gọi database là một vòng qua socket loopback như với MySQL.
+ * Mỗi lần gọi ghi 200 dòng trong một transaction luôn rollback (flush trước rollback để INSERT thực sự chạy);
+ * kết quả tính theo dòng/giây.
+ * batchSize = 1: mỗi dòng một lần gọi database như khi ID còn là IDENTITY; 50: JDBC batch với ID pooled.
+ * Loopback không có độ trễ mạng: trên MySQL qua mạng, chênh lệch còn lớn hơn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+
+    private static final int ROWS = 200;
+    private static final long ONGOING_CLASS_ID = 1L;
+    private static final long UNSCHEDULED_CLASS_ID = 2L;
+    private static final long SCHEDULE_ID = 1L;
+    private static final long TEACHER_ID = 2L;
+    /**
+     * Cổng của spring.datasource.url trong bulk-insert.properties
+     */
+    private static final String H2_TCP_PORT = "9127";
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private Server databaseServer;
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private AttendanceService attendanceService;
+    private ScheduleService scheduleService;
+    private CertificateService certificateService;
+    private BulkScheduleCreateDto scheduleDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        databaseServer = Server.createTcpServer("-tcpPort", H2_TCP_PORT, "-ifNotExists").start();
+
+        SpringApplication application = new SpringApplication(TrainingApplication.class);
+        // Job định kỳ không chạy: chỉ đo đường ghi hàng loạt
+        application.addInitializers(applicationContext -> applicationContext.addBeanFactoryPostProcessor(beanFactory -> {
+            if (beanFactory.containsBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+                ((BeanDefinitionRegistry) beanFactory)
+                        .removeBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+            }
+        }));
+        context = application.run(applicationArgs());
+
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        attendanceService = context.getBean(AttendanceService.class);
+        scheduleService = context.getBean(ScheduleService.class);
+        certificateService = context.getBean(CertificateService.class);
+
+        scheduleDto = new BulkScheduleCreateDto();
+        scheduleDto.setClassId(UNSCHEDULED_CLASS_ID);
+        scheduleDto.setDaysOfWeek(List.of(1, 2, 3, 4, 5, 6, 7));
+        scheduleDto.setStartTime(LocalTime.of(18, 0));
+        scheduleDto.setEndTime(LocalTime.of(20, 30));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        databaseServer.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object markAttendanceForAllStudents() {
+        return inRolledBackTransaction(() -> {
+            Schedule schedule = entityManager.find(Schedule.class, SCHEDULE_ID);
+            User teacher = entityManager.find(User.class, TEACHER_ID);
+            attendanceService.markAttendanceForAllStudents(schedule, Attendance.AttendanceStatus.PRESENT, teacher);
+            return schedule;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object generateBatchSchedules() {
+        return inRolledBackTransaction(() -> scheduleService.generateBatchSchedules(scheduleDto));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public Object issueCertificatesForClass() {
+        return inRolledBackTransaction(() -> certificateService.issueCertificatesForClass(
+                ONGOING_CLASS_ID, entityManager.find(User.class, TEACHER_ID), "BENCH"));
+    }
+
+    private Object inRolledBackTransaction(Supplier<Object> work) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            Object result = work.get();
+            entityManager.flush();
+            entityManager.clear();
+            return result;
+        });
+    }
+
+    private String[] applicationArgs() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = BulkInsertBenchmark.class.getResourceAsStream("/bulk-insert.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("Không tìm thấy bulk-insert.properties trên classpath");
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        properties.setProperty("spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(batchSize));
+
+        List<String> args = new ArrayList<>();
+        properties.stringPropertyNames().forEach(key -> args.add("--" + key + "=" + properties.getProperty(key)));
+        return args.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,52 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.dto.EnrollmentHistoryDto;
+import com.nute.training.entity.Enrollment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: EnrollmentHistoryDto
+ * Dựng DTO qua constructor projection (22 tham số) như Hibernate làm với mỗi dòng kết quả JPQL.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnrollmentHistoryDtoBenchmark {
+
+    // Không để final: tránh JIT gộp hằng số làm sai kết quả
+    private Long enrollmentId = 42L;
+    private LocalDate enrollmentDate = LocalDate.of(2024, 9, 1);
+    private BigDecimal paymentAmount = new BigDecimal("3500000");
+    private LocalDateTime approvedAt = LocalDateTime.of(2024, 9, 2, 8, 30);
+    private LocalDate startDate = LocalDate.of(2024, 9, 15);
+    private LocalDate endDate = LocalDate.of(2024, 12, 15);
+    private BigDecimal tuitionFee = new BigDecimal("3500000");
+
+    @Benchmark
+    public EnrollmentHistoryDto construct() {
+        return new EnrollmentHistoryDto(
+                enrollmentId, enrollmentDate,
+                Enrollment.EnrollmentStatus.APPROVED, Enrollment.PaymentStatus.PAID,
+                paymentAmount, "Đã đóng đủ học phí", approvedAt,
+                7L, "JAVA-2024-01", "Lập trình Java cơ bản", "A101", startDate, endDate,
+                3L, "Lập trình Java", "JAVA", tuitionFee,
+                11L, "Nguyễn Văn Giảng", "giangnv@nute.edu.vn",
+                1L, "Quản trị viên");
+    }
+}
@@ -0,0 +1,65 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.entity.Grade;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: Grade.calculateAll
+ * Tính điểm tổng kết, xếp loại, đạt/không đạt cho một lô điểm ngẫu nhiên (thang 10, 1 chữ số thập phân).
+ * Dùng thêm -prof gc để xem số byte cấp phát cho BigDecimal trên mỗi lần tính.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeCalculationBenchmark {
+
+    static final int BATCH = 1024;
+
+    private Grade[] grades;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        grades = new Grade[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            Grade grade = new Grade();
+            grade.setAttendanceScore(randomScore(random));
+            grade.setProcessScore(randomScore(random));
+            grade.setFinalScore(randomScore(random));
+            grades[i] = grade;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void calculateAll(Blackhole blackhole) {
+        for (Grade grade : grades) {
+            grade.calculateAll();
+            blackhole.consume(grade.getTotalScore());
+            blackhole.consume(grade.getPass());
+        }
+    }
+
+    static BigDecimal randomScore(Random random) {
+        return BigDecimal.valueOf(random.nextInt(101)).divide(BigDecimal.TEN, 1, RoundingMode.UNNECESSARY);
+    }
+}
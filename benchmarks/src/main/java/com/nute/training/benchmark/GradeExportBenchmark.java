@@ -0,0 +1,91 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.Grade;
+import com.nute.training.entity.User;
+import com.nute.training.service.GradeExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: GradeExportService.exportClassGrades
+ * Xuất bảng điểm Excel của một lớp theo sĩ số; khoảng 10% học viên chưa có điểm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeExportBenchmark {
+
+    @Param({"30", "200", "1000"})
+    public int classSize;
+
+    private final GradeExportService gradeExportService = new GradeExportService();
+    private ClassEntity classEntity;
+    private List<Enrollment> enrollments;
+    private List<Grade> grades;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        User teacher = new User();
+        teacher.setId(1L);
+        teacher.setFullName("Nguyễn Văn Giảng");
+
+        classEntity = new ClassEntity();
+        classEntity.setId(1L);
+        classEntity.setClassCode("JAVA-2024-01");
+        classEntity.setClassName("Lập trình Java cơ bản");
+        classEntity.setTeacher(teacher);
+
+        enrollments = new ArrayList<>(classSize);
+        grades = new ArrayList<>(classSize);
+        for (int i = 0; i < classSize; i++) {
+            User student = new User();
+            student.setId(1000L + i);
+            student.setUsername("sv" + (1000 + i));
+            student.setFullName("Trần Thị Học Viên " + i);
+            student.setEmail("sv" + (1000 + i) + "@student.nute.edu.vn");
+
+            Enrollment enrollment = new Enrollment();
+            enrollment.setId(1000L + i);
+            enrollment.setStudent(student);
+            enrollment.setClassEntity(classEntity);
+            enrollments.add(enrollment);
+
+            if (random.nextInt(10) > 0) {
+                Grade grade = new Grade();
+                grade.setEnrollment(enrollment);
+                grade.setAttendanceScore(GradeCalculationBenchmark.randomScore(random));
+                grade.setProcessScore(GradeCalculationBenchmark.randomScore(random));
+                grade.setFinalScore(GradeCalculationBenchmark.randomScore(random));
+                grade.calculateAll();
+                grades.add(grade);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] exportClassGrades() throws IOException {
+        return gradeExportService.exportClassGrades(classEntity, enrollments, grades);
+    }
+}
@@ -0,0 +1,97 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.dto.BulkScheduleCreateDto;
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Schedule;
+import com.nute.training.repository.CacheInvalidationRepository;
+import com.nute.training.repository.CalendarFeedTokenRepository;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.JobLeaseRepository;
+import com.nute.training.repository.ScheduleRepository;
+import com.nute.training.service.CacheInvalidationBus;
+import com.nute.training.service.CalendarFeedService;
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.ScheduleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: ScheduleService.generateBatchSchedules
+ * Duyệt từng ngày trong khoảng thời gian của lớp và tạo buổi học cho các thứ đã chọn (thứ 2, 4, 6).
+ * Repository là stub trả kết quả ngay: chỉ đo phần xử lý trong ứng dụng, không tính thời gian query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleGenerationBenchmark {
+
+    @Param({"30", "90", "365"})
+    public int durationDays;
+
+    private ScheduleService scheduleService;
+    private BulkScheduleCreateDto dto;
+
+    @Setup
+    public void setUp() {
+        ClassEntity classEntity = new ClassEntity();
+        classEntity.setId(1L);
+        classEntity.setClassCode("JAVA-2024-01");
+        classEntity.setRoom("A101");
+        classEntity.setStartDate(LocalDate.of(2024, 9, 2));
+        classEntity.setEndDate(classEntity.getStartDate().plusDays(durationDays - 1));
+
+        ScheduleRepository scheduleRepository = Stubs.of(ScheduleRepository.class, Map.of(
+                "save", args -> args[0]));
+        ClassRepository classRepository = Stubs.of(ClassRepository.class, Map.of(
+                "findById", args -> Optional.of(classEntity)));
+        PlatformTransactionManager transactionManager = Stubs.of(PlatformTransactionManager.class, Map.of());
+
+        JobLeaseService jobLeaseService = new JobLeaseService(
+                Stubs.of(JobLeaseRepository.class, Map.of()), transactionManager);
+        CacheInvalidationBus cacheInvalidationBus = new CacheInvalidationBus(
+                Stubs.of(CacheInvalidationRepository.class, Map.of("save", args -> args[0])),
+                jobLeaseService, transactionManager);
+        CalendarFeedService calendarFeedService = new CalendarFeedService(
+                Stubs.of(CalendarFeedTokenRepository.class, Map.of()), scheduleRepository, cacheInvalidationBus);
+
+        scheduleService = new ScheduleService(scheduleRepository, classRepository, calendarFeedService, null);
+
+        dto = new BulkScheduleCreateDto();
+        dto.setClassId(1L);
+        dto.setDaysOfWeek(List.of(1, 3, 5));
+        dto.setStartTime(LocalTime.of(18, 0));
+        dto.setEndTime(LocalTime.of(20, 30));
+    }
+
+    @Benchmark
+    public List<Schedule> generateBatchSchedules() {
+        // Làm mới lịch của lớp đăng ký thông báo sau commit: mở/đóng đồng bộ hóa như một transaction thật
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return scheduleService.generateBatchSchedules(dto);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.nute.training.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Stub cho repository (interface) trong benchmark: không có database, không có Spring context.
+ * Phương thức có trong answers trả về kết quả của hàm tương ứng (nhận mảng tham số);
+ * phương thức khác trả về giá trị rỗng theo kiểu trả về (null, 0, false, Optional.empty, List rỗng).
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (self, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return objectMethod(self, method, args, type);
+                    }
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    return answer != null ? answer.apply(args) : emptyValue(method.getReturnType());
+                });
+        return type.cast(proxy);
+    }
+
+    private static Object objectMethod(Object self, Method method, Object[] args, Class<?> type) {
+        return switch (method.getName()) {
+            case "equals" -> self == args[0];
+            case "hashCode" -> System.identityHashCode(self);
+            default -> "Stub<" + type.getSimpleName() + ">";
+        };
+    }
+
+    private static Object emptyValue(Class<?> returnType) {
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (Collection.class.isAssignableFrom(returnType)) {
+            return List.of();
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
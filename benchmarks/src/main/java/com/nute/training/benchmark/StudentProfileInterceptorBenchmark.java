@@ -0,0 +1,84 @@
+package com.nute.training.benchmark;
+
+import com.nute.training.config.StudentProfileInterceptor;
+import com.nute.training.entity.User;
+import com.nute.training.repository.StudentInfoRepository;
+import com.nute.training.repository.UserRepository;
+import com.nute.training.service.StudentInfoService;
+import com.nute.training.util.AuthenticationHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: StudentProfileInterceptor.preHandle
+ * Học viên đã đăng nhập, hồ sơ đầy đủ: đo phần kiểm tra đường dẫn được bỏ qua (/profile, /css, ...)
+ * so với đường dẫn phải tra user và hồ sơ (repository là stub trả kết quả ngay).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentProfileInterceptorBenchmark {
+
+    @Param({"/profile/edit", "/css/style.css", "/assets/logo.png", "/student/dashboard"})
+    public String path;
+
+    private StudentProfileInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        User student = new User();
+        student.setId(5L);
+        student.setUsername("student1");
+        student.setRole(User.Role.STUDENT);
+
+        UserRepository userRepository = Stubs.of(UserRepository.class, Map.of(
+                "findByUsername", args -> Optional.of(student)));
+        StudentInfoRepository studentInfoRepository = Stubs.of(StudentInfoRepository.class, Map.of(
+                "existsById", args -> true));
+
+        interceptor = new StudentProfileInterceptor(
+                new StudentInfoService(studentInfoRepository, userRepository),
+                new AuthenticationHelper(userRepository));
+
+        // SecurityContextHolder theo luồng: @Setup chạy trên chính luồng benchmark (Scope.Thread)
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "student1", null, AuthorityUtils.createAuthorityList("ROLE_STUDENT")));
+
+        request = new MockHttpServletRequest("GET", path);
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+}
@@ -0,0 +1,46 @@
+-- =====================================================
+-- Dữ liệu cho BulkInsertBenchmark (H2, callback Flyway chạy sau migration)
+-- Mỗi đường ghi hàng loạt tạo đúng 200 dòng cho mỗi lần gọi:
+--   Lớp 1 (đang học): 200 học viên đã duyệt, có điểm đạt, chưa có chứng chỉ
+--     -> điểm danh buổi học 1, cấp chứng chỉ cho lớp
+--   Lớp 2 (chưa có lịch): 200 ngày từ ngày mai, không có phòng -> tạo lịch mọi ngày trong tuần
+-- SYSTEM_RANGE trả về cột "X" (viết hoa, phải đặt trong ngoặc kép khi DATABASE_TO_LOWER=TRUE)
+-- =====================================================
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at) VALUES
+    (1, 'bench_admin', 'bench_admin@benchmark.local', 'x', 'Quản trị', 'ADMIN', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (2, 'bench_teacher', 'bench_teacher@benchmark.local', 'x', 'Giảng viên', 'TEACHER', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT 1000 + "X", 'bench_student' || "X", 'bench_student' || "X" || '@benchmark.local', 'x',
+       'Học viên ' || "X", 'STUDENT', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 200);
+
+INSERT INTO student_info (user_id, student_code, date_of_birth, place_of_birth, address, major, specialized_class)
+SELECT 1000 + "X", 'BENCH' || "X", DATE '2000-01-01', 'Nam Định', 'Nam Định', 'Công nghệ thông tin', 'K20'
+FROM SYSTEM_RANGE(1, 200);
+
+INSERT INTO course_types (id, name, code) VALUES (1, 'Tin học', 'BENCH');
+
+INSERT INTO courses (id, course_type_id, code, name, duration_sessions, tuition_fee, max_students, status, created_at, updated_at)
+VALUES (1, 1, 'BENCH-C1', 'Khóa học benchmark', 200, 2000000, 1000, 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO classes (id, course_id, teacher_id, class_code, class_name, start_date, end_date, max_students, current_students, room, status, created_at, updated_at) VALUES
+    (1, 1, 2, 'BENCH-L1', 'Lớp đang học', CURRENT_DATE - 30, CURRENT_DATE + 30, 1000, 200, 'BENCH-R1', 'ONGOING', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+    (2, 1, 2, 'BENCH-L2', 'Lớp chưa có lịch', CURRENT_DATE + 1, CURRENT_DATE + 200, 1000, 0, NULL, 'PENDING', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO schedules (id, class_id, session_number, session_date, start_time, end_time, room, topic, status, created_at, updated_at)
+VALUES (1, 1, 1, CURRENT_DATE, TIME '07:00:00', TIME '11:00:00', 'BENCH-R1', 'Buổi 1', 'SCHEDULED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+
+INSERT INTO enrollments (id, student_id, class_id, enrollment_date, status, payment_status, payment_amount, approved_at, deleted, created_at, updated_at)
+SELECT "X", 1000 + "X", 1, CURRENT_DATE - 40, 'APPROVED', 'PAID', 2000000, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 200);
+
+INSERT INTO grades (id, enrollment_id, attendance_score, process_score, final_score, total_score, grade_letter, pass, graded_by, graded_at, deleted, created_at, updated_at)
+SELECT "X", "X", 9.0, 7.5, 7.0, 7.35, 'B', true, 2, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 200);
+
+-- Bảng dùng bộ sinh ID pooled (V3): khối ID kế tiếp bắt đầu sau dữ liệu mẫu
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM schedules)) WHERE entity_name = 'schedules';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM enrollments)) WHERE entity_name = 'enrollments';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM grades)) WHERE entity_name = 'grades';
@@ -0,0 +1,171 @@
+package com.nute.training.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Component: BulkInserter
+ * Nạp một bảng bằng câu INSERT nhiều dòng (VALUES (...), (...), ...) trên nhiều luồng song song.
+ * - Dải chỉ số dòng [0, rowCount) được chia thành các phần; mỗi phần là một transaction trên một kết nối
+ * - Giá trị của dòng do RowSource tính từ chỉ số dòng (không có trạng thái chung giữa các luồng)
+ * - MySQL: tắt kiểm tra khóa ngoại/unique trong session nạp nếu datagen.relax-checks=true
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkInserter {
+
+    /**
+     * Tính giá trị các cột cho dòng thứ index
+     * @return false nếu bỏ qua dòng này
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        boolean fill(long index, Object[] values);
+    }
+
+    private final DataSource dataSource;
+
+    @Value("${datagen.threads:0}")
+    private int threads = 0;
+
+    @Value("${datagen.rows-per-statement:500}")
+    private int rowsPerStatement = 500;
+
+    @Value("${datagen.statements-per-transaction:20}")
+    private int statementsPerTransaction = 20;
+
+    @Value("${datagen.relax-checks:true}")
+    private boolean relaxChecks = true;
+
+    /**
+     * Nạp bảng
+     * @return số dòng đã ghi
+     */
+    public long insert(String table, List<String> columns, long rowCount, RowSource source) {
+        long started = System.nanoTime();
+        long rowsPerChunk = (long) rowsPerStatement * statementsPerTransaction;
+        long chunks = (rowCount + rowsPerChunk - 1) / rowsPerChunk;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong completedChunks = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(poolSize)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * rowsPerChunk;
+                long to = Math.min(rowCount, from + rowsPerChunk);
+                futures.add(executor.submit(() -> {
+                    inserted.addAndGet(insertRange(table, columns, from, to, source));
+                    long done = completedChunks.incrementAndGet();
+                    if (done % Math.max(1, chunks / 10) == 0) {
+                        log.info("  {}: {}% ({} rows)", table, done * 100 / chunks, inserted.get());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Nạp bảng " + table + " thất bại", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Nạp bảng " + table + " bị ngắt", e);
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Loaded {} rows into {} in {}s ({} rows/s)", inserted.get(), table,
+                String.format("%.1f", seconds), Math.round(inserted.get() / Math.max(seconds, 0.001)));
+        return inserted.get();
+    }
+
+    private long insertRange(String table, List<String> columns, long from, long to, RowSource source)
+            throws SQLException {
+        int width = columns.size();
+        List<Object[]> rows = new ArrayList<>(rowsPerStatement);
+        long inserted = 0;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            boolean relaxed = relaxChecks && isMySql(connection);
+            if (relaxed) {
+                execute(connection, "SET foreign_key_checks = 0, unique_checks = 0");
+            }
+
+            try (PreparedStatement full = connection.prepareStatement(insertSql(table, columns, rowsPerStatement))) {
+                for (long index = from; index < to; index++) {
+                    Object[] values = new Object[width];
+                    if (source.fill(index, values)) {
+                        rows.add(values);
+                    }
+                    if (rows.size() == rowsPerStatement) {
+                        inserted += flush(full, rows, width);
+                    }
+                }
+            }
+            if (!rows.isEmpty()) {
+                try (PreparedStatement partial = connection.prepareStatement(insertSql(table, columns, rows.size()))) {
+                    inserted += flush(partial, rows, width);
+                }
+            }
+            connection.commit();
+
+            if (relaxed) {
+                execute(connection, "SET foreign_key_checks = 1, unique_checks = 1");
+            }
+        }
+        return inserted;
+    }
+
+    private int flush(PreparedStatement statement, List<Object[]> rows, int width) throws SQLException {
+        int parameter = 1;
+        for (Object[] row : rows) {
+            for (int column = 0; column < width; column++) {
+                statement.setObject(parameter++, row[column]);
+            }
+        }
+        int count = statement.executeUpdate();
+        rows.clear();
+        return count;
+    }
+
+    private static String insertSql(String table, List<String> columns, int rowCount) {
+        String placeholders = "(" + String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+        StringBuilder sql = new StringBuilder(64 + rowCount * (placeholders.length() + 2))
+                .append("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(placeholders);
+        }
+        return sql.toString();
+    }
+
+    static boolean isMySql(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
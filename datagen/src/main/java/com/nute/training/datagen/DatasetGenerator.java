@@ -0,0 +1,509 @@
+package com.nute.training.datagen;
+
+import com.nute.training.entity.Attendance;
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Course;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.Grade;
+import com.nute.training.entity.IdGenerators;
+import com.nute.training.entity.Schedule;
+import com.nute.training.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Component: DatasetGenerator
+ * Sinh và nạp dữ liệu theo thứ tự bảng cha -> bảng con:
+ * users (giảng viên, học viên) -> student_info -> courses -> classes -> schedules -> enrollments
+ * -> attendances -> grades.
+ * Business Rule:
+ * - ID được cấp trước theo dải nối tiếp MAX(id) hiện có: chạy nhiều lần không trùng dữ liệu cũ,
+ *   và mọi giá trị (kể cả khóa ngoại) tính được từ chỉ số dòng nên các luồng nạp độc lập
+ * - Mỗi lớp học 3 buổi/tuần (thứ 2, 4, 6) từ ngày khai giảng; buổi đã qua là COMPLETED
+ * - Điểm danh cho đăng ký APPROVED ở các buổi đã qua; điểm cho đăng ký APPROVED của lớp đã kết thúc,
+ *   điểm chuyên cần tính từ số buổi có mặt
+ * - classes.current_students bằng số đăng ký APPROVED của lớp
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final String EMAIL_DOMAIN = "@gen.nute.edu.vn";
+    private static final int[] SESSION_DAY_OFFSETS = {0, 2, 4};
+    private static final LocalTime[][] SLOTS = {
+            {LocalTime.of(7, 30), LocalTime.of(10, 0)},
+            {LocalTime.of(13, 30), LocalTime.of(16, 0)},
+            {LocalTime.of(18, 0), LocalTime.of(20, 30)}
+    };
+
+    private static final String[] FAMILY_NAMES = {"Nguyễn", "Trần", "Lê", "Phạm", "Hoàng", "Huỳnh", "Phan",
+            "Vũ", "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương"};
+    private static final String[] MIDDLE_NAMES = {"Văn", "Thị", "Minh", "Thu", "Đức", "Ngọc", "Quang",
+            "Thanh", "Hữu", "Hoài"};
+    private static final String[] GIVEN_NAMES = {"An", "Bình", "Chi", "Dũng", "Giang", "Hà", "Hải", "Hạnh",
+            "Hùng", "Hương", "Khánh", "Lan", "Linh", "Long", "Mai", "Nam", "Phong", "Quân", "Sơn", "Tâm",
+            "Thảo", "Trang", "Tuấn", "Việt", "Yến"};
+    private static final String[] PROVINCES = {"Hà Nội", "Hưng Yên", "Hải Dương", "Thái Bình", "Nam Định",
+            "Bắc Ninh", "Hải Phòng", "Thanh Hóa"};
+    private static final String[] MAJORS = {"Công nghệ thông tin", "Kỹ thuật điện", "Cơ khí", "Kế toán",
+            "Quản trị kinh doanh", "Điện tử viễn thông"};
+    private static final String[] COURSE_TOPICS = {"Lập trình Java", "Lập trình Python", "Thiết kế web",
+            "Tin học văn phòng", "Tiếng Anh giao tiếp", "Kế toán máy", "AutoCAD", "Phân tích dữ liệu",
+            "Mạng máy tính", "Quản trị cơ sở dữ liệu"};
+
+    // Luồng ngẫu nhiên độc lập cho từng thuộc tính
+    private static final long STREAM_PERSON = 1;
+    private static final long STREAM_COURSE = 2;
+    private static final long STREAM_CLASS = 3;
+    private static final long STREAM_ENROLLMENT = 4;
+    private static final long STREAM_PAYMENT = 5;
+    private static final long STREAM_ATTENDANCE = 6;
+    private static final long STREAM_SCORE = 7;
+
+    private final BulkInserter bulkInserter;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${datagen.scale:1.0}")
+    private double scale = 1.0;
+
+    @Value("${datagen.teachers:2000}")
+    private long teachers = 2000;
+
+    @Value("${datagen.students:500000}")
+    private long students = 500000;
+
+    @Value("${datagen.courses:500}")
+    private long courses = 500;
+
+    @Value("${datagen.classes:20000}")
+    private long classes = 20000;
+
+    @Value("${datagen.enrollments-per-class:100}")
+    private int enrollmentsPerClass = 100;
+
+    @Value("${datagen.sessions-per-class:15}")
+    private int sessionsPerClass = 15;
+
+    @Value("${datagen.password:secret}")
+    private String password = "secret";
+
+    @Value("${datagen.seed:42}")
+    private long seed = 42;
+
+    private LocalDate today;
+    private LocalDateTime now;
+    private String passwordHash;
+
+    // ID lớn nhất của từng bảng trước khi nạp
+    private long userBase;
+    private long courseBase;
+    private long classBase;
+    private long scheduleBase;
+    private long enrollmentBase;
+    private long attendanceBase;
+    private long gradeBase;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        teachers = scaled(teachers);
+        students = scaled(students);
+        courses = scaled(courses);
+        classes = scaled(classes);
+        if (students < enrollmentsPerClass) {
+            throw new IllegalArgumentException("Số học viên phải >= số đăng ký mỗi lớp (" + enrollmentsPerClass + ")");
+        }
+
+        today = LocalDate.now();
+        now = LocalDateTime.now().withNano(0);
+        passwordHash = new BCryptPasswordEncoder().encode(password);
+
+        long enrollments = classes * enrollmentsPerClass;
+        log.info("Generating {} teachers, {} students, {} courses, {} classes, {} schedules, {} enrollments, "
+                        + "up to {} attendances", teachers, students, courses, classes, classes * sessionsPerClass,
+                enrollments, enrollments * sessionsPerClass);
+        long started = System.nanoTime();
+
+        userBase = maxId("users");
+        bulkInserter.insert("users", List.of("id", "username", "email", "password", "full_name", "phone",
+                "role", "status", "created_at", "updated_at", "deleted"), teachers + students, this::fillUser);
+
+        // Hồ sơ học viên dùng chung khóa chính với users: không có ID riêng
+        bulkInserter.insert("student_info", List.of("user_id", "student_code", "date_of_birth",
+                "place_of_birth", "address", "major", "specialized_class"), students, this::fillStudentInfo);
+
+        courseBase = maxId("courses");
+        bulkInserter.insert("courses", List.of("id", "code", "name", "description", "duration_hours",
+                "duration_sessions", "tuition_fee", "max_students", "status", "created_at", "updated_at"),
+                courses, this::fillCourse);
+
+        classBase = maxId("classes");
+        bulkInserter.insert("classes", List.of("id", "course_id", "teacher_id", "class_code", "class_name",
+                "start_date", "end_date", "max_students", "current_students", "room", "status",
+                "created_at", "updated_at"), classes, this::fillClass);
+
+        scheduleBase = maxId("schedules");
+        bulkInserter.insert("schedules", List.of("id", "class_id", "session_number", "session_date",
+                "start_time", "end_time", "room", "topic", "status", "created_at", "updated_at"),
+                classes * sessionsPerClass, this::fillSchedule);
+
+        enrollmentBase = maxId("enrollments");
+        bulkInserter.insert("enrollments", List.of("id", "student_id", "class_id", "enrollment_date", "status",
+                "payment_status", "payment_amount", "waitlist_position", "approved_at", "created_at",
+                "updated_at", "deleted"), enrollments, this::fillEnrollment);
+
+        attendanceBase = maxId("attendances");
+        bulkInserter.insert("attendances", List.of("id", "schedule_id", "student_id", "status", "marked_by",
+                "marked_at", "created_at", "updated_at"), enrollments * sessionsPerClass, this::fillAttendance);
+
+        gradeBase = maxId("grades");
+        bulkInserter.insert("grades", List.of("id", "enrollment_id", "attendance_score", "process_score",
+                "final_score", "total_score", "grade_letter", "pass", "graded_by", "graded_at", "created_at",
+                "updated_at", "deleted"), enrollments, this::fillGrade);
+
+        finish(List.of("users", "courses", "classes", "schedules", "enrollments",
+                "attendances", "grades"));
+        log.info("Dataset generated in {}s", Math.round((System.nanoTime() - started) / 1e9));
+    }
+
+    // ===== Dòng dữ liệu =====
+
+    private boolean fillUser(long index, Object[] row) {
+        long id = userBase + index + 1;
+        boolean teacher = index < teachers;
+        String username = (teacher ? "gv" : "sv") + id;
+        row[0] = id;
+        row[1] = username;
+        row[2] = username + EMAIL_DOMAIN;
+        row[3] = passwordHash;
+        row[4] = fullName(id, teacher);
+        row[5] = String.format("09%08d", hash(STREAM_PERSON, id) % 100_000_000L);
+        row[6] = (teacher ? User.Role.TEACHER : User.Role.STUDENT).name();
+        row[7] = User.Status.ACTIVE.name();
+        row[8] = now.minusDays(400 + hash(STREAM_PERSON + 100, id) % 400);
+        row[9] = row[8];
+        row[10] = false;
+        return true;
+    }
+
+    private boolean fillStudentInfo(long index, Object[] row) {
+        long userId = studentUserId(index);
+        row[0] = userId;
+        row[1] = "SV" + userId;
+        row[2] = today.minusYears(18).minusDays(hash(STREAM_PERSON + 200, userId) % (365 * 12));
+        row[3] = pick(PROVINCES, STREAM_PERSON + 300, userId);
+        row[4] = "Số " + (1 + hash(STREAM_PERSON + 400, userId) % 200) + ", " + pick(PROVINCES, STREAM_PERSON + 500, userId);
+        row[5] = pick(MAJORS, STREAM_PERSON + 600, userId);
+        row[6] = "K" + (15 + hash(STREAM_PERSON + 700, userId) % 8);
+        return true;
+    }
+
+    private boolean fillCourse(long index, Object[] row) {
+        long id = courseBase + index + 1;
+        row[0] = id;
+        row[1] = "GK" + id;
+        row[2] = pick(COURSE_TOPICS, STREAM_COURSE, index) + " - cấp độ " + (1 + index % 3);
+        row[3] = "Khóa học sinh tự động cho kiểm thử tải";
+        row[4] = sessionsPerClass * 3;
+        row[5] = sessionsPerClass;
+        row[6] = tuitionFee(index);
+        row[7] = enrollmentsPerClass + 20;
+        row[8] = Course.CourseStatus.ACTIVE.name();
+        row[9] = now.minusDays(800);
+        row[10] = row[9];
+        return true;
+    }
+
+    private boolean fillClass(long classIndex, Object[] row) {
+        long id = classBase + classIndex + 1;
+        LocalDate startDate = classStartDate(classIndex);
+        LocalDate endDate = sessionDate(classIndex, sessionsPerClass - 1);
+        row[0] = id;
+        row[1] = courseBase + courseIndex(classIndex) + 1;
+        row[2] = userBase + classIndex % teachers + 1;
+        row[3] = "GC" + id;
+        row[4] = pick(COURSE_TOPICS, STREAM_COURSE, courseIndex(classIndex)) + " - lớp " + id;
+        row[5] = startDate;
+        row[6] = endDate;
+        row[7] = enrollmentsPerClass + 20;
+        row[8] = approvedCount(classIndex);
+        row[9] = room(id);
+        row[10] = (endDate.isBefore(today) ? ClassEntity.ClassStatus.COMPLETED
+                : startDate.isAfter(today) ? ClassEntity.ClassStatus.PENDING
+                : ClassEntity.ClassStatus.ONGOING).name();
+        row[11] = startDate.minusDays(30).atTime(9, 0);
+        row[12] = row[11];
+        return true;
+    }
+
+    private boolean fillSchedule(long index, Object[] row) {
+        long classIndex = index / sessionsPerClass;
+        int session = (int) (index % sessionsPerClass);
+        LocalDate date = sessionDate(classIndex, session);
+        LocalTime[] slot = SLOTS[(int) (classIndex % SLOTS.length)];
+        row[0] = scheduleBase + index + 1;
+        row[1] = classBase + classIndex + 1;
+        row[2] = session + 1;
+        row[3] = date;
+        row[4] = slot[0];
+        row[5] = slot[1];
+        row[6] = room(classBase + classIndex + 1);
+        row[7] = "Buổi " + (session + 1);
+        row[8] = (date.isBefore(today) ? Schedule.ScheduleStatus.COMPLETED : Schedule.ScheduleStatus.SCHEDULED).name();
+        row[9] = classStartDate(classIndex).minusDays(14).atTime(9, 0);
+        row[10] = row[9];
+        return true;
+    }
+
+    private boolean fillEnrollment(long index, Object[] row) {
+        long classIndex = index / enrollmentsPerClass;
+        Enrollment.EnrollmentStatus status = enrollmentStatus(index);
+        LocalDate enrollmentDate = classStartDate(classIndex).minusDays(1 + hash(STREAM_ENROLLMENT + 100, index) % 30);
+        BigDecimal tuitionFee = tuitionFee(courseIndex(classIndex));
+
+        Enrollment.PaymentStatus paymentStatus = Enrollment.PaymentStatus.UNPAID;
+        BigDecimal paymentAmount = BigDecimal.ZERO;
+        if (status == Enrollment.EnrollmentStatus.APPROVED) {
+            long roll = hash(STREAM_PAYMENT, index) % 100;
+            if (roll < 75) {
+                paymentStatus = Enrollment.PaymentStatus.PAID;
+                paymentAmount = tuitionFee;
+            } else if (roll < 90) {
+                paymentStatus = Enrollment.PaymentStatus.PARTIAL;
+                paymentAmount = tuitionFee.divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+            }
+        }
+
+        row[0] = enrollmentBase + index + 1;
+        row[1] = enrolledStudentUserId(index);
+        row[2] = classBase + classIndex + 1;
+        row[3] = enrollmentDate;
+        row[4] = status.name();
+        row[5] = paymentStatus.name();
+        row[6] = paymentAmount;
+        row[7] = status == Enrollment.EnrollmentStatus.WAITLISTED ? index % enrollmentsPerClass + 1 : null;
+        row[8] = status == Enrollment.EnrollmentStatus.APPROVED ? enrollmentDate.plusDays(1).atTime(9, 0) : null;
+        row[9] = enrollmentDate.atTime(8, 0);
+        row[10] = row[8] != null ? row[8] : row[9];
+        row[11] = false;
+        return true;
+    }
+
+    private boolean fillAttendance(long index, Object[] row) {
+        long enrollmentIndex = index / sessionsPerClass;
+        int session = (int) (index % sessionsPerClass);
+        long classIndex = enrollmentIndex / enrollmentsPerClass;
+        LocalDate date = sessionDate(classIndex, session);
+        if (enrollmentStatus(enrollmentIndex) != Enrollment.EnrollmentStatus.APPROVED || !date.isBefore(today)) {
+            return false;
+        }
+
+        LocalDateTime markedAt = date.atTime(SLOTS[(int) (classIndex % SLOTS.length)][0]).plusMinutes(15);
+        row[0] = attendanceBase + index + 1;
+        row[1] = scheduleBase + classIndex * sessionsPerClass + session + 1;
+        row[2] = enrolledStudentUserId(enrollmentIndex);
+        row[3] = attendanceStatus(index).name();
+        row[4] = userBase + classIndex % teachers + 1;
+        row[5] = markedAt;
+        row[6] = markedAt;
+        row[7] = markedAt;
+        return true;
+    }
+
+    private boolean fillGrade(long enrollmentIndex, Object[] row) {
+        long classIndex = enrollmentIndex / enrollmentsPerClass;
+        LocalDate endDate = sessionDate(classIndex, sessionsPerClass - 1);
+        if (enrollmentStatus(enrollmentIndex) != Enrollment.EnrollmentStatus.APPROVED || !endDate.isBefore(today)) {
+            return false;
+        }
+
+        int present = 0;
+        for (int session = 0; session < sessionsPerClass; session++) {
+            Attendance.AttendanceStatus status = attendanceStatus(enrollmentIndex * sessionsPerClass + session);
+            if (status == Attendance.AttendanceStatus.PRESENT || status == Attendance.AttendanceStatus.LATE) {
+                present++;
+            }
+        }
+
+        // Dùng đúng công thức của ứng dụng cho điểm tổng kết, xếp loại, đạt/không đạt
+        Grade grade = new Grade();
+        grade.setAttendanceScore(BigDecimal.valueOf(present * 10L).divide(BigDecimal.valueOf(sessionsPerClass), 1, RoundingMode.HALF_UP));
+        grade.setProcessScore(score(STREAM_SCORE, enrollmentIndex));
+        grade.setFinalScore(score(STREAM_SCORE + 100, enrollmentIndex));
+        grade.calculateAll();
+
+        LocalDateTime gradedAt = endDate.plusDays(3).atTime(10, 0);
+        row[0] = gradeBase + enrollmentIndex + 1;
+        row[1] = enrollmentBase + enrollmentIndex + 1;
+        row[2] = grade.getAttendanceScore();
+        row[3] = grade.getProcessScore();
+        row[4] = grade.getFinalScore();
+        row[5] = grade.getTotalScore();
+        row[6] = grade.getGradeLetter();
+        row[7] = grade.getPass();
+        row[8] = userBase + classIndex % teachers + 1;
+        row[9] = gradedAt;
+        row[10] = gradedAt;
+        row[11] = gradedAt;
+        row[12] = false;
+        return true;
+    }
+
+    // ===== Thuộc tính suy ra từ chỉ số (dùng chung giữa các bảng) =====
+
+    private long studentUserId(long studentIndex) {
+        return userBase + teachers + studentIndex + 1;
+    }
+
+    /**
+     * Học viên của đăng ký: các đăng ký của một lớp lấy các học viên liên tiếp (không trùng trong lớp)
+     */
+    private long enrolledStudentUserId(long enrollmentIndex) {
+        long classIndex = enrollmentIndex / enrollmentsPerClass;
+        long offset = enrollmentIndex % enrollmentsPerClass;
+        long start = hash(STREAM_CLASS + 100, classIndex) % students;
+        return studentUserId((start + offset) % students);
+    }
+
+    private long courseIndex(long classIndex) {
+        return hash(STREAM_CLASS, classIndex) % courses;
+    }
+
+    /**
+     * Ngày khai giảng: một thứ 2 trong khoảng 2 năm trước đến 3 tháng tới (phần lớn lớp đã kết thúc)
+     */
+    private LocalDate classStartDate(long classIndex) {
+        LocalDate thisMonday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return thisMonday.minusWeeks(104).plusWeeks(hash(STREAM_CLASS + 200, classIndex) % 117);
+    }
+
+    private LocalDate sessionDate(long classIndex, int session) {
+        return classStartDate(classIndex)
+                .plusWeeks(session / SESSION_DAY_OFFSETS.length)
+                .plusDays(SESSION_DAY_OFFSETS[session % SESSION_DAY_OFFSETS.length]);
+    }
+
+    private Enrollment.EnrollmentStatus enrollmentStatus(long enrollmentIndex) {
+        long roll = hash(STREAM_ENROLLMENT, enrollmentIndex) % 100;
+        if (roll < 88) {
+            return Enrollment.EnrollmentStatus.APPROVED;
+        } else if (roll < 93) {
+            return Enrollment.EnrollmentStatus.PENDING;
+        } else if (roll < 95) {
+            return Enrollment.EnrollmentStatus.WAITLISTED;
+        } else if (roll < 98) {
+            return Enrollment.EnrollmentStatus.REJECTED;
+        }
+        return Enrollment.EnrollmentStatus.DROPPED;
+    }
+
+    private int approvedCount(long classIndex) {
+        int approved = 0;
+        long first = classIndex * enrollmentsPerClass;
+        for (long index = first; index < first + enrollmentsPerClass; index++) {
+            if (enrollmentStatus(index) == Enrollment.EnrollmentStatus.APPROVED) {
+                approved++;
+            }
+        }
+        return approved;
+    }
+
+    private Attendance.AttendanceStatus attendanceStatus(long attendanceIndex) {
+        long roll = hash(STREAM_ATTENDANCE, attendanceIndex) % 100;
+        if (roll < 85) {
+            return Attendance.AttendanceStatus.PRESENT;
+        } else if (roll < 92) {
+            return Attendance.AttendanceStatus.LATE;
+        } else if (roll < 97) {
+            return Attendance.AttendanceStatus.ABSENT;
+        }
+        return Attendance.AttendanceStatus.EXCUSED;
+    }
+
+    private BigDecimal tuitionFee(long courseIndex) {
+        return BigDecimal.valueOf(1_500_000L + hash(STREAM_COURSE + 100, courseIndex) % 8 * 500_000L)
+                .setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Điểm thang 10, 1 chữ số thập phân, tập trung quanh 6-7
+     */
+    private BigDecimal score(long stream, long index) {
+        long h = hash(stream, index);
+        long tenths = 30 + (h % 41) + ((h >>> 20) % 31);
+        return BigDecimal.valueOf(Math.min(tenths, 100), 1);
+    }
+
+    /**
+     * Phòng riêng cho từng lớp: lịch sinh ra không trùng phòng
+     */
+    private static String room(long classId) {
+        return "P" + classId;
+    }
+
+    private String fullName(long id, boolean teacher) {
+        String middle = teacher ? "Văn" : pick(MIDDLE_NAMES, STREAM_PERSON + 800, id);
+        return pick(FAMILY_NAMES, STREAM_PERSON + 900, id) + " " + middle + " "
+                + pick(GIVEN_NAMES, STREAM_PERSON + 1000, id);
+    }
+
+    private String pick(String[] values, long stream, long index) {
+        return values[(int) (hash(stream, index) % values.length)];
+    }
+
+    /**
+     * Số ngẫu nhiên không âm, tất định theo (seed, luồng, chỉ số) - SplitMix64
+     */
+    private long hash(long stream, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) >>> 1;
+    }
+
+    private long scaled(long count) {
+        return Math.max(1, Math.round(count * scale));
+    }
+
+    // ===== Database =====
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Sau khi nạp: H2 không tự tăng bộ đếm IDENTITY khi chèn ID tường minh -> đặt lại;
+     * MySQL: cập nhật thống kê để optimizer thấy đúng kích thước bảng.
+     * Bảng dùng bộ sinh ID dạng bảng (id_generators): khối ID kế tiếp phải bắt đầu sau dữ liệu vừa nạp
+     */
+    private void finish(List<String> tables) {
+        boolean mysql = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) BulkInserter::isMySql));
+        for (String table : tables) {
+            if (mysql) {
+                jdbcTemplate.execute("ANALYZE TABLE " + table);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (maxId(table) + 1));
+            }
+            jdbcTemplate.update("UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN
+                    + " = GREATEST(" + IdGenerators.VALUE_COLUMN + ", ?) WHERE " + IdGenerators.PK_COLUMN + " = ?",
+                    maxId(table) + IdGenerators.ALLOCATION_SIZE, table);
+        }
+    }
+}
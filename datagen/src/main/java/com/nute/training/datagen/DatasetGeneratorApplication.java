@@ -0,0 +1,23 @@
+package com.nute.training.datagen;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+
+/**
+ * Dataset Generator Application
+ * Sinh dữ liệu giả lập nhất quán (khóa ngoại, unique, sĩ số...) với khối lượng cấu hình được
+ * và nạp song song vào database của ứng dụng (MySQL) hoặc database nhúng (H2).
+ * Bảng được tạo/cập nhật theo entity của ứng dụng; chỉ quét package datagen, không khởi động ứng dụng.
+ */
+@SpringBootApplication
+@EntityScan("com.nute.training.entity")
+public class DatasetGeneratorApplication {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(DatasetGeneratorApplication.class);
+        // Không đọc application.properties của ứng dụng (nằm trong cùng classpath)
+        application.setDefaultProperties(java.util.Map.of("spring.config.name", "datagen"));
+        System.exit(SpringApplication.exit(application.run(args)));
+    }
+}
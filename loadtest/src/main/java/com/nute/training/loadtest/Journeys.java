@@ -0,0 +1,120 @@
+package com.nute.training.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hành trình người dùng trên controller thật, theo dữ liệu mẫu db/loadtest/afterMigrate.sql.
+ * Mỗi người dùng ảo dùng tài khoản và dữ liệu riêng để các hành trình không tranh chấp nhau
+ * (tranh chấp thật như hai admin duyệt cùng đăng ký sẽ bị tính là lỗi, không phải độ trễ của hệ thống).
+ */
+final class Journeys {
+
+    static final String PASSWORD = "secret";
+
+    // Giới hạn theo dữ liệu mẫu
+    static final int MAX_STUDENT_USERS = 1500;
+    static final int MAX_TEACHER_USERS = 50;
+    static final int MAX_ADMIN_USERS = 10;
+    private static final int OPEN_CLASS_FIRST_ID = 201;
+    private static final int OPEN_CLASSES = 100;
+    private static final int COMPLETED_CLASS_FIRST_ID = 101;
+    private static final int COMPLETED_CLASSES = 50;
+
+    private static final Pattern APPROVE_ACTION = Pattern.compile("/admin/enrollments/(\\d+)/approve");
+
+    @FunctionalInterface
+    interface Journey {
+        void run(VirtualUser user, long iteration) throws InterruptedException;
+    }
+
+    private Journeys() {
+    }
+
+    /**
+     * Học viên: đăng nhập -> dashboard -> tìm lớp -> đăng ký lớp -> đăng xuất
+     * Người dùng ảo thứ i dùng khối học viên riêng; mỗi lượt một học viên, đăng ký một lớp chưa đăng ký.
+     */
+    static Journey student(int index, int users) {
+        int blockSize = MAX_STUDENT_USERS / users;
+        return (user, iteration) -> {
+            int student = index * blockSize + (int) (iteration % blockSize) + 1;
+            long classId = OPEN_CLASS_FIRST_ID + (iteration / blockSize) % OPEN_CLASSES;
+
+            if (!user.login("student.login", "lt_student" + student, PASSWORD).ok()) {
+                return;
+            }
+            user.get("student.dashboard", "/student/dashboard");
+            if (user.get("student.browse", "/student/enrollments/browse").ok()) {
+                user.postIdempotent("student.enroll", "/student/enrollments/register",
+                        Map.of("classId", String.valueOf(classId)));
+            }
+            user.logout("student.logout");
+        };
+    }
+
+    /**
+     * Giảng viên: đăng nhập -> dashboard -> điểm danh buổi hôm nay -> bảng điểm lớp -> đăng xuất
+     * Giảng viên t dạy lớp t (lịch học t là buổi hôm nay của lớp).
+     */
+    static Journey teacher(int index) {
+        int teacher = index + 1;
+        return (user, iteration) -> {
+            if (!user.login("teacher.login", "lt_teacher" + teacher, PASSWORD).ok()) {
+                return;
+            }
+            user.get("teacher.dashboard", "/teacher/dashboard");
+            if (user.get("teacher.rollcall", "/teacher/attendance/schedule/" + teacher).ok()) {
+                user.post("teacher.mark-all", "/teacher/attendance/schedule/" + teacher + "/mark-all",
+                        Map.of("defaultStatus", iteration % 5 == 0 ? "LATE" : "PRESENT"));
+            }
+            user.get("teacher.grade-sheet", "/teacher/grades/class/" + teacher);
+            user.logout("teacher.logout");
+        };
+    }
+
+    /**
+     * Admin: đăng nhập -> danh sách chờ duyệt -> duyệt một đăng ký -> danh sách đủ điều kiện -> cấp chứng chỉ
+     * -> đăng xuất. Admin a chỉ duyệt đăng ký có ID % số admin = a và cấp chứng chỉ cho lớp của mình.
+     */
+    static Journey admin(int index, int users) {
+        int admin = index + 1;
+        List<Integer> classes = new ArrayList<>();
+        for (int classIndex = index; classIndex < COMPLETED_CLASSES; classIndex += users) {
+            classes.add(COMPLETED_CLASS_FIRST_ID + classIndex);
+        }
+        return (user, iteration) -> {
+            if (!user.login("admin.login", "lt_admin" + admin, PASSWORD).ok()) {
+                return;
+            }
+            VirtualUser.Result pending = user.get("admin.pending", "/admin/enrollments/pending");
+            Long enrollmentId = pending.ok() ? findOwnPending(pending.body(), index, users) : null;
+            if (enrollmentId != null) {
+                user.postIdempotent("admin.approve", "/admin/enrollments/" + enrollmentId + "/approve", Map.of());
+            }
+
+            if (!classes.isEmpty()) {
+                int classId = classes.get((int) (iteration % classes.size()));
+                if (user.get("admin.eligible", "/admin/certificates/class/" + classId + "/eligible").ok()) {
+                    user.post("admin.issue-certificates", "/admin/certificates/issue-batch",
+                            Map.of("classId", String.valueOf(classId), "codePrefix", "LT" + admin));
+                }
+            }
+            user.logout("admin.logout");
+        };
+    }
+
+    private static Long findOwnPending(String body, int index, int users) {
+        Matcher matcher = APPROVE_ACTION.matcher(body);
+        while (matcher.find()) {
+            long id = Long.parseLong(matcher.group(1));
+            if (id % users == index) {
+                return id;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.nute.training.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Cấu hình load test: loadtest.properties trên classpath, ghi đè bằng tham số --khóa=giá_trị.
+ * Khóa loadtest.* dành cho harness; các khóa khác được truyền cho ứng dụng như tham số dòng lệnh
+ * (độ ưu tiên cao hơn application.properties của ứng dụng).
+ */
+final class LoadTestConfig {
+
+    private static final String PREFIX = "loadtest.";
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private LoadTestConfig() {
+    }
+
+    static LoadTestConfig load(String[] args) throws IOException {
+        LoadTestConfig config = new LoadTestConfig();
+        Properties defaults = new Properties();
+        try (InputStream in = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (in == null) {
+                throw new IllegalStateException("Không tìm thấy loadtest.properties trên classpath");
+            }
+            defaults.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        defaults.stringPropertyNames().forEach(key -> config.values.put(key, defaults.getProperty(key)));
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Tham số không hợp lệ (cần --khóa=giá_trị): " + arg);
+            }
+            config.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return config;
+    }
+
+    String getString(String key) {
+        String value = values.get(PREFIX + key);
+        if (value == null) {
+            throw new IllegalStateException("Thiếu cấu hình " + PREFIX + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(getString(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(getString(key));
+    }
+
+    boolean getBoolean(String key) {
+        return Boolean.parseBoolean(getString(key));
+    }
+
+    /**
+     * Cấu hình harness (ghi vào kết quả để biết điều kiện chạy)
+     */
+    Map<String, String> harnessSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            if (key.startsWith(PREFIX)) {
+                settings.put(key.substring(PREFIX.length()), value);
+            }
+        });
+        return settings;
+    }
+
+    /**
+     * Tham số dòng lệnh cho ứng dụng
+     */
+    String[] applicationArgs() {
+        List<String> args = new ArrayList<>();
+        values.forEach((key, value) -> {
+            if (!key.startsWith(PREFIX)) {
+                args.add("--" + key + "=" + value);
+            }
+        });
+        return args.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,151 @@
+package com.nute.training.loadtest;
+
+import com.nute.training.TrainingApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Load Test Harness
+ * Khởi động ứng dụng trong cùng JVM (H2 nhúng, dữ liệu db/loadtest/afterMigrate.sql, cổng ngẫu nhiên),
+ * chạy các hành trình học viên / giảng viên / admin song song trên virtual thread,
+ * rồi ghi kết quả theo bước (thông lượng, phân vị độ trễ, tỉ lệ lỗi) và so sánh với baseline.
+ * Mã thoát: 0 đạt, 1 hồi quy so với baseline, 2 lỗi chạy.
+ */
+@Slf4j
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(LoadTestConfig.load(args));
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestConfig config) throws Exception {
+        int studentUsers = checkUsers(config, "student-users", Journeys.MAX_STUDENT_USERS);
+        int teacherUsers = checkUsers(config, "teacher-users", Journeys.MAX_TEACHER_USERS);
+        int adminUsers = checkUsers(config, "admin-users", Journeys.MAX_ADMIN_USERS);
+
+        Map<String, Object> result;
+        try (ConfigurableApplicationContext application =
+                     SpringApplication.run(TrainingApplication.class, config.applicationArgs())) {
+            String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+            log.info("Application started at {}: {} students, {} teachers, {} admins",
+                    baseUrl, studentUsers, teacherUsers, adminUsers);
+            result = execute(config, baseUrl, studentUsers, teacherUsers, adminUsers);
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> steps = (Map<String, Map<String, Object>>) result.get("steps");
+        LoadTestReport.print(steps);
+        Path resultFile = Path.of(config.getString("result-file"));
+        LoadTestReport.write(resultFile, result);
+        log.info("Result written to {}", resultFile.toAbsolutePath());
+
+        Path baselineFile = Path.of(config.getString("baseline-file"));
+        if (config.getBoolean("baseline.update")) {
+            LoadTestReport.write(baselineFile, result);
+            log.info("Baseline updated: {}", baselineFile.toAbsolutePath());
+            return 0;
+        }
+        if (!Files.exists(baselineFile)) {
+            log.warn("No baseline at {}: run with --loadtest.baseline.update=true to record one",
+                    baselineFile.toAbsolutePath());
+            return 0;
+        }
+
+        List<String> regressions = LoadTestReport.compare(result, LoadTestReport.read(baselineFile),
+                config.getDouble("baseline.tolerance"), config.getDouble("baseline.latency-slack-ms"),
+                config.getDouble("baseline.error-rate-slack"));
+        if (regressions.isEmpty()) {
+            log.info("No regression against baseline {}", baselineFile);
+            return 0;
+        }
+        regressions.forEach(regression -> log.error("Regression: {}", regression));
+        return 1;
+    }
+
+    private static Map<String, Object> execute(LoadTestConfig config, String baseUrl,
+                                               int studentUsers, int teacherUsers, int adminUsers)
+            throws InterruptedException {
+        StepStatistics statistics = new StepStatistics();
+        Duration timeout = Duration.ofSeconds(config.getInt("request-timeout-seconds"));
+        long thinkTimeMs = config.getInt("think-time-ms");
+        long warmupMillis = config.getInt("warmup-seconds") * 1000L;
+        long durationMillis = config.getInt("duration-seconds") * 1000L;
+        long deadline = System.currentTimeMillis() + warmupMillis + durationMillis;
+
+        List<Journeys.Journey> journeys = new ArrayList<>();
+        for (int i = 0; i < studentUsers; i++) {
+            journeys.add(Journeys.student(i, studentUsers));
+        }
+        for (int i = 0; i < teacherUsers; i++) {
+            journeys.add(Journeys.teacher(i));
+        }
+        for (int i = 0; i < adminUsers; i++) {
+            journeys.add(Journeys.admin(i, adminUsers));
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        double measuredSeconds;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Journeys.Journey journey : journeys) {
+                VirtualUser user = new VirtualUser(baseUrl, statistics, timeout, thinkTimeMs, executor);
+                executor.submit(() -> {
+                    for (long iteration = 0; System.currentTimeMillis() < deadline; iteration++) {
+                        journey.run(user, iteration);
+                    }
+                    return null;
+                });
+            }
+
+            Thread.sleep(warmupMillis);
+            log.info("Warm-up done, measuring for {}s", durationMillis / 1000);
+            statistics.startMeasuring();
+            long measureStarted = System.nanoTime();
+            Thread.sleep(Math.max(0, deadline - System.currentTimeMillis()));
+            statistics.stopMeasuring();
+            measuredSeconds = (System.nanoTime() - measureStarted) / 1e9;
+            // Đóng executor: chờ các hành trình đang dở kết thúc (không còn được ghi nhận)
+        }
+
+        Map<String, Object> environment = new LinkedHashMap<>();
+        environment.put("javaVersion", System.getProperty("java.version"));
+        environment.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", startedAt.toString());
+        result.put("measuredSeconds", Math.round(measuredSeconds * 10) / 10.0);
+        result.put("environment", environment);
+        result.put("settings", config.harnessSettings());
+        result.put("steps", statistics.summarize(measuredSeconds));
+        return result;
+    }
+
+    private static int checkUsers(LoadTestConfig config, String key, int max) {
+        int users = config.getInt(key);
+        if (users < 0 || users > max) {
+            throw new IllegalArgumentException("loadtest." + key + " phải trong khoảng 0.." + max + " (theo dữ liệu mẫu)");
+        }
+        return users;
+    }
+}
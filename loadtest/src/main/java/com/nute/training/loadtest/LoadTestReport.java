@@ -0,0 +1,108 @@
+package com.nute.training.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Báo cáo load test: bảng tóm tắt trên console, file JSON, so sánh với baseline.
+ * Business Rule (hồi quy so với baseline, theo từng bước):
+ * - p95 > p95 baseline * (1 + tolerance) + latency-slack-ms
+ * - Thông lượng < thông lượng baseline * (1 - tolerance)
+ * - Tỉ lệ lỗi > tỉ lệ lỗi baseline + error-rate-slack
+ * - Bước có trong baseline nhưng không chạy
+ */
+@Slf4j
+final class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private LoadTestReport() {
+    }
+
+    static void print(Map<String, Map<String, Object>> steps) {
+        log.info(String.format("%-26s %8s %7s %9s %9s %9s %9s %9s %9s",
+                "step", "count", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        steps.forEach((name, step) -> log.info(String.format("%-26s %8d %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, number(step, "count").longValue(), number(step, "errors").longValue(),
+                number(step, "throughputPerSecond").doubleValue(),
+                number(step, "p50Ms").doubleValue(), number(step, "p90Ms").doubleValue(),
+                number(step, "p95Ms").doubleValue(), number(step, "p99Ms").doubleValue(),
+                number(step, "maxMs").doubleValue())));
+        steps.forEach((name, step) -> {
+            Object reasons = step.get("errorsByReason");
+            if (reasons instanceof Map<?, ?> map && !map.isEmpty()) {
+                log.warn("{} errors: {}", name, map);
+            }
+        });
+    }
+
+    static void write(Path file, Map<String, Object> result) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), result);
+    }
+
+    static Map<String, Object> read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), new TypeReference<>() {
+        });
+    }
+
+    /**
+     * So sánh kết quả với baseline
+     * @return danh sách hồi quy (rỗng nếu đạt)
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> compare(Map<String, Object> result, Map<String, Object> baseline,
+                                double tolerance, double latencySlackMs, double errorRateSlack) {
+        if (!Objects.equals(result.get("environment"), baseline.get("environment"))) {
+            log.warn("Baseline was recorded in a different environment {} (current {}): compare with care",
+                    baseline.get("environment"), result.get("environment"));
+        }
+
+        Map<String, Map<String, Object>> steps = (Map<String, Map<String, Object>>) result.get("steps");
+        Map<String, Map<String, Object>> baselineSteps = (Map<String, Map<String, Object>>) baseline.get("steps");
+        List<String> regressions = new ArrayList<>();
+        baselineSteps.forEach((name, expected) -> {
+            Map<String, Object> actual = steps.get(name);
+            if (actual == null) {
+                regressions.add(name + ": step did not run");
+                return;
+            }
+
+            double p95 = number(actual, "p95Ms").doubleValue();
+            double p95Limit = number(expected, "p95Ms").doubleValue() * (1 + tolerance) + latencySlackMs;
+            if (p95 > p95Limit) {
+                regressions.add(String.format("%s: p95 %.2f ms > %.2f ms", name, p95, p95Limit));
+            }
+
+            double throughput = number(actual, "throughputPerSecond").doubleValue();
+            double throughputLimit = number(expected, "throughputPerSecond").doubleValue() * (1 - tolerance);
+            if (throughput < throughputLimit) {
+                regressions.add(String.format("%s: throughput %.2f/s < %.2f/s", name, throughput, throughputLimit));
+            }
+
+            double errorRate = number(actual, "errorRate").doubleValue();
+            double errorRateLimit = number(expected, "errorRate").doubleValue() + errorRateSlack;
+            if (errorRate > errorRateLimit) {
+                regressions.add(String.format("%s: error rate %.4f > %.4f", name, errorRate, errorRateLimit));
+            }
+        });
+        return regressions;
+    }
+
+    private static Number number(Map<String, Object> step, String key) {
+        Object value = step.get(key);
+        return value instanceof Number number ? number : 0;
+    }
+}
@@ -0,0 +1,103 @@
+package com.nute.training.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thống kê theo bước của hành trình: số lần, lỗi theo nguyên nhân, độ trễ (ns).
+ * Chỉ ghi nhận sau giai đoạn khởi động (measuring = true).
+ */
+final class StepStatistics {
+
+    private final Map<String, Step> steps = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+
+    void startMeasuring() {
+        measuring = true;
+    }
+
+    void stopMeasuring() {
+        measuring = false;
+    }
+
+    void record(String step, long nanos, String error) {
+        if (measuring) {
+            steps.computeIfAbsent(step, name -> new Step()).record(nanos, error);
+        }
+    }
+
+    /**
+     * Tổng hợp kết quả (thứ tự bước theo tên)
+     * @param seconds thời gian đo, để tính thông lượng
+     */
+    Map<String, Map<String, Object>> summarize(double seconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        new TreeMap<>(steps).forEach((name, step) -> summary.put(name, step.summarize(seconds)));
+        return summary;
+    }
+
+    private static final class Step {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        private final Map<String, Integer> errorsByReason = new TreeMap<>();
+
+        synchronized void record(long nanos, String error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error != null) {
+                errors++;
+                errorsByReason.merge(error, 1, Integer::sum);
+            }
+        }
+
+        synchronized Map<String, Object> summarize(double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long latency : sorted) {
+                total += latency;
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("errors", errors);
+            result.put("errorRate", round(count > 0 ? (double) errors / count : 0, 4));
+            result.put("throughputPerSecond", round(count / seconds, 2));
+            result.put("meanMs", millis(count > 0 ? total / count : 0));
+            result.put("p50Ms", millis(percentile(sorted, 0.50)));
+            result.put("p90Ms", millis(percentile(sorted, 0.90)));
+            result.put("p95Ms", millis(percentile(sorted, 0.95)));
+            result.put("p99Ms", millis(percentile(sorted, 0.99)));
+            result.put("maxMs", millis(count > 0 ? sorted[count - 1] : 0));
+            result.put("errorsByReason", new LinkedHashMap<>(errorsByReason));
+            return result;
+        }
+
+        /**
+         * Phân vị theo nearest-rank
+         */
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1e6, 2);
+        }
+
+        private static double round(double value, int digits) {
+            double factor = Math.pow(10, digits);
+            return Math.round(value * factor) / factor;
+        }
+    }
+}
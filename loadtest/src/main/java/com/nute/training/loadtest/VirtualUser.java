@@ -0,0 +1,200 @@
+package com.nute.training.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Người dùng ảo: một phiên trình duyệt (cookie riêng), gửi request như form HTML của ứng dụng.
+ * - Mỗi bước đo thời gian cả request và redirect đi kèm (POST -> redirect -> trang kết quả)
+ * - CSRF token lấy từ trang HTML gần nhất có form
+ * - Lỗi: mã HTTP ngoài dự kiến, bị đẩy về trang đăng nhập, hoặc trang kết quả hiện thông báo lỗi (flash "error")
+ */
+final class VirtualUser {
+
+    private static final Pattern CSRF_PATTERN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final String FLASH_ERROR_MARKER = "alert alert-danger alert-dismissible";
+    private static final int MAX_REDIRECTS = 3;
+
+    /**
+     * Kết quả một bước: trang cuối cùng (sau redirect) và lỗi nếu có
+     */
+    record Result(int status, String body, String error) {
+
+        boolean ok() {
+            return error == null;
+        }
+    }
+
+    private final String baseUrl;
+    private final StepStatistics statistics;
+    private final Duration timeout;
+    private final long thinkTimeMs;
+    private final Executor executor;
+    private HttpClient client;
+    private String csrfToken;
+
+    VirtualUser(String baseUrl, StepStatistics statistics, Duration timeout, long thinkTimeMs, Executor executor) {
+        this.baseUrl = baseUrl;
+        this.statistics = statistics;
+        this.timeout = timeout;
+        this.thinkTimeMs = thinkTimeMs;
+        this.executor = executor;
+    }
+
+    /**
+     * Bắt đầu phiên mới (xóa cookie) và đăng nhập
+     */
+    Result login(String step, String username, String password) throws InterruptedException {
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        csrfToken = null;
+
+        long started = System.nanoTime();
+        String error = null;
+        int status = 0;
+        try {
+            HttpResponse<String> page = send(HttpRequest.newBuilder(uri("/login")).GET());
+            updateCsrf(page.body());
+            HttpResponse<String> response = send(formRequest("/login", Map.of("username", username, "password", password)));
+            status = response.statusCode();
+            String location = response.headers().firstValue("Location").orElse("");
+            if (status != 302 || location.contains("/login")) {
+                error = status != 302 ? "HTTP " + status : "login rejected";
+            }
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName();
+        }
+        return finish(step, started, new Result(status, "", error));
+    }
+
+    /**
+     * Đăng xuất: ứng dụng chuyển về /login?logout=true
+     */
+    Result logout(String step) throws InterruptedException {
+        long started = System.nanoTime();
+        String error = null;
+        int status = 0;
+        try {
+            HttpResponse<String> response = send(formRequest("/logout", Map.of()));
+            status = response.statusCode();
+            if (status != 302 || !response.headers().firstValue("Location").orElse("").contains("logout")) {
+                error = "HTTP " + status;
+            }
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName();
+        }
+        return finish(step, started, new Result(status, "", error));
+    }
+
+    Result get(String step, String path) throws InterruptedException {
+        long started = System.nanoTime();
+        return finish(step, started, execute(HttpRequest.newBuilder(uri(path)).GET()));
+    }
+
+    Result post(String step, String path, Map<String, String> form) throws InterruptedException {
+        long started = System.nanoTime();
+        return finish(step, started, execute(formRequest(path, form)));
+    }
+
+    /**
+     * POST kèm idempotency key mới (như form có key ngẫu nhiên của ứng dụng)
+     */
+    Result postIdempotent(String step, String path, Map<String, String> form) throws InterruptedException {
+        Map<String, String> withKey = new LinkedHashMap<>(form);
+        withKey.put("idempotencyKey", UUID.randomUUID().toString().replace("-", ""));
+        return post(step, path, withKey);
+    }
+
+    private Result execute(HttpRequest.Builder request) {
+        try {
+            HttpResponse<String> response = send(request);
+            for (int redirects = 0; isRedirect(response.statusCode()); redirects++) {
+                String location = response.headers().firstValue("Location").orElse("");
+                if (location.contains("/login")) {
+                    return new Result(response.statusCode(), "", "redirected to login");
+                }
+                if (redirects == MAX_REDIRECTS) {
+                    return new Result(response.statusCode(), "", "too many redirects");
+                }
+                response = send(HttpRequest.newBuilder(URI.create(baseUrl).resolve(location)).GET());
+            }
+
+            String body = response.body();
+            updateCsrf(body);
+            if (response.statusCode() != 200) {
+                return new Result(response.statusCode(), body, "HTTP " + response.statusCode());
+            }
+            if (body.contains(FLASH_ERROR_MARKER)) {
+                return new Result(response.statusCode(), body, "error message on page");
+            }
+            return new Result(response.statusCode(), body, null);
+        } catch (IOException e) {
+            return new Result(0, "", e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Result(0, "", "interrupted");
+        }
+    }
+
+    private Result finish(String step, long started, Result result) throws InterruptedException {
+        statistics.record(step, System.nanoTime() - started, result.error());
+        if (thinkTimeMs > 0) {
+            Thread.sleep(thinkTimeMs);
+        }
+        return result;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(timeout).build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest.Builder formRequest(String path, Map<String, String> form) {
+        Map<String, String> fields = new LinkedHashMap<>(form);
+        if (csrfToken != null) {
+            fields.put("_csrf", csrfToken);
+        }
+        String body = fields.entrySet().stream()
+                .map(field -> encode(field.getKey()) + "=" + encode(field.getValue()))
+                .collect(Collectors.joining("&"));
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private void updateCsrf(String body) {
+        Matcher matcher = CSRF_PATTERN.matcher(body);
+        if (matcher.find()) {
+            csrfToken = matcher.group(1);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+-- =====================================================
+-- Dữ liệu cho load test (H2, callback Flyway chạy sau khi migration tạo bảng và index)
+-- Mật khẩu mọi tài khoản: secret
+--   lt_admin1..10        (ID 1..10)      mỗi admin ảo dùng một tài khoản
+--   lt_teacher1..50      (ID 101..150)   giảng viên t dạy lớp đang học t và lớp đã kết thúc 100+t
+--   lt_student1..1500    (ID 1001..2500) học viên ảo; 30 học viên/lớp đang học và lớp đã kết thúc
+--   lt_student1501..2000 (ID 2501..3000) mỗi người một đăng ký PENDING chờ admin duyệt
+-- Lớp: 1..50 đang học (buổi học hôm nay), 101..150 đã kết thúc (có điểm đạt),
+--      201..300 đang tuyển sinh (không có lịch học: đăng ký không bị trùng lịch)
+-- SYSTEM_RANGE trả về cột "X" (viết hoa, phải đặt trong ngoặc kép khi DATABASE_TO_LOWER=TRUE)
+-- =====================================================
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT "X", 'lt_admin' || "X", 'lt_admin' || "X" || '@loadtest.local',
+       '$2a$10$CHF1/FVsUU08e.9YFPtlGeYhHT5uNSBq3thjBiq5FSrLHuLXn2PEa',
+       'Quản trị ' || "X", 'ADMIN', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 10);
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT 100 + "X", 'lt_teacher' || "X", 'lt_teacher' || "X" || '@loadtest.local',
+       '$2a$10$CHF1/FVsUU08e.9YFPtlGeYhHT5uNSBq3thjBiq5FSrLHuLXn2PEa',
+       'Giảng viên ' || "X", 'TEACHER', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT 1000 + "X", 'lt_student' || "X", 'lt_student' || "X" || '@loadtest.local',
+       '$2a$10$CHF1/FVsUU08e.9YFPtlGeYhHT5uNSBq3thjBiq5FSrLHuLXn2PEa',
+       'Học viên ' || "X", 'STUDENT', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 2000);
+
+INSERT INTO student_info (user_id, student_code, date_of_birth, place_of_birth, address, major, specialized_class)
+SELECT 1000 + "X", 'LT' || "X", DATE '2000-01-01', 'Nam Định', 'Nam Định', 'Công nghệ thông tin', 'K20'
+FROM SYSTEM_RANGE(1, 2000);
+
+INSERT INTO course_types (id, name, code) VALUES (1, 'Tin học', 'LT');
+
+INSERT INTO courses (id, course_type_id, code, name, duration_sessions, tuition_fee, max_students, status, created_at, updated_at)
+SELECT "X", 1, 'LT-C' || "X", 'Khóa học tải ' || "X", 15, 2000000, 100000, 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 5);
+
+-- Lớp đang học
+INSERT INTO classes (id, course_id, teacher_id, class_code, class_name, start_date, end_date, max_students, current_students, room, status, created_at, updated_at)
+SELECT "X", MOD("X", 5) + 1, 100 + "X", 'LT-ON' || "X", 'Lớp đang học ' || "X", CURRENT_DATE - 14, CURRENT_DATE + 30,
+       40, 30, 'LT-ON' || "X", 'ONGOING', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
+
+-- Lớp đã kết thúc
+INSERT INTO classes (id, course_id, teacher_id, class_code, class_name, start_date, end_date, max_students, current_students, room, status, created_at, updated_at)
+SELECT 100 + "X", MOD("X", 5) + 1, 100 + "X", 'LT-DONE' || "X", 'Lớp đã kết thúc ' || "X", CURRENT_DATE - 120, CURRENT_DATE - 60,
+       40, 30, 'LT-DONE' || "X", 'COMPLETED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
+
+-- Lớp đang tuyển sinh (sĩ số lớn: đăng ký/duyệt không bị chặn vì lớp đầy)
+INSERT INTO classes (id, course_id, teacher_id, class_code, class_name, start_date, end_date, max_students, current_students, room, status, created_at, updated_at)
+SELECT 200 + "X", MOD("X", 5) + 1, 100 + MOD("X" - 1, 50) + 1, 'LT-OPEN' || "X", 'Lớp tuyển sinh ' || "X", CURRENT_DATE + 30, CURRENT_DATE + 90,
+       100000, 0, 'LT-OPEN' || "X", 'PENDING', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 100);
+
+-- Buổi học hôm nay của lớp đang học (ID lịch = ID lớp)
+INSERT INTO schedules (id, class_id, session_number, session_date, start_time, end_time, room, topic, status, created_at, updated_at)
+SELECT "X", "X", 1, CURRENT_DATE, TIME '07:00:00', TIME '11:00:00', 'LT-ON' || "X", 'Buổi 1', 'SCHEDULED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
+
+-- 30 học viên đã duyệt mỗi lớp đang học (ID 1..1500) và lớp đã kết thúc (ID 2001..3500)
+INSERT INTO enrollments (id, student_id, class_id, enrollment_date, status, payment_status, payment_amount, approved_at, deleted, created_at, updated_at)
+SELECT "X", 1000 + "X", ("X" - 1) / 30 + 1, CURRENT_DATE - 20, 'APPROVED', 'PAID', 2000000, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 1500);
+
+INSERT INTO enrollments (id, student_id, class_id, enrollment_date, status, payment_status, payment_amount, approved_at, deleted, created_at, updated_at)
+SELECT 2000 + "X", 1000 + "X", 100 + ("X" - 1) / 30 + 1, CURRENT_DATE - 130, 'APPROVED', 'PAID', 2000000, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 1500);
+
+INSERT INTO grades (id, enrollment_id, attendance_score, process_score, final_score, total_score, grade_letter, pass, graded_by, graded_at, deleted, created_at, updated_at)
+SELECT "X", 2000 + "X", 9.0, 7.5, 7.0, 7.35, 'B', true, 100 + ("X" - 1) / 30 + 1, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 1500);
+
+-- Đăng ký chờ duyệt
+INSERT INTO enrollments (id, student_id, class_id, enrollment_date, status, payment_status, payment_amount, deleted, created_at, updated_at)
+SELECT 4000 + "X", 2500 + "X", 200 + MOD("X" - 1, 100) + 1, CURRENT_DATE, 'PENDING', 'UNPAID', 0, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 500);
+
+-- ID tường minh không tăng bộ đếm IDENTITY: bản ghi do ứng dụng tạo bắt đầu sau dữ liệu mẫu
+ALTER TABLE users ALTER COLUMN id RESTART WITH 10000;
+ALTER TABLE course_types ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE courses ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE classes ALTER COLUMN id RESTART WITH 1000;
+-- Bảng dùng bộ sinh ID pooled (V3): khối ID kế tiếp bắt đầu sau dữ liệu mẫu
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM attendances)) WHERE entity_name = 'attendances';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM grades)) WHERE entity_name = 'grades';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM certificates)) WHERE entity_name = 'certificates';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM schedules)) WHERE entity_name = 'schedules';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM enrollments)) WHERE entity_name = 'enrollments';
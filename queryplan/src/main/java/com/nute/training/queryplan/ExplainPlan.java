@@ -0,0 +1,68 @@
+package com.nute.training.queryplan;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Kế hoạch thực thi của một câu lệnh theo EXPLAIN của H2
+ * - SELECT: EXPLAIN ANALYZE (chạy thật, có số dòng đọc ở mỗi bảng: scanCount)
+ * - UPDATE/DELETE/INSERT: EXPLAIN (chỉ kế hoạch, không chạy lại câu lệnh ghi)
+ * Mỗi bảng trong kế hoạch có một chú thích đường truy cập: "public.bảng.tableScan" là quét toàn bảng,
+ * "public.tên_index: điều kiện" là đọc qua index.
+ */
+record ExplainPlan(List<String> accessPaths, List<String> tableScans, long rowsScanned) {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*\\s*(.*?)\\s*\\*/", Pattern.DOTALL);
+    private static final Pattern TABLE_SCAN = Pattern.compile("^[\\w$]+\\.(\\w+)\\.tableScan$");
+    private static final Pattern SCAN_COUNT = Pattern.compile("^scanCount: (\\d+)$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    static ExplainPlan explain(Connection connection, StatementRecorder.RecordedStatement statement)
+            throws SQLException {
+        String sql = statement.sql().strip();
+        String verb = sql.substring(0, Math.min(6, sql.length())).toLowerCase(Locale.ROOT);
+        boolean query = verb.startsWith("select") || verb.startsWith("with");
+        try (PreparedStatement explain = connection.prepareStatement((query ? "EXPLAIN ANALYZE " : "EXPLAIN ") + sql)) {
+            statement.bind(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return parse(plan.toString());
+            }
+        }
+    }
+
+    static ExplainPlan parse(String plan) {
+        List<String> accessPaths = new ArrayList<>();
+        List<String> tableScans = new ArrayList<>();
+        long rowsScanned = 0;
+        Matcher comment = COMMENT.matcher(plan);
+        while (comment.find()) {
+            String text = WHITESPACE.matcher(comment.group(1)).replaceAll(" ");
+            Matcher scanCount = SCAN_COUNT.matcher(text);
+            if (scanCount.matches()) {
+                rowsScanned += Long.parseLong(scanCount.group(1));
+                continue;
+            }
+            if (text.startsWith("WHERE ")) {
+                // Điều kiện lọc thêm sau khi đọc, không phải đường truy cập
+                continue;
+            }
+            Matcher tableScan = TABLE_SCAN.matcher(text);
+            if (tableScan.matches()) {
+                tableScans.add(tableScan.group(1));
+            }
+            accessPaths.add(text);
+        }
+        return new ExplainPlan(accessPaths, tableScans, rowsScanned);
+    }
+}
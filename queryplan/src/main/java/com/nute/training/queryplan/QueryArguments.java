@@ -0,0 +1,232 @@
+package com.nute.training.queryplan;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tham số mẫu cho phương thức repository, chọn theo kiểu và tên tham số
+ * để truy vấn chạm vào dữ liệu thật của db/queryplan/afterMigrate.sql (kế hoạch giống trường hợp thường gặp):
+ * - ID: học viên 1001, giảng viên 101, lớp 1 (đang học), đăng ký 4 (đã duyệt, có điểm và chứng chỉ), còn lại 1
+ * - Ngày: hôm nay; khoảng thời gian (start/from .. end/until) quanh hôm nay
+ * - Enum: giá trị hay gặp (APPROVED, ONGOING, ACTIVE, ...); tập enum: mọi giá trị
+ * - Entity: nạp theo ID như trên; Pageable: trang đầu 20 dòng
+ * Tham số có kiểu không hỗ trợ: ném IllegalArgumentException (phương thức được báo là bỏ qua).
+ */
+final class QueryArguments {
+
+    private static final List<String> PREFERRED_CONSTANTS = List.of(
+            "APPROVED", "ONGOING", "ACTIVE", "SCHEDULED", "ISSUED", "PRESENT", "PAYMENT", "BANK_STATEMENT", "STUDENT");
+
+    private static final int COLLECTION_SIZE = 3;
+
+    private final EntityManager entityManager;
+    private final LocalDate today = LocalDate.now();
+    private final LocalDateTime now = today.atTime(12, 0);
+
+    QueryArguments(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    Object[] resolve(Method method) {
+        Parameter[] parameters = method.getParameters();
+        Object[] args = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            if (!parameter.isNamePresent()) {
+                throw new IllegalStateException("Thiếu tên tham số (cần biên dịch với -parameters): " + method);
+            }
+            args[i] = value(parameter.getType(), parameter.getParameterizedType(), parameter.getName());
+        }
+        return args;
+    }
+
+    private Object value(Class<?> type, Type genericType, String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (Collection.class.isAssignableFrom(type)) {
+            return collection(type, genericType, name);
+        }
+        if (type == Long.class || type == long.class) {
+            return id(lower);
+        }
+        if (type == Integer.class || type == int.class) {
+            return integer(lower);
+        }
+        if (type == String.class) {
+            return string(lower, 0);
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ZERO;
+        }
+        if (type == LocalDate.class) {
+            return date(lower);
+        }
+        if (type == LocalDateTime.class) {
+            return dateTime(lower);
+        }
+        if (type == LocalTime.class) {
+            return lower.contains("end") ? LocalTime.of(11, 0) : LocalTime.of(7, 0);
+        }
+        if (type.isEnum()) {
+            return constant(type);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 20);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            Object entity = entityManager.find(type, id(lower + type.getSimpleName().toLowerCase(Locale.ROOT)));
+            if (entity == null) {
+                throw new IllegalArgumentException("Không có " + type.getSimpleName() + " mẫu cho tham số " + name);
+            }
+            return entity;
+        }
+        throw new IllegalArgumentException("Không hỗ trợ tham số " + name + " kiểu " + type.getName());
+    }
+
+    private Object collection(Class<?> type, Type genericType, String name) {
+        if (!(genericType instanceof ParameterizedType parameterized)
+                || !(parameterized.getActualTypeArguments()[0] instanceof Class<?> elementType)) {
+            throw new IllegalArgumentException("Không xác định được kiểu phần tử của " + name);
+        }
+        String lower = name.toLowerCase(Locale.ROOT);
+        List<Object> values = new ArrayList<>();
+        if (elementType.isEnum()) {
+            values.addAll(Arrays.asList(elementType.getEnumConstants()));
+        } else if (elementType == Long.class) {
+            long first = id(lower);
+            for (int i = 0; i < COLLECTION_SIZE; i++) {
+                values.add(first + i);
+            }
+        } else if (elementType == String.class) {
+            for (int i = 0; i < COLLECTION_SIZE; i++) {
+                values.add(string(lower, i));
+            }
+        } else {
+            values.add(value(elementType, elementType, name));
+        }
+        return Set.class.isAssignableFrom(type) ? Set.copyOf(values) : values;
+    }
+
+    private static long id(String name) {
+        if (name.contains("teacher")) {
+            return 101;
+        }
+        if (name.contains("student") || name.contains("user") || name.contains("recipient")) {
+            return 1001;
+        }
+        if (name.contains("enrollment")) {
+            return 4;
+        }
+        if (name.startsWith("after")) {
+            // Đọc tiếp sau ID gần cuối (bus/outbox đọc theo lô các dòng mới)
+            return 4990;
+        }
+        return 1;
+    }
+
+    private int integer(String name) {
+        if (name.contains("year")) {
+            return today.getYear();
+        }
+        if (name.contains("month")) {
+            return today.getMonthValue();
+        }
+        if (name.contains("attempts")) {
+            return 5;
+        }
+        return 1;
+    }
+
+    private static String string(String name, int index) {
+        int n = index + 1;
+        if (name.contains("username")) {
+            return "qp_student" + n;
+        }
+        if (name.contains("email")) {
+            return "qp_student" + n + "@queryplan.local";
+        }
+        if (name.contains("studentcode")) {
+            return "QP" + n;
+        }
+        if (name.contains("classcode")) {
+            return "QP-L" + n;
+        }
+        if (name.contains("certificatecode")) {
+            return "QP-CERT" + n;
+        }
+        if (name.contains("reference")) {
+            return "QP-REF" + 2 * n;
+        }
+        if (name.contains("code")) {
+            return "QP-C" + n;
+        }
+        if (name.contains("idempotencykey")) {
+            return "qp-key-" + n;
+        }
+        if (name.contains("room")) {
+            return "R" + n;
+        }
+        if (name.contains("keyword")) {
+            return "Học viên 1";
+        }
+        return "queryplan";
+    }
+
+    private LocalDate date(String name) {
+        if (name.contains("before")) {
+            return today;
+        }
+        if (name.contains("start") || name.contains("from")) {
+            return today.minusDays(30);
+        }
+        if (name.contains("end") || name.contains("until")) {
+            return today.plusDays(30);
+        }
+        return today;
+    }
+
+    private LocalDateTime dateTime(String name) {
+        if (name.contains("before") || name.contains("cutoff") || name.contains("since")) {
+            return now.minusDays(1);
+        }
+        if (name.contains("until")) {
+            return now.plusDays(1);
+        }
+        return now;
+    }
+
+    private static Object constant(Class<?> enumType) {
+        Object[] constants = enumType.getEnumConstants();
+        for (String preferred : PREFERRED_CONSTANTS) {
+            for (Object constant : constants) {
+                if (((Enum<?>) constant).name().equals(preferred)) {
+                    return constant;
+                }
+            }
+        }
+        return constants[0];
+    }
+}
@@ -0,0 +1,100 @@
+package com.nute.training.queryplan;
+
+import com.nute.training.TrainingApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.config.TaskManagementConfigUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Query Plan Check
+ * Khởi động ứng dụng trong cùng JVM (H2 chế độ MySQL, schema từ migration Flyway, dữ liệu db/queryplan/afterMigrate.sql),
+ * chạy mọi phương thức truy vấn của repository với tham số mẫu, lấy kế hoạch thực thi bằng EXPLAIN
+ * rồi so sánh với baseline: quét toàn bảng lớn, số câu lệnh, số dòng phải đọc.
+ * Job định kỳ không chạy (dữ liệu mẫu giữ nguyên trong suốt lượt kiểm tra).
+ * Mã thoát: 0 đạt, 1 quét toàn bảng lớn hoặc hồi quy so với baseline, 2 lỗi chạy.
+ */
+@Slf4j
+public final class QueryPlanCheck {
+
+    private QueryPlanCheck() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(QueryPlanConfig.load(args));
+        } catch (Exception e) {
+            log.error("Query plan check failed", e);
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(QueryPlanConfig config) throws Exception {
+        StatementRecorder recorder = new StatementRecorder();
+        SpringApplication application = new SpringApplication(TrainingApplication.class);
+        application.addInitializers(context -> {
+            context.getBeanFactory().addBeanPostProcessor(recorder);
+            context.addBeanFactoryPostProcessor(beanFactory -> {
+                if (beanFactory.containsBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME)) {
+                    ((BeanDefinitionRegistry) beanFactory)
+                            .removeBeanDefinition(TaskManagementConfigUtils.SCHEDULED_ANNOTATION_PROCESSOR_BEAN_NAME);
+                }
+            });
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> methods;
+        try (ConfigurableApplicationContext context = application.run(config.applicationArgs())) {
+            RepositoryMethodRunner runner = new RepositoryMethodRunner(context, recorder);
+            long largeTableRows = config.getInt("large-table-rows");
+            Map<String, Long> tables = runner.tableRows();
+            List<String> largeTables = tables.entrySet().stream()
+                    .filter(table -> table.getValue() >= largeTableRows)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            log.info("Large tables (>= {} rows): {}", largeTableRows, largeTables);
+
+            methods = runner.runAll(Pattern.compile(config.getString("repository-filter")), largeTables);
+            result.put("largeTableRows", largeTableRows);
+            result.put("tables", tables);
+            result.put("methods", methods);
+        }
+
+        QueryPlanReport.print(methods);
+        Path resultFile = Path.of(config.getString("result-file"));
+        QueryPlanReport.write(resultFile, result);
+        log.info("Result written to {}", resultFile.toAbsolutePath());
+
+        Path baselineFile = Path.of(config.getString("baseline-file"));
+        if (config.getBoolean("baseline.update")) {
+            QueryPlanReport.write(baselineFile, result);
+            log.info("Baseline updated: {}", baselineFile.toAbsolutePath());
+            return 0;
+        }
+
+        List<String> regressions;
+        if (Files.exists(baselineFile)) {
+            regressions = QueryPlanReport.compare(result, QueryPlanReport.read(baselineFile),
+                    config.getDouble("baseline.rows-tolerance"), config.getInt("baseline.rows-slack"));
+        } else {
+            log.warn("No baseline at {}: every full scan on a large table fails the check", baselineFile.toAbsolutePath());
+            regressions = QueryPlanReport.fullScans(methods);
+        }
+        if (regressions.isEmpty()) {
+            log.info("No full scan or regression in {} repository methods", methods.size());
+            return 0;
+        }
+        regressions.forEach(regression -> log.error("Regression: {}", regression));
+        return 1;
+    }
+}
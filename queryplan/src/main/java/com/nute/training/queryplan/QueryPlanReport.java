@@ -0,0 +1,130 @@
+package com.nute.training.queryplan;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Báo cáo kiểm tra kế hoạch truy vấn: tóm tắt trên console, file JSON, so sánh với baseline.
+ * Business Rule (theo từng phương thức repository):
+ * - Không có baseline: mọi lần quét toàn bảng lớn là lỗi
+ * - Quét toàn một bảng lớn mà baseline không có (kể cả phương thức mới)
+ * - Số câu lệnh > số câu lệnh baseline (N+1, nạp quan hệ EAGER mới)
+ * - Số dòng phải đọc > baseline * (1 + rows-tolerance) + rows-slack
+ * - Phương thức chạy lỗi mà baseline chạy được
+ * Phương thức có trong baseline nhưng không còn trong repository chỉ được cảnh báo (đổi tên, xóa).
+ */
+@Slf4j
+final class QueryPlanReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private QueryPlanReport() {
+    }
+
+    static void print(Map<String, Map<String, Object>> methods) {
+        log.info(String.format("%-90s %10s %12s  %s", "method", "statements", "rows scanned", "full scans"));
+        methods.forEach((name, method) -> {
+            if (method.containsKey("skipped")) {
+                log.warn("{} skipped: {}", name, method.get("skipped"));
+                return;
+            }
+            log.info(String.format("%-90s %10d %12d  %s", name, number(method, "statements").longValue(),
+                    number(method, "rowsScanned").longValue(), method.get("fullScans")));
+            if (method.containsKey("error")) {
+                log.warn("{} failed: {}", name, method.get("error"));
+            }
+        });
+    }
+
+    static void write(Path file, Map<String, Object> result) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), result);
+    }
+
+    static Map<String, Object> read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), new TypeReference<>() {
+        });
+    }
+
+    /**
+     * Quét toàn bảng lớn khi chưa có baseline
+     * @return danh sách lỗi (rỗng nếu đạt)
+     */
+    static List<String> fullScans(Map<String, Map<String, Object>> methods) {
+        List<String> problems = new ArrayList<>();
+        methods.forEach((name, method) -> {
+            List<String> fullScans = strings(method, "fullScans");
+            if (!fullScans.isEmpty()) {
+                problems.add(name + ": full scan on " + fullScans);
+            }
+        });
+        return problems;
+    }
+
+    /**
+     * So sánh kết quả với baseline
+     * @return danh sách hồi quy (rỗng nếu đạt)
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> compare(Map<String, Object> result, Map<String, Object> baseline,
+                                double rowsTolerance, long rowsSlack) {
+        Map<String, Map<String, Object>> methods = (Map<String, Map<String, Object>>) result.get("methods");
+        Map<String, Map<String, Object>> baselineMethods = (Map<String, Map<String, Object>>) baseline.get("methods");
+        List<String> regressions = new ArrayList<>();
+        methods.forEach((name, actual) -> {
+            Map<String, Object> expected = baselineMethods.getOrDefault(name, Map.of());
+
+            List<String> newFullScans = new ArrayList<>(strings(actual, "fullScans"));
+            newFullScans.removeAll(strings(expected, "fullScans"));
+            if (!newFullScans.isEmpty()) {
+                regressions.add(name + ": new full scan on " + newFullScans);
+            }
+            if (expected.isEmpty()) {
+                return;
+            }
+
+            if (actual.containsKey("error") && !expected.containsKey("error")) {
+                regressions.add(name + ": fails with " + actual.get("error"));
+                return;
+            }
+
+            long statements = number(actual, "statements").longValue();
+            long statementsLimit = number(expected, "statements").longValue();
+            if (statements > statementsLimit) {
+                regressions.add(String.format("%s: %d statements > %d", name, statements, statementsLimit));
+            }
+
+            long rows = number(actual, "rowsScanned").longValue();
+            double rowsLimit = number(expected, "rowsScanned").longValue() * (1 + rowsTolerance) + rowsSlack;
+            if (rows > rowsLimit) {
+                regressions.add(String.format("%s: %d rows scanned > %.0f", name, rows, rowsLimit));
+            }
+        });
+        baselineMethods.keySet().stream()
+                .filter(name -> !methods.containsKey(name))
+                .forEach(name -> log.warn("{} is in the baseline but no longer exists", name));
+        return regressions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> strings(Map<String, Object> method, String key) {
+        Object value = method.get(key);
+        return value instanceof List<?> list ? (List<String>) list : List.of();
+    }
+
+    private static Number number(Map<String, Object> method, String key) {
+        Object value = method.get(key);
+        return value instanceof Number number ? number : 0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.nute.training.queryplan;
+
+import com.nute.training.config.SqlProfiler;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chạy mọi phương thức khai báo trên các interface repository của ứng dụng
+ * (phương thức CRUD kế thừa từ JpaRepository không tính: findAll/count quét toàn bảng theo thiết kế).
+ * Mỗi phương thức chạy trong một transaction riêng luôn rollback (câu lệnh ghi không làm đổi dữ liệu mẫu):
+ * - SqlProfiler đếm số câu lệnh và số entity tải lên
+ * - StatementRecorder ghi câu lệnh kèm tham số, chạy lại bằng EXPLAIN trong cùng transaction
+ */
+@Slf4j
+final class RepositoryMethodRunner {
+
+    private final ApplicationContext context;
+    private final StatementRecorder recorder;
+    private final DataSource dataSource;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    RepositoryMethodRunner(ApplicationContext context, StatementRecorder recorder) {
+        this.context = context;
+        this.recorder = recorder;
+        this.dataSource = context.getBean("dataSource", DataSource.class);
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        this.transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    /**
+     * Số dòng của từng bảng trong dữ liệu mẫu
+     */
+    Map<String, Long> tableRows() throws SQLException {
+        Map<String, Long> rows = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            List<String> tables = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT table_name FROM information_schema.tables "
+                    + "WHERE table_schema = SCHEMA() AND table_type = 'BASE TABLE'")) {
+                while (resultSet.next()) {
+                    tables.add(resultSet.getString(1));
+                }
+            }
+            for (String table : tables) {
+                try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM \"" + table + "\"")) {
+                    resultSet.next();
+                    rows.put(table, resultSet.getLong(1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Chạy các phương thức của repository có tên khớp bộ lọc
+     * @param largeTables bảng lớn: quét toàn bảng này được ghi vào fullScans
+     * @return kết quả theo phương thức ("Repository.method(KiểuThamSố,...)")
+     */
+    Map<String, Map<String, Object>> runAll(Pattern repositoryFilter, Collection<String> largeTables) {
+        Repositories repositories = new Repositories(context);
+        List<Class<?>> repositoryInterfaces = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformationFor(domainType)
+                    .map(RepositoryInformation::getRepositoryInterface)
+                    .filter(type -> repositoryFilter.matcher(type.getSimpleName()).matches())
+                    .ifPresent(repositoryInterfaces::add);
+        }
+        repositoryInterfaces.sort(Comparator.comparing(Class::getSimpleName));
+
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        for (Class<?> repositoryInterface : repositoryInterfaces) {
+            Object repository = context.getBean(repositoryInterface);
+            List<Method> methods = Arrays.stream(repositoryInterface.getDeclaredMethods())
+                    .filter(method -> !Modifier.isStatic(method.getModifiers()) && !method.isSynthetic())
+                    .sorted(Comparator.comparing(RepositoryMethodRunner::key))
+                    .toList();
+            for (Method method : methods) {
+                String key = repositoryInterface.getSimpleName() + "." + key(method);
+                results.put(key, run(key, repository, method, largeTables));
+            }
+            log.info("{}: {} methods", repositoryInterface.getSimpleName(), methods.size());
+        }
+        return results;
+    }
+
+    private Map<String, Object> run(String key, Object repository, Method method, Collection<String> largeTables) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            Object[] args;
+            try {
+                args = new QueryArguments(entityManager).resolve(method);
+            } catch (IllegalArgumentException e) {
+                result.put("skipped", e.getMessage());
+                return;
+            }
+            // Entity tham số đã nạp: bỏ khỏi session để câu lệnh của phương thức không đọc từ bộ nhớ đệm cấp 1
+            entityManager.clear();
+
+            SqlProfiler.begin(key);
+            recorder.start();
+            SqlProfiler.Scope scope;
+            List<StatementRecorder.RecordedStatement> statements;
+            try {
+                consume(method.invoke(repository, args));
+            } catch (InvocationTargetException e) {
+                result.put("error", e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Không gọi được " + key, e);
+            } finally {
+                statements = recorder.stop();
+                scope = SqlProfiler.end();
+            }
+
+            result.put("statements", scope.getStatements());
+            result.put("entitiesLoaded", scope.getEntitiesLoaded());
+            explain(key, statements, largeTables, result);
+        });
+        return result;
+    }
+
+    private void explain(String key, List<StatementRecorder.RecordedStatement> statements,
+                         Collection<String> largeTables, Map<String, Object> result) {
+        long rowsScanned = 0;
+        TreeSet<String> fullScans = new TreeSet<>();
+        // Câu lệnh lặp lại (N+1) cho cùng đường truy cập: chỉ giữ mỗi đường một lần
+        Set<String> accessPaths = new LinkedHashSet<>();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (StatementRecorder.RecordedStatement statement : statements) {
+                ExplainPlan plan = ExplainPlan.explain(connection, statement);
+                rowsScanned += plan.rowsScanned();
+                accessPaths.addAll(plan.accessPaths());
+                plan.tableScans().stream().filter(largeTables::contains).forEach(fullScans::add);
+            }
+        } catch (SQLException e) {
+            log.warn("EXPLAIN failed for {}: {}", key, e.getMessage());
+            result.put("explainError", e.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        result.put("rowsScanned", rowsScanned);
+        result.put("fullScans", List.copyOf(fullScans));
+        result.put("accessPaths", List.copyOf(accessPaths));
+    }
+
+    /**
+     * Đọc hết kết quả (Stream phải được đọc và đóng trong transaction)
+     */
+    private static void consume(Object value) {
+        if (value instanceof Stream<?> stream) {
+            try (stream) {
+                stream.forEach(row -> {
+                });
+            }
+        }
+    }
+
+    private static String key(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+}
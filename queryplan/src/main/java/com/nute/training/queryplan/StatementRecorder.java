@@ -0,0 +1,131 @@
+package com.nute.training.queryplan;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ghi lại câu lệnh SQL luồng hiện tại gửi xuống JDBC (kèm giá trị tham số) trong khoảng start/stop,
+ * để chạy lại câu lệnh đó với EXPLAIN.
+ * DataSource của ứng dụng được bọc bằng proxy JDK: DataSource -> Connection -> PreparedStatement;
+ * các lời gọi setXxx(chỉ số, giá trị, ...) được giữ nguyên để phát lại trên câu lệnh EXPLAIN.
+ * Luồng khác (Flyway, khởi động ứng dụng) không bị ghi.
+ */
+final class StatementRecorder implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<RecordedStatement>> RECORDING = new ThreadLocal<>();
+
+    /**
+     * Bắt đầu ghi trên luồng hiện tại
+     */
+    void start() {
+        RECORDING.set(new ArrayList<>());
+    }
+
+    /**
+     * Dừng ghi
+     * @return các câu lệnh đã thực thi, theo thứ tự
+     */
+    List<RecordedStatement> stop() {
+        List<RecordedStatement> statements = RECORDING.get();
+        RECORDING.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return proxy(DataSource.class, (method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                return wrap(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement wrap(PreparedStatement statement, String sql) {
+        Map<Integer, ParameterCall> parameters = new TreeMap<>();
+        return proxy(PreparedStatement.class, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters.put(index, new ParameterCall(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if ((args == null || args.length == 0) && (name.equals("addBatch") || name.startsWith("execute"))) {
+                List<RecordedStatement> recording = RECORDING.get();
+                if (recording != null) {
+                    recording.add(new RecordedStatement(sql, List.copyOf(parameters.values())));
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.handle(method, args);
+        };
+        return (T) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Một lời gọi setXxx trên PreparedStatement
+     */
+    private record ParameterCall(Method method, Object[] args) {
+    }
+
+    /**
+     * Câu lệnh đã thực thi cùng giá trị tham số
+     */
+    record RecordedStatement(String sql, List<ParameterCall> parameters) {
+
+        /**
+         * Gán lại giá trị tham số cho câu lệnh có cùng vị trí tham số (EXPLAIN + câu lệnh gốc)
+         */
+        void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterCall call : parameters) {
+                try {
+                    call.method().invoke(statement, call.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Không gán được tham số " + call.args()[0] + " của: " + sql, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+-- =====================================================
+-- Dữ liệu cho kiểm tra kế hoạch truy vấn (H2, callback Flyway chạy sau khi migration tạo bảng và index)
+-- Đủ lớn để bộ tối ưu chọn index như trên production; tham số mẫu của QueryArguments trỏ vào các ID này:
+--   admin 1..10, giảng viên 101..300, học viên 1001..21000
+--   lớp 1..2000 (MOD(id, 4): 0 CANCELLED, 1 ONGOING, 2 PENDING, 3 COMPLETED), 10 buổi học/lớp
+--   đăng ký 1..40000: 20 học viên/lớp, mỗi học viên 2 lớp; điểm danh 3 buổi đầu của mỗi đăng ký
+-- SYSTEM_RANGE trả về cột "X" (viết hoa, phải đặt trong ngoặc kép khi DATABASE_TO_LOWER=TRUE)
+-- =====================================================
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT "X", 'qp_admin' || "X", 'qp_admin' || "X" || '@queryplan.local', 'x', 'Quản trị ' || "X",
+       'ADMIN', 'ACTIVE', false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 10);
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT 100 + "X", 'qp_teacher' || "X", 'qp_teacher' || "X" || '@queryplan.local', 'x', 'Giảng viên ' || "X",
+       'TEACHER', CASE WHEN MOD("X", 20) = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 200);
+
+INSERT INTO users (id, username, email, password, full_name, role, status, deleted, created_at, updated_at)
+SELECT 1000 + "X", 'qp_student' || "X", 'qp_student' || "X" || '@queryplan.local', 'x', 'Học viên ' || "X",
+       'STUDENT', CASE WHEN MOD("X", 50) = 0 THEN 'SUSPENDED' ELSE 'ACTIVE' END, false,
+       DATEADD('MINUTE', -"X", CURRENT_TIMESTAMP), CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO student_info (user_id, student_code, date_of_birth, place_of_birth, address, major, specialized_class)
+SELECT 1000 + "X", 'QP' || "X", DATEADD('DAY', -MOD("X", 3000), DATE '2004-01-01'), 'Nam Định', 'Nam Định',
+       'Công nghệ thông tin', 'K' || MOD("X", 10)
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO course_types (id, name, code, created_at)
+SELECT "X", 'Loại khóa ' || "X", 'QP-T' || "X", CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 5);
+
+INSERT INTO courses (id, course_type_id, code, name, duration_sessions, tuition_fee, max_students, status, created_at, updated_at)
+SELECT "X", MOD("X", 5) + 1, 'QP-C' || "X", 'Khóa học ' || "X", 10, 2000000, 40,
+       CASE WHEN MOD("X", 10) = 0 THEN 'INACTIVE' WHEN MOD("X", 10) = 9 THEN 'DRAFT' ELSE 'ACTIVE' END,
+       DATEADD('DAY', -"X", CURRENT_TIMESTAMP), CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 100);
+
+INSERT INTO classes (id, course_id, teacher_id, class_code, class_name, start_date, end_date, max_students, current_students, room, status, created_at, updated_at)
+SELECT "X", MOD("X", 100) + 1, 100 + MOD("X" - 1, 200) + 1, 'QP-L' || "X", 'Lớp ' || "X",
+       DATEADD('DAY', CASE MOD("X", 4) WHEN 1 THEN -30 WHEN 2 THEN 30 ELSE -200 END + MOD("X", 30), CURRENT_DATE),
+       DATEADD('DAY', CASE MOD("X", 4) WHEN 1 THEN 40 WHEN 2 THEN 100 ELSE -130 END + MOD("X", 30), CURRENT_DATE),
+       40, 20, 'R' || MOD("X", 50),
+       CASE MOD("X", 4) WHEN 0 THEN 'CANCELLED' WHEN 1 THEN 'ONGOING' WHEN 2 THEN 'PENDING' ELSE 'COMPLETED' END,
+       DATEADD('HOUR', -"X", CURRENT_TIMESTAMP), CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 2000);
+
+-- Buổi học: ID = (lớp - 1) * 10 + số buổi, mỗi tuần một buổi từ ngày khai giảng
+INSERT INTO schedules (id, class_id, session_number, session_date, start_time, end_time, room, topic, status, created_at, updated_at)
+SELECT "X", ("X" - 1) / 10 + 1, MOD("X" - 1, 10) + 1,
+       DATEADD('DAY', 7 * MOD("X" - 1, 10), c.start_date),
+       CASE MOD(("X" - 1) / 10, 3) WHEN 0 THEN TIME '07:00:00' WHEN 1 THEN TIME '13:00:00' ELSE TIME '18:00:00' END,
+       CASE MOD(("X" - 1) / 10, 3) WHEN 0 THEN TIME '11:00:00' WHEN 1 THEN TIME '17:00:00' ELSE TIME '21:00:00' END,
+       c.room, 'Buổi ' || (MOD("X" - 1, 10) + 1),
+       CASE WHEN c.status = 'CANCELLED' THEN 'CANCELLED'
+            WHEN DATEADD('DAY', 7 * MOD("X" - 1, 10), c.start_date) < CURRENT_DATE THEN 'COMPLETED' ELSE 'SCHEDULED' END,
+       CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 20000) JOIN classes c ON c.id = ("X" - 1) / 10 + 1;
+
+INSERT INTO enrollments (id, student_id, class_id, enrollment_date, status, payment_status, payment_amount, waitlist_position, approved_at, deleted, created_at, updated_at)
+SELECT "X", 1000 + MOD("X" - 1, 20000) + 1, ("X" - 1) / 20 + 1, DATEADD('DAY', -MOD("X", 200), CURRENT_DATE),
+       CASE MOD("X", 10) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'WAITLISTED' WHEN 2 THEN 'REJECTED' WHEN 3 THEN 'DROPPED' ELSE 'APPROVED' END,
+       CASE MOD("X", 3) WHEN 0 THEN 'UNPAID' WHEN 1 THEN 'PARTIAL' ELSE 'PAID' END, 2000000,
+       CASE WHEN MOD("X", 10) = 1 THEN "X" END,
+       CASE WHEN MOD("X", 10) >= 4 THEN CURRENT_TIMESTAMP END, false,
+       DATEADD('MINUTE', -"X", CURRENT_TIMESTAMP), CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 40000);
+
+-- Điểm danh 3 buổi đầu của mỗi đăng ký
+INSERT INTO attendances (id, schedule_id, student_id, status, marked_at, marked_by, created_at, updated_at)
+SELECT "X", ((("X" - 1) / 3) / 20) * 10 + MOD("X" - 1, 3) + 1, 1000 + MOD(("X" - 1) / 3, 20000) + 1,
+       CASE MOD("X", 7) WHEN 0 THEN 'ABSENT' WHEN 1 THEN 'LATE' WHEN 2 THEN 'EXCUSED' ELSE 'PRESENT' END,
+       CURRENT_TIMESTAMP, 101, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 120000);
+
+INSERT INTO grades (id, enrollment_id, attendance_score, process_score, final_score, total_score, grade_letter, pass, graded_by, graded_at, deleted, created_at, updated_at)
+SELECT "X", "X", 9.0, 7.0, MOD("X", 10), 0.1 * 9 + 0.3 * 7 + 0.6 * MOD("X", 10),
+       CASE WHEN MOD("X", 10) >= 8 THEN 'A' WHEN MOD("X", 10) >= 6 THEN 'B' WHEN MOD("X", 10) >= 4 THEN 'C' ELSE 'F' END,
+       MOD("X", 10) >= 4, 101, CURRENT_TIMESTAMP, false, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO certificates (id, enrollment_id, certificate_code, issue_date, status, issued_by, created_at, updated_at)
+SELECT "X", 2 * "X", 'QP-CERT' || "X", DATEADD('DAY', -MOD("X", 300), CURRENT_DATE),
+       CASE WHEN MOD("X", 20) = 0 THEN 'REVOKED' ELSE 'ISSUED' END, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 5000);
+
+INSERT INTO payment_transactions (id, enrollment_id, amount, transaction_date, type, source, external_reference, description, recorded_by, created_at)
+SELECT "X", "X", 1000000, DATEADD('DAY', -MOD("X", 200), CURRENT_DATE), 'PAYMENT',
+       CASE WHEN MOD("X", 2) = 0 THEN 'BANK_STATEMENT' ELSE 'MANUAL' END,
+       CASE WHEN MOD("X", 2) = 0 THEN 'QP-REF' || "X" END, 'Học phí', 1, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO notifications (id, recipient_id, source_event_id, event_type, coalesce_key, message, status, attempts, next_attempt_at, sent_at, created_at)
+SELECT "X", 1000 + MOD("X" - 1, 20000) + 1, "X", 'ENROLLMENT_APPROVED', 'enrollment:' || "X", 'Đăng ký đã được duyệt',
+       CASE WHEN MOD("X", 5) = 0 THEN 'PENDING' ELSE 'SENT' END, 1, CURRENT_TIMESTAMP,
+       CASE WHEN MOD("X", 5) <> 0 THEN CURRENT_TIMESTAMP END, DATEADD('MINUTE', -"X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, status, attempts, next_attempt_at, processed_at, created_at)
+SELECT "X", 'ENROLLMENT', "X", 'ENROLLMENT_APPROVED', '{}',
+       CASE WHEN MOD("X", 5) = 0 THEN 'PENDING' ELSE 'PROCESSED' END, 1, CURRENT_TIMESTAMP,
+       CASE WHEN MOD("X", 5) <> 0 THEN DATEADD('MINUTE', -"X", CURRENT_TIMESTAMP) END, DATEADD('MINUTE', -"X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 10000);
+
+INSERT INTO idempotency_records (id, idempotency_key, status, view_name, created_at, expires_at)
+SELECT "X", 'qp-key-' || "X", 'COMPLETED', 'redirect:/', CURRENT_TIMESTAMP, DATEADD('MINUTE', "X" - 2500, CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 5000);
+
+INSERT INTO cache_invalidations (id, entity_type, entity_id, origin_node, created_at)
+SELECT "X", 'CLASS', MOD("X", 2000) + 1, 'queryplan', DATEADD('SECOND', -"X", CURRENT_TIMESTAMP)
+FROM SYSTEM_RANGE(1, 5000);
+
+INSERT INTO enrollment_rollups (id, period_year, period_month, course_type_id, course_id, class_id, status, enrollment_count, tuition_amount, paid_amount, refreshed_at)
+SELECT "X", YEAR(CURRENT_DATE) - MOD("X", 3), MOD("X", 12) + 1, MOD("X", 5) + 1, MOD("X", 100) + 1, ("X" - 1) / 3 + 1, 'APPROVED',
+       20, 40000000, 30000000, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 6000);
+
+INSERT INTO payment_rollups (id, period_year, period_month, course_type_id, course_id, class_id, type, transaction_count, amount, refreshed_at)
+SELECT "X", YEAR(CURRENT_DATE) - MOD("X", 3), MOD("X", 12) + 1, MOD("X", 5) + 1, MOD("X", 100) + 1, ("X" - 1) / 3 + 1, 'PAYMENT',
+       20, 30000000, CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 6000);
+
+-- Bảng dùng bộ sinh ID pooled (V3): khối ID kế tiếp bắt đầu sau dữ liệu mẫu
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM attendances)) WHERE entity_name = 'attendances';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM grades)) WHERE entity_name = 'grades';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM certificates)) WHERE entity_name = 'certificates';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM schedules)) WHERE entity_name = 'schedules';
+UPDATE id_generators SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM enrollments)) WHERE entity_name = 'enrollments';
+
+-- Thống kê cho bộ tối ưu (số dòng, độ chọn lọc của cột)
+ANALYZE;
@@ -0,0 +1,52 @@
+package com.nute.training.config;
+
+import com.nute.training.service.AdmissionControlService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Interceptor: AdmissionControlInterceptor
+ * Điều tiết lưu lượng vào các trang đăng ký học của học viên.
+ * Request vượt ngưỡng được chuyển sang phòng chờ thay vì chiếm thread và kết nối DB.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_GATE_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".gate";
+
+    private final AdmissionControlService admissionControlService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!admissionControlService.isEnabled()) {
+            return true;
+        }
+
+        String gate = request.getRequestURI().startsWith("/student/enrollments/register")
+                ? AdmissionControlService.REGISTER_GATE
+                : AdmissionControlService.CATALOG_GATE;
+
+        if (admissionControlService.tryEnter(gate, request.getSession())) {
+            request.setAttribute(ADMITTED_GATE_ATTRIBUTE, gate);
+            return true;
+        }
+
+        admissionControlService.enqueue(gate, request.getSession(), request.getMethod(),
+                request.getRequestURI(), request.getParameterMap());
+        response.sendRedirect("/waiting-room/" + gate);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        Object gate = request.getAttribute(ADMITTED_GATE_ATTRIBUTE);
+        if (gate != null) {
+            admissionControlService.exit((String) gate);
+        }
+    }
+}
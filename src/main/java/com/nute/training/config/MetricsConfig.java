@@ -0,0 +1,215 @@
+package com.nute.training.config;
+
+import com.nute.training.entity.OutboxEvent;
+import com.nute.training.service.AdmissionControlService;
+import com.nute.training.service.AnalyticsCubeService;
+import com.nute.training.service.CacheInvalidationBus;
+import com.nute.training.service.DomainEventPublisher;
+import com.nute.training.service.MailDeliveryService;
+import com.nute.training.service.NotificationService;
+import com.nute.training.service.OutboxRelayService;
+import com.nute.training.service.ReportRollupService;
+import com.nute.training.service.StudentCountReconciliationService;
+import com.nute.training.util.PageAssembler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Metrics Configuration
+ * Số liệu nghiệp vụ và hạ tầng của ứng dụng (xem tại /actuator/prometheus).
+ * Timer HTTP (http.server.requests), pool Hikari (hikaricp.*) và Hibernate (hibernate.*) do Spring Boot tự đăng ký.
+ * Bộ đếm là tổng trên node hiện tại từ lúc khởi động; gộp các node bằng sum() phía Prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Sự kiện nghiệp vụ đã commit theo loại: đăng ký được duyệt/từ chối, có điểm, cấp chứng chỉ, hủy buổi học
+     */
+    @Bean
+    public MeterBinder domainEventMetrics(DomainEventPublisher domainEventPublisher) {
+        return registry -> {
+            for (OutboxEvent.EventType type : OutboxEvent.EventType.values()) {
+                FunctionCounter.builder("app.domain.events", domainEventPublisher, p -> p.getPublishedCount(type))
+                        .description("Sự kiện nghiệp vụ đã ghi")
+                        .tag("type", type.name())
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Truy vấn song song khi dựng trang: đang chạy, phải chạy tuần tự do hết lượt, lượt tải quá hạn
+     */
+    @Bean
+    public MeterBinder pageAssemblyMetrics(PageAssembler pageAssembler) {
+        return registry -> {
+            Gauge.builder("app.page_assembly.running", pageAssembler, PageAssembler::getRunningQueries)
+                    .description("Truy vấn dựng trang đang chạy song song")
+                    .register(registry);
+            FunctionCounter.builder("app.page_assembly.inline", pageAssembler, PageAssembler::getInlineQueries)
+                    .description("Truy vấn dựng trang chạy tuần tự do hết lượt song song")
+                    .register(registry);
+            FunctionCounter.builder("app.page_assembly.deadline_exceeded", pageAssembler,
+                            PageAssembler::getDeadlineExceeded)
+                    .description("Lượt dựng trang quá hạn")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Cổng điều tiết lưu lượng; cổng register chính là số đăng ký học đang xử lý/đang chờ
+     */
+    @Bean
+    public MeterBinder admissionMetrics(AdmissionControlService admissionControlService) {
+        return registry -> {
+            for (String gate : new String[]{AdmissionControlService.CATALOG_GATE, AdmissionControlService.REGISTER_GATE}) {
+                Gauge.builder("app.admission.in_flight", admissionControlService, s -> s.getInFlight(gate))
+                        .description("Request đang xử lý trong cổng")
+                        .tag("gate", gate)
+                        .register(registry);
+                Gauge.builder("app.admission.queue", admissionControlService, s -> s.getQueueLength(gate))
+                        .description("Vé đang xếp hàng")
+                        .tag("gate", gate)
+                        .register(registry);
+            }
+            Gauge.builder("app.enrollments.in_flight", admissionControlService,
+                            s -> s.getInFlight(AdmissionControlService.REGISTER_GATE))
+                    .description("Request đăng ký học đang xử lý")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder outboxMetrics(OutboxRelayService outboxRelayService) {
+        return registry -> {
+            Gauge.builder("app.outbox.pending", outboxRelayService, OutboxRelayService::getPendingEvents)
+                    .description("Sự kiện outbox đang chờ xử lý (do node chạy relay đếm)")
+                    .register(registry);
+            FunctionCounter.builder("app.outbox.events", outboxRelayService, OutboxRelayService::getProcessedEvents)
+                    .tag("result", "processed")
+                    .register(registry);
+            FunctionCounter.builder("app.outbox.events", outboxRelayService, OutboxRelayService::getRetriedEvents)
+                    .tag("result", "retried")
+                    .register(registry);
+            FunctionCounter.builder("app.outbox.events", outboxRelayService, OutboxRelayService::getFailedEvents)
+                    .tag("result", "failed")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheBusMetrics(CacheInvalidationBus cacheInvalidationBus) {
+        return registry -> {
+            FunctionCounter.builder("app.cache_bus.changes", cacheInvalidationBus, CacheInvalidationBus::getPublishedChanges)
+                    .tag("direction", "published")
+                    .register(registry);
+            FunctionCounter.builder("app.cache_bus.changes", cacheInvalidationBus, CacheInvalidationBus::getReceivedChanges)
+                    .tag("direction", "received")
+                    .register(registry);
+            Gauge.builder("app.cache_bus.pending_gaps", cacheInvalidationBus, CacheInvalidationBus::getPendingGapCount)
+                    .description("ID bị bỏ trống đang chờ đọc lại")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder notificationMetrics(NotificationService notificationService,
+                                           MailDeliveryService mailDeliveryService) {
+        return registry -> {
+            FunctionCounter.builder("app.notification.digests", notificationService, NotificationService::getDigestsSent)
+                    .tag("result", "sent")
+                    .register(registry);
+            FunctionCounter.builder("app.notification.digests", notificationService, NotificationService::getDigestsFailed)
+                    .tag("result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("app.notification.skipped", notificationService, NotificationService::getNotificationsSkipped)
+                    .register(registry);
+            Gauge.builder("app.mail.connections.active", mailDeliveryService, MailDeliveryService::getActiveConnections)
+                    .register(registry);
+            Gauge.builder("app.mail.queue", mailDeliveryService, MailDeliveryService::getQueuedChunks)
+                    .description("Nhóm email đang chờ kết nối SMTP")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder reportingMetrics(StudentCountReconciliationService reconciliationService,
+                                        ReportRollupService reportRollupService,
+                                        AnalyticsCubeService analyticsCubeService) {
+        return registry -> {
+            FunctionCounter.builder("app.reconciliation.runs", reconciliationService,
+                            StudentCountReconciliationService::getTotalRuns)
+                    .register(registry);
+            FunctionCounter.builder("app.reconciliation.drifted_classes", reconciliationService,
+                            StudentCountReconciliationService::getTotalDriftedClasses)
+                    .description("Lớp có số học viên bị lệch đã được sửa")
+                    .register(registry);
+            Gauge.builder("app.rollup.pending", reportRollupService, ReportRollupService::getPendingChanges)
+                    .description("Lớp/khóa học chờ cập nhật bảng tổng hợp")
+                    .register(registry);
+            Gauge.builder("app.analytics.cube.enrollments", analyticsCubeService,
+                            AnalyticsCubeService::getLoadedEnrollments)
+                    .register(registry);
+            Gauge.builder("app.analytics.cube.age", analyticsCubeService, MetricsConfig::secondsSinceRefresh)
+                    .description("Thời gian từ lần cập nhật khối phân tích gần nhất")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ObjectProvider<ReplicaRoutingPolicy> replicaRoutingPolicy) {
+        return registry -> replicaRoutingPolicy.ifAvailable(policy -> {
+            FunctionCounter.builder("app.datasource.reads", policy, ReplicaRoutingPolicy::getReplicaReads)
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder("app.datasource.reads", policy, ReplicaRoutingPolicy::getPrimaryReads)
+                    .tag("target", "primary")
+                    .register(registry);
+            Gauge.builder("app.datasource.replica.lag", policy, ReplicaRoutingPolicy::getLastLagSeconds)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("app.datasource.replica.available", policy, p -> p.isReplicaAvailable() ? 1 : 0)
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Tỷ lệ trúng cache cấp 2 và query cache của Hibernate (NaN khi chưa có lượt truy cập hoặc chưa bật thống kê)
+     */
+    @Bean
+    public MeterBinder hibernateCacheRatioMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return registry -> entityManagerFactory.ifAvailable(factory -> {
+            Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+            Gauge.builder("app.hibernate.cache.hit_ratio", statistics,
+                            s -> ratio(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()))
+                    .tag("cache", "second-level")
+                    .register(registry);
+            Gauge.builder("app.hibernate.cache.hit_ratio", statistics,
+                            s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                    .tag("cache", "query")
+                    .register(registry);
+        });
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total > 0 ? (double) hits / total : Double.NaN;
+    }
+
+    private static double secondsSinceRefresh(AnalyticsCubeService service) {
+        LocalDateTime refreshedAt = service.getRefreshedAt();
+        return refreshedAt != null ? Duration.between(refreshedAt, LocalDateTime.now()).toSeconds() : Double.NaN;
+    }
+}
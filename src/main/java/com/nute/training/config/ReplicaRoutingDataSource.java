@@ -0,0 +1,44 @@
+package com.nute.training.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource định tuyến: transaction chỉ đọc -> replica (nếu chính sách cho phép), còn lại -> primary
+ * Phải được bọc trong LazyConnectionDataSourceProxy để việc chọn diễn ra ở câu lệnh đầu tiên,
+ * khi cờ readOnly của transaction đã được thiết lập.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaRoutingPolicy policy;
+
+    public ReplicaRoutingDataSource(ReplicaRoutingPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        log.debug("Connection routed to {} ({})", route,
+                TransactionSynchronizationManager.getCurrentTransactionName());
+        return route;
+    }
+
+    private Route route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return policy.useReplicaForRead() ? Route.REPLICA : Route.PRIMARY;
+        }
+        policy.onWriteTransaction();
+        return Route.PRIMARY;
+    }
+}
@@ -0,0 +1,184 @@
+package com.nute.training.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chính sách chọn replica cho transaction chỉ đọc
+ * - Replica chỉ được dùng khi kiểm tra gần nhất thành công và độ trễ không vượt ngưỡng
+ * - Sau khi user commit một transaction ghi, các lượt đọc của user đó đi primary trong một khoảng ngắn
+ *   (đọc được chính dữ liệu mình vừa ghi dù replica chưa bắt kịp)
+ * Thời điểm hết giữ primary nằm trong HTTP session (lưu chung trong CSDL): request kế tiếp đến node nào cũng thấy.
+ * Tình trạng replica (kết nối, độ trễ) do từng node tự kiểm tra.
+ */
+@Slf4j
+public class ReplicaRoutingPolicy {
+
+    private static final Object WRITE_MARKER_KEY = ReplicaRoutingPolicy.class.getName() + ".WRITE";
+    private static final String STICKY_UNTIL_ATTRIBUTE = ReplicaRoutingPolicy.class.getName() + ".STICKY_UNTIL";
+
+    private final DataSource replicaDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final Duration stickyWindow;
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+
+    private volatile boolean replicaAvailable;
+    private volatile boolean checked;
+    private volatile long lastLagSeconds = -1;
+
+    public ReplicaRoutingPolicy(DataSource replicaDataSource, String lagQuery,
+                                long maxLagSeconds, Duration stickyWindow) {
+        this.replicaDataSource = replicaDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.stickyWindow = stickyWindow;
+    }
+
+    /**
+     * Transaction chỉ đọc hiện tại có được đọc từ replica không
+     */
+    public boolean useReplicaForRead() {
+        boolean useReplica = replicaAvailable && !isSticky();
+        (useReplica ? replicaReads : primaryReads).incrementAndGet();
+        return useReplica;
+    }
+
+    /**
+     * Ghi nhận transaction hiện tại là transaction ghi: sau khi commit, user được giữ ở primary
+     * (chỉ transaction ghi trong request của user đã đăng nhập; job nền không có session)
+     * Bỏ qua transaction của chính bảng session: nạp session để kiểm tra đăng nhập lại mở transaction đó.
+     */
+    public void onWriteTransaction() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null
+                || SessionConfig.SESSION_TRANSACTION_NAME.equals(TransactionSynchronizationManager.getCurrentTransactionName())
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER_KEY)
+                || !isAuthenticated()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                request.setAttribute(STICKY_UNTIL_ATTRIBUTE, System.currentTimeMillis() + stickyWindow.toMillis(),
+                        RequestAttributes.SCOPE_SESSION);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER_KEY);
+            }
+        });
+    }
+
+    /**
+     * Kiểm tra replica định kỳ: còn kết nối được không và trễ bao nhiêu giây so với primary
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:5000}")
+    public void checkReplica() {
+        boolean available;
+        long lag;
+        try (Connection connection = replicaDataSource.getConnection()) {
+            lag = measureLag(connection);
+            available = lag >= 0 && lag <= maxLagSeconds;
+        } catch (Exception e) {
+            log.debug("Replica check failed: {}", e.getMessage());
+            lag = -1;
+            available = false;
+        }
+
+        if (!checked || available != replicaAvailable) {
+            if (available) {
+                log.info("Replica available (lag {}s): read-only transactions routed to replica", lag);
+            } else {
+                log.warn("Replica unavailable or lagging (lag {}s, max {}s): reads fall back to primary",
+                        lag, maxLagSeconds);
+            }
+        }
+        lastLagSeconds = lag;
+        replicaAvailable = available;
+        checked = true;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public long getLastLagSeconds() {
+        return lastLagSeconds;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    /**
+     * Độ trễ (giây) theo lagQuery; -1 nếu replica không còn sao chép
+     * Hỗ trợ kết quả của SHOW REPLICA STATUS (cột Seconds_Behind_Source/Master) hoặc một cột số.
+     * Không có dòng nào (không phải replica, vd. CSDL nhúng khi chạy local) được coi là trễ 0.
+     */
+    private long measureLag(Connection connection) throws Exception {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return connection.isValid(2) ? 0 : -1;
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                return 0;
+            }
+
+            ResultSetMetaData metaData = rs.getMetaData();
+            int column = 1;
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                String label = metaData.getColumnLabel(i);
+                if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                    column = i;
+                    break;
+                }
+            }
+
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+
+    private static boolean isSticky() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return false;
+        }
+        return request.getAttribute(STICKY_UNTIL_ATTRIBUTE, RequestAttributes.SCOPE_SESSION) instanceof Long until
+                && until > System.currentTimeMillis();
+    }
+
+    private static boolean isAuthenticated() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+}
@@ -0,0 +1,16 @@
+package com.nute.training.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * Bật các job định kỳ (package com.nute.training.job)
+ * Job chạy trên virtual thread (spring.threads.virtual.enabled). Khóa mà job giữ trong lúc truy vấn DB
+ * là ReentrantLock, không dùng synchronized: chờ I/O trong khối synchronized ghim virtual thread
+ * vào luồng mang (pinning, Java 21).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
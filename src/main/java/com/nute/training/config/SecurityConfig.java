@@ -2,17 +2,30 @@ package com.nute.training.config;
 
 import com.nute.training.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Spring Security Configuration
@@ -25,6 +38,14 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
+    private final SessionRegistry sessionRegistry;
+
+    /**
+     * Địa chỉ được đọc số liệu /actuator không cần đăng nhập (máy chủ Prometheus), phân cách bằng dấu phẩy.
+     * Mặc định rỗng: sau reverse proxy cùng máy, địa chỉ nguồn luôn là loopback nên không thể tin theo địa chỉ
+     */
+    @Value("${app.metrics.trusted-addresses:}")
+    private String metricsTrustedAddresses = "";
 
     /**
      * Password Encoder (BCrypt)
@@ -54,6 +75,42 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    /**
+     * Security Filter Chain cho Actuator
+     * - /actuator/health: công khai (load balancer)
+     * - Endpoint khác: ADMIN đăng nhập bằng HTTP Basic, hoặc từ địa chỉ Prometheus khai báo tường minh
+     * Không tạo session, không dùng CSRF (chỉ đọc)
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        List<IpAddressMatcher> trustedAddresses = Arrays.stream(metricsTrustedAddresses.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        SimpleGrantedAuthority admin = new SimpleGrantedAuthority("ADMIN");
+
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .authenticationProvider(authenticationProvider())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .anyRequest().access((authentication, context) -> {
+                    boolean trusted = trustedAddresses.stream().anyMatch(matcher -> matcher.matches(context.getRequest()));
+                    Authentication current = authentication.get();
+                    boolean isAdmin = current != null && current.isAuthenticated()
+                            && current.getAuthorities().contains(admin);
+                    return new AuthorizationDecision(trusted || isAdmin);
+                })
+            )
+            .httpBasic(basic -> { })
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        return http.build();
+    }
+
     /**
      * Security Filter Chain
      * Cấu hình phân quyền theo URL và role
@@ -67,6 +124,9 @@ public class SecurityConfig {
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/assets/**", "/webjars/**", "/favicon.ico").permitAll()
                 .requestMatchers("/login", "/logout", "/error", "/register").permitAll()
 
+                // Calendar feeds (xác thực bằng token trong URL)
+                .requestMatchers("/calendar/**").permitAll()
+
                 // Admin only
                 .requestMatchers("/admin/**").hasAuthority("ADMIN")
 
@@ -95,14 +155,16 @@ public class SecurityConfig {
                 .logoutUrl("/logout")
                 .logoutSuccessUrl("/login?logout=true")
                 .invalidateHttpSession(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("SESSION")
                 .permitAll()
             )
             .exceptionHandling(ex -> ex
                 .accessDeniedPage("/access-denied")
             )
             .sessionManagement(session -> session
+                // Registry trên bảng session dùng chung: giới hạn áp dụng cho cả cụm
                 .maximumSessions(1)
+                .sessionRegistry(sessionRegistry)
                 .expiredUrl("/login?expired=true")
             );
 
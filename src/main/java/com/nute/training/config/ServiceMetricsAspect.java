@@ -0,0 +1,57 @@
+package com.nute.training.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aspect: ServiceMetricsAspect
+ * Đo thời gian mỗi lần gọi phương thức public của các service (timer app.service.calls,
+ * tag class/method/exception), trừ accessor đọc bộ đếm (xem ServicePointcuts). Histogram phân vị bật bằng
+ * management.metrics.distribution.percentiles-histogram.app.service.calls.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "app.service.calls";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && com.nute.training.config.ServicePointcuts.instrumentedMethod()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Object result = joinPoint.proceed();
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            sample.stop(successTimers.computeIfAbsent(method, m -> timer(joinPoint, "none")));
+            return result;
+        } catch (Throwable e) {
+            sample.stop(timer(joinPoint, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Thời gian xử lý phương thức service")
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.nute.training.config;
+
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Pointcut dùng chung cho các aspect đo service (ServiceMetricsAspect, SqlProfilingAspect)
+ * Business Rule:
+ * - Chỉ đo các bean @Service trong package service, trừ chính SqlProfileService
+ * - Bỏ qua accessor (getter không tham số, is*() không tham số, get* trả về long/int):
+ *   đây là bộ đếm/trạng thái mà /actuator/prometheus đọc mỗi lần scrape, không phải nghiệp vụ
+ */
+public final class ServicePointcuts {
+
+    private ServicePointcuts() {
+    }
+
+    @Pointcut("within(com.nute.training.service..*) "
+            + "&& @within(org.springframework.stereotype.Service) "
+            + "&& !within(com.nute.training.service.SqlProfileService)")
+    public void serviceBean() {
+    }
+
+    @Pointcut("execution(* get*()) "
+            + "|| execution(boolean is*()) "
+            + "|| execution(long get*(..)) "
+            + "|| execution(int get*(..))")
+    public void accessor() {
+    }
+
+    @Pointcut("serviceBean() && !accessor()")
+    public void instrumentedMethod() {
+    }
+}
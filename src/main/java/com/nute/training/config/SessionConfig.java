@@ -0,0 +1,116 @@
+package com.nute.training.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.serializer.support.SerializationFailedException;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP Session Configuration
+ * Session lưu trong bảng SPRING_SESSION (dùng chung giữa các node, không cần sticky session ở load balancer).
+ * - Thuộc tính session được tuần tự hóa bằng Java serialization, nén gzip khi vượt ngưỡng
+ * - Registry tra session theo tên đăng nhập trên bảng nên giới hạn maximumSessions áp dụng cho cả cụm
+ * - Transaction đọc/ghi bảng session mang tên riêng (ReplicaRoutingPolicy không coi là lượt ghi của user)
+ */
+@Configuration
+public class SessionConfig {
+
+    /**
+     * Tên transaction của Spring Session
+     */
+    public static final String SESSION_TRANSACTION_NAME = "springSession";
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    @Value("${app.session.compression-threshold-bytes:512}")
+    private int compressionThresholdBytes = 512;
+
+    /**
+     * Bộ chuyển đổi thuộc tính session <-> byte[] (tên bean do Spring Session quy định)
+     * Dữ liệu cũ chưa nén vẫn đọc được: phân biệt theo 2 byte đầu (gzip 1F 8B, Java serialization AC ED).
+     */
+    @Bean("springSessionConversionService")
+    public ConversionService springSessionConversionService() {
+        ClassLoader classLoader = SessionConfig.class.getClassLoader();
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(Object.class, byte[].class, this::serialize);
+        conversionService.addConverter(byte[].class, Object.class, bytes -> deserialize(bytes, classLoader));
+        return conversionService;
+    }
+
+    /**
+     * Transaction cho các thao tác trên bảng session (tên bean do Spring Session quy định)
+     * Giống mặc định (REQUIRES_NEW), chỉ thêm tên để phân biệt với transaction nghiệp vụ.
+     */
+    @Bean("springSessionTransactionOperations")
+    public TransactionOperations springSessionTransactionOperations(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(SESSION_TRANSACTION_NAME);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
+    }
+
+    /**
+     * Registry dùng cho maximumSessions: đọc/đánh dấu hết hạn session trực tiếp trên bảng
+     */
+    @Bean
+    public <S extends Session> SpringSessionBackedSessionRegistry<S> sessionRegistry(
+            FindByIndexNameSessionRepository<S> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(256);
+            try (ObjectOutputStream out = new ObjectOutputStream(raw)) {
+                out.writeObject(value);
+            }
+            if (raw.size() <= compressionThresholdBytes) {
+                return raw.toByteArray();
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.size() / 2);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                raw.writeTo(out);
+            }
+            return compressed.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationFailedException("Failed to serialize session attribute of type "
+                    + value.getClass().getName(), e);
+        }
+    }
+
+    private static Object deserialize(byte[] bytes, ClassLoader classLoader) {
+        try {
+            InputStream in = new ByteArrayInputStream(bytes);
+            if (bytes.length > 1 && (bytes[0] & 0xff) == GZIP_MAGIC_FIRST && (bytes[1] & 0xff) == GZIP_MAGIC_SECOND) {
+                in = new GZIPInputStream(in);
+            }
+            try (ObjectInputStream objectIn = new ConfigurableObjectInputStream(in, classLoader)) {
+                return objectIn.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationFailedException("Failed to deserialize session attribute", e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.nute.training.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Bộ đếm câu lệnh SQL theo luồng đang xử lý
+ * Mỗi phạm vi (request HTTP, phương thức service) đếm số câu lệnh, thời gian thực thi,
+ * số entity tải lên và số lần lặp của từng dạng câu lệnh. Phạm vi lồng nhau đều được tính
+ * (số liệu của phương thức bao gồm các phương thức nó gọi).
+ * Dữ liệu đến từ các hook của Hibernate đăng ký ở SqlProfilingConfig.
+ */
+public final class SqlProfiler {
+
+    /**
+     * Giới hạn số dạng câu lệnh ghi nhận trong một phạm vi
+     */
+    private static final int MAX_SHAPES_PER_SCOPE = 200;
+    private static final int MAX_SHAPE_LENGTH = 1000;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = new ThreadLocal<>();
+
+    private SqlProfiler() {
+    }
+
+    /**
+     * Mở phạm vi mới trên luồng hiện tại; phải đóng bằng end() trong finally
+     */
+    public static void begin(String name) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        scopes.push(new Scope(name));
+    }
+
+    /**
+     * Đóng phạm vi trong cùng
+     * @return phạm vi vừa đóng, null nếu không có phạm vi nào đang mở
+     */
+    public static Scope end() {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return null;
+        }
+        Scope scope = scopes.pop();
+        scope.elapsedNanos = System.nanoTime() - scope.startNanos;
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return scope;
+    }
+
+    public static boolean isActive() {
+        return SCOPES.get() != null;
+    }
+
+    /**
+     * Cộng số liệu của một phạm vi đã đóng trên luồng khác (truy vấn chạy song song cho request)
+     * vào mọi phạm vi đang mở của luồng hiện tại
+     */
+    public static void merge(Scope other) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null || other == null) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.statements += other.statements;
+            scope.executionNanos += other.executionNanos;
+            scope.entitiesLoaded += other.entitiesLoaded;
+            other.shapeCounts.forEach((shape, count) -> {
+                Integer current = scope.shapeCounts.get(shape);
+                if (current != null) {
+                    scope.shapeCounts.put(shape, current + count);
+                } else if (scope.shapeCounts.size() < MAX_SHAPES_PER_SCOPE) {
+                    scope.shapeCounts.put(shape, count);
+                }
+            });
+        }
+    }
+
+    static void statementPrepared(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (Scope scope : scopes) {
+            scope.statements++;
+            Integer count = scope.shapeCounts.get(shape);
+            if (count != null) {
+                scope.shapeCounts.put(shape, count + 1);
+            } else if (scope.shapeCounts.size() < MAX_SHAPES_PER_SCOPE) {
+                scope.shapeCounts.put(shape, 1);
+            }
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.executionNanos += nanos;
+        }
+    }
+
+    static void entityLoaded() {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.entitiesLoaded++;
+        }
+    }
+
+    /**
+     * Dạng câu lệnh: bỏ khác biệt khoảng trắng và độ dài danh sách IN (?, ?, ...)
+     */
+    static String shapeOf(String sql) {
+        String shape = IN_LIST.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("(?...)");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) : shape;
+    }
+
+    /**
+     * Số liệu của một phạm vi
+     */
+    public static final class Scope {
+
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Integer> shapeCounts = new HashMap<>();
+        private long elapsedNanos;
+        private int statements;
+        private long executionNanos;
+        private int entitiesLoaded;
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getExecutionNanos() {
+            return executionNanos;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+
+        /**
+         * Dạng câu lệnh lặp nhiều nhất, null nếu không có câu lệnh nào
+         */
+        public Map.Entry<String, Integer> getMostRepeatedShape() {
+            Map.Entry<String, Integer> worst = null;
+            for (Map.Entry<String, Integer> entry : shapeCounts.entrySet()) {
+                if (worst == null || entry.getValue() > worst.getValue()) {
+                    worst = entry;
+                }
+            }
+            return worst;
+        }
+    }
+}
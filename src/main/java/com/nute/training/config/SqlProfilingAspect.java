@@ -0,0 +1,39 @@
+package com.nute.training.config;
+
+import com.nute.training.service.SqlProfileService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect: SqlProfilingAspect
+ * Đếm câu lệnh SQL của mỗi lần gọi phương thức public của các service, trừ accessor (xem ServicePointcuts).
+ * Chạy ngoài @Transactional để tính cả câu lệnh flush khi commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlProfilingAspect {
+
+    private final SqlProfileService sqlProfileService;
+
+    @Around("com.nute.training.config.ServicePointcuts.instrumentedMethod()")
+    public Object profile(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!sqlProfileService.isEnabled()) {
+            return joinPoint.proceed();
+        }
+
+        SqlProfiler.begin(joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sqlProfileService.recordMethod(SqlProfiler.end());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.nute.training.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * SQL Profiling Configuration
+ * Gắn SqlProfiler vào Hibernate:
+ * - StatementInspector: đếm câu lệnh và dạng câu lệnh
+ * - SessionEventListener: thời gian thực thi câu lệnh
+ * - PostLoadEventListener: số entity tải lên từ kết quả truy vấn
+ */
+@Configuration
+public class SqlProfilingConfig {
+
+    @Value("${app.sql-profiler.hibernate-statistics:false}")
+    private boolean hibernateStatistics = false;
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlProfilingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                SqlProfiler.statementPrepared(sql);
+                return sql;
+            });
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, TimingSessionListener.class.getName());
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new PostLoadIntegrator()));
+            properties.put(AvailableSettings.GENERATE_STATISTICS, hibernateStatistics);
+        };
+    }
+
+    /**
+     * Hibernate tạo một instance cho mỗi session (session chỉ dùng trên một luồng)
+     */
+    public static class TimingSessionListener implements SessionEventListener {
+
+        private long executeStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            SqlProfiler.statementExecuted(System.nanoTime() - executeStart);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            SqlProfiler.statementExecuted(System.nanoTime() - executeStart);
+        }
+    }
+
+    private static class PostLoadIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> SqlProfiler.entityLoaded());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                 SessionFactoryServiceRegistry serviceRegistry) {
+        }
+    }
+}
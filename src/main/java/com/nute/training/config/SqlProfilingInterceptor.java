@@ -0,0 +1,45 @@
+package com.nute.training.config;
+
+import com.nute.training.service.SqlProfileService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Interceptor: SqlProfilingInterceptor
+ * Đếm câu lệnh SQL của mỗi request, gom theo endpoint (phương thức HTTP + mẫu đường dẫn),
+ * gồm cả câu lệnh phát sinh khi render view (lazy loading trong template).
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlProfilingInterceptor implements HandlerInterceptor {
+
+    private static final String PROFILING_ATTRIBUTE = SqlProfilingInterceptor.class.getName() + ".active";
+
+    private final SqlProfileService sqlProfileService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!sqlProfileService.isEnabled() || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        SqlProfiler.begin(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        request.setAttribute(PROFILING_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.getAttribute(PROFILING_ATTRIBUTE) != null) {
+            request.removeAttribute(PROFILING_ATTRIBUTE);
+            sqlProfileService.recordRequest(SqlProfiler.end());
+        }
+    }
+}
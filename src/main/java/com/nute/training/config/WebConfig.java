@@ -1,6 +1,7 @@
 package com.nute.training.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,10 +14,21 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final SqlProfilingInterceptor sqlProfilingInterceptor;
     private final StudentProfileInterceptor studentProfileInterceptor;
+    private final AdmissionControlInterceptor admissionControlInterceptor;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Đếm câu lệnh SQL của mỗi request (đăng ký trước để bao cả các interceptor sau)
+        registry.addInterceptor(sqlProfilingInterceptor)
+                .order(Ordered.HIGHEST_PRECEDENCE);
+
+        // Điều tiết lưu lượng trang đăng ký học (chạy trước mọi interceptor có truy vấn DB)
+        registry.addInterceptor(admissionControlInterceptor)
+                .addPathPatterns("/student/enrollments/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+
         // Áp dụng kiểm tra hồ sơ cho các đường dẫn của sinh viên
         registry.addInterceptor(studentProfileInterceptor)
                 .addPathPatterns("/student/**")
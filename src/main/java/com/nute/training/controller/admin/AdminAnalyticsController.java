@@ -0,0 +1,84 @@
+package com.nute.training.controller.admin;
+
+import com.nute.training.service.AnalyticsCubeService;
+import com.nute.training.util.EnrollmentCube.Dimension;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller: AdminAnalyticsController
+ * Phân tích đăng ký, tỷ lệ đạt và chuyên cần (truy vấn trong bộ nhớ)
+ */
+@Controller
+@RequestMapping("/admin/reports/analytics")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminAnalyticsController {
+
+    private static final Map<Dimension, String> DIMENSION_LABELS = Map.of(
+            Dimension.COURSE_TYPE, "Loại khóa học",
+            Dimension.COURSE, "Khóa học",
+            Dimension.TEACHER, "Giảng viên",
+            Dimension.MONTH, "Tháng đăng ký",
+            Dimension.STATUS, "Trạng thái");
+
+    private static final Map<Dimension, String> FILTER_PARAMS = Map.of(
+            Dimension.COURSE_TYPE, "courseType",
+            Dimension.COURSE, "course",
+            Dimension.TEACHER, "teacher",
+            Dimension.MONTH, "month",
+            Dimension.STATUS, "status");
+
+    private final AnalyticsCubeService analyticsCubeService;
+
+    /**
+     * Gom nhóm theo tối đa hai chiều, lọc theo từng chiều
+     */
+    @GetMapping
+    public String analytics(@RequestParam(defaultValue = "COURSE") Dimension groupBy,
+                            @RequestParam(required = false) Dimension thenBy,
+                            @RequestParam(required = false) List<Long> courseType,
+                            @RequestParam(required = false) List<Long> course,
+                            @RequestParam(required = false) List<Long> teacher,
+                            @RequestParam(required = false) List<Long> month,
+                            @RequestParam(required = false) List<Long> status,
+                            Model model) {
+        List<Dimension> dimensions = new ArrayList<>(List.of(groupBy));
+        if (thenBy != null && thenBy != groupBy) {
+            dimensions.add(thenBy);
+        }
+
+        Map<Dimension, List<Long>> filters = new EnumMap<>(Dimension.class);
+        filters.put(Dimension.COURSE_TYPE, courseType);
+        filters.put(Dimension.COURSE, course);
+        filters.put(Dimension.TEACHER, teacher);
+        filters.put(Dimension.MONTH, month);
+        filters.put(Dimension.STATUS, status);
+
+        Map<Dimension, List<AnalyticsCubeService.DimensionValue>> values = new EnumMap<>(Dimension.class);
+        for (Dimension dimension : Dimension.values()) {
+            values.put(dimension, analyticsCubeService.findDimensionValues(dimension));
+        }
+
+        model.addAttribute("result", analyticsCubeService.query(dimensions, filters));
+        model.addAttribute("dimensions", Dimension.values());
+        model.addAttribute("dimensionLabels", DIMENSION_LABELS);
+        model.addAttribute("filterParams", FILTER_PARAMS);
+        model.addAttribute("dimensionValues", values);
+        model.addAttribute("filters", filters);
+        model.addAttribute("groupBy", groupBy);
+        model.addAttribute("thenBy", dimensions.size() > 1 ? thenBy : null);
+        model.addAttribute("pageTitle", "Phân tích đào tạo");
+        return "admin/reports/analytics";
+    }
+}
@@ -3,6 +3,7 @@ package com.nute.training.controller.admin;
 import com.nute.training.entity.User;
 import com.nute.training.service.CertificateService;
 import com.nute.training.service.ClassService;
+import com.nute.training.service.StudentInfoService;
 import com.nute.training.util.AuthenticationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ public class AdminCertificateController {
 
     private final CertificateService certificateService;
     private final ClassService classService;
+    private final StudentInfoService studentInfoService;
     private final AuthenticationHelper authenticationHelper;
 
     /**
@@ -49,6 +51,10 @@ public class AdminCertificateController {
 
             model.addAttribute("classEntity", classEntity);
             model.addAttribute("eligibleEnrollments", eligibleEnrollments);
+            // Ngày sinh nằm trong hồ sơ học viên: nạp một lần cho cả danh sách
+            model.addAttribute("studentInfos", studentInfoService.findByUserIds(eligibleEnrollments.stream()
+                    .map(enrollment -> enrollment.getStudent().getId())
+                    .toList()));
             return "admin/certificates/eligible";
         } catch (Exception e) {
             log.error("Error loading eligible students", e);
@@ -5,6 +5,7 @@ import com.nute.training.service.ClassService;
 import com.nute.training.service.CourseService;
 import com.nute.training.service.EnrollmentService;
 import com.nute.training.service.ScheduleService;
+import com.nute.training.service.StudentCountReconciliationService;
 import com.nute.training.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -30,6 +31,7 @@ public class AdminClassController {
     private final UserService userService;
     private final ScheduleService scheduleService;
     private final EnrollmentService enrollmentService;
+    private final StudentCountReconciliationService studentCountReconciliationService;
 
     /**
      * Danh sách lớp học
@@ -63,9 +65,33 @@ public class AdminClassController {
         }
 
         model.addAttribute("statuses", ClassEntity.ClassStatus.values());
+        model.addAttribute("studentCountReport", studentCountReconciliationService.getLastReport().orElse(null));
         return "admin/classes/list";
     }
 
+    /**
+     * Đối chiếu lại số học viên của mọi lớp (chạy ngay)
+     */
+    @PostMapping("/reconcile-student-counts")
+    public String reconcileStudentCounts(RedirectAttributes redirectAttributes) {
+        try {
+            var report = studentCountReconciliationService.reconcile("manual");
+            if (report.classesDrifted() == 0) {
+                redirectAttributes.addFlashAttribute("success",
+                        "Đã kiểm tra " + report.classesChecked() + " lớp: số học viên đều khớp");
+            } else {
+                redirectAttributes.addFlashAttribute("success",
+                        "Đã kiểm tra " + report.classesChecked() + " lớp, sửa " + report.classesFixed()
+                                + " lớp bị lệch số học viên (tổng lệch " + report.absoluteDrift() + ")");
+            }
+        } catch (Exception e) {
+            log.error("Error reconciling student counts", e);
+            redirectAttributes.addFlashAttribute("error",
+                    "Lỗi khi đối chiếu số học viên: " + e.getMessage());
+        }
+        return "redirect:/admin/classes";
+    }
+
     /**
      * Form tạo lớp học mới
      */
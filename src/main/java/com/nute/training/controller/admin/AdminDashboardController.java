@@ -6,14 +6,13 @@ import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.User;
 import com.nute.training.service.*;
 import com.nute.training.util.AuthenticationHelper;
+import com.nute.training.util.PageAssembler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.util.List;
-
 /**
  * Controller: AdminDashboardController
  * Dashboard cho Admin
@@ -29,6 +28,7 @@ public class AdminDashboardController {
     private final EnrollmentService enrollmentService;
     private final CertificateService certificateService;
     private final AuthenticationHelper authenticationHelper;
+    private final PageAssembler pageAssembler;
 
     /**
      * Trang dashboard admin
@@ -39,34 +39,38 @@ public class AdminDashboardController {
         User currentAdmin = authenticationHelper.getCurrentUser()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Statistics
-        long totalUsers = userService.findAll().size();
-        long totalTeachers = userService.findActiveTeachers().size();
-        long totalStudents = userService.findActiveStudents().size();
-        long totalCourses = courseService.findAll().size();
-        long activeCourses = courseService.findActiveCourses().size();
-        long totalClasses = classService.findAll().size();
-        long ongoingClasses = classService.findByStatus(ClassEntity.ClassStatus.ONGOING).size();
-        long pendingEnrollments = enrollmentService.findPendingEnrollments().size();
+        // Các truy vấn độc lập: chạy song song, thời gian tải trang bằng truy vấn chậm nhất
+        try (PageAssembler.Assembly page = pageAssembler.begin("admin.dashboard")) {
+            var totalUsers = page.fork(userService::countAll);
+            var totalTeachers = page.fork(() -> userService.countByRoleAndStatus(User.Role.TEACHER, User.Status.ACTIVE));
+            var totalStudents = page.fork(() -> userService.countByRoleAndStatus(User.Role.STUDENT, User.Status.ACTIVE));
+            var totalCourses = page.fork(courseService::countAll);
+            var activeCourses = page.fork(() -> courseService.countByStatus(Course.CourseStatus.ACTIVE));
+            var totalClasses = page.fork(classService::countAll);
+            var ongoingClasses = page.fork(() -> classService.countByStatus(ClassEntity.ClassStatus.ONGOING));
+            var pendingEnrollments = page.fork(() -> enrollmentService.countByStatus(Enrollment.EnrollmentStatus.PENDING));
+
+            // Recent data (nạp sẵn quan hệ mà view dùng)
+            var recentCourses = page.fork(() -> courseService.findRecentActiveCourses(5));
+            var recentClasses = page.fork(() -> classService.findRecentByStatus(ClassEntity.ClassStatus.ONGOING, 5));
+            var recentEnrollments = page.fork(() -> enrollmentService.findOldestPendingEnrollments(10));
+            page.join();
 
-        // Recent data
-        List<Course> recentCourses = courseService.findActiveCourses().stream().limit(5).toList();
-        List<ClassEntity> recentClasses = classService.findByStatus(ClassEntity.ClassStatus.ONGOING).stream().limit(5).toList();
-        List<Enrollment> recentEnrollments = enrollmentService.findPendingEnrollments().stream().limit(10).toList();
+            model.addAttribute("totalUsers", totalUsers.get());
+            model.addAttribute("totalTeachers", totalTeachers.get());
+            model.addAttribute("totalStudents", totalStudents.get());
+            model.addAttribute("totalCourses", totalCourses.get());
+            model.addAttribute("activeCourses", activeCourses.get());
+            model.addAttribute("totalClasses", totalClasses.get());
+            model.addAttribute("ongoingClasses", ongoingClasses.get());
+            model.addAttribute("pendingEnrollments", pendingEnrollments.get());
+            model.addAttribute("recentCourses", recentCourses.get());
+            model.addAttribute("recentClasses", recentClasses.get());
+            model.addAttribute("recentEnrollments", recentEnrollments.get());
+        }
 
         // Add to model
         model.addAttribute("currentUser", currentAdmin);
-        model.addAttribute("totalUsers", totalUsers);
-        model.addAttribute("totalTeachers", totalTeachers);
-        model.addAttribute("totalStudents", totalStudents);
-        model.addAttribute("totalCourses", totalCourses);
-        model.addAttribute("activeCourses", activeCourses);
-        model.addAttribute("totalClasses", totalClasses);
-        model.addAttribute("ongoingClasses", ongoingClasses);
-        model.addAttribute("pendingEnrollments", pendingEnrollments);
-        model.addAttribute("recentCourses", recentCourses);
-        model.addAttribute("recentClasses", recentClasses);
-        model.addAttribute("recentEnrollments", recentEnrollments);
         model.addAttribute("pageTitle", "Dashboard");
 
         return "admin/dashboard";
@@ -0,0 +1,50 @@
+package com.nute.training.controller.admin;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.SqlProfileService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Controller: AdminDiagnosticsController
+ * Chẩn đoán hiệu năng SQL: endpoint và phương thức service tốn nhiều câu lệnh nhất (node hiện tại)
+ */
+@Controller
+@RequestMapping("/admin/diagnostics")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminDiagnosticsController {
+
+    private static final int TOP_LIMIT = 20;
+
+    private final SqlProfileService sqlProfileService;
+    private final JobLeaseService jobLeaseService;
+
+    @GetMapping("/sql")
+    public String sql(Model model) {
+        model.addAttribute("enabled", sqlProfileService.isEnabled());
+        model.addAttribute("since", sqlProfileService.getSince());
+        model.addAttribute("nodeId", jobLeaseService.getNodeId());
+        model.addAttribute("endpoints", sqlProfileService.findTopEndpoints(TOP_LIMIT));
+        model.addAttribute("methods", sqlProfileService.findTopMethods(TOP_LIMIT));
+        model.addAttribute("offenders", sqlProfileService.findRecentOffenders());
+        model.addAttribute("hibernateStatistics", sqlProfileService.getHibernateStatistics());
+        model.addAttribute("slowQueries", sqlProfileService.findSlowestQueries(TOP_LIMIT));
+        model.addAttribute("pageTitle", "Chẩn đoán SQL");
+        return "admin/diagnostics/sql";
+    }
+
+    @PostMapping("/sql/reset")
+    public String reset(RedirectAttributes redirectAttributes) {
+        sqlProfileService.reset();
+        log.info("SQL profile statistics reset");
+        redirectAttributes.addFlashAttribute("success", "Đã xóa số liệu thống kê SQL");
+        return "redirect:/admin/diagnostics/sql";
+    }
+}
@@ -1,9 +1,12 @@
 package com.nute.training.controller.admin;
 
 import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.PaymentTransaction;
 import com.nute.training.entity.User;
 import com.nute.training.service.ClassService;
 import com.nute.training.service.EnrollmentService;
+import com.nute.training.service.IdempotencyService;
+import com.nute.training.service.PaymentLedgerService;
 import com.nute.training.util.AuthenticationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +28,8 @@ public class AdminEnrollmentController {
     private final EnrollmentService enrollmentService;
     private final ClassService classService;
     private final AuthenticationHelper authenticationHelper;
+    private final IdempotencyService idempotencyService;
+    private final PaymentLedgerService paymentLedgerService;
 
     /**
      * Danh sách tất cả đăng ký
@@ -62,6 +67,8 @@ public class AdminEnrollmentController {
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy đăng ký"));
 
             model.addAttribute("enrollment", enrollment);
+            model.addAttribute("transactions", paymentLedgerService.findByEnrollment(id));
+            model.addAttribute("paymentReference", paymentLedgerService.referenceOf(id));
             return "admin/enrollments/view";
         } catch (Exception e) {
             log.error("Error loading enrollment", e);
@@ -78,22 +85,27 @@ public class AdminEnrollmentController {
      * - Tăng currentStudents của lớp
      */
     @PostMapping("/{id}/approve")
-    public String approve(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        try {
-            User currentAdmin = authenticationHelper.getCurrentUser()
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Enrollment enrollment = enrollmentService.approveEnrollment(id, currentAdmin);
-
-            redirectAttributes.addFlashAttribute("success",
-                    "Duyệt đăng ký thành công cho học viên: " +
-                    enrollment.getStudent().getFullName());
-        } catch (Exception e) {
-            log.error("Error approving enrollment", e);
-            redirectAttributes.addFlashAttribute("error",
-                    "Lỗi khi duyệt đăng ký: " + e.getMessage());
-        }
-        return "redirect:/admin/enrollments/pending";
+    public String approve(@PathVariable Long id,
+                         @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
+                         RedirectAttributes redirectAttributes) {
+        return idempotencyService.execute("enrollment.approve", authenticationHelper.getCurrentUsername(),
+                idempotencyKey, redirectAttributes, () -> {
+            try {
+                User currentAdmin = authenticationHelper.getCurrentUser()
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+
+                Enrollment enrollment = enrollmentService.approveEnrollment(id, currentAdmin);
+
+                redirectAttributes.addFlashAttribute("success",
+                        "Duyệt đăng ký thành công cho học viên: " +
+                        enrollment.getStudent().getFullName());
+            } catch (Exception e) {
+                log.error("Error approving enrollment", e);
+                redirectAttributes.addFlashAttribute("error",
+                        "Lỗi khi duyệt đăng ký: " + e.getMessage());
+            }
+            return "redirect:/admin/enrollments/pending";
+        });
     }
 
     /**
@@ -102,38 +114,47 @@ public class AdminEnrollmentController {
     @PostMapping("/{id}/reject")
     public String reject(@PathVariable Long id,
                         @RequestParam(required = false) String reason,
+                        @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
                         RedirectAttributes redirectAttributes) {
-        try {
-            User currentAdmin = authenticationHelper.getCurrentUser()
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
-            Enrollment enrollment = enrollmentService.rejectEnrollment(id, currentAdmin, reason);
-
-            redirectAttributes.addFlashAttribute("success",
-                    "Từ chối đăng ký cho học viên: " +
-                    enrollment.getStudent().getFullName());
-        } catch (Exception e) {
-            log.error("Error rejecting enrollment", e);
-            redirectAttributes.addFlashAttribute("error",
-                    "Lỗi khi từ chối đăng ký: " + e.getMessage());
-        }
-        return "redirect:/admin/enrollments/pending";
+        return idempotencyService.execute("enrollment.reject", authenticationHelper.getCurrentUsername(),
+                idempotencyKey, redirectAttributes, () -> {
+            try {
+                User currentAdmin = authenticationHelper.getCurrentUser()
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+
+                Enrollment enrollment = enrollmentService.rejectEnrollment(id, currentAdmin, reason);
+
+                redirectAttributes.addFlashAttribute("success",
+                        "Từ chối đăng ký cho học viên: " +
+                        enrollment.getStudent().getFullName());
+            } catch (Exception e) {
+                log.error("Error rejecting enrollment", e);
+                redirectAttributes.addFlashAttribute("error",
+                        "Lỗi khi từ chối đăng ký: " + e.getMessage());
+            }
+            return "redirect:/admin/enrollments/pending";
+        });
     }
 
     /**
      * Hủy đăng ký
      */
     @PostMapping("/{id}/cancel")
-    public String cancel(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        try {
-            enrollmentService.cancelEnrollment(id);
-            redirectAttributes.addFlashAttribute("success", "Hủy đăng ký thành công");
-        } catch (Exception e) {
-            log.error("Error cancelling enrollment", e);
-            redirectAttributes.addFlashAttribute("error",
-                    "Lỗi khi hủy đăng ký: " + e.getMessage());
-        }
-        return "redirect:/admin/enrollments";
+    public String cancel(@PathVariable Long id,
+                        @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
+                        RedirectAttributes redirectAttributes) {
+        return idempotencyService.execute("enrollment.cancel", authenticationHelper.getCurrentUsername(),
+                idempotencyKey, redirectAttributes, () -> {
+            try {
+                enrollmentService.cancelEnrollment(id);
+                redirectAttributes.addFlashAttribute("success", "Hủy đăng ký thành công");
+            } catch (Exception e) {
+                log.error("Error cancelling enrollment", e);
+                redirectAttributes.addFlashAttribute("error",
+                        "Lỗi khi hủy đăng ký: " + e.getMessage());
+            }
+            return "redirect:/admin/enrollments";
+        });
     }
 
     /**
@@ -142,17 +163,52 @@ public class AdminEnrollmentController {
     @PostMapping("/{id}/update-payment")
     public String updatePayment(@PathVariable Long id,
                                @RequestParam java.math.BigDecimal amount,
+                               @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
                                RedirectAttributes redirectAttributes) {
-        try {
-            enrollmentService.updatePayment(id, amount);
-            redirectAttributes.addFlashAttribute("success",
-                    "Cập nhật thanh toán thành công");
-        } catch (Exception e) {
-            log.error("Error updating payment", e);
-            redirectAttributes.addFlashAttribute("error",
-                    "Lỗi khi cập nhật thanh toán: " + e.getMessage());
-        }
-        return "redirect:/admin/enrollments/" + id;
+        return idempotencyService.execute("enrollment.update-payment", authenticationHelper.getCurrentUsername(),
+                idempotencyKey, redirectAttributes, () -> {
+            try {
+                User currentAdmin = authenticationHelper.getCurrentUser()
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+
+                enrollmentService.updatePayment(id, amount, currentAdmin);
+                redirectAttributes.addFlashAttribute("success",
+                        "Cập nhật thanh toán thành công");
+            } catch (Exception e) {
+                log.error("Error updating payment", e);
+                redirectAttributes.addFlashAttribute("error",
+                        "Lỗi khi cập nhật thanh toán: " + e.getMessage());
+            }
+            return "redirect:/admin/enrollments/" + id;
+        });
+    }
+
+    /**
+     * Ghi nhận giao dịch thanh toán (thu hoặc hoàn tiền) vào sổ cái
+     */
+    @PostMapping("/{id}/payments")
+    public String recordPayment(@PathVariable Long id,
+                               @RequestParam PaymentTransaction.TransactionType type,
+                               @RequestParam java.math.BigDecimal amount,
+                               @RequestParam(required = false) String description,
+                               @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
+                               RedirectAttributes redirectAttributes) {
+        return idempotencyService.execute("enrollment.payment", authenticationHelper.getCurrentUsername(),
+                idempotencyKey, redirectAttributes, () -> {
+            try {
+                User currentAdmin = authenticationHelper.getCurrentUser()
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+
+                paymentLedgerService.recordTransaction(id, type, amount, description, currentAdmin);
+                redirectAttributes.addFlashAttribute("success",
+                        "Ghi nhận giao dịch thanh toán thành công");
+            } catch (Exception e) {
+                log.error("Error recording payment", e);
+                redirectAttributes.addFlashAttribute("error",
+                        "Lỗi khi ghi nhận giao dịch: " + e.getMessage());
+            }
+            return "redirect:/admin/enrollments/" + id;
+        });
     }
 
     /**
@@ -0,0 +1,73 @@
+package com.nute.training.controller.admin;
+
+import com.nute.training.entity.User;
+import com.nute.training.service.PaymentLedgerService;
+import com.nute.training.util.AuthenticationHelper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.InputStream;
+
+/**
+ * Controller: AdminPaymentController
+ * Đối soát thanh toán - Nhập sao kê ngân hàng
+ */
+@Controller
+@RequestMapping("/admin/payments")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminPaymentController {
+
+    private final PaymentLedgerService paymentLedgerService;
+    private final AuthenticationHelper authenticationHelper;
+
+    /**
+     * Form nhập sao kê (kèm kết quả lần nhập vừa xong)
+     */
+    @GetMapping("/import")
+    public String importForm(Model model) {
+        model.addAttribute("statementColumns", PaymentLedgerService.STATEMENT_COLUMNS);
+        model.addAttribute("paymentReferenceExample", paymentLedgerService.referenceOf(123L));
+        model.addAttribute("pageTitle", "Đối soát thanh toán");
+        return "admin/payments/import";
+    }
+
+    /**
+     * Nhập sao kê ngân hàng (CSV)
+     * Business Rule:
+     * - Mã giao dịch đã nhập sẽ bị bỏ qua, nên nhập lại cùng file không ghi trùng
+     */
+    @PostMapping("/import")
+    public String importStatement(@RequestParam("file") MultipartFile file,
+                                  RedirectAttributes redirectAttributes) {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Vui lòng chọn file sao kê");
+            return "redirect:/admin/payments/import";
+        }
+
+        try (InputStream input = file.getInputStream()) {
+            User currentAdmin = authenticationHelper.getCurrentUser()
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+
+            PaymentLedgerService.StatementImportReport report =
+                    paymentLedgerService.importBankStatement(input, file.getOriginalFilename(), currentAdmin);
+
+            redirectAttributes.addFlashAttribute("importReport", report);
+            redirectAttributes.addFlashAttribute("success",
+                    "Đã ghi nhận " + report.imported() + " giao dịch từ sao kê");
+        } catch (Exception e) {
+            log.error("Error importing bank statement", e);
+            redirectAttributes.addFlashAttribute("error",
+                    "Lỗi khi nhập sao kê: " + e.getMessage());
+        }
+        return "redirect:/admin/payments/import";
+    }
+}
@@ -0,0 +1,72 @@
+package com.nute.training.controller.admin;
+
+import com.nute.training.service.ReportRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Controller: AdminReportController
+ * Báo cáo doanh thu và sĩ số (đọc từ bảng tổng hợp)
+ */
+@Controller
+@RequestMapping("/admin/reports")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminReportController {
+
+    private final ReportRollupService reportRollupService;
+
+    /**
+     * Báo cáo doanh thu theo năm/tháng và theo loại khóa học, khóa học hoặc lớp
+     */
+    @GetMapping("/revenue")
+    public String revenue(@RequestParam(required = false) Integer year,
+                          @RequestParam(required = false) Integer month,
+                          @RequestParam(defaultValue = "COURSE") ReportRollupService.Dimension dimension,
+                          Model model) {
+        int currentYear = LocalDate.now().getYear();
+        int reportYear = year != null ? year : currentYear;
+        Integer reportMonth = month != null && month >= 1 && month <= 12 ? month : null;
+
+        List<Integer> years = new ArrayList<>(reportRollupService.findReportYears());
+        if (!years.contains(reportYear)) {
+            years.add(reportYear);
+            years.sort(Comparator.reverseOrder());
+        }
+
+        model.addAttribute("report", reportRollupService.getRevenueReport(reportYear, reportMonth, dimension));
+        model.addAttribute("years", years);
+        model.addAttribute("dimensions", ReportRollupService.Dimension.values());
+        model.addAttribute("pageTitle", "Báo cáo doanh thu");
+        return "admin/reports/revenue";
+    }
+
+    /**
+     * Dựng lại toàn bộ số liệu tổng hợp
+     */
+    @PostMapping("/revenue/rebuild")
+    public String rebuild(RedirectAttributes redirectAttributes) {
+        try {
+            int refreshed = reportRollupService.rebuildAll();
+            redirectAttributes.addFlashAttribute("success",
+                    "Đã tính lại số liệu tổng hợp cho " + refreshed + " lớp");
+        } catch (Exception e) {
+            log.error("Error rebuilding report rollups", e);
+            redirectAttributes.addFlashAttribute("error",
+                    "Lỗi khi tính lại số liệu: " + e.getMessage());
+        }
+        return "redirect:/admin/reports/revenue";
+    }
+}
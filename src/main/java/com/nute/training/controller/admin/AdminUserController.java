@@ -1,6 +1,7 @@
 package com.nute.training.controller.admin;
 
 import com.nute.training.entity.User;
+import com.nute.training.service.StudentInfoService;
 import com.nute.training.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class AdminUserController {
 
     private final UserService userService;
+    private final StudentInfoService studentInfoService;
 
     /**
      * Danh sách người dùng
@@ -201,10 +203,14 @@ public class AdminUserController {
     public String view(@PathVariable Long id, Model model,
                       RedirectAttributes redirectAttributes) {
         try {
-            User user = userService.findUserDetailById(id)
+            User user = userService.findById(id)
                     .orElseThrow(() -> new RuntimeException("Không tìm thấy người dùng"));
 
             model.addAttribute("user", user);
+            // Hồ sơ chỉ nạp cho học viên (User không còn tự nạp hồ sơ)
+            if (user.getRole() == User.Role.STUDENT) {
+                model.addAttribute("studentInfo", studentInfoService.findByUserId(id).orElse(null));
+            }
             return "admin/users/view";
         } catch (Exception e) {
             log.error("Error loading user", e);
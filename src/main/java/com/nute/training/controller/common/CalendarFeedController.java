@@ -0,0 +1,50 @@
+package com.nute.training.controller.common;
+
+import com.nute.training.service.CalendarFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+
+/**
+ * Controller: CalendarFeedController
+ * Lịch iCalendar (.ics) cho ứng dụng lịch (Google Calendar, Outlook...) - xác thực bằng token
+ * Hỗ trợ conditional GET (If-None-Match / If-Modified-Since) để trả 304 khi lịch không đổi
+ */
+@Controller
+@RequestMapping("/calendar")
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
+    private final CalendarFeedService calendarFeedService;
+
+    @GetMapping("/{token}.ics")
+    public ResponseEntity<byte[]> feed(@PathVariable String token, WebRequest request) {
+        Optional<CalendarFeedService.CalendarFeed> feed = calendarFeedService.findFeedByToken(token);
+        if (feed.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        CalendarFeedService.CalendarFeed calendar = feed.get();
+        if (request.checkNotModified(calendar.etag(), calendar.lastModified())) {
+            // 304 Not Modified - headers ETag/Last-Modified đã được set
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(calendar.etag())
+                .lastModified(calendar.lastModified())
+                .body(calendar.content());
+    }
+}
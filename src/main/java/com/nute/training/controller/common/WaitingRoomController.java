@@ -0,0 +1,65 @@
+package com.nute.training.controller.common;
+
+import com.nute.training.service.AdmissionControlService;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Controller: WaitingRoomController
+ * Phòng chờ khi trang đăng ký quá tải. Chỉ đọc vé trong session và bộ đếm trong bộ nhớ
+ * (truy cập DB duy nhất là đọc/cập nhật dòng session, không truy vấn dữ liệu nghiệp vụ).
+ */
+@Controller
+@RequestMapping("/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+
+    private final AdmissionControlService admissionControlService;
+
+    /**
+     * Trang chờ: hiển thị vị trí và tự gửi lại request gốc khi đến lượt
+     */
+    @GetMapping("/{gate}")
+    public String waitingRoom(@PathVariable String gate, HttpSession session, Model model) {
+        if (!admissionControlService.isKnownGate(gate)) {
+            return "redirect:/student/enrollments/browse";
+        }
+
+        var ticket = admissionControlService.currentTicket(gate, session).orElse(null);
+        if (ticket == null) {
+            return "redirect:/student/enrollments/browse";
+        }
+
+        model.addAttribute("gate", gate);
+        model.addAttribute("ticket", ticket);
+        model.addAttribute("status", admissionControlService.status(gate, ticket));
+        model.addAttribute("pollSeconds", admissionControlService.getPollSeconds());
+        return "student/waiting-room";
+    }
+
+    /**
+     * Trạng thái vé (poll định kỳ từ trang chờ)
+     */
+    @GetMapping("/{gate}/status")
+    @ResponseBody
+    public ResponseEntity<AdmissionControlService.TicketStatus> status(@PathVariable String gate,
+                                                                       HttpSession session) {
+        if (!admissionControlService.isKnownGate(gate)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return admissionControlService.currentTicket(gate, session)
+                .map(ticket -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(admissionControlService.status(gate, ticket)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -2,6 +2,7 @@ package com.nute.training.controller.student;
 
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Course;
+import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.User;
 import com.nute.training.exception.BusinessException;
 import com.nute.training.exception.ResourceNotFoundException;
@@ -9,6 +10,8 @@ import com.nute.training.exception.UnauthorizedException;
 import com.nute.training.service.ClassService;
 import com.nute.training.service.CourseService;
 import com.nute.training.service.EnrollmentService;
+import com.nute.training.service.IdempotencyService;
+import com.nute.training.service.PaymentLedgerService;
 import com.nute.training.util.AuthenticationHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,6 +35,8 @@ public class StudentEnrollmentController {
     private final ClassService classService;
     private final CourseService courseService;
     private final EnrollmentService enrollmentService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentLedgerService paymentLedgerService;
     private final AuthenticationHelper authenticationHelper;
 
     /**
@@ -54,9 +59,9 @@ public class StudentEnrollmentController {
             log.info("Found {} classes for course ID: {}", classes.size(), courseId);
             model.addAttribute("selectedCourseId", courseId);
         } else {
-            // Mặc định hiển thị các lớp đang tuyển sinh (PENDING và ONGOING)
-            classes = classService.findAvailableClasses();
-            log.info("Found {} available classes (PENDING or ONGOING with seats)", classes.size());
+            // Mặc định hiển thị các lớp đang tuyển sinh (PENDING và ONGOING, lớp đầy nhận danh sách chờ)
+            classes = classService.findOpenClasses();
+            log.info("Found {} open classes (PENDING or ONGOING)", classes.size());
         }
 
         model.addAttribute("classes", classes);
@@ -70,25 +75,37 @@ public class StudentEnrollmentController {
 
     /**
      * Xử lý đăng ký lớp học
+     * Form gửi kèm idempotency key: bấm đúp/gửi lại chỉ tạo một đăng ký
      */
     @PostMapping("/register")
     public String register(@RequestParam Long classId,
                            @RequestParam(required = false) String notes,
+                           @RequestParam(name = IdempotencyService.KEY_PARAMETER, required = false) String idempotencyKey,
                            RedirectAttributes redirectAttributes) {
         User currentStudent = authenticationHelper.getCurrentUser()
                 .orElseThrow(() -> new UnauthorizedException());
 
-        ClassEntity classEntity = classService.findById(classId)
-                .orElseThrow(() -> new ResourceNotFoundException("Lớp học", classId));
+        return idempotencyService.execute("enrollment.register", currentStudent.getUsername(), idempotencyKey,
+                redirectAttributes, () -> {
+            ClassEntity classEntity = classService.findById(classId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Lớp học", classId));
 
-        try {
-            enrollmentService.createEnrollment(currentStudent, classEntity, notes);
-            redirectAttributes.addFlashAttribute("success", "Đăng ký thành công! Vui lòng chờ duyệt.");
-            return "redirect:/student/dashboard";
-        } catch (IllegalArgumentException | IllegalStateException e) {
-            // Business logic errors (lớp đầy, đã đăng ký, v.v.)
-            throw new BusinessException(e.getMessage());
-        }
+            try {
+                Enrollment enrollment = enrollmentService.createEnrollment(currentStudent, classEntity, notes);
+                if (enrollment.getStatus() == Enrollment.EnrollmentStatus.WAITLISTED) {
+                    long rank = enrollmentService.findWaitlistRank(enrollment).orElse(1L);
+                    redirectAttributes.addFlashAttribute("success",
+                            "Lớp đã đủ chỗ. Bạn ở vị trí thứ " + rank
+                                    + " trong danh sách chờ và sẽ được chuyển sang chờ duyệt khi có chỗ trống.");
+                } else {
+                    redirectAttributes.addFlashAttribute("success", "Đăng ký thành công! Vui lòng chờ duyệt.");
+                }
+                return "redirect:/student/dashboard";
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // Business logic errors (lớp đầy, đã đăng ký, v.v.)
+                throw new BusinessException(e.getMessage());
+            }
+        });
     }
 
     /**
@@ -100,6 +117,7 @@ public class StudentEnrollmentController {
                 .orElseThrow(() -> new UnauthorizedException());
 
         model.addAttribute("enrollments", enrollmentService.findEnrollmentHistoryByStudent(currentStudent));
+        model.addAttribute("paymentReferencePrefix", paymentLedgerService.getReferencePrefix());
         model.addAttribute("pageTitle", "Lớp học của tôi");
         return "student/enrollments/history";
     }
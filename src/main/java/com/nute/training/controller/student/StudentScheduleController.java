@@ -2,6 +2,7 @@ package com.nute.training.controller.student;
 
 import com.nute.training.entity.User;
 import com.nute.training.exception.UnauthorizedException;
+import com.nute.training.service.CalendarFeedService;
 import com.nute.training.service.ScheduleService;
 import com.nute.training.util.AuthenticationHelper;
 import lombok.RequiredArgsConstructor;
@@ -10,8 +11,11 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.time.LocalDate;
 
@@ -26,6 +30,7 @@ import java.time.LocalDate;
 public class StudentScheduleController {
 
     private final ScheduleService scheduleService;
+    private final CalendarFeedService calendarFeedService;
     private final AuthenticationHelper authenticationHelper;
 
     /**
@@ -51,8 +56,29 @@ public class StudentScheduleController {
         model.addAttribute("schedules", schedules);
         model.addAttribute("startDate", startDate);
         model.addAttribute("endDate", endDate);
+        model.addAttribute("calendarFeedUrl", buildFeedUrl(calendarFeedService.getOrCreateToken(currentStudent)));
         model.addAttribute("pageTitle", "Lịch học của tôi");
 
         return "student/schedule/calendar";
     }
+
+    /**
+     * Cấp lại link đồng bộ lịch học (link cũ hết hiệu lực)
+     */
+    @PostMapping("/feed/reset")
+    public String resetFeed(RedirectAttributes redirectAttributes) {
+        User currentStudent = authenticationHelper.getCurrentUser()
+                .orElseThrow(() -> new UnauthorizedException());
+
+        calendarFeedService.resetToken(currentStudent);
+        redirectAttributes.addFlashAttribute("success", "Đã tạo link đồng bộ lịch học mới. Link cũ không còn hiệu lực.");
+        return "redirect:/student/schedules";
+    }
+
+    private String buildFeedUrl(String token) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/calendar/{token}.ics")
+                .buildAndExpand(token)
+                .toUriString();
+    }
 }
@@ -1,11 +1,13 @@
 package com.nute.training.controller.teacher;
 
+import com.nute.training.entity.Attendance;
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.Grade;
 import com.nute.training.entity.User;
 import com.nute.training.service.*;
 import com.nute.training.util.AuthenticationHelper;
+import com.nute.training.util.PageAssembler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -15,6 +17,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 /**
  * Controller: TeacherStudentController
  * Xem thông tin chi tiết học viên
@@ -31,6 +35,7 @@ public class TeacherStudentController {
     private final GradeService gradeService;
     private final AttendanceService attendanceService;
     private final AuthenticationHelper authenticationHelper;
+    private final PageAssembler pageAssembler;
 
     /**
      * Chi tiết học viên trong một lớp học
@@ -44,34 +49,42 @@ public class TeacherStudentController {
             User currentTeacher = authenticationHelper.getCurrentUser()
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Lấy thông tin lớp học
-            ClassEntity classEntity = classService.findById(classId)
-                    .orElseThrow(() -> new RuntimeException("Class not found"));
-
-            // Kiểm tra quyền truy cập
-            if (!classEntity.getTeacher().getId().equals(currentTeacher.getId())) {
-                log.warn("Teacher {} attempted to access student in class {} belonging to another teacher",
-                        currentTeacher.getId(), classId);
-                model.addAttribute("error", "Bạn không có quyền truy cập lớp học này");
-                return "redirect:/teacher/classes";
-            }
-
-            // Lấy thông tin học viên
-            User student = userService.findById(studentId)
-                    .orElseThrow(() -> new RuntimeException("Student not found"));
-
-            // Lấy thông tin enrollment
-            Enrollment enrollment = enrollmentService.findByStudentAndClass(student, classEntity)
-                    .orElseThrow(() -> new RuntimeException("Enrollment not found"));
+            // Các truy vấn chỉ cần ID: chạy song song, kiểm tra quyền trước khi dùng kết quả
+            ClassEntity classEntity;
+            User student;
+            Enrollment enrollment;
+            Grade grade;
+            double attendanceRate;
+            List<Attendance> attendanceRecords;
+            try (PageAssembler.Assembly page = pageAssembler.begin("teacher.studentDetail")) {
+                var classTask = page.fork(() -> classService.findByIdWithDetails(classId));
+                var studentTask = page.fork(() -> userService.findById(studentId));
+                var enrollmentTask = page.fork(() -> enrollmentService.findByStudentIdAndClassId(studentId, classId));
+                var gradeTask = page.fork(() -> gradeService.findGradeByStudentAndClass(studentId, classId));
+                var rateTask = page.fork(() -> attendanceService.calculateAttendanceRate(studentId, classId));
+                var attendanceTask = page.fork(() ->
+                        attendanceService.findStudentAttendanceWithSchedule(studentId, classId));
+                page.join();
 
-            // Lấy điểm
-            Grade grade = gradeService.findByEnrollment(enrollment).orElse(null);
+                classEntity = classTask.get()
+                        .orElseThrow(() -> new RuntimeException("Class not found"));
 
-            // Tính tỷ lệ điểm danh
-            double attendanceRate = attendanceService.calculateAttendanceRate(studentId, classId);
+                // Kiểm tra quyền truy cập
+                if (!classEntity.getTeacher().getId().equals(currentTeacher.getId())) {
+                    log.warn("Teacher {} attempted to access student in class {} belonging to another teacher",
+                            currentTeacher.getId(), classId);
+                    model.addAttribute("error", "Bạn không có quyền truy cập lớp học này");
+                    return "redirect:/teacher/classes";
+                }
 
-            // Lấy lịch sử điểm danh
-            var attendanceRecords = attendanceService.findStudentAttendanceByClass(student, classId);
+                student = studentTask.get()
+                        .orElseThrow(() -> new RuntimeException("Student not found"));
+                enrollment = enrollmentTask.get()
+                        .orElseThrow(() -> new RuntimeException("Enrollment not found"));
+                grade = gradeTask.get().orElse(null);
+                attendanceRate = rateTask.get();
+                attendanceRecords = attendanceTask.get();
+            }
 
             model.addAttribute("student", student);
             model.addAttribute("classEntity", classEntity);
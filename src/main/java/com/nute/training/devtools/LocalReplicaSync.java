@@ -0,0 +1,129 @@
+package com.nute.training.devtools;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sao chép primary sang replica cho profile replica-local (hai CSDL H2 nhúng; H2 không có replication)
+ * - Lần đầu: tạo schema trên replica từ schema của primary (SCRIPT NODATA)
+ * - Định kỳ: chép lại toàn bộ dữ liệu trong một transaction của replica (bên đọc thấy bản cũ đến khi commit)
+ *   và ghi thời điểm chép vào bảng replica_sync; lag-query của profile đọc bảng này như độ trễ replication
+ * Khoảng chép lớn hơn app.datasource.replica.max-lag-seconds: replica bị coi là trễ, đọc chuyển về primary.
+ * Chỉ dùng cho CSDL nhỏ trên máy phát triển (chép toàn bộ mỗi lần).
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.local-sync.enabled", havingValue = "true")
+@Slf4j
+public class LocalReplicaSync {
+
+    private static final String SYNC_TABLE = "replica_sync";
+
+    private final DataSource primaryDataSource;
+    private final DataSource replicaDataSource;
+    private boolean schemaCreated;
+
+    public LocalReplicaSync(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                            @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.local-sync.interval-ms:3000}")
+    public void sync() {
+        try (Connection primary = primaryDataSource.getConnection();
+             Connection replica = replicaDataSource.getConnection()) {
+            replica.setReadOnly(false);
+            if (!schemaCreated) {
+                createSchema(primary, replica);
+                schemaCreated = true;
+            }
+            copyData(primary, replica);
+        } catch (SQLException e) {
+            log.warn("Local replica sync failed: {}", e.getMessage());
+        }
+    }
+
+    private void createSchema(Connection primary, Connection replica) throws SQLException {
+        try (Statement source = primary.createStatement();
+             ResultSet script = source.executeQuery("SCRIPT NODATA");
+             Statement target = replica.createStatement()) {
+            while (script.next()) {
+                target.execute(script.getString(1));
+            }
+            // Chưa chép lần nào: độ trễ rất lớn, replica chưa được dùng
+            target.execute("CREATE TABLE " + SYNC_TABLE + " (synced_at TIMESTAMP NOT NULL)");
+            target.execute("INSERT INTO " + SYNC_TABLE + " VALUES (TIMESTAMP '1970-01-01 00:00:00')");
+        }
+        log.info("Local replica schema created from primary");
+    }
+
+    private void copyData(Connection primary, Connection replica) throws SQLException {
+        List<String> tables = tables(primary);
+        replica.setAutoCommit(false);
+        try (Statement target = replica.createStatement()) {
+            // Thứ tự bảng theo khóa ngoại không quan trọng: dữ liệu đã nhất quán trên primary
+            target.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            for (String table : tables) {
+                target.execute("DELETE FROM \"" + table + "\"");
+                copyTable(primary, replica, table);
+            }
+            target.execute("UPDATE " + SYNC_TABLE + " SET synced_at = LOCALTIMESTAMP");
+            replica.commit();
+        } catch (SQLException e) {
+            replica.rollback();
+            throw e;
+        } finally {
+            try (Statement target = replica.createStatement()) {
+                target.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+            replica.setAutoCommit(true);
+        }
+    }
+
+    private static void copyTable(Connection primary, Connection replica, String table) throws SQLException {
+        try (Statement source = primary.createStatement();
+             ResultSet rows = source.executeQuery("SELECT * FROM \"" + table + "\"")) {
+            int columns = rows.getMetaData().getColumnCount();
+            String insert = "INSERT INTO \"" + table + "\" VALUES ("
+                    + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+            try (PreparedStatement target = replica.prepareStatement(insert)) {
+                int batched = 0;
+                while (rows.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        target.setObject(column, rows.getObject(column));
+                    }
+                    target.addBatch();
+                    if (++batched % 500 == 0) {
+                        target.executeBatch();
+                    }
+                }
+                target.executeBatch();
+            }
+        }
+    }
+
+    private static List<String> tables(Connection primary) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = primary.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT table_name FROM information_schema.tables "
+                     + "WHERE table_schema = SCHEMA() AND table_type = 'BASE TABLE'")) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString(1));
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,192 @@
+package com.nute.training.devtools;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Máy chủ SMTP cục bộ cho môi trường phát triển/kiểm thử
+ * Nhận email qua giao thức SMTP tối giản (không xác thực, không TLS) và lưu thành file .eml,
+ * để kiểm tra luồng gửi thông báo mà không cần máy chủ mail thật.
+ * Chỉ lắng nghe trên địa chỉ loopback; bật bằng app.mail.local-smtp.enabled=true (profile local).
+ * Gói devtools không có trong jar triển khai (xem maven-jar-plugin trong pom.xml):
+ * chỉ chạy khi khởi động từ mã nguồn (spring-boot:run) và trong các module load test/benchmark.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.local-smtp.enabled", havingValue = "true")
+@Slf4j
+public class LocalSmtpServer implements SmartLifecycle {
+
+    @Value("${app.mail.local-smtp.port:2525}")
+    private int port = 2525;
+
+    @Value("${app.mail.local-smtp.directory:target/local-smtp}")
+    private String directory = "target/local-smtp";
+
+    /**
+     * Độ trễ giả lập mỗi email (ms), dùng để thử cơ chế giới hạn kết nối
+     */
+    @Value("${app.mail.local-smtp.delay-ms:0}")
+    private long delayMs = 0;
+
+    private final AtomicLong messageCounter = new AtomicLong();
+    private volatile ServerSocket serverSocket;
+    private ExecutorService connectionExecutor;
+
+    @Override
+    public void start() {
+        try {
+            Files.createDirectories(Paths.get(directory));
+            serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            log.warn("Local SMTP server could not start on port {}: {}", port, e.getMessage());
+            return;
+        }
+
+        connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-smtp");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connectionExecutor.execute(this::acceptLoop);
+        log.info("Local SMTP server listening on {}:{}, saving messages to {}",
+                serverSocket.getInetAddress().getHostAddress(), port, Paths.get(directory).toAbsolutePath());
+    }
+
+    @Override
+    public void stop() {
+        ServerSocket socket = serverSocket;
+        serverSocket = null;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Error closing local SMTP server socket", e);
+            }
+        }
+        if (connectionExecutor != null) {
+            connectionExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return serverSocket != null;
+    }
+
+    private void acceptLoop() {
+        ServerSocket socket = serverSocket;
+        while (socket != null && !socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                connectionExecutor.execute(() -> handle(client));
+            } catch (SocketException e) {
+                return; // Đã đóng khi dừng ứng dụng
+            } catch (IOException e) {
+                log.warn("Local SMTP accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void handle(Socket client) {
+        // ISO-8859-1: giữ nguyên từng byte của nội dung email
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.ISO_8859_1));
+             OutputStream out = client.getOutputStream()) {
+            reply(out, "220 localhost ESMTP local-smtp");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        from = line.substring(line.indexOf(':') + 1).trim();
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim());
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        if (from == null || recipients.isEmpty()) {
+                            reply(out, "503 Bad sequence of commands");
+                            continue;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        Path saved = save(readData(in));
+                        log.info("Local SMTP received message from {} to {} -> {}", from, recipients, saved.getFileName());
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Local SMTP connection closed: {}", e.getMessage());
+        }
+    }
+
+    private String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // Bỏ dấu chấm thêm vào đầu dòng (dot-stuffing, RFC 5321 4.5.2)
+            data.append(line.startsWith(".") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+
+    private Path save(String data) throws IOException {
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Path file = Paths.get(directory, System.currentTimeMillis() + "-" + messageCounter.incrementAndGet() + ".eml");
+        Files.writeString(file, data, StandardCharsets.ISO_8859_1);
+        return file;
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
@@ -116,6 +116,7 @@ public class EnrollmentHistoryDto {
         if (status == null) return "bg-secondary";
         return switch (status) {
             case PENDING -> "bg-warning bg-opacity-10 text-warning";
+            case WAITLISTED -> "bg-primary bg-opacity-10 text-primary";
             case APPROVED -> "bg-success bg-opacity-10 text-success";
             case REJECTED -> "bg-danger bg-opacity-10 text-danger";
             case COMPLETED -> "bg-info bg-opacity-10 text-info";
@@ -130,6 +131,7 @@ public class EnrollmentHistoryDto {
         if (status == null) return "fa-question-circle";
         return switch (status) {
             case PENDING -> "fa-clock";
+            case WAITLISTED -> "fa-hourglass-half";
             case APPROVED -> "fa-check-circle";
             case REJECTED -> "fa-times-circle";
             case COMPLETED -> "fa-graduation-cap";
@@ -144,6 +146,7 @@ public class EnrollmentHistoryDto {
         if (status == null) return "Không xác định";
         return switch (status) {
             case PENDING -> "Chờ duyệt";
+            case WAITLISTED -> "Danh sách chờ";
             case APPROVED -> "Đã duyệt";
             case REJECTED -> "Từ chối";
             case COMPLETED -> "Hoàn thành";
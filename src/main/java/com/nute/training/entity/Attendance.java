@@ -16,14 +16,18 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "attendances",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"schedule_id", "student_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"schedule_id", "student_id"}),
+       indexes = @Index(name = "idx_attendances_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attendance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "attendances_id")
+    @TableGenerator(name = "attendances_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "attendances",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
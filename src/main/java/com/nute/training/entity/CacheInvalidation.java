@@ -0,0 +1,56 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity: CacheInvalidation
+ * Nhật ký thay đổi dữ liệu để các node khác xóa bộ nhớ đệm cục bộ.
+ * Ghi trong cùng transaction với thay đổi nghiệp vụ; mỗi node đọc nối tiếp theo id.
+ */
+@Entity
+@Immutable
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    /**
+     * ID bản ghi thay đổi; null = mọi bản ghi của loại này
+     */
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "origin_node", nullable = false, length = 150)
+    private String originNode;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Loại dữ liệu thay đổi
+     */
+    public enum EntityType {
+        COURSE,     // Khóa học
+        CLASS,      // Lớp học (kèm lịch học)
+        USER        // Người dùng (kèm dữ liệu riêng: đăng ký, lịch cá nhân)
+    }
+}
@@ -0,0 +1,36 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity: CalendarFeedToken
+ * Token truy cập lịch iCalendar (.ics) cá nhân của học viên/giảng viên
+ */
+@Entity
+@Table(name = "calendar_feed_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarFeedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false, unique = true)
+    private User user;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String token;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "enrollments",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "class_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "class_id"}),
+       indexes = @Index(name = "idx_enrollments_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +29,10 @@ import java.time.LocalDateTime;
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "enrollments_id")
+    @TableGenerator(name = "enrollments_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "enrollments",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -60,6 +64,12 @@ public class Enrollment {
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    /**
+     * Thứ tự trong danh sách chờ của lớp (tăng dần, chỉ có ý nghĩa khi WAITLISTED)
+     */
+    @Column(name = "waitlist_position")
+    private Long waitlistPosition;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "approved_by")
     private User approvedBy;
@@ -91,6 +101,7 @@ public class Enrollment {
      */
     public enum EnrollmentStatus {
         PENDING,    // Chờ duyệt
+        WAITLISTED, // Danh sách chờ (lớp đã đầy)
         APPROVED,   // Đã duyệt
         REJECTED,   // Từ chối
         COMPLETED,  // Đã hoàn thành
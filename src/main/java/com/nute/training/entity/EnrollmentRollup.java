@@ -0,0 +1,64 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: EnrollmentRollup
+ * Số liệu tổng hợp đăng ký theo (tháng đăng ký, lớp, trạng thái) cho báo cáo tài chính.
+ * Khóa học và loại khóa học được lưu kèm để báo cáo không phải đọc bảng enrollments.
+ */
+@Entity
+@Table(name = "enrollment_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"class_id", "period_year", "period_month", "status"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "course_type_id")
+    private Long courseTypeId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Enrollment.EnrollmentStatus status;
+
+    @Column(name = "enrollment_count", nullable = false)
+    private Long enrollmentCount;
+
+    /**
+     * Tổng học phí phải thu của các đăng ký
+     */
+    @Column(name = "tuition_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal tuitionAmount;
+
+    /**
+     * Tổng số tiền đã đóng của các đăng ký
+     */
+    @Column(name = "paid_amount", nullable = false, precision = 15, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
  * Điểm số
  */
 @Entity
-@Table(name = "grades")
+@Table(name = "grades",
+       indexes = @Index(name = "idx_grades_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +29,10 @@ import java.time.LocalDateTime;
 public class Grade {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "grades_id")
+    @TableGenerator(name = "grades_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "grades",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,27 @@
+package com.nute.training.entity;
+
+/**
+ * Cấu hình chung của bộ sinh ID dạng bảng (pooled) cho các entity ghi hàng loạt
+ * (điểm danh, điểm số, chứng chỉ, lịch học, đăng ký).
+ * IDENTITY buộc Hibernate INSERT ngay từng dòng để lấy ID, nên JDBC batch insert bị tắt.
+ * Bộ sinh dạng bảng cấp trước một khối ALLOCATION_SIZE ID (một lần đọc/ghi bảng id_generators trong transaction riêng),
+ * các dòng mới được gom thành batch khi flush (hibernate.jdbc.batch_size).
+ * Business Rule:
+ * - Mỗi bảng có một dòng trong id_generators (entity_name = tên bảng), next_val = giới hạn trên của khối kế tiếp
+ * - Dữ liệu nạp bằng SQL với ID tường minh phải đồng bộ lại next_val (>= MAX(id) + ALLOCATION_SIZE)
+ * - ID không tăng theo thứ tự commit giữa các node: không dùng cho bảng được đọc tiếp theo ID (outbox, cache bus)
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String PK_COLUMN = "entity_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    /**
+     * Số ID cấp mỗi lần đọc bảng (bằng hibernate.jdbc.batch_size)
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
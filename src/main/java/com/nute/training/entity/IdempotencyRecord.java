@@ -0,0 +1,63 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity: IdempotencyRecord
+ * Kết quả của một thao tác POST theo idempotency key - request gửi lại trả về kết quả cũ
+ */
+@Entity
+@Table(name = "idempotency_records")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * scope:username:key do client gửi lên
+     */
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 200)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RecordStatus status = RecordStatus.IN_PROGRESS;
+
+    @Column(name = "view_name")
+    private String viewName;
+
+    /**
+     * Flash attributes (JSON) của kết quả thành công
+     */
+    @Column(name = "flash_attributes", columnDefinition = "TEXT")
+    private String flashAttributes;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Enum: RecordStatus
+     * Trạng thái xử lý
+     */
+    public enum RecordStatus {
+        IN_PROGRESS,    // Đang xử lý
+        COMPLETED       // Đã có kết quả
+    }
+}
@@ -0,0 +1,80 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity: Notification
+ * Thông báo chờ gửi cho người dùng - được gộp theo người nhận thành email tổng hợp (digest)
+ */
+@Entity
+@Table(name = "notifications",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source_event_id", "recipient_id"}),
+       indexes = @Index(name = "idx_notifications_status_recipient", columnList = "status, recipient_id, created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recipient_id", nullable = false)
+    @ToString.Exclude
+    private User recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private OutboxEvent.EventType eventType;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    /**
+     * Các thông báo cùng khóa trong một digest chỉ hiển thị bản mới nhất (vd. điểm sửa nhiều lần)
+     */
+    @Column(name = "coalesce_key", nullable = false, length = 100)
+    private String coalesceKey;
+
+    /**
+     * Sự kiện outbox sinh ra thông báo (chống tạo trùng khi sự kiện được giao lại)
+     */
+    @Column(name = "source_event_id", nullable = false)
+    private Long sourceEventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Enum: NotificationStatus
+     * Trạng thái gửi
+     */
+    public enum NotificationStatus {
+        PENDING,    // Chờ gửi trong digest kế tiếp
+        SENT,       // Đã gửi (hoặc đã gộp vào digest)
+        SKIPPED,    // Không gửi (tài khoản không hoạt động/không có email)
+        FAILED      // Gửi lỗi quá số lần thử
+    }
+}
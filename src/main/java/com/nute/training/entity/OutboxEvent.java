@@ -0,0 +1,115 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity: OutboxEvent
+ * Sự kiện nghiệp vụ (transactional outbox) - ghi trong cùng transaction với thay đổi dữ liệu,
+ * job relay đọc theo thứ tự ID và chuyển cho các bộ xử lý ngoài request.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_status", columnList = "status, id"),
+        @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_type, aggregate_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 50)
+    private EventType eventType;
+
+    /**
+     * Sự kiện của cùng một đối tượng được xử lý đúng thứ tự ghi
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 30)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * Dữ liệu sự kiện (JSON)
+     */
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EventStatus status = EventStatus.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * Lần thử kế tiếp (sau khi xử lý lỗi); null = xử lý ngay
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    /**
+     * Enum: AggregateType
+     * Đối tượng mà sự kiện thuộc về
+     */
+    public enum AggregateType {
+        ENROLLMENT,     // Đăng ký học (duyệt, điểm, chứng chỉ của đăng ký)
+        SCHEDULE        // Buổi học
+    }
+
+    /**
+     * Enum: EventType
+     * Loại sự kiện
+     */
+    public enum EventType {
+        ENROLLMENT_APPROVED(AggregateType.ENROLLMENT),      // Đăng ký được duyệt
+        ENROLLMENT_REJECTED(AggregateType.ENROLLMENT),      // Đăng ký bị từ chối
+        GRADE_POSTED(AggregateType.ENROLLMENT),             // Điểm được nhập/cập nhật
+        CERTIFICATE_ISSUED(AggregateType.ENROLLMENT),       // Chứng chỉ được cấp
+        SCHEDULE_CANCELLED(AggregateType.SCHEDULE),         // Buổi học bị hủy
+        WAITLIST_PROMOTED(AggregateType.ENROLLMENT),        // Được xếp chỗ từ danh sách chờ (chờ duyệt)
+        WAITLIST_CLOSED(AggregateType.ENROLLMENT);          // Danh sách chờ đóng do lớp kết thúc/bị hủy
+
+        private final AggregateType aggregateType;
+
+        EventType(AggregateType aggregateType) {
+            this.aggregateType = aggregateType;
+        }
+
+        public AggregateType getAggregateType() {
+            return aggregateType;
+        }
+    }
+
+    /**
+     * Enum: EventStatus
+     * Trạng thái xử lý
+     */
+    public enum EventStatus {
+        PENDING,        // Chờ xử lý (hoặc chờ thử lại)
+        PROCESSED,      // Đã xử lý xong
+        FAILED          // Hết số lần thử, cần kiểm tra thủ công
+    }
+}
@@ -0,0 +1,54 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: PaymentRollup
+ * Số liệu tổng hợp sổ cái thanh toán theo (tháng giao dịch, lớp, loại giao dịch) - doanh thu thực thu.
+ */
+@Entity
+@Table(name = "payment_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"class_id", "period_year", "period_month", "type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_year", nullable = false)
+    private Integer periodYear;
+
+    @Column(name = "period_month", nullable = false)
+    private Integer periodMonth;
+
+    @Column(name = "course_type_id")
+    private Long courseTypeId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "class_id", nullable = false)
+    private Long classId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentTransaction.TransactionType type;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
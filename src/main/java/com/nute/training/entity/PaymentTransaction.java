@@ -0,0 +1,90 @@
+package com.nute.training.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: PaymentTransaction
+ * Sổ cái thanh toán - mỗi giao dịch chỉ ghi thêm, không sửa/xóa.
+ * Số dư của đăng ký là tổng amount (có dấu) của mọi giao dịch.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_transactions",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"external_reference", "source"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "enrollment_id", nullable = false)
+    private Enrollment enrollment;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionSource source;
+
+    /**
+     * Số tiền có dấu: dương là tiền vào, âm là hoàn tiền/điều chỉnh giảm
+     */
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    /**
+     * Mã giao dịch phía ngân hàng (chống nhập trùng sao kê)
+     */
+    @Column(name = "external_reference", length = 100)
+    private String externalReference;
+
+    @Column(length = 500)
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "recorded_by")
+    private User recordedBy;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Enum: TransactionType
+     * Loại giao dịch
+     */
+    public enum TransactionType {
+        PAYMENT,            // Thu học phí
+        REFUND,             // Hoàn tiền
+        ADJUSTMENT,         // Điều chỉnh số dư
+        OPENING_BALANCE     // Số dư đầu kỳ (chuyển từ dữ liệu cũ)
+    }
+
+    /**
+     * Enum: TransactionSource
+     * Nguồn ghi nhận giao dịch
+     */
+    public enum TransactionSource {
+        MANUAL,             // Admin nhập tay
+        BANK_STATEMENT,     // Nhập từ sao kê ngân hàng
+        MIGRATION           // Chuyển đổi dữ liệu
+    }
+}
@@ -13,6 +13,7 @@ import java.time.LocalDate;
 /**
  * Entity: StudentInfo
  * Thông tin chi tiết sinh viên (Dùng để cấp chứng chỉ)
+ * User không giữ quan hệ ngược tới hồ sơ: đọc hồ sơ qua StudentInfoRepository khi cần
  */
 @Entity
 @Table(name = "student_info")
@@ -21,12 +22,15 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class StudentInfo {
 
+    /**
+     * Khóa chính dùng chung với users (cột user_id): hồ sơ đọc theo ID người dùng bằng một câu truy vấn khóa chính
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @MapsId
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
+    @JoinColumn(name = "user_id")
     private User user;
 
     @Column(name = "student_code", unique = true, length = 20)
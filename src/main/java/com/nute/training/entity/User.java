@@ -23,10 +23,6 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @SQLRestriction("deleted = false")
-@NamedEntityGraph(
-    name = "user-with-studentInfo-graph",
-    attributeNodes = @NamedAttributeNode("studentInfo")
-)
 public class User {
 
     @Id
@@ -82,9 +78,6 @@ public class User {
     @Column(name = "deleted_by")
     private String deletedBy;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private StudentInfo studentInfo;
-
     /**
      * Enum: Role
      * Vai trò người dùng
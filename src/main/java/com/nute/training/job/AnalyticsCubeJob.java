@@ -0,0 +1,39 @@
+package com.nute.training.job;
+
+import com.nute.training.service.AnalyticsCubeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job: AnalyticsCubeJob
+ * Làm mới khối phân tích trong bộ nhớ định kỳ và nạp lại toàn bộ hằng đêm.
+ * Không dùng job lease: mỗi node giữ và làm mới khối của chính nó.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsCubeJob {
+
+    private final AnalyticsCubeService analyticsCubeService;
+
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-delay-ms:60000}",
+               initialDelayString = "${app.analytics.initial-delay-ms:15000}")
+    public void refresh() {
+        try {
+            analyticsCubeService.refresh();
+        } catch (Exception e) {
+            log.error("Analytics cube refresh failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.analytics.reload-cron:0 30 3 * * *}")
+    public void reload() {
+        try {
+            analyticsCubeService.reload();
+        } catch (Exception e) {
+            log.error("Analytics cube reload failed", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.nute.training.job;
+
+import com.nute.training.service.CacheInvalidationBus;
+import com.nute.training.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: CacheInvalidationJob
+ * Đọc thay đổi từ các node khác (mọi node, không dùng khóa thuê)
+ * và xóa nhật ký cũ (một node mỗi lượt).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheInvalidationJob {
+
+    static final String PURGE_JOB_NAME = "cache-invalidation-purge";
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.cache-bus.purge-lease-seconds:600}")
+    private long purgeLeaseSeconds = 600;
+
+    @Scheduled(fixedDelayString = "${app.cache-bus.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            cacheInvalidationBus.poll();
+        } catch (Exception e) {
+            log.error("Cache invalidation poll failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.cache-bus.purge-cron:0 45 * * * *}")
+    public void purge() {
+        if (!jobLeaseService.tryAcquire(PURGE_JOB_NAME, Duration.ofSeconds(purgeLeaseSeconds))) {
+            log.debug("Skipping cache invalidation purge: lease held by another node");
+            return;
+        }
+
+        try {
+            int deleted = cacheInvalidationBus.purgeExpired();
+            if (deleted > 0) {
+                log.info("Purged {} old cache invalidation records", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Cache invalidation purge failed", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nute.training.job;
+
+import com.nute.training.service.ClassLifecycleService;
+import com.nute.training.service.JobLeaseService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Job: ClassLifecycleJob
+ * Chạy định kỳ ClassLifecycleService; khóa thuê trên DB đảm bảo mỗi lượt chỉ một node chạy.
+ * Khóa được giữ đến hết thời hạn (không trả sớm) để node khác không chạy lặp lại cùng lượt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClassLifecycleJob {
+
+    static final String JOB_NAME = "class-lifecycle";
+
+    private final ClassLifecycleService classLifecycleService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.lifecycle.lease-seconds:540}")
+    private long leaseSeconds = 540;
+
+    @Scheduled(cron = "${app.lifecycle.cron:0 */10 * * * *}")
+    public void run() {
+        if (!jobLeaseService.tryAcquire(JOB_NAME, Duration.ofSeconds(leaseSeconds))) {
+            log.debug("Skipping class lifecycle tick: lease held by another node");
+            return;
+        }
+
+        try {
+            classLifecycleService.advance(LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Class lifecycle tick failed", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nute.training.job;
+
+import com.nute.training.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job: IdempotencyCleanupJob
+ * Xóa kết quả idempotency đã hết hạn. Chạy trên mọi node (không dùng khóa thuê)
+ * vì mỗi node phải dọn bộ nhớ đệm của chính mình; câu DELETE trên bảng chạy lặp vẫn an toàn.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyCleanupJob {
+
+    private final IdempotencyService idempotencyService;
+
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 15 * * * *}")
+    public void run() {
+        try {
+            int deleted = idempotencyService.purgeExpired();
+            if (deleted > 0) {
+                log.info("Purged {} expired idempotency records", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Idempotency cleanup failed", e);
+        }
+    }
+}
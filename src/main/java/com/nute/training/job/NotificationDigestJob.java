@@ -0,0 +1,76 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.NotificationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: NotificationDigestJob
+ * Gửi email tổng hợp thông báo đến hạn, chỉ một node gửi mỗi lượt.
+ * Chưa cấu hình máy chủ SMTP (spring.mail.host / MAIL_HOST): không gửi, thông báo giữ PENDING đến khi cấu hình.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDigestJob {
+
+    static final String JOB_NAME = "notification-digest";
+    static final String PURGE_JOB_NAME = "notification-purge";
+
+    private final NotificationService notificationService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.notification.digest-lease-seconds:300}")
+    private long leaseSeconds = 300;
+
+    @Value("${spring.mail.host:}")
+    private String mailHost = "";
+
+    private volatile boolean mailUnconfiguredWarned;
+
+    @Scheduled(fixedDelayString = "${app.notification.digest-interval-ms:30000}",
+               initialDelayString = "${app.notification.digest-interval-ms:30000}")
+    public void sendDigests() {
+        if (mailHost.isBlank()) {
+            if (!mailUnconfiguredWarned) {
+                mailUnconfiguredWarned = true;
+                log.warn("Notification digests are not sent: no SMTP host configured (MAIL_HOST), "
+                         + "notifications stay PENDING");
+            }
+            return;
+        }
+        if (!jobLeaseService.tryAcquire(JOB_NAME, Duration.ofSeconds(leaseSeconds))) {
+            log.debug("Skipping notification digest: lease held by another node");
+            return;
+        }
+
+        try {
+            notificationService.sendDueDigests();
+        } catch (Exception e) {
+            log.error("Notification digest failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.notification.purge-cron:0 40 4 * * *}")
+    public void purge() {
+        if (!jobLeaseService.tryAcquire(PURGE_JOB_NAME, Duration.ofMinutes(30))) {
+            log.debug("Skipping notification purge: lease held by another node");
+            return;
+        }
+
+        try {
+            int deleted = notificationService.purgeCompleted();
+            if (deleted > 0) {
+                log.info("Purged {} processed notifications", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Notification purge failed", e);
+        }
+    }
+}
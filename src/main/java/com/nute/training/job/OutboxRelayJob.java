@@ -0,0 +1,63 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: OutboxRelayJob
+ * Chuyển sự kiện nghiệp vụ trong outbox cho các bộ xử lý.
+ * Chỉ node giữ khóa thuê chạy relay (giữ thứ tự sự kiện); node giữ khóa tự gia hạn mỗi lượt
+ * và cả trong lúc xử lý dồn nhiều lô (mỗi khi đã qua nửa thời hạn khóa), mất khóa thì dừng.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelayJob {
+
+    static final String RELAY_JOB_NAME = "outbox-relay";
+    static final String PURGE_JOB_NAME = "outbox-purge";
+
+    private final OutboxRelayService outboxRelayService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.outbox.relay-lease-seconds:30}")
+    private long relayLeaseSeconds = 30;
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        Duration leaseTime = Duration.ofSeconds(relayLeaseSeconds);
+        if (!jobLeaseService.tryAcquire(RELAY_JOB_NAME, leaseTime)) {
+            return;
+        }
+
+        try {
+            outboxRelayService.relay(() -> jobLeaseService.renew(RELAY_JOB_NAME, leaseTime), leaseTime.dividedBy(2));
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 20 4 * * *}")
+    public void purge() {
+        if (!jobLeaseService.tryAcquire(PURGE_JOB_NAME, Duration.ofMinutes(30))) {
+            log.debug("Skipping outbox purge: lease held by another node");
+            return;
+        }
+
+        try {
+            int deleted = outboxRelayService.purgeProcessed();
+            if (deleted > 0) {
+                log.info("Purged {} processed outbox events", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Outbox purge failed", e);
+        }
+    }
+}
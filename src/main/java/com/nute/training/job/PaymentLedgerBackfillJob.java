@@ -0,0 +1,43 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.PaymentLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: PaymentLedgerBackfillJob
+ * Khi khởi động, chuyển payment_amount của các đăng ký chưa có sổ cái thành giao dịch số dư đầu kỳ.
+ * Chỉ một node chạy (khóa thuê); chạy lại không tạo trùng.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentLedgerBackfillJob {
+
+    static final String JOB_NAME = "payment-ledger-backfill";
+
+    private final PaymentLedgerService paymentLedgerService;
+    private final JobLeaseService jobLeaseService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void run() {
+        if (!jobLeaseService.tryAcquire(JOB_NAME, Duration.ofMinutes(10))) {
+            log.debug("Skipping payment ledger backfill: lease held by another node");
+            return;
+        }
+
+        try {
+            paymentLedgerService.backfillOpeningBalances();
+        } catch (Exception e) {
+            log.error("Payment ledger backfill failed", e);
+        } finally {
+            jobLeaseService.release(JOB_NAME);
+        }
+    }
+}
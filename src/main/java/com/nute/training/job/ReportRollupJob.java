@@ -0,0 +1,54 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.ReportRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: ReportRollupJob
+ * Tính lại định kỳ các lớp có thay đổi (mỗi node xử lý thay đổi của chính nó)
+ * và dựng lại toàn bộ bảng tổng hợp hằng đêm (chỉ một node chạy).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportRollupJob {
+
+    static final String REBUILD_JOB_NAME = "report-rollup-rebuild";
+
+    private final ReportRollupService reportRollupService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.rollup.rebuild-lease-seconds:3600}")
+    private long rebuildLeaseSeconds = 3600;
+
+    @Scheduled(fixedDelayString = "${app.rollup.flush-delay-ms:30000}",
+               initialDelayString = "${app.rollup.flush-delay-ms:30000}")
+    public void flush() {
+        try {
+            reportRollupService.flushChanges();
+        } catch (Exception e) {
+            log.error("Report rollup flush failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.rollup.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        if (!jobLeaseService.tryAcquire(REBUILD_JOB_NAME, Duration.ofSeconds(rebuildLeaseSeconds))) {
+            log.debug("Skipping report rollup rebuild: lease held by another node");
+            return;
+        }
+
+        try {
+            reportRollupService.rebuildAll();
+        } catch (Exception e) {
+            log.error("Report rollup rebuild failed", e);
+        }
+    }
+}
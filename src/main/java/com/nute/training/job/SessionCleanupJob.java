@@ -0,0 +1,46 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.SessionCleanupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: SessionCleanupJob
+ * Dọn session hết hạn trong bảng dùng chung, chỉ một node chạy mỗi lượt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionCleanupJob {
+
+    static final String JOB_NAME = "session-cleanup";
+
+    private final SessionCleanupService sessionCleanupService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.session.cleanup-lease-seconds:240}")
+    private long leaseSeconds = 240;
+
+    @Scheduled(cron = "${app.session.cleanup-cron:0 */5 * * * *}")
+    public void run() {
+        if (!jobLeaseService.tryAcquire(JOB_NAME, Duration.ofSeconds(leaseSeconds))) {
+            log.debug("Skipping session cleanup: lease held by another node");
+            return;
+        }
+
+        try {
+            int deleted = sessionCleanupService.purgeExpired();
+            if (deleted > 0) {
+                log.info("Purged {} expired sessions", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Session cleanup failed", e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nute.training.job;
+
+import com.nute.training.service.JobLeaseService;
+import com.nute.training.service.StudentCountReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Job: StudentCountReconciliationJob
+ * Đối chiếu bộ đếm học viên của lớp hằng đêm (ngoài giờ cao điểm), chỉ một node chạy mỗi lượt.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentCountReconciliationJob {
+
+    static final String JOB_NAME = "student-count-reconciliation";
+
+    private final StudentCountReconciliationService reconciliationService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${app.reconciliation.student-count.lease-seconds:3600}")
+    private long leaseSeconds = 3600;
+
+    @Scheduled(cron = "${app.reconciliation.student-count.cron:0 30 2 * * *}")
+    public void run() {
+        if (!jobLeaseService.tryAcquire(JOB_NAME, Duration.ofSeconds(leaseSeconds))) {
+            log.debug("Skipping student count reconciliation: lease held by another node");
+            return;
+        }
+
+        try {
+            reconciliationService.reconcile("scheduled");
+        } catch (Exception e) {
+            log.error("Student count reconciliation failed", e);
+        }
+    }
+}
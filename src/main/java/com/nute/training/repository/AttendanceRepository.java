@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,6 +55,17 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             @Param("classId") Long classId
     );
 
+    /**
+     * Tìm điểm danh của học viên theo lớp, kèm buổi học
+     */
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.schedule s WHERE " +
+           "a.student.id = :studentId AND s.classEntity.id = :classId " +
+           "ORDER BY s.sessionNumber")
+    List<Attendance> findStudentAttendanceWithSchedule(
+            @Param("studentId") Long studentId,
+            @Param("classId") Long classId
+    );
+
     /**
      * Đếm số buổi học viên có mặt (PRESENT hoặc LATE)
      */
@@ -106,4 +118,15 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
             @Param("classEntity") com.nute.training.entity.ClassEntity classEntity,
             @Param("schedule") Schedule schedule
     );
+
+    /**
+     * Số buổi có mặt (PRESENT, LATE) và số buổi đã điểm danh của từng học viên theo lớp (khối phân tích)
+     * Trả về [classId, studentId, attended, recorded]
+     */
+    @Query("SELECT s.classEntity.id, a.student.id, " +
+           "SUM(CASE WHEN a.status IN ('PRESENT', 'LATE') THEN 1 ELSE 0 END), COUNT(a) " +
+           "FROM Attendance a JOIN a.schedule s " +
+           "WHERE s.classEntity.id IN :classIds " +
+           "GROUP BY s.classEntity.id, a.student.id")
+    List<Object[]> countCubeAttendance(@Param("classIds") Collection<Long> classIds);
 }
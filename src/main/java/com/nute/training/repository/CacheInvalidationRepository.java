@@ -0,0 +1,46 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.CacheInvalidation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository: CacheInvalidationRepository
+ * Nhật ký thay đổi dùng cho việc xóa cache giữa các node
+ */
+@Repository
+public interface CacheInvalidationRepository extends JpaRepository<CacheInvalidation, Long> {
+
+    /**
+     * ID lớn nhất hiện có (điểm bắt đầu đọc của node mới khởi động)
+     */
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidation c")
+    long findMaxId();
+
+    /**
+     * Các thay đổi sau một ID, theo thứ tự ID
+     */
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.id > :afterId ORDER BY c.id")
+    List<CacheInvalidation> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Các thay đổi theo danh sách ID (đọc lại các ID bị bỏ trống do transaction commit muộn)
+     */
+    @Query("SELECT c FROM CacheInvalidation c WHERE c.id IN :ids")
+    List<CacheInvalidation> findByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Xóa nhật ký cũ
+     */
+    @Modifying
+    @Query("DELETE FROM CacheInvalidation c WHERE c.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
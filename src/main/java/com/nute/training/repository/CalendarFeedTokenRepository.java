@@ -0,0 +1,30 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.CalendarFeedToken;
+import com.nute.training.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository: CalendarFeedTokenRepository
+ * Quản lý token lịch iCalendar
+ */
+@Repository
+public interface CalendarFeedTokenRepository extends JpaRepository<CalendarFeedToken, Long> {
+
+    /**
+     * Tìm token của user
+     */
+    Optional<CalendarFeedToken> findByUser(User user);
+
+    /**
+     * Tìm token kèm user (chỉ user còn hoạt động)
+     */
+    @Query("SELECT t FROM CalendarFeedToken t JOIN FETCH t.user u " +
+           "WHERE t.token = :token AND u.status = 'ACTIVE'")
+    Optional<CalendarFeedToken> findActiveByToken(@Param("token") String token);
+}
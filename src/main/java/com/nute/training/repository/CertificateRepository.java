@@ -27,6 +27,12 @@ public interface CertificateRepository extends JpaRepository<Certificate, Long>
      */
     boolean existsByCertificateCode(String certificateCode);
 
+    /**
+     * Mã chứng chỉ bắt đầu bằng tiền tố (đọc qua unique index của certificate_code)
+     */
+    @Query("SELECT c.certificateCode FROM Certificate c WHERE c.certificateCode LIKE CONCAT(:prefix, '%')")
+    List<String> findCertificateCodesByPrefix(@Param("prefix") String prefix);
+
     /**
      * Tìm chứng chỉ theo enrollment
      */
@@ -103,7 +109,7 @@ public interface CertificateRepository extends JpaRepository<Certificate, Long>
      * Tìm enrollment đủ điều kiện nhận chứng chỉ (đã đạt, chưa có chứng chỉ)
      */
     @Query("SELECT e FROM Enrollment e WHERE " +
-           "e.classEntity.id = :classId AND e.status = 'APPROVED' AND " +
+           "e.classEntity.id = :classId AND e.status IN ('APPROVED', 'COMPLETED') AND " +
            "EXISTS (SELECT g FROM Grade g WHERE g.enrollment = e AND g.pass = true) AND " +
            "NOT EXISTS (SELECT c FROM Certificate c WHERE c.enrollment = e)")
     List<Enrollment> findEligibleEnrollmentsForCertificate(@Param("classId") Long classId);
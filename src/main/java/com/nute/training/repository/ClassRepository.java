@@ -2,13 +2,20 @@ package com.nute.training.repository;
 
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Course;
+import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +31,42 @@ public interface ClassRepository extends JpaRepository<ClassEntity, Long> {
      */
     Optional<ClassEntity> findByClassCode(String classCode);
 
+    /**
+     * Tìm lớp theo ID và khóa dòng (SELECT ... FOR UPDATE) đến hết transaction
+     * Dùng để tuần tự hóa thay đổi sĩ số và danh sách chờ của cùng một lớp
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ClassEntity c WHERE c.id = :id")
+    Optional<ClassEntity> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Tìm lớp theo ID, kèm khóa học và giảng viên
+     */
+    @Query("SELECT c FROM ClassEntity c " +
+           "LEFT JOIN FETCH c.course " +
+           "LEFT JOIN FETCH c.teacher " +
+           "WHERE c.id = :id")
+    Optional<ClassEntity> findByIdWithDetails(@Param("id") Long id);
+
+    /**
+     * Khóa nhiều lớp theo thứ tự ID (tránh deadlock giữa các node)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ClassEntity c WHERE c.id IN :ids ORDER BY c.id")
+    List<ClassEntity> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lấy ID của mọi lớp
+     */
+    @Query("SELECT c.id FROM ClassEntity c ORDER BY c.id")
+    List<Long> findAllIds();
+
+    /**
+     * Lấy ID các lớp của khóa học
+     */
+    @Query("SELECT c.id FROM ClassEntity c WHERE c.course.id IN :courseIds")
+    List<Long> findIdsByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
     /**
      * Kiểm tra class code đã tồn tại chưa
      */
@@ -44,6 +87,24 @@ public interface ClassRepository extends JpaRepository<ClassEntity, Long> {
      */
     List<ClassEntity> findByStatus(ClassEntity.ClassStatus status);
 
+    /**
+     * Đếm lớp theo trạng thái
+     */
+    long countByStatus(ClassEntity.ClassStatus status);
+
+    /**
+     * Tìm các lớp mới nhất theo trạng thái, kèm khóa học và giảng viên (giới hạn bởi pageable)
+     */
+    @Query("SELECT c FROM ClassEntity c " +
+           "LEFT JOIN FETCH c.course " +
+           "LEFT JOIN FETCH c.teacher " +
+           "WHERE c.status = :status " +
+           "ORDER BY c.createdAt DESC")
+    List<ClassEntity> findRecentByStatusWithDetails(
+            @Param("status") ClassEntity.ClassStatus status,
+            Pageable pageable
+    );
+
     /**
      * Tìm tất cả lớp theo giảng viên và trạng thái
      */
@@ -103,7 +164,19 @@ public interface ClassRepository extends JpaRepository<ClassEntity, Long> {
     List<ClassEntity> findAvailableClasses();
 
     /**
-     * Tìm lớp đang mở đăng ký theo khóa học
+     * Tìm lớp đang mở đăng ký (kể cả lớp đã đầy - đăng ký vào danh sách chờ)
+     * Cho phép đăng ký lớp PENDING (chưa bắt đầu) và ONGOING (đang diễn ra)
+     * Eager fetch course và teacher để tránh N+1 problem
+     */
+    @Query("SELECT DISTINCT c FROM ClassEntity c " +
+           "LEFT JOIN FETCH c.course " +
+           "LEFT JOIN FETCH c.teacher " +
+           "WHERE (c.status = 'PENDING' OR c.status = 'ONGOING') " +
+           "ORDER BY c.startDate ASC")
+    List<ClassEntity> findOpenClasses();
+
+    /**
+     * Tìm lớp đang mở đăng ký theo khóa học (kể cả lớp đã đầy - đăng ký vào danh sách chờ)
      * Cho phép đăng ký lớp PENDING (chưa bắt đầu) và ONGOING (đang diễn ra)
      * Eager fetch course và teacher để tránh N+1 problem
      */
@@ -112,7 +185,74 @@ public interface ClassRepository extends JpaRepository<ClassEntity, Long> {
            "LEFT JOIN FETCH c.teacher " +
            "WHERE c.course = :course " +
            "AND (c.status = 'PENDING' OR c.status = 'ONGOING') " +
-           "AND c.currentStudents < c.maxStudents " +
            "ORDER BY c.startDate ASC")
     List<ClassEntity> findOpenClassesByCourse(@Param("course") Course course);
+
+    /**
+     * Chuyển các lớp đến ngày bắt đầu sang trạng thái mới (bulk update)
+     */
+    @Modifying
+    @Query("UPDATE ClassEntity c SET c.status = :newStatus, c.updatedAt = :now " +
+           "WHERE c.status = :currentStatus AND c.startDate <= :today " +
+           "AND (c.endDate IS NULL OR c.endDate >= :today)")
+    int updateStatusOfStartedClasses(
+            @Param("currentStatus") ClassEntity.ClassStatus currentStatus,
+            @Param("newStatus") ClassEntity.ClassStatus newStatus,
+            @Param("today") LocalDate today,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Chuyển các lớp đã qua ngày kết thúc sang trạng thái mới (bulk update)
+     */
+    @Modifying
+    @Query("UPDATE ClassEntity c SET c.status = :newStatus, c.updatedAt = :now " +
+           "WHERE c.status IN :currentStatuses AND c.endDate < :today")
+    int updateStatusOfEndedClasses(
+            @Param("currentStatuses") Collection<ClassEntity.ClassStatus> currentStatuses,
+            @Param("newStatus") ClassEntity.ClassStatus newStatus,
+            @Param("today") LocalDate today,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Số học viên lưu trên lớp và số đăng ký giữ chỗ thực tế của mọi lớp (một query GROUP BY)
+     * Mỗi phần tử: [classId, currentStudents, seatHolderCount]
+     */
+    @Query("SELECT c.id, c.currentStudents, COUNT(e) FROM ClassEntity c " +
+           "LEFT JOIN c.enrollments e ON e.status IN :statuses " +
+           "GROUP BY c.id, c.currentStudents")
+    List<Object[]> findStoredAndActualStudentCounts(
+            @Param("statuses") Collection<Enrollment.EnrollmentStatus> statuses
+    );
+
+    /**
+     * Tính lại currentStudents cho các lớp chỉ định (bulk update)
+     * Đếm lại ngay trong câu UPDATE nên không ghi đè thay đổi xảy ra sau lúc đối chiếu
+     */
+    @Modifying
+    @Query("UPDATE ClassEntity c SET c.currentStudents = (" +
+           "SELECT COUNT(e) FROM Enrollment e WHERE e.classEntity.id = c.id AND e.status IN :statuses), " +
+           "c.updatedAt = :now " +
+           "WHERE c.id IN :classIds")
+    int recalculateCurrentStudents(
+            @Param("classIds") Collection<Long> classIds,
+            @Param("statuses") Collection<Enrollment.EnrollmentStatus> statuses,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Các lớp có đăng ký, điểm, điểm danh, thông tin lớp hoặc khóa học thay đổi từ thời điểm chỉ định
+     * Native query: phải thấy cả bản ghi vừa bị xóa mềm (entity có @SQLRestriction)
+     */
+    @Query(value = "SELECT e.class_id FROM enrollments e WHERE e.updated_at >= :since " +
+                   "UNION SELECT e.class_id FROM grades g JOIN enrollments e ON e.id = g.enrollment_id " +
+                   "WHERE g.updated_at >= :since " +
+                   "UNION SELECT s.class_id FROM attendances a JOIN schedules s ON s.id = a.schedule_id " +
+                   "WHERE a.updated_at >= :since " +
+                   "UNION SELECT c.id FROM classes c WHERE c.updated_at >= :since " +
+                   "UNION SELECT c.id FROM classes c JOIN courses co ON co.id = c.course_id " +
+                   "WHERE co.updated_at >= :since",
+           nativeQuery = true)
+    List<Long> findIdsWithAnalyticsChangesSince(@Param("since") LocalDateTime since);
 }
@@ -2,6 +2,7 @@ package com.nute.training.repository;
 
 import com.nute.training.entity.Course;
 import com.nute.training.entity.CourseType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -32,12 +33,23 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
      */
     List<Course> findByStatus(Course.CourseStatus status);
 
+    /**
+     * Đếm khóa học theo trạng thái
+     */
+    long countByStatus(Course.CourseStatus status);
+
     /**
      * Tìm tất cả khóa học ACTIVE
      */
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.courseType WHERE c.status = :status ORDER BY c.createdAt DESC")
     List<Course> findByStatusOrderByCreatedAtDesc(@Param("status") Course.CourseStatus status);
 
+    /**
+     * Tìm các khóa học mới nhất theo trạng thái (giới hạn bởi pageable)
+     */
+    @Query("SELECT c FROM Course c LEFT JOIN FETCH c.courseType WHERE c.status = :status ORDER BY c.createdAt DESC")
+    List<Course> findRecentByStatus(@Param("status") Course.CourseStatus status, Pageable pageable);
+
     @Query("SELECT c FROM Course c LEFT JOIN FETCH c.courseType ORDER BY c.createdAt DESC")
     List<Course> findAllWithCourseType();
 
@@ -4,11 +4,18 @@ import com.nute.training.dto.EnrollmentHistoryDto;
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,11 +26,24 @@ import java.util.Optional;
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
+    /**
+     * Tìm đăng ký theo ID và khóa dòng (SELECT ... FOR UPDATE) đến hết transaction
+     * Dùng để tuần tự hóa các giao dịch thủ công trên sổ cái của cùng một đăng ký
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Enrollment e WHERE e.id = :id")
+    Optional<Enrollment> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Tìm đăng ký theo học viên và lớp
      */
     Optional<Enrollment> findByStudentAndClassEntity(User student, ClassEntity classEntity);
 
+    /**
+     * Tìm đăng ký theo ID học viên và ID lớp
+     */
+    Optional<Enrollment> findByStudentIdAndClassEntityId(Long studentId, Long classId);
+
     /**
      * Kiểm tra học viên đã đăng ký lớp này chưa
      */
@@ -44,6 +64,11 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     List<Enrollment> findByStatus(Enrollment.EnrollmentStatus status);
 
+    /**
+     * Đếm đăng ký theo trạng thái
+     */
+    long countByStatus(Enrollment.EnrollmentStatus status);
+
     /**
      * Tìm đăng ký theo học viên và trạng thái
      */
@@ -63,6 +88,16 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     @Query("SELECT e FROM Enrollment e WHERE e.status = 'PENDING' ORDER BY e.createdAt ASC")
     List<Enrollment> findPendingEnrollments();
 
+    /**
+     * Tìm các đăng ký PENDING cũ nhất, kèm học viên, lớp và khóa học (giới hạn bởi pageable)
+     */
+    @Query("SELECT e FROM Enrollment e " +
+           "JOIN FETCH e.student " +
+           "JOIN FETCH e.classEntity c " +
+           "JOIN FETCH c.course " +
+           "WHERE e.status = 'PENDING' ORDER BY e.createdAt ASC")
+    List<Enrollment> findOldestPendingWithDetails(Pageable pageable);
+
     /**
      * Tìm tất cả đăng ký APPROVED của lớp
      * Eager fetch student để tránh lazy loading exception
@@ -73,6 +108,60 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
            "ORDER BY e.student.fullName ASC")
     List<Enrollment> findApprovedEnrollmentsByClass(@Param("classEntity") ClassEntity classEntity);
 
+    /**
+     * Tìm danh sách chờ của lớp theo thứ tự vào hàng (đầu hàng trước)
+     * Eager fetch student để tránh lazy loading exception
+     */
+    @Query("SELECT e FROM Enrollment e " +
+           "JOIN FETCH e.student " +
+           "WHERE e.classEntity = :classEntity AND e.status = 'WAITLISTED' " +
+           "ORDER BY e.waitlistPosition ASC, e.createdAt ASC")
+    List<Enrollment> findWaitlistByClass(@Param("classEntity") ClassEntity classEntity);
+
+    /**
+     * Kiểm tra lớp còn học viên trong danh sách chờ không
+     */
+    boolean existsByClassEntityAndStatus(ClassEntity classEntity, Enrollment.EnrollmentStatus status);
+
+    /**
+     * Kiểm tra lớp còn người chờ đăng ký trước thời điểm cho trước không (thứ tự FIFO khi duyệt)
+     */
+    boolean existsByClassEntityAndStatusAndCreatedAtBefore(ClassEntity classEntity,
+                                                           Enrollment.EnrollmentStatus status,
+                                                           LocalDateTime createdAt);
+
+    /**
+     * Vị trí danh sách chờ lớn nhất từng cấp cho lớp
+     */
+    @Query("SELECT MAX(e.waitlistPosition) FROM Enrollment e WHERE e.classEntity = :classEntity")
+    Long findMaxWaitlistPosition(@Param("classEntity") ClassEntity classEntity);
+
+    /**
+     * Đếm số người đứng trước một vị trí trong danh sách chờ
+     */
+    @Query("SELECT COUNT(e) FROM Enrollment e WHERE " +
+           "e.classEntity = :classEntity AND e.status = 'WAITLISTED' AND e.waitlistPosition < :position")
+    long countWaitlistAhead(
+            @Param("classEntity") ClassEntity classEntity,
+            @Param("position") Long position
+    );
+
+    /**
+     * Đếm đăng ký của lớp theo trạng thái
+     */
+    long countByClassEntityAndStatus(ClassEntity classEntity, Enrollment.EnrollmentStatus status);
+
+    /**
+     * Tìm đăng ký còn trong danh sách chờ của các lớp đang ở trạng thái chỉ định
+     * Eager fetch lớp để đọc trạng thái lớp không phát sinh N+1
+     */
+    @Query("SELECT e FROM Enrollment e " +
+           "JOIN FETCH e.classEntity c " +
+           "WHERE e.status = 'WAITLISTED' AND c.status IN :classStatuses")
+    List<Enrollment> findWaitlistOfClassesInStatus(
+            @Param("classStatuses") Collection<ClassEntity.ClassStatus> classStatuses
+    );
+
     /**
      * Đếm số học viên đã được duyệt trong lớp
      */
@@ -181,4 +270,72 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
            "AND e.status IN ('APPROVED', 'COMPLETED') " +
            "ORDER BY c.className ASC")
     List<Enrollment> findApprovedEnrollmentsByStudent(@Param("studentId") Long studentId);
+
+    /**
+     * Chuyển trạng thái đăng ký của các lớp đã kết thúc trước ngày chỉ định (bulk update)
+     */
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.status = :newStatus, e.updatedAt = :now " +
+           "WHERE e.status = :currentStatus AND e.classEntity.id IN (" +
+           "SELECT c.id FROM ClassEntity c WHERE c.status = :classStatus AND c.endDate < :endedBefore)")
+    int updateStatusForEndedClasses(
+            @Param("currentStatus") Enrollment.EnrollmentStatus currentStatus,
+            @Param("newStatus") Enrollment.EnrollmentStatus newStatus,
+            @Param("classStatus") ClassEntity.ClassStatus classStatus,
+            @Param("endedBefore") LocalDate endedBefore,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Lấy ID của mọi đăng ký (chỉ mục đối chiếu mã thanh toán khi nhập sao kê - một query duy nhất)
+     */
+    @Query("SELECT e.id FROM Enrollment e")
+    List<Long> findAllIds();
+
+    /**
+     * Lấy ID các lớp của những đăng ký chỉ định
+     */
+    @Query("SELECT DISTINCT e.classEntity.id FROM Enrollment e WHERE e.id IN :enrollmentIds")
+    List<Long> findClassIdsByEnrollmentIds(@Param("enrollmentIds") Collection<Long> enrollmentIds);
+
+    /**
+     * Tính lại số tiền đã đóng từ sổ cái thanh toán (bulk update)
+     * Cộng lại ngay trong câu UPDATE nên không bỏ sót giao dịch vừa commit ở transaction khác
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.paymentAmount = (" +
+           "SELECT COALESCE(SUM(t.amount), 0) FROM PaymentTransaction t WHERE t.enrollment.id = e.id), " +
+           "e.updatedAt = :now " +
+           "WHERE e.id IN :enrollmentIds")
+    int recalculatePaymentAmounts(
+            @Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Suy ra trạng thái thanh toán từ số tiền đã đóng và học phí (bulk update)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Enrollment e SET e.paymentStatus = CASE " +
+           "WHEN e.paymentAmount >= (SELECT co.tuitionFee FROM ClassEntity c JOIN c.course co " +
+           "WHERE c.id = e.classEntity.id) THEN :paid " +
+           "WHEN e.paymentAmount > 0 THEN :partial " +
+           "ELSE :unpaid END " +
+           "WHERE e.id IN :enrollmentIds")
+    int recalculatePaymentStatuses(
+            @Param("enrollmentIds") Collection<Long> enrollmentIds,
+            @Param("paid") Enrollment.PaymentStatus paid,
+            @Param("partial") Enrollment.PaymentStatus partial,
+            @Param("unpaid") Enrollment.PaymentStatus unpaid
+    );
+
+    /**
+     * Dữ liệu nguồn của khối phân tích theo lớp
+     * Trả về [classId, courseTypeId, courseId, teacherId, enrollmentDate, status, studentId, enrollmentId]
+     */
+    @Query("SELECT c.id, ct.id, co.id, t.id, e.enrollmentDate, e.status, e.student.id, e.id " +
+           "FROM Enrollment e JOIN e.classEntity c JOIN c.course co " +
+           "LEFT JOIN co.courseType ct LEFT JOIN c.teacher t " +
+           "WHERE c.id IN :classIds")
+    List<Object[]> findCubeFacts(@Param("classIds") Collection<Long> classIds);
 }
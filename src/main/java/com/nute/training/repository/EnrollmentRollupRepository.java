@@ -0,0 +1,65 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.EnrollmentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository: EnrollmentRollupRepository
+ * Số liệu tổng hợp đăng ký cho báo cáo
+ */
+@Repository
+public interface EnrollmentRollupRepository extends JpaRepository<EnrollmentRollup, Long> {
+
+    /**
+     * Xóa số liệu tổng hợp của các lớp (trước khi tính lại)
+     */
+    @Modifying
+    @Query("DELETE FROM EnrollmentRollup r WHERE r.classId IN :classIds")
+    int deleteByClassIds(@Param("classIds") Collection<Long> classIds);
+
+    /**
+     * Xóa số liệu của các lớp không còn tồn tại
+     */
+    @Modifying
+    @Query("DELETE FROM EnrollmentRollup r WHERE NOT EXISTS (SELECT c.id FROM ClassEntity c WHERE c.id = r.classId)")
+    int deleteOrphans();
+
+    /**
+     * Tính lại số liệu tổng hợp của các lớp từ bảng enrollments (một câu INSERT ... SELECT)
+     */
+    @Modifying
+    @Query("INSERT INTO EnrollmentRollup (periodYear, periodMonth, courseTypeId, courseId, classId, status, " +
+           "enrollmentCount, tuitionAmount, paidAmount, refreshedAt) " +
+           "SELECT YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), co.courseType.id, co.id, c.id, e.status, " +
+           "COUNT(e), SUM(COALESCE(co.tuitionFee, 0)), SUM(COALESCE(e.paymentAmount, 0)), :now " +
+           "FROM Enrollment e JOIN e.classEntity c JOIN c.course co " +
+           "WHERE c.id IN :classIds " +
+           "GROUP BY YEAR(e.enrollmentDate), MONTH(e.enrollmentDate), co.courseType.id, co.id, c.id, e.status")
+    int insertForClasses(
+            @Param("classIds") Collection<Long> classIds,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Số liệu của một năm ở mức lớp:
+     * [tháng, loại khóa học, khóa học, lớp, trạng thái, số đăng ký, học phí, đã đóng]
+     */
+    @Query("SELECT r.periodMonth, r.courseTypeId, r.courseId, r.classId, r.status, " +
+           "r.enrollmentCount, r.tuitionAmount, r.paidAmount " +
+           "FROM EnrollmentRollup r WHERE r.periodYear = :year")
+    List<Object[]> findByYear(@Param("year") int year);
+
+    /**
+     * Các năm đã có số liệu
+     */
+    @Query("SELECT DISTINCT r.periodYear FROM EnrollmentRollup r ORDER BY r.periodYear DESC")
+    List<Integer> findYears();
+}
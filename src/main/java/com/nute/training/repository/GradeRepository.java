@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -116,4 +117,12 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
            "CAST(COUNT(g) AS double) * 100 " +
            "FROM Grade g WHERE g.enrollment.classEntity.id = :classId")
     Double calculatePassRateByClass(@Param("classId") Long classId);
+
+    /**
+     * Kết quả đạt/không đạt của các đăng ký đã có điểm tổng kết theo lớp (khối phân tích)
+     * Trả về [enrollmentId, pass]
+     */
+    @Query("SELECT g.enrollment.id, g.pass FROM Grade g " +
+           "WHERE g.enrollment.classEntity.id IN :classIds AND g.totalScore IS NOT NULL")
+    List<Object[]> findCubeResults(@Param("classIds") Collection<Long> classIds);
 }
@@ -0,0 +1,38 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository: IdempotencyRecordRepository
+ * Lưu kết quả thao tác theo idempotency key
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * Tìm bản ghi theo key
+     */
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Xóa bản ghi theo key (trả key khi thao tác lỗi ngoài dự kiến, hoặc key đã hết hạn)
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :idempotencyKey")
+    int deleteByKey(@Param("idempotencyKey") String idempotencyKey);
+
+    /**
+     * Xóa các bản ghi đã hết hạn
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,43 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository: JobLeaseRepository
+ * Quản lý khóa thuê của job định kỳ
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Giành khóa nếu đã hết hạn hoặc đang do chính node này giữ
+     * Trả về 1 nếu giành được, 0 nếu node khác đang giữ
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+           "WHERE l.jobName = :jobName AND (l.lockedUntil <= :now OR l.owner = :owner)")
+    int tryAcquire(
+            @Param("jobName") String jobName,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("until") LocalDateTime until
+    );
+
+    /**
+     * Trả khóa sớm (chỉ khi node này đang giữ)
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.lockedUntil = :now WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(
+            @Param("jobName") String jobName,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now
+    );
+}
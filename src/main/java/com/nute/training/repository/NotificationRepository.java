@@ -0,0 +1,79 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository: NotificationRepository
+ * Hàng đợi thông báo gửi qua email tổng hợp
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    boolean existsBySourceEventIdAndRecipientId(Long sourceEventId, Long recipientId);
+
+    /**
+     * Người nhận đến hạn gửi digest: thông báo chờ cũ nhất đã quá cửa sổ gộp
+     */
+    @Query("SELECT n.recipient.id FROM Notification n " +
+           "WHERE n.status = 'PENDING' " +
+           "AND (n.nextAttemptAt IS NULL OR n.nextAttemptAt <= :now) " +
+           "GROUP BY n.recipient.id " +
+           "HAVING MIN(n.createdAt) <= :cutoff " +
+           "ORDER BY MIN(n.createdAt)")
+    List<Long> findRecipientsDue(
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    /**
+     * Thông báo chờ gửi của các người nhận (kèm người nhận)
+     */
+    @Query("SELECT n FROM Notification n " +
+           "JOIN FETCH n.recipient " +
+           "WHERE n.status = 'PENDING' AND n.recipient.id IN :recipientIds " +
+           "AND (n.nextAttemptAt IS NULL OR n.nextAttemptAt <= :now) " +
+           "ORDER BY n.recipient.id, n.createdAt, n.id")
+    List<Notification> findPendingByRecipients(
+            @Param("recipientIds") Collection<Long> recipientIds,
+            @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :now WHERE n.id IN :ids")
+    int markCompleted(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") Notification.NotificationStatus status,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Ghi nhận một lần gửi lỗi; quá số lần thử thì chuyển FAILED
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.attempts = n.attempts + 1, n.nextAttemptAt = :nextAttemptAt, " +
+           "n.status = CASE WHEN n.attempts + 1 >= :maxAttempts THEN 'FAILED' ELSE n.status END " +
+           "WHERE n.id IN :ids")
+    int markAttemptFailed(
+            @Param("ids") Collection<Long> ids,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("maxAttempts") int maxAttempts
+    );
+
+    /**
+     * Xóa thông báo đã xử lý từ lâu
+     */
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.status <> 'PENDING' AND n.createdAt < :before")
+    int deleteCompletedBefore(@Param("before") LocalDateTime before);
+}
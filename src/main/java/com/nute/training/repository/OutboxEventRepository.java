@@ -0,0 +1,68 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository: OutboxEventRepository
+ * Hàng đợi sự kiện nghiệp vụ (transactional outbox)
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Sự kiện đến hạn xử lý theo thứ tự ghi
+     * Bỏ qua sự kiện có sự kiện trước đó của cùng đối tượng đang chờ thử lại (giữ thứ tự theo đối tượng)
+     */
+    @Query("SELECT e FROM OutboxEvent e " +
+           "WHERE e.status = 'PENDING' " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) " +
+           "AND NOT EXISTS (SELECT p.id FROM OutboxEvent p " +
+           "    WHERE p.aggregateType = e.aggregateType AND p.aggregateId = e.aggregateId " +
+           "    AND p.id < e.id AND p.status = 'PENDING' AND p.nextAttemptAt > :now) " +
+           "ORDER BY e.id")
+    List<OutboxEvent> findReady(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Đánh dấu đã xử lý
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'PROCESSED', e.processedAt = :now, e.attempts = e.attempts + 1 " +
+           "WHERE e.id = :id")
+    int markProcessed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Ghi nhận một lần xử lý lỗi
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+           "WHERE e.id = :id")
+    int markAttemptFailed(
+            @Param("id") Long id,
+            @Param("status") OutboxEvent.EventStatus status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("error") String error
+    );
+
+    /**
+     * Đếm sự kiện theo trạng thái
+     */
+    long countByStatus(OutboxEvent.EventStatus status);
+
+    /**
+     * Xóa sự kiện đã xử lý xong từ lâu
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'PROCESSED' AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,65 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.PaymentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository: PaymentRollupRepository
+ * Số liệu tổng hợp thanh toán cho báo cáo
+ */
+@Repository
+public interface PaymentRollupRepository extends JpaRepository<PaymentRollup, Long> {
+
+    /**
+     * Xóa số liệu tổng hợp của các lớp (trước khi tính lại)
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentRollup r WHERE r.classId IN :classIds")
+    int deleteByClassIds(@Param("classIds") Collection<Long> classIds);
+
+    /**
+     * Xóa số liệu của các lớp không còn tồn tại
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentRollup r WHERE NOT EXISTS (SELECT c.id FROM ClassEntity c WHERE c.id = r.classId)")
+    int deleteOrphans();
+
+    /**
+     * Tính lại số liệu tổng hợp của các lớp từ sổ cái thanh toán (một câu INSERT ... SELECT)
+     */
+    @Modifying
+    @Query("INSERT INTO PaymentRollup (periodYear, periodMonth, courseTypeId, courseId, classId, type, " +
+           "transactionCount, amount, refreshedAt) " +
+           "SELECT YEAR(t.transactionDate), MONTH(t.transactionDate), co.courseType.id, co.id, c.id, t.type, " +
+           "COUNT(t), SUM(t.amount), :now " +
+           "FROM PaymentTransaction t JOIN t.enrollment e JOIN e.classEntity c JOIN c.course co " +
+           "WHERE c.id IN :classIds " +
+           "GROUP BY YEAR(t.transactionDate), MONTH(t.transactionDate), co.courseType.id, co.id, c.id, t.type")
+    int insertForClasses(
+            @Param("classIds") Collection<Long> classIds,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Số liệu của một năm ở mức lớp:
+     * [tháng, loại khóa học, khóa học, lớp, loại giao dịch, số giao dịch, số tiền]
+     */
+    @Query("SELECT r.periodMonth, r.courseTypeId, r.courseId, r.classId, r.type, " +
+           "r.transactionCount, r.amount " +
+           "FROM PaymentRollup r WHERE r.periodYear = :year")
+    List<Object[]> findByYear(@Param("year") int year);
+
+    /**
+     * Các năm đã có số liệu
+     */
+    @Query("SELECT DISTINCT r.periodYear FROM PaymentRollup r ORDER BY r.periodYear DESC")
+    List<Integer> findYears();
+}
@@ -0,0 +1,59 @@
+package com.nute.training.repository;
+
+import com.nute.training.entity.PaymentTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository: PaymentTransactionRepository
+ * Sổ cái thanh toán
+ */
+@Repository
+public interface PaymentTransactionRepository extends JpaRepository<PaymentTransaction, Long> {
+
+    /**
+     * Lịch sử giao dịch của đăng ký (kèm người ghi nhận)
+     */
+    @Query("SELECT t FROM PaymentTransaction t LEFT JOIN FETCH t.recordedBy " +
+           "WHERE t.enrollment.id = :enrollmentId " +
+           "ORDER BY t.transactionDate, t.id")
+    List<PaymentTransaction> findByEnrollmentId(@Param("enrollmentId") Long enrollmentId);
+
+    /**
+     * Số dư hiện tại của đăng ký
+     */
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM PaymentTransaction t WHERE t.enrollment.id = :enrollmentId")
+    BigDecimal sumAmountByEnrollmentId(@Param("enrollmentId") Long enrollmentId);
+
+    /**
+     * Các mã giao dịch ngoài đã được ghi nhận (chống nhập trùng sao kê)
+     */
+    @Query("SELECT t.externalReference FROM PaymentTransaction t " +
+           "WHERE t.source = :source AND t.externalReference IN :references")
+    List<String> findExistingExternalReferences(
+            @Param("source") PaymentTransaction.TransactionSource source,
+            @Param("references") Collection<String> references
+    );
+
+    /**
+     * Chuyển payment_amount cũ thành giao dịch số dư đầu kỳ cho các đăng ký chưa có sổ cái
+     * Chạy lại nhiều lần không tạo trùng (chỉ lấy đăng ký chưa có giao dịch nào)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payment_transactions " +
+                   "(enrollment_id, type, source, amount, transaction_date, description, created_at) " +
+                   "SELECT e.id, 'OPENING_BALANCE', 'MIGRATION', e.payment_amount, CURRENT_DATE, " +
+                   "'Số dư chuyển từ payment_amount', CURRENT_TIMESTAMP " +
+                   "FROM enrollments e " +
+                   "WHERE e.payment_amount IS NOT NULL AND e.payment_amount <> 0 " +
+                   "AND NOT EXISTS (SELECT 1 FROM payment_transactions t WHERE t.enrollment_id = e.id)",
+           nativeQuery = true)
+    int backfillOpeningBalances();
+}
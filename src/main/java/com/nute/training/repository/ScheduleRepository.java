@@ -3,11 +3,14 @@ package com.nute.training.repository;
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Schedule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -142,6 +145,63 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
             @Param("endDate") LocalDate endDate
     );
 
+    /**
+     * Tìm lịch của học viên theo khoảng thời gian, kèm lớp và khóa học (dùng cho lịch .ics)
+     */
+    @Query("SELECT s FROM Schedule s " +
+           "JOIN FETCH s.classEntity c " +
+           "JOIN FETCH c.course " +
+           "JOIN c.enrollments e " +
+           "WHERE e.student.id = :studentId AND e.status = 'APPROVED' " +
+           "AND s.sessionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY s.sessionDate, s.startTime")
+    List<Schedule> findStudentFeedSessions(
+            @Param("studentId") Long studentId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Tìm lịch của giảng viên theo khoảng thời gian, kèm lớp và khóa học (dùng cho lịch .ics)
+     */
+    @Query("SELECT s FROM Schedule s " +
+           "JOIN FETCH s.classEntity c " +
+           "JOIN FETCH c.course " +
+           "WHERE c.teacher.id = :teacherId " +
+           "AND s.sessionDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY s.sessionDate, s.startTime")
+    List<Schedule> findTeacherFeedSessions(
+            @Param("teacherId") Long teacherId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Tìm các buổi học còn hiệu lực (từ ngày chỉ định) của mọi lớp học viên đã được duyệt
+     * Dùng để dựng chỉ mục kiểm tra trùng lịch khi đăng ký - một query duy nhất
+     */
+    @Query("SELECT s FROM Schedule s " +
+           "JOIN FETCH s.classEntity c " +
+           "JOIN c.enrollments e " +
+           "WHERE e.student.id = :studentId " +
+           "AND e.status = 'APPROVED' " +
+           "AND s.sessionDate >= :fromDate " +
+           "AND s.status != 'CANCELLED'")
+    List<Schedule> findActiveSessionsOfApprovedClassesForStudent(
+            @Param("studentId") Long studentId,
+            @Param("fromDate") LocalDate fromDate
+    );
+
+    /**
+     * Tìm các buổi học còn hiệu lực (từ ngày chỉ định) của lớp
+     */
+    @Query("SELECT s FROM Schedule s WHERE " +
+           "s.classEntity.id = :classId AND s.sessionDate >= :fromDate AND s.status != 'CANCELLED'")
+    List<Schedule> findActiveSessionsByClass(
+            @Param("classId") Long classId,
+            @Param("fromDate") LocalDate fromDate
+    );
+
     /**
      * Đếm số buổi đã hoàn thành của lớp
      */
@@ -169,4 +229,19 @@ public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
      */
     @Query("SELECT MAX(s.sessionNumber) FROM Schedule s WHERE s.classEntity = :classEntity")
     Integer findMaxSessionNumberByClass(@Param("classEntity") ClassEntity classEntity);
+
+    /**
+     * Chuyển các buổi học đã kết thúc (trước thời điểm chỉ định) sang trạng thái mới (bulk update)
+     */
+    @Modifying
+    @Query("UPDATE Schedule s SET s.status = :newStatus, s.updatedAt = :now " +
+           "WHERE s.status = :currentStatus AND " +
+           "(s.sessionDate < :today OR (s.sessionDate = :today AND s.endTime <= :time))")
+    int updateStatusOfEndedSessions(
+            @Param("currentStatus") Schedule.ScheduleStatus currentStatus,
+            @Param("newStatus") Schedule.ScheduleStatus newStatus,
+            @Param("today") LocalDate today,
+            @Param("time") LocalTime time,
+            @Param("now") LocalDateTime now
+    );
 }
@@ -0,0 +1,262 @@
+package com.nute.training.service;
+
+import com.nute.training.util.TokenBucket;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service: AdmissionControlService
+ * Phòng chờ ảo cho các trang đăng ký học của học viên khi cao điểm.
+ * Mỗi cổng (gate) có token bucket giới hạn tốc độ, giới hạn số request đồng thời
+ * và hàng đợi FIFO theo số vé; vé lưu trong session, vị trí tính từ bộ đếm trong bộ nhớ.
+ * Session lưu trong CSDL (JDBC) nên mỗi request, kể cả lượt hỏi vị trí của trang chờ, vẫn đọc dòng session
+ * và cập nhật thời điểm truy cập; phòng chờ không truy vấn dữ liệu nghiệp vụ.
+ * Hàng đợi nằm trong bộ nhớ của từng node (mỗi node tự bảo vệ tài nguyên của mình).
+ * Vé ghi node đã cấp: session dùng chung nên vé có thể đến node khác (hoặc node đã khởi động lại),
+ * khi đó vé được cấp lại số ở cuối hàng của node hiện tại, giữ request gốc và thời điểm cấp ban đầu
+ * (hạn vé vẫn tính từ lần cấp đầu; sticky session ở load balancer giúp không mất chỗ trong hàng).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdmissionControlService {
+
+    public static final String CATALOG_GATE = "catalog";
+    public static final String REGISTER_GATE = "register";
+
+    private static final String TICKET_ATTRIBUTE_PREFIX = "admission.ticket.";
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.admission.poll-seconds:3}")
+    private int pollSeconds = 3;
+
+    @Value("${app.admission.ticket-ttl-seconds:900}")
+    private long ticketTtlSeconds = 900;
+
+    @Value("${app.admission.catalog.rate-per-second:20}")
+    private double catalogRatePerSecond = 20;
+
+    @Value("${app.admission.catalog.burst:40}")
+    private long catalogBurst = 40;
+
+    @Value("${app.admission.catalog.max-concurrent:6}")
+    private int catalogMaxConcurrent = 6;
+
+    @Value("${app.admission.register.rate-per-second:10}")
+    private double registerRatePerSecond = 10;
+
+    @Value("${app.admission.register.burst:20}")
+    private long registerBurst = 20;
+
+    @Value("${app.admission.register.max-concurrent:4}")
+    private int registerMaxConcurrent = 4;
+
+    private final JobLeaseService jobLeaseService;
+
+    private final Map<String, Gate> gates = new ConcurrentHashMap<>();
+
+    /**
+     * Vé chờ của một học viên, kèm request gốc để gửi lại khi đến lượt
+     * Số vé chỉ có nghĩa trong hàng đợi của node đã cấp (node)
+     */
+    public record Ticket(long number, String node, long issuedAtMillis, String method, String uri,
+                         Map<String, String[]> parameters) implements Serializable {
+    }
+
+    /**
+     * Trạng thái vé: position <= 0 nghĩa là đã đến lượt
+     */
+    public record TicketStatus(long position, boolean admitted) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPollSeconds() {
+        return pollSeconds;
+    }
+
+    /**
+     * Xin vào cổng
+     * Business Rule:
+     * - Có vé đã đến lượt: vào nếu còn chỗ đồng thời (hủy vé)
+     * - Không có vé và hàng đợi trống: vào nếu còn token và còn chỗ đồng thời
+     * - Còn lại: phải xếp hàng
+     * @return true nếu được vào (phải gọi exit khi xử lý xong)
+     */
+    public boolean tryEnter(String gateName, HttpSession session) {
+        Gate gate = gate(gateName);
+        Ticket ticket = currentTicket(gateName, session).orElse(null);
+
+        if (ticket != null) {
+            if (!gate.tryEnterWithTicket(ticket.number())) {
+                return false;
+            }
+            session.removeAttribute(TICKET_ATTRIBUTE_PREFIX + gateName);
+            return true;
+        }
+        return gate.tryEnterFresh();
+    }
+
+    /**
+     * Trả lại chỗ đồng thời sau khi request xử lý xong
+     */
+    public void exit(String gateName) {
+        gate(gateName).exit();
+    }
+
+    /**
+     * Cấp vé (hoặc giữ vé cũ còn hạn) cho request bị từ chối
+     */
+    public Ticket enqueue(String gateName, HttpSession session, String method, String uri,
+                          Map<String, String[]> parameters) {
+        Optional<Ticket> existing = currentTicket(gateName, session);
+        long number = existing.map(Ticket::number).orElseGet(() -> gate(gateName).issue());
+        long issuedAt = existing.map(Ticket::issuedAtMillis).orElseGet(System::currentTimeMillis);
+
+        Ticket ticket = new Ticket(number, jobLeaseService.getNodeId(), issuedAt, method, uri, Map.copyOf(parameters));
+        session.setAttribute(TICKET_ATTRIBUTE_PREFIX + gateName, ticket);
+        return ticket;
+    }
+
+    /**
+     * Vé còn hạn của session tại cổng (cấp lại số nếu vé do node khác cấp)
+     */
+    public Optional<Ticket> currentTicket(String gateName, HttpSession session) {
+        if (session == null) {
+            return Optional.empty();
+        }
+        Object value = session.getAttribute(TICKET_ATTRIBUTE_PREFIX + gateName);
+        if (!(value instanceof Ticket ticket)) {
+            return Optional.empty();
+        }
+        if (System.currentTimeMillis() - ticket.issuedAtMillis() > ticketTtlSeconds * 1000) {
+            session.removeAttribute(TICKET_ATTRIBUTE_PREFIX + gateName);
+            return Optional.empty();
+        }
+        String nodeId = jobLeaseService.getNodeId();
+        if (!nodeId.equals(ticket.node())) {
+            Ticket reissued = new Ticket(gate(gateName).issue(), nodeId, ticket.issuedAtMillis(),
+                    ticket.method(), ticket.uri(), ticket.parameters());
+            session.setAttribute(TICKET_ATTRIBUTE_PREFIX + gateName, reissued);
+            log.debug("Admission ticket {} from node {} reissued as {} at gate '{}'",
+                    ticket.number(), ticket.node(), reissued.number(), gateName);
+            return Optional.of(reissued);
+        }
+        return Optional.of(ticket);
+    }
+
+    /**
+     * Vị trí hiện tại của vé trong hàng (tính từ bộ đếm trong bộ nhớ)
+     */
+    public TicketStatus status(String gateName, Ticket ticket) {
+        long position = gate(gateName).positionOf(ticket.number());
+        return new TicketStatus(Math.max(position, 0), position <= 0);
+    }
+
+    /**
+     * Số request đang được xử lý trong cổng
+     */
+    public int getInFlight(String gateName) {
+        return gate(gateName).inFlight();
+    }
+
+    /**
+     * Số vé đang xếp hàng chưa được gọi
+     */
+    public long getQueueLength(String gateName) {
+        return gate(gateName).waiting();
+    }
+
+    public boolean isKnownGate(String gateName) {
+        return CATALOG_GATE.equals(gateName) || REGISTER_GATE.equals(gateName);
+    }
+
+    private Gate gate(String gateName) {
+        return gates.computeIfAbsent(gateName, name -> switch (name) {
+            case CATALOG_GATE -> new Gate(name, catalogRatePerSecond, catalogBurst, catalogMaxConcurrent);
+            case REGISTER_GATE -> new Gate(name, registerRatePerSecond, registerBurst, registerMaxConcurrent);
+            default -> throw new IllegalArgumentException("Cổng không hợp lệ: " + name);
+        });
+    }
+
+    /**
+     * Một cổng: số vé đã cấp (issued) và số vé đã được gọi (released).
+     * Vé được gọi theo thứ tự khi có token; vé bỏ dở chỉ tốn một token, không chặn hàng.
+     */
+    private static final class Gate {
+
+        private final String name;
+        private final TokenBucket bucket;
+        private final Semaphore inFlight;
+        private final int maxConcurrent;
+
+        private long issued;
+        private long released;
+
+        Gate(String name, double ratePerSecond, long burst, int maxConcurrent) {
+            this.name = name;
+            this.bucket = new TokenBucket(ratePerSecond, burst);
+            this.inFlight = new Semaphore(maxConcurrent);
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        synchronized long issue() {
+            long number = ++issued;
+            if (number - released == 1) {
+                log.info("Admission gate '{}' started queueing (ticket {})", name, number);
+            }
+            return number;
+        }
+
+        synchronized boolean tryEnterFresh() {
+            releaseWaiting();
+            if (issued > released) {
+                return false;
+            }
+            return bucket.tryConsume() && inFlight.tryAcquire();
+        }
+
+        synchronized boolean tryEnterWithTicket(long number) {
+            releaseWaiting();
+            return number <= released && inFlight.tryAcquire();
+        }
+
+        synchronized long positionOf(long number) {
+            releaseWaiting();
+            return number - released;
+        }
+
+        void exit() {
+            inFlight.release();
+        }
+
+        int inFlight() {
+            return maxConcurrent - inFlight.availablePermits();
+        }
+
+        synchronized long waiting() {
+            releaseWaiting();
+            return issued - released;
+        }
+
+        private void releaseWaiting() {
+            long waiting = issued - released;
+            if (waiting > 0) {
+                released += bucket.consumeUpTo(waiting);
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.Course;
+import com.nute.training.entity.CourseType;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.User;
+import com.nute.training.repository.AttendanceRepository;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.CourseRepository;
+import com.nute.training.repository.CourseTypeRepository;
+import com.nute.training.repository.EnrollmentRepository;
+import com.nute.training.repository.GradeRepository;
+import com.nute.training.repository.UserRepository;
+import com.nute.training.util.EnrollmentCube;
+import com.nute.training.util.EnrollmentCube.Dimension;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service: AnalyticsCubeService
+ * Phân tích đăng ký/tỷ lệ đạt/chuyên cần theo loại khóa học × khóa học × giảng viên × tháng × trạng thái.
+ * Dữ liệu được chụp vào EnrollmentCube trong bộ nhớ; truy vấn không chạm DB.
+ * Làm mới tăng dần: chỉ nạp lại các lớp có bản ghi đổi updated_at từ lần trước
+ * (lùi lại một khoảng để không sót transaction commit muộn), nạp lại toàn bộ hằng đêm.
+ * Mỗi node giữ khối của riêng mình nên không cần đánh dấu thay đổi giữa các node.
+ * Phương thức chỉ đọc trạng thái khối (dùng cho metrics) không mở transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AnalyticsCubeService {
+
+    private final ClassRepository classRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final GradeRepository gradeRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final CourseTypeRepository courseTypeRepository;
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+
+    @Value("${app.analytics.load-chunk-size:500}")
+    private int loadChunkSize = 500;
+
+    @Value("${app.analytics.refresh-overlap-seconds:120}")
+    private long refreshOverlapSeconds = 120;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile CubeState state;
+
+    private record CubeState(EnrollmentCube cube, LocalDateTime watermark, LocalDateTime refreshedAt) {
+    }
+
+    /**
+     * Một dòng kết quả: nhãn theo thứ tự các chiều gom nhóm
+     */
+    public record AnalyticsRow(List<String> labels, EnrollmentCube.Group measures) {
+    }
+
+    /**
+     * Kết quả truy vấn kèm thời gian xử lý trong bộ nhớ
+     */
+    public record AnalyticsResult(List<Dimension> groupBy, List<AnalyticsRow> rows, EnrollmentCube.Group total,
+                                  int factCount, long queryMicros, LocalDateTime refreshedAt) {
+    }
+
+    /**
+     * Giá trị lọc của một chiều
+     */
+    public record DimensionValue(long key, String label) {
+    }
+
+    /**
+     * Gom nhóm và lọc trên khối trong bộ nhớ
+     */
+    public AnalyticsResult query(List<Dimension> groupBy, Map<Dimension, ? extends Collection<Long>> filters) {
+        CubeState current = currentState();
+        long startedAt = System.nanoTime();
+        List<EnrollmentCube.Group> groups = current.cube().query(groupBy, filters);
+        List<EnrollmentCube.Group> totals = current.cube().query(List.of(), filters);
+        long queryMicros = (System.nanoTime() - startedAt) / 1_000;
+
+        Map<Dimension, Map<Long, String>> labels = new HashMap<>();
+        for (Dimension dimension : groupBy) {
+            Set<Long> keys = groups.stream()
+                    .map(g -> g.keys()[groupBy.indexOf(dimension)])
+                    .collect(Collectors.toSet());
+            labels.put(dimension, resolveLabels(dimension, keys));
+        }
+
+        List<AnalyticsRow> rows = groups.stream()
+                .sorted(groupComparator(groupBy, labels))
+                .map(g -> {
+                    List<String> rowLabels = new ArrayList<>(groupBy.size());
+                    for (int i = 0; i < groupBy.size(); i++) {
+                        rowLabels.add(labels.get(groupBy.get(i)).get(g.keys()[i]));
+                    }
+                    return new AnalyticsRow(rowLabels, g);
+                })
+                .toList();
+
+        EnrollmentCube.Group total = totals.isEmpty()
+                ? new EnrollmentCube.Group(new long[0], 0, 0, 0, 0, 0)
+                : totals.get(0);
+        return new AnalyticsResult(groupBy, rows, total, current.cube().size(), queryMicros, current.refreshedAt());
+    }
+
+    /**
+     * Các giá trị đang có dữ liệu của một chiều (dùng cho bộ lọc)
+     */
+    public List<DimensionValue> findDimensionValues(Dimension dimension) {
+        List<Long> keys = currentState().cube().keysOf(dimension);
+        Map<Long, String> labels = resolveLabels(dimension, keys);
+        Comparator<DimensionValue> order = dimension == Dimension.MONTH || dimension == Dimension.STATUS
+                ? Comparator.comparingLong(DimensionValue::key)
+                : Comparator.comparing(DimensionValue::label);
+        return keys.stream()
+                .map(key -> new DimensionValue(key, labels.get(key)))
+                .sorted(order)
+                .toList();
+    }
+
+    /**
+     * Làm mới tăng dần (lần đầu: nạp toàn bộ)
+     * @return số lớp đã nạp lại
+     */
+    public int refresh() {
+        lock.lock();
+        try {
+            return refreshLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int refreshLocked() {
+        CubeState current = state;
+        if (current == null) {
+            return reloadLocked();
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        Set<Long> changed = new HashSet<>(classRepository.findIdsWithAnalyticsChangesSince(
+                current.watermark().minusSeconds(refreshOverlapSeconds)));
+
+        // Lớp đã bị xóa: không còn bản ghi nào để báo thay đổi
+        Set<Long> existing = new HashSet<>(classRepository.findAllIds());
+        Set<Long> removed = current.cube().classIds();
+        removed.removeAll(existing);
+        changed.retainAll(existing);
+
+        if (changed.isEmpty() && removed.isEmpty()) {
+            state = new CubeState(current.cube(), startedAt, current.refreshedAt());
+            return 0;
+        }
+
+        List<EnrollmentCube.Fact> facts = loadFacts(changed);
+        Set<Long> replaced = new HashSet<>(changed);
+        replaced.addAll(removed);
+        state = new CubeState(current.cube().replaceClasses(replaced, facts), startedAt, LocalDateTime.now());
+
+        log.debug("Analytics cube refreshed: {} classes reloaded, {} removed", changed.size(), removed.size());
+        return replaced.size();
+    }
+
+    /**
+     * Nạp lại toàn bộ khối (mã từ điển được đánh lại từ đầu)
+     * @return số lớp đã nạp
+     */
+    public int reload() {
+        lock.lock();
+        try {
+            return reloadLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int reloadLocked() {
+        long startedNanos = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> classIds = classRepository.findAllIds();
+        EnrollmentCube cube = EnrollmentCube.of(loadFacts(classIds));
+        state = new CubeState(cube, startedAt, LocalDateTime.now());
+
+        log.info("Analytics cube loaded: {} enrollments of {} classes in {} ms",
+                cube.size(), classIds.size(), (System.nanoTime() - startedNanos) / 1_000_000);
+        return classIds.size();
+    }
+
+    /**
+     * Số đăng ký trong khối hiện tại (0 nếu chưa nạp)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int getLoadedEnrollments() {
+        CubeState current = state;
+        return current != null ? current.cube().size() : 0;
+    }
+
+    /**
+     * Thời điểm dữ liệu trong khối thay đổi lần cuối, null nếu chưa nạp
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public LocalDateTime getRefreshedAt() {
+        CubeState current = state;
+        return current != null ? current.refreshedAt() : null;
+    }
+
+    private CubeState currentState() {
+        CubeState current = state;
+        if (current == null) {
+            refresh();
+            current = state;
+        }
+        return current;
+    }
+
+    private List<EnrollmentCube.Fact> loadFacts(Collection<Long> classIds) {
+        List<Long> ids = List.copyOf(classIds);
+        List<EnrollmentCube.Fact> facts = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += loadChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + loadChunkSize, ids.size()));
+
+            Map<Long, Boolean> results = new HashMap<>();
+            for (Object[] row : gradeRepository.findCubeResults(chunk)) {
+                results.put((Long) row[0], Boolean.TRUE.equals(row[1]));
+            }
+
+            Map<String, int[]> attendance = new HashMap<>();
+            for (Object[] row : attendanceRepository.countCubeAttendance(chunk)) {
+                attendance.put(row[0] + ":" + row[1],
+                        new int[] {((Number) row[2]).intValue(), ((Number) row[3]).intValue()});
+            }
+
+            for (Object[] row : enrollmentRepository.findCubeFacts(chunk)) {
+                LocalDate enrollmentDate = (LocalDate) row[4];
+                Enrollment.EnrollmentStatus status = (Enrollment.EnrollmentStatus) row[5];
+                Boolean passed = results.get((Long) row[7]);
+                int[] sessions = attendance.getOrDefault(row[0] + ":" + row[6], new int[2]);
+
+                facts.add(new EnrollmentCube.Fact(
+                        (Long) row[0],
+                        keyOf(row[1]),
+                        keyOf(row[2]),
+                        keyOf(row[3]),
+                        enrollmentDate != null ? enrollmentDate.getYear() * 100 + enrollmentDate.getMonthValue() : 0,
+                        status.ordinal(),
+                        passed != null,
+                        Boolean.TRUE.equals(passed),
+                        sessions[0],
+                        sessions[1]));
+            }
+        }
+        return facts;
+    }
+
+    private Map<Long, String> resolveLabels(Dimension dimension, Collection<Long> keys) {
+        Map<Long, String> labels = switch (dimension) {
+            case COURSE_TYPE -> courseTypeRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(CourseType::getId, CourseType::getName));
+            case COURSE -> courseRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(Course::getId, c -> c.getCode() + " - " + c.getName()));
+            case TEACHER -> userRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(User::getId, User::getFullName));
+            case MONTH -> keys.stream()
+                    .collect(Collectors.toMap(Function.identity(), k -> String.format("%02d/%d", k % 100, k / 100)));
+            case STATUS -> keys.stream()
+                    .collect(Collectors.toMap(Function.identity(),
+                            k -> Enrollment.EnrollmentStatus.values()[k.intValue()].name()));
+        };
+
+        Map<Long, String> result = new HashMap<>(labels);
+        for (Long key : keys) {
+            result.putIfAbsent(key, key == 0 ? "(Chưa có)" : "#" + key);
+        }
+        return result;
+    }
+
+    private static Comparator<EnrollmentCube.Group> groupComparator(List<Dimension> groupBy,
+                                                                    Map<Dimension, Map<Long, String>> labels) {
+        Comparator<EnrollmentCube.Group> comparator = (a, b) -> 0;
+        for (int i = 0; i < groupBy.size(); i++) {
+            int index = i;
+            Dimension dimension = groupBy.get(i);
+            comparator = dimension == Dimension.MONTH || dimension == Dimension.STATUS
+                    ? comparator.thenComparingLong(g -> g.keys()[index])
+                    : comparator.thenComparing(g -> labels.get(dimension).get(g.keys()[index]));
+        }
+        return comparator;
+    }
+
+    private static long keyOf(Object id) {
+        return id != null ? (Long) id : 0L;
+    }
+}
@@ -12,7 +12,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -68,6 +70,14 @@ public class AttendanceService {
         return attendanceRepository.findStudentAttendanceByClass(student, classId);
     }
 
+    /**
+     * Tìm điểm danh của học viên theo lớp, kèm buổi học (dùng được ngoài session)
+     */
+    @Transactional(readOnly = true)
+    public List<Attendance> findStudentAttendanceWithSchedule(Long studentId, Long classId) {
+        return attendanceRepository.findStudentAttendanceWithSchedule(studentId, classId);
+    }
+
     /**
      * Điểm danh học viên
      * Business Rule:
@@ -133,6 +143,8 @@ public class AttendanceService {
      * Điểm danh hàng loạt cho tất cả học viên trong lớp
      * Business Rule: Chỉ điểm danh cho học viên đã được APPROVED
      * Cập nhật: Nếu đã có điểm danh thì cập nhật, chưa có thì tạo mới
+     * Điểm danh hiện có của buổi học được đọc một lần trước vòng lặp: không query bảng attendances
+     * giữa các lần lưu, nên Hibernate không phải flush từng dòng và INSERT/UPDATE được gom thành JDBC batch
      */
     public void markAttendanceForAllStudents(Schedule schedule,
                                              Attendance.AttendanceStatus defaultStatus,
@@ -143,6 +155,11 @@ public class AttendanceService {
         List<Enrollment> enrollments = enrollmentRepository
                 .findApprovedEnrollmentsByClass(schedule.getClassEntity());
 
+        Map<Long, Attendance> existingByStudent = new HashMap<>();
+        for (Attendance attendance : attendanceRepository.findBySchedule(schedule)) {
+            existingByStudent.put(attendance.getStudent().getId(), attendance);
+        }
+
         int createdCount = 0;
         int updatedCount = 0;
 
@@ -150,12 +167,11 @@ public class AttendanceService {
             User student = enrollment.getStudent();
 
             // Kiểm tra xem đã có điểm danh chưa
-            Optional<Attendance> existingAttendance = attendanceRepository
-                    .findByScheduleAndStudent(schedule, student);
+            Attendance existingAttendance = existingByStudent.get(student.getId());
 
-            if (existingAttendance.isPresent()) {
+            if (existingAttendance != null) {
                 // CẬP NHẬT điểm danh hiện có
-                Attendance attendance = existingAttendance.get();
+                Attendance attendance = existingAttendance;
                 attendance.setStatus(defaultStatus);
                 attendance.setMarkedBy(markedBy);
                 attendance.setMarkedAt(LocalDateTime.now());
@@ -0,0 +1,238 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.CacheInvalidation;
+import com.nute.training.entity.CacheInvalidation.EntityType;
+import com.nute.training.repository.CacheInvalidationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Service: CacheInvalidationBus
+ * Báo thay đổi dữ liệu cho bộ nhớ đệm cục bộ của mọi node trong cụm.
+ * - publish ghi một dòng vào cache_invalidations trong transaction nghiệp vụ đang chạy
+ *   và báo cho listener của node này sau khi commit
+ * - Mỗi node đọc các dòng mới theo lô (poll) và báo cho listener của mình; bỏ qua dòng do chính node ghi
+ * - ID tăng dần nhưng transaction commit không theo thứ tự ID: ID bị bỏ trống được đọc lại
+ *   trong một khoảng thời gian (transaction rollback để lại khoảng trống vĩnh viễn)
+ */
+@Service
+@Slf4j
+public class CacheInvalidationBus {
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate requiresNew;
+
+    @Value("${app.cache-bus.poll-batch-size:500}")
+    private int pollBatchSize = 500;
+
+    @Value("${app.cache-bus.gap-timeout-seconds:60}")
+    private long gapTimeoutSeconds = 60;
+
+    @Value("${app.cache-bus.max-pending-gaps:1000}")
+    private int maxPendingGaps = 1000;
+
+    @Value("${app.cache-bus.retention-minutes:60}")
+    private long retentionMinutes = 60;
+
+    private final Map<EntityType, List<Consumer<Long>>> listeners = new EnumMap<>(EntityType.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Chỉ luồng poll đọc/ghi (poll giữ lock)
+    private long lastSeenId;
+    private final Map<Long, Long> pendingGaps = new LinkedHashMap<>();
+    private volatile int pendingGapCount;
+
+    private final AtomicLong publishedChanges = new AtomicLong();
+    private final AtomicLong receivedChanges = new AtomicLong();
+
+    public CacheInvalidationBus(CacheInvalidationRepository cacheInvalidationRepository,
+                                JobLeaseService jobLeaseService,
+                                PlatformTransactionManager transactionManager) {
+        this.cacheInvalidationRepository = cacheInvalidationRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (EntityType type : EntityType.values()) {
+            listeners.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Đăng ký listener cho một loại dữ liệu
+     * Listener nhận ID bản ghi thay đổi, hoặc null khi mọi bản ghi của loại đó cần làm mới.
+     */
+    public void subscribe(EntityType type, Consumer<Long> listener) {
+        listeners.get(type).add(listener);
+    }
+
+    /**
+     * Node mới khởi động: cache đang rỗng, chỉ cần đọc các thay đổi từ thời điểm này
+     */
+    @PostConstruct
+    void init() {
+        lastSeenId = requiresNew.execute(status -> cacheInvalidationRepository.findMaxId());
+        log.debug("Cache invalidation bus starts after ID {}", lastSeenId);
+    }
+
+    /**
+     * Báo một bản ghi thay đổi (entityId = null: mọi bản ghi của loại này)
+     * Gọi trong transaction nghiệp vụ: nếu transaction rollback thì không node nào nhận thông báo.
+     */
+    @Transactional
+    public void publish(EntityType type, Long entityId) {
+        CacheInvalidation invalidation = new CacheInvalidation();
+        invalidation.setEntityType(type);
+        invalidation.setEntityId(entityId);
+        invalidation.setOriginNode(jobLeaseService.getNodeId());
+        cacheInvalidationRepository.save(invalidation);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishedChanges.incrementAndGet();
+                dispatch(type, entityId);
+            }
+        });
+    }
+
+    /**
+     * Đọc các thay đổi mới do node khác ghi và báo cho listener
+     * @return số thay đổi đã xử lý
+     */
+    public int poll() {
+        lock.lock();
+        try {
+            return pollLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int pollLocked() {
+        List<CacheInvalidation> received = new ArrayList<>();
+        if (!pendingGaps.isEmpty()) {
+            List<CacheInvalidation> filled = requiresNew.execute(status ->
+                    cacheInvalidationRepository.findByIds(List.copyOf(pendingGaps.keySet())));
+            filled.forEach(row -> pendingGaps.remove(row.getId()));
+            received.addAll(filled);
+        }
+
+        List<CacheInvalidation> batch;
+        do {
+            long afterId = lastSeenId;
+            batch = requiresNew.execute(status ->
+                    cacheInvalidationRepository.findAfter(afterId, PageRequest.of(0, pollBatchSize)));
+            for (CacheInvalidation row : batch) {
+                recordGaps(lastSeenId, row.getId());
+                lastSeenId = row.getId();
+            }
+            received.addAll(batch);
+        } while (batch.size() == pollBatchSize);
+
+        long now = System.currentTimeMillis();
+        pendingGaps.values().removeIf(firstSeen -> now - firstSeen > gapTimeoutSeconds * 1000);
+
+        String nodeId = jobLeaseService.getNodeId();
+        Map<EntityType, Set<Long>> changedIds = new EnumMap<>(EntityType.class);
+        Set<EntityType> changedAll = EnumSet.noneOf(EntityType.class);
+        for (CacheInvalidation row : received) {
+            if (nodeId.equals(row.getOriginNode())) {
+                continue;
+            }
+            if (row.getEntityId() == null) {
+                changedAll.add(row.getEntityType());
+            } else {
+                changedIds.computeIfAbsent(row.getEntityType(), type -> new HashSet<>()).add(row.getEntityId());
+            }
+        }
+
+        // Gộp trùng trong lô: một loại đã làm mới toàn bộ thì bỏ qua từng ID
+        changedAll.forEach(type -> dispatch(type, null));
+        changedIds.forEach((type, ids) -> {
+            if (!changedAll.contains(type)) {
+                ids.forEach(id -> dispatch(type, id));
+            }
+        });
+
+        pendingGapCount = pendingGaps.size();
+        receivedChanges.addAndGet(received.size());
+        if (!received.isEmpty()) {
+            log.debug("Cache invalidation bus received {} changes (up to ID {}, {} pending gaps)",
+                    received.size(), lastSeenId, pendingGaps.size());
+        }
+        return received.size();
+    }
+
+    /**
+     * Tổng số thay đổi node này đã ghi (đã commit)
+     */
+    public long getPublishedChanges() {
+        return publishedChanges.get();
+    }
+
+    /**
+     * Tổng số dòng thay đổi node này đã đọc (kể cả dòng do chính node ghi)
+     */
+    public long getReceivedChanges() {
+        return receivedChanges.get();
+    }
+
+    /**
+     * Số ID bị bỏ trống đang chờ đọc lại sau lượt poll gần nhất
+     */
+    public int getPendingGapCount() {
+        return pendingGapCount;
+    }
+
+    /**
+     * Xóa nhật ký đã quá thời gian lưu
+     * @return số dòng đã xóa
+     */
+    public int purgeExpired() {
+        Integer deleted = requiresNew.execute(status ->
+                cacheInvalidationRepository.deleteCreatedBefore(LocalDateTime.now().minusMinutes(retentionMinutes)));
+        return deleted != null ? deleted : 0;
+    }
+
+    private void recordGaps(long previousId, long nextId) {
+        long now = System.currentTimeMillis();
+        for (long id = previousId + 1; id < nextId && pendingGaps.size() < maxPendingGaps; id++) {
+            pendingGaps.putIfAbsent(id, now);
+        }
+    }
+
+    private void dispatch(EntityType type, Long entityId) {
+        for (Consumer<Long> listener : listeners.get(type)) {
+            try {
+                listener.accept(entityId);
+            } catch (Exception e) {
+                log.error("Cache invalidation listener failed for {} {}", type, entityId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.CacheInvalidation.EntityType;
+import com.nute.training.entity.CalendarFeedToken;
+import com.nute.training.entity.Schedule;
+import com.nute.training.entity.User;
+import com.nute.training.repository.CalendarFeedTokenRepository;
+import com.nute.training.repository.ScheduleRepository;
+import com.nute.training.util.ICalendarWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Service: CalendarFeedService
+ * Lịch iCalendar (.ics) cá nhân cho học viên và giảng viên, truy cập bằng token.
+ * Nội dung lịch được cache theo user kèm phiên bản; mọi thay đổi lịch/lớp/đăng ký
+ * gọi invalidate sau khi commit, nên lượt poll của ứng dụng lịch thường không chạm DB.
+ * Invalidate đi qua CacheInvalidationBus để cache trên các node khác cũng được làm mới.
+ * Cache giới hạn số user: lịch không được poll quá thời gian chờ bị bỏ trước, sau đó đến lịch poll lâu nhất.
+ * Không đặt @Transactional ở mức class: lượt poll trúng cache không được mở transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CalendarFeedService {
+
+    private static final SecureRandom TOKEN_RANDOM = new SecureRandom();
+
+    private final CalendarFeedTokenRepository calendarFeedTokenRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    @Value("${app.calendar.feed.past-days:30}")
+    private int pastDays = 30;
+
+    @Value("${app.calendar.feed.future-days:180}")
+    private int futureDays = 180;
+
+    @Value("${app.calendar.feed.cache-max-entries:5000}")
+    private int cacheMaxEntries = 5000;
+
+    @Value("${app.calendar.feed.cache-idle-hours:24}")
+    private long cacheIdleHours = 24;
+
+    private final Map<String, FeedOwner> ownersByToken = new ConcurrentHashMap<>();
+    private final Map<Long, Snapshot> feedsByUser = new ConcurrentHashMap<>();
+    // Chỉ có khóa khi user có lịch trong cache hoặc đang sinh lại: invalidate user khác không tốn bộ nhớ
+    private final Map<Long, Long> versionsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> usersByClass = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Nội dung lịch đã sinh kèm ETag (strong) và thời điểm thay đổi cuối
+     */
+    public record CalendarFeed(byte[] content, String etag, long lastModified) {
+    }
+
+    private record FeedOwner(Long userId, User.Role role, String fullName) {
+    }
+
+    private record Snapshot(CalendarFeed feed, LocalDate windowStart, long version, boolean stale,
+                            String token, Set<Long> classIds, AtomicLong lastAccessMillis) {
+
+        Snapshot markStale() {
+            return stale ? this : new Snapshot(feed, windowStart, version, true, token, classIds, lastAccessMillis);
+        }
+    }
+
+    @PostConstruct
+    void subscribe() {
+        cacheInvalidationBus.subscribe(EntityType.CLASS, this::onClassChanged);
+        cacheInvalidationBus.subscribe(EntityType.USER, this::onUserChanged);
+        // Tên khóa học nằm trong tiêu đề sự kiện; đổi khóa học hiếm nên làm mới toàn bộ
+        cacheInvalidationBus.subscribe(EntityType.COURSE, courseId -> markAllStale());
+    }
+
+    /**
+     * Lấy (hoặc tạo) token lịch của user
+     */
+    @Transactional
+    public String getOrCreateToken(User user) {
+        return calendarFeedTokenRepository.findByUser(user)
+                .map(CalendarFeedToken::getToken)
+                .orElseGet(() -> {
+                    CalendarFeedToken feedToken = new CalendarFeedToken();
+                    feedToken.setUser(user);
+                    feedToken.setToken(generateToken());
+                    log.info("Creating calendar feed token for user: {}", user.getUsername());
+                    return calendarFeedTokenRepository.save(feedToken).getToken();
+                });
+    }
+
+    /**
+     * Cấp lại token lịch (token cũ hết hiệu lực ngay)
+     */
+    @Transactional
+    public String resetToken(User user) {
+        log.info("Resetting calendar feed token for user: {}", user.getUsername());
+
+        CalendarFeedToken feedToken = calendarFeedTokenRepository.findByUser(user)
+                .orElseGet(() -> {
+                    CalendarFeedToken created = new CalendarFeedToken();
+                    created.setUser(user);
+                    return created;
+                });
+
+        String oldToken = feedToken.getToken();
+        feedToken.setToken(generateToken());
+        calendarFeedTokenRepository.save(feedToken);
+
+        if (oldToken != null) {
+            // Node khác bỏ token cũ khi nhận thông báo thay đổi của user
+            cacheInvalidationBus.publish(EntityType.USER, user.getId());
+        }
+        return feedToken.getToken();
+    }
+
+    /**
+     * Lấy lịch theo token
+     * Trúng cache: không truy vấn DB. Hết hạn (bị invalidate hoặc sang ngày mới): sinh lại.
+     */
+    public Optional<CalendarFeed> findFeedByToken(String token) {
+        FeedOwner owner = ownersByToken.get(token);
+        if (owner == null) {
+            owner = calendarFeedTokenRepository.findActiveByToken(token)
+                    .map(t -> new FeedOwner(t.getUser().getId(), t.getUser().getRole(), t.getUser().getFullName()))
+                    .orElse(null);
+            if (owner == null) {
+                return Optional.empty();
+            }
+            ownersByToken.put(token, owner);
+        }
+
+        LocalDate windowStart = LocalDate.now(ICalendarWriter.TIME_ZONE).minusDays(pastDays);
+        Snapshot current = feedsByUser.get(owner.userId());
+        if (current != null && !current.stale() && current.windowStart().equals(windowStart)) {
+            current.lastAccessMillis().set(System.currentTimeMillis());
+            return Optional.of(current.feed());
+        }
+        return Optional.of(rebuild(token, owner, windowStart, current));
+    }
+
+    /**
+     * Đánh dấu lịch của mọi user có liên quan đến lớp cần sinh lại (sau khi commit)
+     */
+    public void invalidateClass(Long classId) {
+        cacheInvalidationBus.publish(EntityType.CLASS, classId);
+    }
+
+    /**
+     * Đánh dấu lịch của một user cần sinh lại (sau khi commit)
+     */
+    public void invalidateUser(Long userId) {
+        cacheInvalidationBus.publish(EntityType.USER, userId);
+    }
+
+    /**
+     * Đánh dấu lịch của mọi user cần sinh lại (dùng sau các bulk update)
+     */
+    public void invalidateAll() {
+        cacheInvalidationBus.publish(EntityType.CLASS, null);
+    }
+
+    private void onClassChanged(Long classId) {
+        if (classId == null) {
+            markAllStale();
+            return;
+        }
+        Set<Long> userIds = usersByClass.remove(classId);
+        if (userIds != null) {
+            userIds.forEach(this::markStale);
+        }
+    }
+
+    private void onUserChanged(Long userId) {
+        if (userId == null) {
+            ownersByToken.clear();
+            markAllStale();
+            return;
+        }
+        // Tên/vai trò/token của user có thể đã đổi: đọc lại chủ token ở request kế tiếp
+        ownersByToken.values().removeIf(owner -> owner.userId().equals(userId));
+        markStale(userId);
+    }
+
+    private void markAllStale() {
+        usersByClass.clear();
+        feedsByUser.keySet().forEach(this::markStale);
+    }
+
+    private CalendarFeed rebuild(String token, FeedOwner owner, LocalDate windowStart, Snapshot previous) {
+        long version = versionsByUser.computeIfAbsent(owner.userId(), id -> 0L);
+        LocalDate windowEnd = windowStart.plusDays((long) pastDays + futureDays);
+
+        List<Schedule> sessions;
+        try {
+            sessions = owner.role() == User.Role.TEACHER
+                    ? scheduleRepository.findTeacherFeedSessions(owner.userId(), windowStart, windowEnd)
+                    : scheduleRepository.findStudentFeedSessions(owner.userId(), windowStart, windowEnd);
+        } catch (RuntimeException e) {
+            // Không để lại phiên bản của user không có lịch trong cache
+            if (!feedsByUser.containsKey(owner.userId())) {
+                versionsByUser.remove(owner.userId());
+            }
+            throw e;
+        }
+
+        String calendarName = (owner.role() == User.Role.TEACHER ? "Lịch dạy - " : "Lịch học - ") + owner.fullName();
+        ICalendarWriter writer = new ICalendarWriter(calendarName);
+        sessions.forEach(writer::addSession);
+        byte[] content = writer.toBytes();
+
+        String etag = "\"" + sha256Prefix(content) + "\"";
+        // Giữ Last-Modified cũ nếu nội dung không đổi để client If-Modified-Since vẫn nhận 304
+        long lastModified = previous != null && previous.feed().etag().equals(etag)
+                ? previous.feed().lastModified()
+                : System.currentTimeMillis() / 1000 * 1000;
+        CalendarFeed feed = new CalendarFeed(content, etag, lastModified);
+
+        Set<Long> classIds = sessions.stream()
+                .map(s -> s.getClassEntity().getId())
+                .collect(Collectors.toSet());
+        // compute (không dùng computeIfAbsent rồi add): nguyên tử với việc bỏ tập rỗng khi dọn cache
+        classIds.forEach(classId -> usersByClass.compute(classId, (id, userIds) -> {
+            Set<Long> users = userIds != null ? userIds : ConcurrentHashMap.<Long>newKeySet();
+            users.add(owner.userId());
+            return users;
+        }));
+
+        // Nếu có invalidate trong lúc đang đọc DB thì bản này có thể đã cũ
+        // (không còn phiên bản: user vừa bị bỏ khỏi cache, có thể đã bỏ lỡ invalidate)
+        Long latest = versionsByUser.get(owner.userId());
+        boolean stale = latest == null || latest != version;
+        feedsByUser.put(owner.userId(), new Snapshot(feed, windowStart, version, stale,
+                token, classIds, new AtomicLong(System.currentTimeMillis())));
+        versionsByUser.putIfAbsent(owner.userId(), version);
+        if (feedsByUser.size() > cacheMaxEntries) {
+            evict();
+        }
+
+        log.debug("Calendar feed rebuilt for user ID: {} ({} sessions, etag {})",
+                owner.userId(), sessions.size(), etag);
+        return feed;
+    }
+
+    private void markStale(Long userId) {
+        versionsByUser.computeIfPresent(userId, (id, version) -> version + 1);
+        feedsByUser.computeIfPresent(userId, (id, snapshot) -> snapshot.markStale());
+    }
+
+    /**
+     * Bỏ lịch không được poll quá thời gian chờ; nếu vẫn vượt giới hạn thì bỏ lịch poll lâu nhất
+     * đến còn 90% giới hạn, để không phải dọn lại sau mỗi lần sinh lịch mới
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long idleBefore = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(cacheIdleHours);
+            List<Map.Entry<Long, Snapshot>> entries = feedsByUser.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessMillis().get()))
+                    .toList();
+            int target = cacheMaxEntries * 9 / 10;
+            int remaining = entries.size();
+            int evicted = 0;
+            for (Map.Entry<Long, Snapshot> entry : entries) {
+                if (remaining <= target && entry.getValue().lastAccessMillis().get() >= idleBefore) {
+                    break;
+                }
+                if (feedsByUser.remove(entry.getKey(), entry.getValue())) {
+                    forget(entry.getKey(), entry.getValue());
+                    evicted++;
+                }
+                remaining--;
+            }
+            log.debug("Evicted {} calendar feeds from cache ({} remaining)", evicted, feedsByUser.size());
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void forget(Long userId, Snapshot snapshot) {
+        versionsByUser.remove(userId);
+        ownersByToken.remove(snapshot.token());
+        snapshot.classIds().forEach(classId ->
+                usersByClass.computeIfPresent(classId, (id, userIds) -> {
+                    userIds.remove(userId);
+                    return userIds.isEmpty() ? null : userIds;
+                }));
+    }
+
+    private static String generateToken() {
+        byte[] bytes = new byte[32];
+        TOKEN_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String sha256Prefix(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.nute.training.service;
 import com.nute.training.entity.Certificate;
 import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.Grade;
+import com.nute.training.entity.OutboxEvent;
 import com.nute.training.entity.User;
 import com.nute.training.repository.CertificateRepository;
 import com.nute.training.repository.GradeRepository;
@@ -12,8 +13,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service: CertificateService
@@ -27,6 +32,7 @@ public class CertificateService {
 
     private final CertificateRepository certificateRepository;
     private final GradeRepository gradeRepository;
+    private final DomainEventPublisher domainEventPublisher;
 
     /**
      * Tìm tất cả chứng chỉ
@@ -87,7 +93,7 @@ public class CertificateService {
     /**
      * Tìm enrollment đủ điều kiện nhận chứng chỉ
      * Business Rule:
-     * - Enrollment phải ở trạng thái APPROVED
+     * - Enrollment phải ở trạng thái APPROVED hoặc COMPLETED
      * - Phải có grade và pass = true (điểm đạt)
      * - Chưa được cấp chứng chỉ
      */
@@ -101,8 +107,9 @@ public class CertificateService {
      */
     @Transactional(readOnly = true)
     public boolean isEligibleForCertificate(Enrollment enrollment) {
-        // Check enrollment status
-        if (enrollment.getStatus() != Enrollment.EnrollmentStatus.APPROVED) {
+        // Check enrollment status (COMPLETED khi lớp đã kết thúc)
+        if (enrollment.getStatus() != Enrollment.EnrollmentStatus.APPROVED &&
+            enrollment.getStatus() != Enrollment.EnrollmentStatus.COMPLETED) {
             return false;
         }
 
@@ -177,6 +184,7 @@ public class CertificateService {
         }
 
         Certificate updated = certificateRepository.save(certificate);
+        publishCertificateIssued(updated);
         log.info("Certificate issued successfully: {}", updated.getCertificateCode());
         return updated;
     }
@@ -184,6 +192,8 @@ public class CertificateService {
     /**
      * Cấp chứng chỉ hàng loạt cho lớp
      * Business Rule: Chỉ cấp cho những enrollment đủ điều kiện
+     * Sự kiện CERTIFICATE_ISSUED ghi sau khi đã lưu hết chứng chỉ: outbox dùng ID IDENTITY (INSERT ngay),
+     * ghi xen kẽ sẽ đẩy batch INSERT certificates ra từng dòng
      */
     public List<Certificate> issueCertificatesForClass(Long classId,
                                                        User issuedBy,
@@ -195,13 +205,16 @@ public class CertificateService {
 
         List<Certificate> certificates = new java.util.ArrayList<>();
         int counter = 1;
+        // Mã đã cấp của lớp đọc một lần (mã sinh trong vòng lặp luôn khác nhau vì counter tăng dần)
+        Set<String> existingCodes = new HashSet<>(certificateRepository.findCertificateCodesByPrefix(
+                certificateCodePrefix(codePrefix, classId)));
 
         for (Enrollment enrollment : eligibleEnrollments) {
             // Generate unique certificate code
             String code = generateCertificateCode(codePrefix, classId, counter++);
 
             // Skip if code exists (shouldn't happen but safety check)
-            while (certificateRepository.existsByCertificateCode(code)) {
+            while (existingCodes.contains(code)) {
                 code = generateCertificateCode(codePrefix, classId, counter++);
             }
 
@@ -212,9 +225,9 @@ public class CertificateService {
             certificate.setStatus(Certificate.CertificateStatus.ISSUED);
             certificate.setIssuedBy(issuedBy);
 
-            Certificate saved = certificateRepository.save(certificate);
-            certificates.add(saved);
+            certificates.add(certificateRepository.save(certificate));
         }
+        certificates.forEach(this::publishCertificateIssued);
 
         log.info("Issued {} certificates for class ID: {}", certificates.size(), classId);
         return certificates;
@@ -281,15 +294,32 @@ public class CertificateService {
         log.info("Certificate deleted successfully: {}", certificate.getCertificateCode());
     }
 
+    /**
+     * Ghi sự kiện cấp chứng chỉ vào outbox (xử lý sau commit, ngoài request)
+     */
+    private void publishCertificateIssued(Certificate certificate) {
+        Enrollment enrollment = certificate.getEnrollment();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("certificateId", certificate.getId());
+        payload.put("certificateCode", certificate.getCertificateCode());
+        payload.put("studentId", enrollment.getStudent().getId());
+        payload.put("classId", enrollment.getClassEntity().getId());
+        domainEventPublisher.publish(OutboxEvent.EventType.CERTIFICATE_ISSUED, enrollment.getId(), payload);
+    }
+
     /**
      * Generate mã chứng chỉ
      * Format: PREFIX-CLASSID-NUMBER (e.g., CERT-2024-CNTT001-001)
      */
     private String generateCertificateCode(String prefix, Long classId, int number) {
-        return String.format("%s-%d-%03d",
-                prefix != null ? prefix : "CERT",
-                classId,
-                number);
+        return certificateCodePrefix(prefix, classId) + String.format("%03d", number);
+    }
+
+    /**
+     * Phần đầu chung của mã chứng chỉ trong một lớp: PREFIX-CLASSID-
+     */
+    private String certificateCodePrefix(String prefix, Long classId) {
+        return String.format("%s-%d-", prefix != null ? prefix : "CERT", classId);
     }
 
     /**
@@ -0,0 +1,97 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.Schedule;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.EnrollmentRepository;
+import com.nute.training.repository.ScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+/**
+ * Service: ClassLifecycleService
+ * Tự động chuyển trạng thái lớp học, buổi học và đăng ký theo ngày.
+ * Mỗi bước là một câu UPDATE theo tập hợp (không nạp từng entity).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ClassLifecycleService {
+
+    private final ClassRepository classRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final CalendarFeedService calendarFeedService;
+    private final ReportRollupService reportRollupService;
+    private final WaitlistService waitlistService;
+
+    /**
+     * Số ngày sau khi lớp kết thúc mới chuyển đăng ký APPROVED sang COMPLETED
+     * (để giảng viên kịp nhập điểm cho danh sách học viên đã duyệt)
+     */
+    @Value("${app.lifecycle.enrollment-completion-delay-days:14}")
+    private int enrollmentCompletionDelayDays = 14;
+
+    /**
+     * Kết quả một lượt chuyển trạng thái
+     */
+    public record LifecycleResult(int classesStarted, int classesCompleted,
+                                  int sessionsCompleted, int enrollmentsCompleted, int waitlistedDropped) {
+
+        public boolean hasChanges() {
+            return classesStarted + classesCompleted + sessionsCompleted + enrollmentsCompleted
+                   + waitlistedDropped > 0;
+        }
+    }
+
+    /**
+     * Chuyển trạng thái theo thời điểm now
+     * Business Rule:
+     * - Lớp PENDING đến ngày bắt đầu (và chưa qua ngày kết thúc) -> ONGOING
+     * - Lớp PENDING/ONGOING đã qua ngày kết thúc -> COMPLETED
+     * - Đăng ký WAITLISTED của lớp COMPLETED/CANCELLED -> DROPPED
+     * - Buổi học SCHEDULED đã qua giờ kết thúc -> COMPLETED
+     * - Đăng ký APPROVED của lớp COMPLETED đã kết thúc quá số ngày cấu hình -> COMPLETED
+     */
+    public LifecycleResult advance(LocalDateTime now) {
+        int classesStarted = classRepository.updateStatusOfStartedClasses(
+                ClassEntity.ClassStatus.PENDING, ClassEntity.ClassStatus.ONGOING,
+                now.toLocalDate(), now);
+
+        int classesCompleted = classRepository.updateStatusOfEndedClasses(
+                EnumSet.of(ClassEntity.ClassStatus.PENDING, ClassEntity.ClassStatus.ONGOING),
+                ClassEntity.ClassStatus.COMPLETED, now.toLocalDate(), now);
+
+        int waitlistedDropped = waitlistService.closeForClosedClasses();
+
+        int sessionsCompleted = scheduleRepository.updateStatusOfEndedSessions(
+                Schedule.ScheduleStatus.SCHEDULED, Schedule.ScheduleStatus.COMPLETED,
+                now.toLocalDate(), now.toLocalTime(), now);
+
+        int enrollmentsCompleted = enrollmentRepository.updateStatusForEndedClasses(
+                Enrollment.EnrollmentStatus.APPROVED, Enrollment.EnrollmentStatus.COMPLETED,
+                ClassEntity.ClassStatus.COMPLETED,
+                now.toLocalDate().minusDays(enrollmentCompletionDelayDays), now);
+
+        if (enrollmentsCompleted > 0) {
+            // Lịch .ics của học viên chỉ gồm lớp APPROVED
+            calendarFeedService.invalidateAll();
+            reportRollupService.markAllChanged();
+        }
+
+        LifecycleResult result = new LifecycleResult(
+                classesStarted, classesCompleted, sessionsCompleted, enrollmentsCompleted, waitlistedDropped);
+        if (result.hasChanges()) {
+            log.info("Class lifecycle advanced: {}", result);
+        }
+        return result;
+    }
+}
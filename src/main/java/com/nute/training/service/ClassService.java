@@ -6,6 +6,7 @@ import com.nute.training.entity.User;
 import com.nute.training.repository.ClassRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +25,9 @@ import java.util.Optional;
 public class ClassService {
 
     private final ClassRepository classRepository;
+    private final CalendarFeedService calendarFeedService;
+    private final ReportRollupService reportRollupService;
+    private final WaitlistService waitlistService;
 
     /**
      * Tìm tất cả lớp học
@@ -41,6 +45,14 @@ public class ClassService {
         return classRepository.findById(id);
     }
 
+    /**
+     * Tìm lớp theo ID, kèm khóa học và giảng viên (dùng được ngoài session)
+     */
+    @Transactional(readOnly = true)
+    public Optional<ClassEntity> findByIdWithDetails(Long id) {
+        return classRepository.findByIdWithDetails(id);
+    }
+
     /**
      * Tìm lớp theo class code
      */
@@ -73,6 +85,30 @@ public class ClassService {
         return classRepository.findByStatus(status);
     }
 
+    /**
+     * Tìm các lớp mới nhất theo trạng thái, kèm khóa học và giảng viên
+     */
+    @Transactional(readOnly = true)
+    public List<ClassEntity> findRecentByStatus(ClassEntity.ClassStatus status, int limit) {
+        return classRepository.findRecentByStatusWithDetails(status, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Đếm tất cả lớp học
+     */
+    @Transactional(readOnly = true)
+    public long countAll() {
+        return classRepository.count();
+    }
+
+    /**
+     * Đếm lớp theo trạng thái
+     */
+    @Transactional(readOnly = true)
+    public long countByStatus(ClassEntity.ClassStatus status) {
+        return classRepository.countByStatus(status);
+    }
+
     /**
      * Tìm lớp đang diễn ra của giảng viên
      */
@@ -90,7 +126,15 @@ public class ClassService {
     }
 
     /**
-     * Tìm lớp đang mở đăng ký theo khóa học
+     * Tìm lớp đang mở đăng ký (kể cả lớp đã đầy)
+     */
+    @Transactional(readOnly = true)
+    public List<ClassEntity> findOpenClasses() {
+        return classRepository.findOpenClasses();
+    }
+
+    /**
+     * Tìm lớp đang mở đăng ký theo khóa học (kể cả lớp đã đầy)
      */
     @Transactional(readOnly = true)
     public List<ClassEntity> findOpenClassesByCourse(Course course) {
@@ -161,13 +205,14 @@ public class ClassService {
 
     /**
      * Cập nhật lớp học
+     * Business Rule:
+     * - Khóa dòng lớp: sĩ số tối đa thay đổi tuần tự với đăng ký/duyệt
+     * - Lớp kết thúc/bị hủy thì đóng danh sách chờ, ngược lại xếp chỗ trống (nếu sĩ số tối đa tăng)
      */
     public ClassEntity updateClass(Long id, ClassEntity classDetails) {
         log.info("Updating class: {}", id);
 
-        ClassEntity existing = classRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Không tìm thấy lớp học với ID: " + id));
+        ClassEntity existing = lockClass(id);
 
         // Validate class code unique (nếu thay đổi)
         if (!existing.getClassCode().equals(classDetails.getClassCode())) {
@@ -199,6 +244,9 @@ public class ClassService {
         existing.setStatus(classDetails.getStatus());
 
         ClassEntity updated = classRepository.save(existing);
+        invalidateCalendarFeeds(updated);
+        reportRollupService.markClassChanged(updated.getId());
+        updateWaitlist(updated);
         log.info("Class updated successfully: {}", updated.getClassCode());
         return updated;
     }
@@ -220,26 +268,37 @@ public class ClassService {
 
         classEntity.setTeacher(teacher);
         classRepository.save(classEntity);
+        invalidateCalendarFeeds(classEntity);
 
         log.info("Teacher assigned successfully to class: {}", classEntity.getClassCode());
     }
 
     /**
      * Thay đổi trạng thái lớp
+     * Business Rule: Lớp kết thúc/bị hủy thì đóng danh sách chờ
      */
     public void changeStatus(Long classId, ClassEntity.ClassStatus status) {
         log.info("Changing class status for ID: {} to {}", classId, status);
 
-        ClassEntity classEntity = classRepository.findById(classId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Không tìm thấy lớp học với ID: " + classId));
+        ClassEntity classEntity = lockClass(classId);
 
         classEntity.setStatus(status);
         classRepository.save(classEntity);
+        updateWaitlist(classEntity);
 
         log.info("Class status changed successfully: {}", classEntity.getClassCode());
     }
 
+    /**
+     * Khóa dòng lớp học đến hết transaction hiện tại
+     * Business Rule: Mọi thay đổi sĩ số/danh sách chờ của một lớp được thực hiện tuần tự
+     */
+    public ClassEntity lockClass(Long classId) {
+        return classRepository.findByIdForUpdate(classId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Không tìm thấy lớp học với ID: " + classId));
+    }
+
     /**
      * Tăng số lượng học viên hiện tại
      * Business Rule: Không được vượt quá max students
@@ -290,9 +349,32 @@ public class ClassService {
                         "Không tìm thấy lớp học với ID: " + id));
 
         classRepository.delete(classEntity);
+        calendarFeedService.invalidateClass(classEntity.getId());
+        reportRollupService.markClassChanged(classEntity.getId());
         log.info("Class deleted successfully: {}", classEntity.getClassCode());
     }
 
+    /**
+     * Đóng hoặc xếp chỗ danh sách chờ theo trạng thái mới của lớp (lớp đã được khóa)
+     */
+    private void updateWaitlist(ClassEntity classEntity) {
+        if (WaitlistService.CLOSED_CLASS_STATUSES.contains(classEntity.getStatus())) {
+            waitlistService.close(classEntity);
+        } else {
+            waitlistService.promote(classEntity.getId());
+        }
+    }
+
+    /**
+     * Lịch .ics của mọi người trong lớp (kể cả giảng viên cũ) và giảng viên hiện tại cần sinh lại
+     */
+    private void invalidateCalendarFeeds(ClassEntity classEntity) {
+        calendarFeedService.invalidateClass(classEntity.getId());
+        if (classEntity.getTeacher() != null) {
+            calendarFeedService.invalidateUser(classEntity.getTeacher().getId());
+        }
+    }
+
     /**
      * Validate date range
      */
@@ -1,10 +1,12 @@
 package com.nute.training.service;
 
+import com.nute.training.entity.CacheInvalidation;
 import com.nute.training.entity.Course;
 import com.nute.training.entity.CourseType;
 import com.nute.training.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,8 @@ import java.util.Optional;
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final ReportRollupService reportRollupService;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * Tìm tất cả khóa học
@@ -63,6 +67,30 @@ public class CourseService {
         return courseRepository.findByStatusOrderByCreatedAtDesc(Course.CourseStatus.ACTIVE);
     }
 
+    /**
+     * Tìm các khóa học ACTIVE mới nhất
+     */
+    @Transactional(readOnly = true)
+    public List<Course> findRecentActiveCourses(int limit) {
+        return courseRepository.findRecentByStatus(Course.CourseStatus.ACTIVE, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Đếm tất cả khóa học
+     */
+    @Transactional(readOnly = true)
+    public long countAll() {
+        return courseRepository.count();
+    }
+
+    /**
+     * Đếm khóa học theo trạng thái
+     */
+    @Transactional(readOnly = true)
+    public long countByStatus(Course.CourseStatus status) {
+        return courseRepository.countByStatus(status);
+    }
+
     /**
      * Tìm khóa học theo loại
      */
@@ -143,6 +171,8 @@ public class CourseService {
         existing.setStatus(courseDetails.getStatus());
 
         Course updated = courseRepository.save(existing);
+        reportRollupService.markCourseChanged(updated.getId());
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.COURSE, updated.getId());
         log.info("Course updated successfully: {}", updated.getCode());
         return updated;
     }
@@ -159,6 +189,7 @@ public class CourseService {
 
         course.setStatus(status);
         courseRepository.save(course);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.COURSE, courseId);
 
         log.info("Course status changed successfully: {}", course.getCode());
     }
@@ -174,6 +205,7 @@ public class CourseService {
                         "Không tìm thấy khóa học với ID: " + id));
 
         courseRepository.delete(course);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.COURSE, id);
         log.info("Course deleted successfully: {}", course.getCode());
     }
 
@@ -0,0 +1,39 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bộ xử lý sự kiện nghiệp vụ (chạy trong job relay, ngoài request)
+ * - Mỗi sự kiện được xử lý trong transaction riêng; lỗi -> transaction rollback, sự kiện được thử lại sau
+ * - Giao nhận ít nhất một lần: bộ xử lý phải chịu được việc nhận lại cùng một sự kiện (so theo id)
+ */
+public interface DomainEventHandler {
+
+    /**
+     * Các loại sự kiện bộ xử lý này nhận
+     */
+    Set<OutboxEvent.EventType> eventTypes();
+
+    void handle(DomainEvent event);
+
+    /**
+     * Sự kiện chuyển cho bộ xử lý
+     */
+    record DomainEvent(Long id, OutboxEvent.EventType type, Long aggregateId,
+                       Map<String, Object> payload, LocalDateTime occurredAt) {
+
+        public Long longValue(String name) {
+            Object value = payload.get(name);
+            return value instanceof Number number ? number.longValue() : null;
+        }
+
+        public String stringValue(String name) {
+            Object value = payload.get(name);
+            return value != null ? value.toString() : null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.nute.training.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nute.training.entity.OutboxEvent;
+import com.nute.training.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service: DomainEventPublisher
+ * Ghi sự kiện nghiệp vụ vào outbox trong transaction đang chạy.
+ * Sự kiện chỉ tồn tại khi thay đổi dữ liệu được commit; việc xử lý (gửi thông báo, cập nhật tổng hợp...)
+ * do OutboxRelayService thực hiện sau, nên thời gian xử lý request không tăng theo số bộ xử lý.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DomainEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<OutboxEvent.EventType, AtomicLong> publishedCounts = createCounts();
+
+    /**
+     * Ghi sự kiện (bắt buộc gọi trong transaction nghiệp vụ)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.EventType type, Long aggregateId, Map<String, ?> payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setAggregateType(type.getAggregateType());
+        event.setAggregateId(aggregateId);
+        event.setPayload(writePayload(payload));
+        outboxEventRepository.save(event);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishedCounts.get(type).incrementAndGet();
+            }
+        });
+
+        log.debug("Domain event {} recorded for {} {}", type, type.getAggregateType(), aggregateId);
+    }
+
+    /**
+     * Tổng số sự kiện đã commit theo loại (trên node này)
+     */
+    public long getPublishedCount(OutboxEvent.EventType type) {
+        return publishedCounts.get(type).get();
+    }
+
+    private static Map<OutboxEvent.EventType, AtomicLong> createCounts() {
+        Map<OutboxEvent.EventType, AtomicLong> counts = new EnumMap<>(OutboxEvent.EventType.class);
+        for (OutboxEvent.EventType type : OutboxEvent.EventType.values()) {
+            counts.put(type, new AtomicLong());
+        }
+        return counts;
+    }
+
+    private String writePayload(Map<String, ?> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không thể ghi dữ liệu sự kiện", e);
+        }
+    }
+}
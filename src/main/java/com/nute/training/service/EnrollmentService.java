@@ -3,17 +3,24 @@ package com.nute.training.service;
 import com.nute.training.dto.EnrollmentHistoryDto;
 import com.nute.training.entity.ClassEntity;
 import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.OutboxEvent;
 import com.nute.training.entity.User;
 import com.nute.training.repository.EnrollmentRepository;
+import com.nute.training.util.ScheduleIntervalIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -28,6 +35,29 @@ public class EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepository;
     private final ClassService classService;
+    private final ScheduleService scheduleService;
+    private final CalendarFeedService calendarFeedService;
+    private final PaymentLedgerService paymentLedgerService;
+    private final ReportRollupService reportRollupService;
+    private final WaitlistService waitlistService;
+    private final DomainEventPublisher domainEventPublisher;
+
+    private static final DateTimeFormatter CONFLICT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Cách xử lý khi lớp đăng ký trùng lịch với lớp học viên đã được duyệt
+     */
+    @Value("${app.enrollment.schedule-conflict-policy:BLOCK}")
+    private ScheduleConflictPolicy scheduleConflictPolicy = ScheduleConflictPolicy.BLOCK;
+
+    /**
+     * Enum: ScheduleConflictPolicy
+     * Chính sách xử lý trùng lịch
+     */
+    public enum ScheduleConflictPolicy {
+        BLOCK,      // Chặn đăng ký/duyệt
+        WARN        // Chỉ ghi cảnh báo
+    }
 
     /**
      * Tìm tất cả đăng ký
@@ -77,6 +107,22 @@ public class EnrollmentService {
         return enrollmentRepository.findPendingEnrollments();
     }
 
+    /**
+     * Tìm các đăng ký PENDING cũ nhất, kèm học viên, lớp và khóa học
+     */
+    @Transactional(readOnly = true)
+    public List<Enrollment> findOldestPendingEnrollments(int limit) {
+        return enrollmentRepository.findOldestPendingWithDetails(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Đếm đăng ký theo trạng thái
+     */
+    @Transactional(readOnly = true)
+    public long countByStatus(Enrollment.EnrollmentStatus status) {
+        return enrollmentRepository.countByStatus(status);
+    }
+
     /**
      * Tìm đăng ký đã duyệt của lớp
      */
@@ -93,12 +139,21 @@ public class EnrollmentService {
         return enrollmentRepository.findByStudentAndClassEntity(student, classEntity);
     }
 
+    /**
+     * Tìm đăng ký theo ID học viên và ID lớp
+     */
+    @Transactional(readOnly = true)
+    public Optional<Enrollment> findByStudentIdAndClassId(Long studentId, Long classId) {
+        return enrollmentRepository.findByStudentIdAndClassEntityId(studentId, classId);
+    }
+
     /**
      * Tạo đăng ký học mới (Student tự đăng ký)
      * Business Rule:
      * - Học viên chỉ được đăng ký 1 lần cho 1 lớp
-     * - Lớp phải chưa đầy
      * - Lớp phải ở trạng thái PENDING hoặc ONGOING
+     * - Lịch học không được trùng với các lớp đã được duyệt (tùy chính sách)
+     * - Lớp hết chỗ trống, tính cả đăng ký đang chờ duyệt (hoặc đang có người chờ): vào cuối danh sách chờ (WAITLISTED)
      */
     public Enrollment createEnrollment(User student, ClassEntity classEntity, String notes) {
         log.info("Creating enrollment for student: {} in class: {}",
@@ -115,29 +170,39 @@ public class EnrollmentService {
                     "Bạn đã đăng ký lớp này rồi");
         }
 
-        // Check if class is full
-        if (classEntity.isFull()) {
-            throw new IllegalStateException("Lớp học đã đầy");
-        }
-
         // Check class status
         if (classEntity.getStatus() == ClassEntity.ClassStatus.COMPLETED ||
             classEntity.getStatus() == ClassEntity.ClassStatus.CANCELLED) {
             throw new IllegalStateException("Lớp học không còn nhận đăng ký");
         }
 
+        // Check timetable clash with approved classes
+        checkScheduleConflicts(student, classEntity);
+
+        // Lock the class so seat count and waitlist positions are read consistently
+        ClassEntity lockedClass = classService.lockClass(classEntity.getId());
+        boolean waitlisted = waitlistService.freeSeats(lockedClass) <= 0 ||
+                enrollmentRepository.existsByClassEntityAndStatus(lockedClass, Enrollment.EnrollmentStatus.WAITLISTED);
+
         // Create enrollment
         Enrollment enrollment = new Enrollment();
         enrollment.setStudent(student);
-        enrollment.setClassEntity(classEntity);
+        enrollment.setClassEntity(lockedClass);
         enrollment.setEnrollmentDate(LocalDate.now());
-        enrollment.setStatus(Enrollment.EnrollmentStatus.PENDING);
+        if (waitlisted) {
+            Long lastPosition = enrollmentRepository.findMaxWaitlistPosition(lockedClass);
+            enrollment.setStatus(Enrollment.EnrollmentStatus.WAITLISTED);
+            enrollment.setWaitlistPosition(lastPosition != null ? lastPosition + 1 : 1L);
+        } else {
+            enrollment.setStatus(Enrollment.EnrollmentStatus.PENDING);
+        }
         enrollment.setPaymentStatus(Enrollment.PaymentStatus.UNPAID);
         enrollment.setPaymentAmount(BigDecimal.ZERO);
         enrollment.setNotes(notes);
 
         Enrollment saved = enrollmentRepository.save(enrollment);
-        log.info("Enrollment created successfully with ID: {}", saved.getId());
+        reportRollupService.markClassChanged(lockedClass.getId());
+        log.info("Enrollment created successfully with ID: {} ({})", saved.getId(), saved.getStatus());
         return saved;
     }
 
@@ -145,7 +210,9 @@ public class EnrollmentService {
      * Duyệt đăng ký (Admin)
      * Business Rule:
      * - Chỉ duyệt đăng ký có status PENDING
-     * - Lớp phải chưa đầy
+     * - Lớp phải chưa đầy (đọc trên dòng lớp đã khóa, như các thao tác sĩ số khác)
+     * - Không lấy chỗ của người đã vào danh sách chờ trước (FIFO)
+     * - Lịch học không được trùng với các lớp đã được duyệt (tùy chính sách)
      * - Tăng currentStudents của lớp
      */
     public Enrollment approveEnrollment(Long enrollmentId, User approvedBy) {
@@ -162,11 +229,18 @@ public class EnrollmentService {
                     "Chỉ có thể duyệt đăng ký có trạng thái PENDING");
         }
 
-        // Check if class is full
-        ClassEntity classEntity = enrollment.getClassEntity();
+        // Lock the class so the seat check and increment cannot race waitlist promotion or new registrations
+        ClassEntity classEntity = classService.lockClass(enrollment.getClassEntity().getId());
         if (classEntity.isFull()) {
             throw new IllegalStateException("Lớp học đã đầy");
         }
+        if (enrollmentRepository.existsByClassEntityAndStatusAndCreatedAtBefore(
+                classEntity, Enrollment.EnrollmentStatus.WAITLISTED, enrollment.getCreatedAt())) {
+            throw new IllegalStateException("Lớp còn học viên đăng ký trước đang trong danh sách chờ");
+        }
+
+        // Another class may have been approved since the student registered
+        checkScheduleConflicts(enrollment.getStudent(), classEntity);
 
         // Update enrollment
         enrollment.setStatus(Enrollment.EnrollmentStatus.APPROVED);
@@ -175,15 +249,20 @@ public class EnrollmentService {
 
         // Increment class current students
         classService.incrementCurrentStudents(classEntity.getId());
+        calendarFeedService.invalidateUser(enrollment.getStudent().getId());
+        reportRollupService.markClassChanged(classEntity.getId());
 
         Enrollment updated = enrollmentRepository.save(enrollment);
+        publishEnrollmentEvent(OutboxEvent.EventType.ENROLLMENT_APPROVED, updated, null);
         log.info("Enrollment approved successfully: {}", updated.getId());
         return updated;
     }
 
     /**
      * Từ chối đăng ký (Admin)
-     * Business Rule: Chỉ từ chối đăng ký có status PENDING
+     * Business Rule:
+     * - Chỉ từ chối đăng ký có status PENDING
+     * - Chỗ đăng ký này đang giữ được xếp cho danh sách chờ
      */
     public Enrollment rejectEnrollment(Long enrollmentId, User rejectedBy, String reason) {
         log.info("Rejecting enrollment ID: {} by admin: {}",
@@ -206,6 +285,9 @@ public class EnrollmentService {
         enrollment.setNotes(reason);
 
         Enrollment updated = enrollmentRepository.save(enrollment);
+        reportRollupService.markClassChanged(enrollment.getClassEntity().getId());
+        waitlistService.promote(enrollment.getClassEntity().getId());
+        publishEnrollmentEvent(OutboxEvent.EventType.ENROLLMENT_REJECTED, updated, reason);
         log.info("Enrollment rejected successfully: {}", updated.getId());
         return updated;
     }
@@ -214,6 +296,8 @@ public class EnrollmentService {
      * Hủy đăng ký (Student hoặc Admin)
      * Business Rule:
      * - Nếu đã APPROVED thì giảm currentStudents của lớp
+     * - Nếu đã APPROVED/PENDING thì chỗ được xếp cho danh sách chờ
+     * - Nếu đang WAITLISTED thì rời khỏi danh sách chờ
      */
     public void cancelEnrollment(Long enrollmentId) {
         log.info("Cancelling enrollment ID: {}", enrollmentId);
@@ -222,44 +306,43 @@ public class EnrollmentService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Không tìm thấy đăng ký với ID: " + enrollmentId));
 
+        boolean freesSeat = enrollment.getStatus() == Enrollment.EnrollmentStatus.APPROVED;
+        boolean freesClaim = freesSeat || enrollment.getStatus() == Enrollment.EnrollmentStatus.PENDING;
+        Long classId = enrollment.getClassEntity().getId();
+
         // If already approved, decrement class current students
-        if (enrollment.getStatus() == Enrollment.EnrollmentStatus.APPROVED) {
-            classService.decrementCurrentStudents(enrollment.getClassEntity().getId());
+        if (freesSeat) {
+            classService.lockClass(classId);
+            classService.decrementCurrentStudents(classId);
+            calendarFeedService.invalidateUser(enrollment.getStudent().getId());
         }
 
         enrollment.setStatus(Enrollment.EnrollmentStatus.DROPPED);
+        enrollment.setWaitlistPosition(null);
         enrollmentRepository.save(enrollment);
+        reportRollupService.markClassChanged(classId);
+
+        if (freesClaim) {
+            waitlistService.promote(classId);
+        }
 
         log.info("Enrollment cancelled successfully: {}", enrollmentId);
     }
 
     /**
      * Cập nhật thanh toán
+     * Business Rule:
+     * - Không ghi đè số tiền: ghi một giao dịch điều chỉnh (chênh lệch) vào sổ cái
+     * - Số tiền và trạng thái thanh toán được tính lại từ sổ cái
      */
-    public Enrollment updatePayment(Long enrollmentId, BigDecimal amount) {
+    public Enrollment updatePayment(Long enrollmentId, BigDecimal amount, User updatedBy) {
         log.info("Updating payment for enrollment ID: {}", enrollmentId);
 
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+        paymentLedgerService.adjustBalanceTo(enrollmentId, amount, updatedBy);
+
+        Enrollment updated = enrollmentRepository.findById(enrollmentId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Không tìm thấy đăng ký với ID: " + enrollmentId));
-
-        if (amount.signum() < 0) {
-            throw new IllegalArgumentException("Số tiền thanh toán phải >= 0");
-        }
-
-        enrollment.setPaymentAmount(amount);
-
-        // Determine payment status
-        BigDecimal tuitionFee = enrollment.getClassEntity().getCourse().getTuitionFee();
-        if (enrollment.isFullyPaid(tuitionFee)) {
-            enrollment.setPaymentStatus(Enrollment.PaymentStatus.PAID);
-        } else if (amount.signum() > 0) {
-            enrollment.setPaymentStatus(Enrollment.PaymentStatus.PARTIAL);
-        } else {
-            enrollment.setPaymentStatus(Enrollment.PaymentStatus.UNPAID);
-        }
-
-        Enrollment updated = enrollmentRepository.save(enrollment);
         log.info("Payment updated successfully for enrollment: {}", updated.getId());
         return updated;
     }
@@ -281,10 +364,58 @@ public class EnrollmentService {
 
         enrollment.setStatus(Enrollment.EnrollmentStatus.COMPLETED);
         enrollmentRepository.save(enrollment);
+        calendarFeedService.invalidateUser(enrollment.getStudent().getId());
+        reportRollupService.markClassChanged(enrollment.getClassEntity().getId());
 
         log.info("Enrollment completed successfully: {}", enrollmentId);
     }
 
+    /**
+     * Vị trí hiện tại (bắt đầu từ 1) của đăng ký trong danh sách chờ
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findWaitlistRank(Enrollment enrollment) {
+        if (enrollment.getStatus() != Enrollment.EnrollmentStatus.WAITLISTED
+                || enrollment.getWaitlistPosition() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(enrollmentRepository.countWaitlistAhead(
+                enrollment.getClassEntity(), enrollment.getWaitlistPosition()) + 1);
+    }
+
+    /**
+     * Tìm danh sách chờ của lớp
+     */
+    @Transactional(readOnly = true)
+    public List<Enrollment> findWaitlistByClass(ClassEntity classEntity) {
+        return enrollmentRepository.findWaitlistByClass(classEntity);
+    }
+
+    /**
+     * Kiểm tra trùng lịch giữa lớp và các lớp học viên đã được duyệt
+     * BLOCK: ném IllegalStateException với buổi trùng đầu tiên, WARN: chỉ ghi log
+     */
+    private void checkScheduleConflicts(User student, ClassEntity classEntity) {
+        List<ScheduleIntervalIndex.Conflict> conflicts =
+                scheduleService.findTimetableConflicts(student, classEntity);
+        if (conflicts.isEmpty()) {
+            return;
+        }
+
+        ScheduleIntervalIndex.Conflict first = conflicts.get(0);
+        String message = String.format("Lịch học bị trùng với lớp %s vào ngày %s (%s - %s)",
+                first.existing().getClassEntity().getClassCode(),
+                first.requested().getSessionDate().format(CONFLICT_DATE_FORMAT),
+                first.existing().getStartTime(),
+                first.existing().getEndTime());
+
+        if (scheduleConflictPolicy == ScheduleConflictPolicy.BLOCK) {
+            throw new IllegalStateException(message);
+        }
+        log.warn("Schedule conflict for student: {} in class: {} ({} sessions) - {}",
+                student.getUsername(), classEntity.getClassCode(), conflicts.size(), message);
+    }
+
     /**
      * Đếm số học viên đã duyệt trong lớp
      */
@@ -325,4 +456,17 @@ public class EnrollmentService {
         log.info("Found {} approved enrollments for student ID: {}", enrollments.size(), studentId);
         return enrollments;
     }
+
+    /**
+     * Ghi sự kiện duyệt/từ chối đăng ký vào outbox (xử lý sau commit, ngoài request)
+     */
+    private void publishEnrollmentEvent(OutboxEvent.EventType type, Enrollment enrollment, String reason) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("studentId", enrollment.getStudent().getId());
+        payload.put("classId", enrollment.getClassEntity().getId());
+        if (reason != null) {
+            payload.put("reason", reason);
+        }
+        domainEventPublisher.publish(type, enrollment.getId(), payload);
+    }
 }
@@ -2,6 +2,7 @@ package com.nute.training.service;
 
 import com.nute.training.entity.Enrollment;
 import com.nute.training.entity.Grade;
+import com.nute.training.entity.OutboxEvent;
 import com.nute.training.entity.User;
 import com.nute.training.repository.GradeRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,7 +12,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -25,6 +28,7 @@ import java.util.Optional;
 public class GradeService {
 
     private final GradeRepository gradeRepository;
+    private final DomainEventPublisher domainEventPublisher;
 
     /**
      * Tìm tất cả điểm
@@ -109,6 +113,7 @@ public class GradeService {
         grade.calculateAll();
 
         Grade saved = gradeRepository.save(grade);
+        publishGradePosted(saved);
         log.info("Grade saved successfully with ID: {}", saved.getId());
         return saved;
     }
@@ -130,7 +135,9 @@ public class GradeService {
         grade.setGradedAt(LocalDateTime.now());
         grade.calculateAll();
 
-        return gradeRepository.save(grade);
+        Grade saved = gradeRepository.save(grade);
+        publishGradePosted(saved);
+        return saved;
     }
 
     /**
@@ -150,7 +157,9 @@ public class GradeService {
         grade.setGradedAt(LocalDateTime.now());
         grade.calculateAll();
 
-        return gradeRepository.save(grade);
+        Grade saved = gradeRepository.save(grade);
+        publishGradePosted(saved);
+        return saved;
     }
 
     /**
@@ -170,7 +179,9 @@ public class GradeService {
         grade.setGradedAt(LocalDateTime.now());
         grade.calculateAll();
 
-        return gradeRepository.save(grade);
+        Grade saved = gradeRepository.save(grade);
+        publishGradePosted(saved);
+        return saved;
     }
 
     /**
@@ -260,6 +271,21 @@ public class GradeService {
         log.info("Grade deleted successfully: {}", id);
     }
 
+    /**
+     * Ghi sự kiện điểm được nhập/cập nhật vào outbox (xử lý sau commit, ngoài request)
+     */
+    private void publishGradePosted(Grade grade) {
+        Enrollment enrollment = grade.getEnrollment();
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("gradeId", grade.getId());
+        payload.put("studentId", enrollment.getStudent().getId());
+        payload.put("classId", enrollment.getClassEntity().getId());
+        payload.put("totalScore", grade.getTotalScore());
+        payload.put("gradeLetter", grade.getGradeLetter());
+        payload.put("pass", grade.getPass());
+        domainEventPublisher.publish(OutboxEvent.EventType.GRADE_POSTED, enrollment.getId(), payload);
+    }
+
     /**
      * Validate điểm (0-10)
      */
@@ -0,0 +1,293 @@
+package com.nute.training.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nute.training.entity.IdempotencyRecord;
+import com.nute.training.exception.BusinessException;
+import com.nute.training.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Service: IdempotencyService
+ * Chống xử lý lặp các form POST (bấm đúp, proxy gửi lại) theo idempotency key do client gửi lên.
+ * Kết quả (redirect + flash hoặc lỗi nghiệp vụ) được lưu trong bộ nhớ và bảng idempotency_records;
+ * request trùng key nhận lại kết quả cũ mà không chạy lại thao tác.
+ * Mỗi thao tác trên bảng commit trong transaction riêng (REQUIRES_NEW), độc lập với thao tác nghiệp vụ.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    /**
+     * Tên tham số form chứa key
+     */
+    public static final String KEY_PARAMETER = "idempotencyKey";
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]{8,100}");
+    private static final TypeReference<Map<String, String>> FLASH_TYPE = new TypeReference<>() {
+    };
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+
+    @Value("${app.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes = 1440;
+
+    @Value("${app.idempotency.wait-seconds:10}")
+    private long waitSeconds = 10;
+
+    @Value("${app.idempotency.in-progress-lease-seconds:60}")
+    private long inProgressLeaseSeconds = 60;
+
+    @Value("${app.idempotency.memory-max-entries:10000}")
+    private int memoryMaxEntries = 10000;
+
+    private final Map<String, CachedOutcome> outcomes = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Kết quả đã lưu: view redirect kèm flash attributes, hoặc thông báo lỗi nghiệp vụ
+     */
+    public record Outcome(String viewName, Map<String, String> flashAttributes, String errorMessage) {
+    }
+
+    private record CachedOutcome(Outcome outcome, long expiresAtMillis) {
+    }
+
+    /**
+     * Thực hiện thao tác một lần cho mỗi key
+     * Business Rule:
+     * - Không có key (hoặc key sai định dạng): chạy bình thường
+     * - Key đã có kết quả: trả lại kết quả cũ (flash + redirect, hoặc ném lại lỗi nghiệp vụ)
+     * - Key đang được xử lý: chờ kết quả (cùng node) hoặc báo đang xử lý (node khác)
+     * - Lỗi ngoài dự kiến: không lưu kết quả, trả key để có thể gửi lại
+     *
+     * @param scope tên thao tác (vd. enrollment.register)
+     * @param owner username thực hiện (key chỉ có hiệu lực trong phạm vi user)
+     */
+    public String execute(String scope, String owner, String key,
+                          RedirectAttributes redirectAttributes, Supplier<String> action) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return action.get();
+        }
+        String recordKey = scope + ":" + owner + ":" + key;
+
+        Outcome previous = findOutcome(recordKey);
+        if (previous != null) {
+            return replay(recordKey, previous, redirectAttributes);
+        }
+
+        CompletableFuture<Outcome> mine = new CompletableFuture<>();
+        CompletableFuture<Outcome> running = inFlight.putIfAbsent(recordKey, mine);
+        if (running != null) {
+            return replay(recordKey, await(running), redirectAttributes);
+        }
+
+        if (!claim(recordKey)) {
+            // Node khác đang giữ key (hoặc vừa xử lý xong)
+            inFlight.remove(recordKey, mine);
+            Outcome stored = findStoredOutcome(recordKey);
+            if (stored == null) {
+                mine.completeExceptionally(new BusinessException("Key đang được xử lý ở node khác"));
+                throw new BusinessException("Yêu cầu đang được xử lý, vui lòng tải lại trang sau giây lát");
+            }
+            mine.complete(stored);
+            return replay(recordKey, stored, redirectAttributes);
+        }
+
+        try {
+            Outcome outcome;
+            try {
+                String viewName = action.get();
+                outcome = new Outcome(viewName, stringFlashAttributes(redirectAttributes), null);
+            } catch (BusinessException | IllegalArgumentException | IllegalStateException e) {
+                complete(recordKey, new Outcome(null, Map.of(), e.getMessage()), mine);
+                throw e;
+            }
+            complete(recordKey, outcome, mine);
+            return outcome.viewName();
+        } catch (RuntimeException e) {
+            if (!mine.isDone()) {
+                release(recordKey);
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            inFlight.remove(recordKey, mine);
+        }
+    }
+
+    /**
+     * Xóa kết quả đã hết hạn (bộ nhớ của node này và bảng)
+     */
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        outcomes.values().removeIf(cached -> cached.expiresAtMillis() < now);
+        Integer deleted = requiresNew.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        return deleted != null ? deleted : 0;
+    }
+
+    private Outcome findOutcome(String recordKey) {
+        CachedOutcome cached = outcomes.get(recordKey);
+        if (cached != null) {
+            if (cached.expiresAtMillis() >= System.currentTimeMillis()) {
+                return cached.outcome();
+            }
+            outcomes.remove(recordKey, cached);
+        }
+        return findStoredOutcome(recordKey);
+    }
+
+    private Outcome findStoredOutcome(String recordKey) {
+        return idempotencyRecordRepository.findByIdempotencyKey(recordKey)
+                .filter(record -> record.getStatus() == IdempotencyRecord.RecordStatus.COMPLETED)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> {
+                    Outcome outcome = new Outcome(record.getViewName(),
+                            readFlashAttributes(record.getFlashAttributes()), record.getErrorMessage());
+                    cache(recordKey, outcome);
+                    return outcome;
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Giữ key (IN_PROGRESS) trong thời hạn ngắn; false nếu key đang được giữ hoặc đã có kết quả
+     * Node chết giữa chừng chỉ chặn key đến hết thời hạn này, không phải đến hết TTL của kết quả.
+     */
+    private boolean claim(String recordKey) {
+        try {
+            Boolean claimed = requiresNew.execute(status -> {
+                var existing = idempotencyRecordRepository.findByIdempotencyKey(recordKey);
+                if (existing.isPresent()) {
+                    if (existing.get().getExpiresAt().isAfter(LocalDateTime.now())) {
+                        return false;
+                    }
+                    idempotencyRecordRepository.deleteByKey(recordKey);
+                }
+
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setIdempotencyKey(recordKey);
+                record.setStatus(IdempotencyRecord.RecordStatus.IN_PROGRESS);
+                record.setExpiresAt(LocalDateTime.now().plusSeconds(inProgressLeaseSeconds));
+                idempotencyRecordRepository.saveAndFlush(record);
+                return true;
+            });
+            return Boolean.TRUE.equals(claimed);
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void complete(String recordKey, Outcome outcome, CompletableFuture<Outcome> future) {
+        requiresNew.executeWithoutResult(status ->
+                idempotencyRecordRepository.findByIdempotencyKey(recordKey).ifPresent(record -> {
+                    record.setStatus(IdempotencyRecord.RecordStatus.COMPLETED);
+                    record.setViewName(outcome.viewName());
+                    record.setFlashAttributes(writeFlashAttributes(outcome.flashAttributes()));
+                    record.setErrorMessage(outcome.errorMessage());
+                    record.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+                    idempotencyRecordRepository.save(record);
+                }));
+        cache(recordKey, outcome);
+        future.complete(outcome);
+    }
+
+    private void release(String recordKey) {
+        try {
+            requiresNew.executeWithoutResult(status -> idempotencyRecordRepository.deleteByKey(recordKey));
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {} - it will expire after {} seconds",
+                    recordKey, inProgressLeaseSeconds, e);
+        }
+    }
+
+    private Outcome await(CompletableFuture<Outcome> running) {
+        try {
+            return running.get(waitSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new BusinessException("Yêu cầu đang được xử lý, vui lòng tải lại trang sau giây lát");
+        } catch (ExecutionException e) {
+            throw new BusinessException("Yêu cầu trước đó bị lỗi, vui lòng thử lại");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("Yêu cầu bị gián đoạn, vui lòng thử lại");
+        }
+    }
+
+    private String replay(String recordKey, Outcome outcome, RedirectAttributes redirectAttributes) {
+        log.info("Replaying stored result for idempotency key {}", recordKey);
+        if (outcome.errorMessage() != null) {
+            throw new BusinessException(outcome.errorMessage());
+        }
+        outcome.flashAttributes().forEach(redirectAttributes::addFlashAttribute);
+        return outcome.viewName();
+    }
+
+    private void cache(String recordKey, Outcome outcome) {
+        if (outcomes.size() < memoryMaxEntries) {
+            outcomes.put(recordKey, new CachedOutcome(outcome,
+                    System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(ttlMinutes)));
+        }
+    }
+
+    private static Map<String, String> stringFlashAttributes(RedirectAttributes redirectAttributes) {
+        Map<String, String> flash = new LinkedHashMap<>();
+        redirectAttributes.getFlashAttributes().forEach((name, value) -> {
+            if (value instanceof String text) {
+                flash.put(name, text);
+            }
+        });
+        return flash;
+    }
+
+    private String writeFlashAttributes(Map<String, String> flash) {
+        try {
+            return objectMapper.writeValueAsString(flash);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Không thể lưu kết quả thao tác", e);
+        }
+    }
+
+    private Map<String, String> readFlashAttributes(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, FLASH_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid stored flash attributes: {}", json);
+            return Map.of();
+        }
+    }
+}
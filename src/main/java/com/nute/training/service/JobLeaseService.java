@@ -0,0 +1,91 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.JobLease;
+import com.nute.training.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service: JobLeaseService
+ * Khóa thuê dựa trên bảng job_leases để chỉ một node trong cụm chạy mỗi lượt job.
+ * Mỗi thao tác commit ngay trong transaction riêng (REQUIRES_NEW), độc lập với transaction của job.
+ * Thời hạn khóa dựa trên đồng hồ của node, nên các node cần đồng bộ giờ (NTP).
+ */
+@Service
+@Slf4j
+public class JobLeaseService {
+
+    private static final LocalDateTime NEVER_LOCKED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate requiresNew;
+    private final String nodeId;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Định danh node hiện tại (pid@host/random)
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Thử giành khóa cho job trong khoảng thời gian leaseTime
+     */
+    public boolean tryAcquire(String jobName, Duration leaseTime) {
+        ensureLeaseRow(jobName);
+
+        boolean acquired = renew(jobName, leaseTime);
+        log.debug("Lease '{}' {} by node {}", jobName, acquired ? "acquired" : "held elsewhere", nodeId);
+        return acquired;
+    }
+
+    /**
+     * Gia hạn khóa đang giữ thêm leaseTime tính từ bây giờ (job chạy lâu hơn thời hạn khóa)
+     * @return false nếu khóa đã hết hạn và node khác đã giành được
+     */
+    public boolean renew(String jobName, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer updated = requiresNew.execute(status ->
+                jobLeaseRepository.tryAcquire(jobName, nodeId, now, now.plus(leaseTime)));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * Trả khóa sớm để node khác có thể chạy ngay
+     */
+    public void release(String jobName) {
+        requiresNew.executeWithoutResult(status ->
+                jobLeaseRepository.release(jobName, nodeId, LocalDateTime.now()));
+    }
+
+    /**
+     * Tạo dòng khóa lần đầu; nếu node khác vừa tạo thì bỏ qua lỗi trùng khóa chính
+     */
+    private void ensureLeaseRow(String jobName) {
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                if (!jobLeaseRepository.existsById(jobName)) {
+                    jobLeaseRepository.saveAndFlush(new JobLease(jobName, null, null, NEVER_LOCKED));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease row '{}' created concurrently by another node", jobName);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.nute.training.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service: MailDeliveryService
+ * Gửi email theo lô qua SMTP.
+ * - Mỗi nhóm tối đa messages-per-connection email được gửi trên một kết nối SMTP
+ * - Tối đa max-connections kết nối đồng thời; hàng đợi đầy thì luồng gọi tự gửi (giảm tốc bên tạo email)
+ */
+@Service
+@Slf4j
+public class MailDeliveryService {
+
+    private final JavaMailSender mailSender;
+    private final ThreadPoolExecutor executor;
+
+    @Value("${app.notification.mail.messages-per-connection:50}")
+    private int messagesPerConnection = 50;
+
+    public MailDeliveryService(JavaMailSender mailSender,
+                               @Value("${app.notification.mail.max-connections:4}") int maxConnections,
+                               @Value("${app.notification.mail.queue-capacity:16}") int queueCapacity) {
+        this.mailSender = mailSender;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConnections, maxConnections, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-delivery-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gửi các email và chờ đến khi xong
+     * @param messages email theo khóa của bên gọi
+     * @return khóa của các email gửi lỗi
+     */
+    public <K> Set<K> deliver(Map<K, MimeMessage> messages) {
+        List<K> keys = new ArrayList<>(messages.keySet());
+        List<Future<Set<K>>> futures = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += messagesPerConnection) {
+            List<K> chunk = keys.subList(from, Math.min(from + messagesPerConnection, keys.size()));
+            futures.add(executor.submit(() -> sendChunk(chunk, messages)));
+        }
+
+        Set<K> failed = new HashSet<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                failed.addAll(futures.get(i).get());
+            } catch (ExecutionException e) {
+                int from = i * messagesPerConnection;
+                log.error("Mail delivery task failed", e.getCause());
+                failed.addAll(keys.subList(from, Math.min(from + messagesPerConnection, keys.size())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Bị gián đoạn khi gửi email", e);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Số kết nối SMTP đang gửi
+     */
+    public int getActiveConnections() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Số nhóm email đang chờ kết nối
+     */
+    public int getQueuedChunks() {
+        return executor.getQueue().size();
+    }
+
+    private <K> Set<K> sendChunk(List<K> chunk, Map<K, MimeMessage> messages) {
+        Map<MimeMessage, K> keyByMessage = new IdentityHashMap<>();
+        chunk.forEach(key -> keyByMessage.put(messages.get(key), key));
+        try {
+            mailSender.send(keyByMessage.keySet().toArray(MimeMessage[]::new));
+            return Set.of();
+        } catch (MailSendException e) {
+            // Chỉ các email trong getFailedMessages lỗi; nếu rỗng thì lỗi ở mức kết nối
+            Set<K> failed = new HashSet<>();
+            e.getFailedMessages().keySet().forEach(message -> {
+                K key = keyByMessage.get(message);
+                if (key != null) {
+                    failed.add(key);
+                }
+            });
+            if (failed.isEmpty()) {
+                failed.addAll(chunk);
+            }
+            log.warn("Failed to send {} of {} emails: {}", failed.size(), chunk.size(), e.getMessage());
+            return failed;
+        } catch (MailException e) {
+            log.warn("Failed to send {} emails: {}", chunk.size(), e.getMessage());
+            return new HashSet<>(chunk);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
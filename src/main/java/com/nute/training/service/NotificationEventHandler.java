@@ -0,0 +1,98 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.OutboxEvent.EventType;
+import com.nute.training.entity.User;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.EnrollmentRepository;
+import com.nute.training.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bộ xử lý sự kiện: tạo thông báo cho học viên từ sự kiện nghiệp vụ
+ * Business Rule:
+ * - Duyệt/từ chối đăng ký, có điểm, cấp chứng chỉ, xếp chỗ/đóng danh sách chờ: thông báo cho học viên của đăng ký
+ * - Hủy buổi học: thông báo cho mọi học viên đã được duyệt của lớp
+ * - Điểm sửa nhiều lần trước khi gửi chỉ hiển thị lần mới nhất (cùng khóa gộp theo đăng ký)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationEventHandler implements DomainEventHandler {
+
+    private final NotificationService notificationService;
+    private final ClassRepository classRepository;
+    private final UserRepository userRepository;
+    private final EnrollmentRepository enrollmentRepository;
+
+    @Override
+    public Set<EventType> eventTypes() {
+        return EnumSet.of(EventType.ENROLLMENT_APPROVED, EventType.ENROLLMENT_REJECTED,
+                EventType.GRADE_POSTED, EventType.CERTIFICATE_ISSUED, EventType.SCHEDULE_CANCELLED,
+                EventType.WAITLIST_PROMOTED, EventType.WAITLIST_CLOSED);
+    }
+
+    @Override
+    public void handle(DomainEvent event) {
+        Long classId = event.longValue("classId");
+        ClassEntity classEntity = classId != null ? classRepository.findById(classId).orElse(null) : null;
+        if (classEntity == null) {
+            log.debug("Skipping notification for event {}: class no longer exists", event.id());
+            return;
+        }
+        String className = classEntity.getClassCode() + " - " + classEntity.getCourse().getName();
+
+        if (event.type() == EventType.SCHEDULE_CANCELLED) {
+            String message = "Buổi học số " + event.stringValue("sessionNumber") + " ngày "
+                    + event.stringValue("sessionDate") + " của lớp " + className + " đã bị hủy.";
+            List<Enrollment> enrollments = enrollmentRepository.findApprovedEnrollmentsByClass(classEntity);
+            for (Enrollment enrollment : enrollments) {
+                notificationService.enqueue(enrollment.getStudent(), event.type(), message,
+                        event.type() + ":" + event.id(), event.id());
+            }
+            return;
+        }
+
+        Long studentId = event.longValue("studentId");
+        User student = studentId != null ? userRepository.findById(studentId).orElse(null) : null;
+        if (student == null) {
+            log.debug("Skipping notification for event {}: student no longer exists", event.id());
+            return;
+        }
+        String coalesceKey = event.type() == EventType.GRADE_POSTED
+                ? event.type() + ":" + event.aggregateId()
+                : event.type() + ":" + event.id();
+        notificationService.enqueue(student, event.type(), buildMessage(event, className), coalesceKey, event.id());
+    }
+
+    private String buildMessage(DomainEvent event, String className) {
+        return switch (event.type()) {
+            case ENROLLMENT_APPROVED -> "Đăng ký lớp " + className + " của bạn đã được duyệt.";
+            case ENROLLMENT_REJECTED -> {
+                String reason = event.stringValue("reason");
+                yield "Đăng ký lớp " + className + " của bạn bị từ chối"
+                        + (reason != null && !reason.isBlank() ? ": " + reason : ".");
+            }
+            case GRADE_POSTED -> "Điểm lớp " + className + " đã được cập nhật: tổng điểm "
+                    + event.stringValue("totalScore") + " (" + event.stringValue("gradeLetter") + ")"
+                    + (Boolean.parseBoolean(event.stringValue("pass")) ? ", đạt." : ", chưa đạt.");
+            case CERTIFICATE_ISSUED -> "Bạn đã được cấp chứng chỉ " + event.stringValue("certificateCode")
+                    + " cho lớp " + className + ".";
+            case WAITLIST_PROMOTED -> "Lớp " + className
+                    + " đã có chỗ trống: đăng ký của bạn được chuyển từ danh sách chờ sang chờ duyệt.";
+            case WAITLIST_CLOSED -> {
+                boolean cancelled = ClassEntity.ClassStatus.CANCELLED.name().equals(event.stringValue("classStatus"));
+                yield "Lớp " + className + (cancelled ? " đã bị hủy" : " đã kết thúc")
+                        + ": đăng ký trong danh sách chờ của bạn đã được hủy.";
+            }
+            default -> throw new IllegalStateException("Loại sự kiện không hỗ trợ: " + event.type());
+        };
+    }
+}
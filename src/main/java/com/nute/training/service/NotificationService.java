@@ -0,0 +1,277 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.Notification;
+import com.nute.training.entity.OutboxEvent;
+import com.nute.training.entity.User;
+import com.nute.training.repository.NotificationRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service: NotificationService
+ * Gộp thông báo theo người nhận và gửi thành email tổng hợp (digest).
+ * Business Rule:
+ * - Người nhận được gửi digest khi thông báo chờ cũ nhất đã quá cửa sổ gộp (window-seconds)
+ * - Thông báo cùng khóa gộp chỉ hiển thị bản mới nhất
+ * - Tài khoản không hoạt động hoặc không có email: bỏ qua (SKIPPED)
+ * - Gửi lỗi: thử lại sau retry-delay; quá số lần thử -> FAILED
+ */
+@Service
+@Transactional
+@Slf4j
+public class NotificationService {
+
+    private static final String DIGEST_TEMPLATE = "notification-digest";
+
+    private final NotificationRepository notificationRepository;
+    private final MailDeliveryService mailDeliveryService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate requiresNew;
+    private final SpringTemplateEngine emailTemplateEngine;
+    private final AtomicLong digestsSent = new AtomicLong();
+    private final AtomicLong digestsFailed = new AtomicLong();
+    private final AtomicLong notificationsSkipped = new AtomicLong();
+
+    @Value("${app.notification.window-seconds:300}")
+    private long windowSeconds = 300;
+
+    @Value("${app.notification.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.notification.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.notification.retry-delay-seconds:300}")
+    private long retryDelaySeconds = 300;
+
+    @Value("${app.notification.retention-days:30}")
+    private long retentionDays = 30;
+
+    @Value("${app.notification.mail.from:no-reply@nute.edu.vn}")
+    private String mailFrom = "no-reply@nute.edu.vn";
+
+    @Value("${app.notification.base-url:http://localhost:8080}")
+    private String baseUrl = "http://localhost:8080";
+
+    public NotificationService(NotificationRepository notificationRepository,
+                               MailDeliveryService mailDeliveryService,
+                               JavaMailSender mailSender,
+                               PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.mailDeliveryService = mailDeliveryService;
+        this.mailSender = mailSender;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Engine riêng cho email: luôn cache template (không phụ thuộc spring.thymeleaf.cache của giao diện web)
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/email/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        this.emailTemplateEngine = new SpringTemplateEngine();
+        this.emailTemplateEngine.setTemplateResolver(resolver);
+    }
+
+    /**
+     * Thêm thông báo chờ gửi (bỏ qua nếu sự kiện đã tạo thông báo cho người nhận này)
+     */
+    public void enqueue(User recipient, OutboxEvent.EventType eventType, String message,
+                        String coalesceKey, Long sourceEventId) {
+        if (notificationRepository.existsBySourceEventIdAndRecipientId(sourceEventId, recipient.getId())) {
+            return;
+        }
+
+        Notification notification = new Notification();
+        notification.setRecipient(recipient);
+        notification.setEventType(eventType);
+        notification.setMessage(message.length() > 500 ? message.substring(0, 500) : message);
+        notification.setCoalesceKey(coalesceKey);
+        notification.setSourceEventId(sourceEventId);
+        notificationRepository.save(notification);
+    }
+
+    /**
+     * Gửi digest cho các người nhận đã đến hạn, lặp theo lô đến khi hết
+     * @return số email đã gửi
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public int sendDueDigests() {
+        int sent = 0;
+        List<Long> recipientIds;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            recipientIds = requiresNew.execute(status -> notificationRepository.findRecipientsDue(
+                    now.minusSeconds(windowSeconds), now, PageRequest.of(0, batchSize)));
+            if (recipientIds.isEmpty()) {
+                break;
+            }
+            sent += sendBatch(recipientIds, now);
+        } while (recipientIds.size() == batchSize);
+
+        if (sent > 0) {
+            log.info("Sent {} notification digests", sent);
+        }
+        return sent;
+    }
+
+    /**
+     * Tổng số email digest đã gửi (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getDigestsSent() {
+        return digestsSent.get();
+    }
+
+    /**
+     * Tổng số lần gửi digest lỗi (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getDigestsFailed() {
+        return digestsFailed.get();
+    }
+
+    /**
+     * Tổng số thông báo bỏ qua do người nhận không hợp lệ (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getNotificationsSkipped() {
+        return notificationsSkipped.get();
+    }
+
+    /**
+     * Xóa thông báo đã xử lý quá thời gian lưu
+     * @return số thông báo đã xóa
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public int purgeCompleted() {
+        Integer deleted = requiresNew.execute(status ->
+                notificationRepository.deleteCompletedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return deleted != null ? deleted : 0;
+    }
+
+    private int sendBatch(List<Long> recipientIds, LocalDateTime now) {
+        List<Notification> pending = requiresNew.execute(status ->
+                notificationRepository.findPendingByRecipients(recipientIds, now));
+
+        Map<Long, List<Notification>> byRecipient = new LinkedHashMap<>();
+        pending.forEach(n -> byRecipient.computeIfAbsent(n.getRecipient().getId(), id -> new ArrayList<>()).add(n));
+
+        List<Long> skippedIds = new ArrayList<>();
+        Map<Long, MimeMessage> messages = new LinkedHashMap<>();
+        Map<Long, List<Long>> notificationIdsByRecipient = new HashMap<>();
+        Set<Long> failedRecipients = new HashSet<>();
+        byRecipient.forEach((recipientId, notifications) -> {
+            User recipient = notifications.get(0).getRecipient();
+            List<Long> ids = notifications.stream().map(Notification::getId).toList();
+            if (!isDeliverable(recipient)) {
+                skippedIds.addAll(ids);
+                return;
+            }
+            notificationIdsByRecipient.put(recipientId, ids);
+            try {
+                messages.put(recipientId, buildDigest(recipient, coalesce(notifications)));
+            } catch (RuntimeException e) {
+                log.warn("Cannot build notification digest for user {}: {}", recipientId, e.getMessage());
+                failedRecipients.add(recipientId);
+            }
+        });
+
+        if (!messages.isEmpty()) {
+            failedRecipients.addAll(mailDeliveryService.deliver(messages));
+        }
+
+        List<Long> sentIds = new ArrayList<>();
+        List<Long> failedIds = new ArrayList<>();
+        notificationIdsByRecipient.forEach((recipientId, ids) ->
+                (failedRecipients.contains(recipientId) ? failedIds : sentIds).addAll(ids));
+
+        LocalDateTime completedAt = LocalDateTime.now();
+        requiresNew.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                notificationRepository.markCompleted(sentIds, Notification.NotificationStatus.SENT, completedAt);
+            }
+            if (!skippedIds.isEmpty()) {
+                notificationRepository.markCompleted(skippedIds, Notification.NotificationStatus.SKIPPED, completedAt);
+            }
+            if (!failedIds.isEmpty()) {
+                notificationRepository.markAttemptFailed(failedIds,
+                        completedAt.plusSeconds(retryDelaySeconds), maxAttempts);
+            }
+        });
+
+        digestsSent.addAndGet(notificationIdsByRecipient.size() - failedRecipients.size());
+        digestsFailed.addAndGet(failedRecipients.size());
+        notificationsSkipped.addAndGet(skippedIds.size());
+        if (!failedRecipients.isEmpty()) {
+            log.warn("Notification digest failed for {} recipients, retrying in {}s",
+                    failedRecipients.size(), retryDelaySeconds);
+        }
+        return notificationIdsByRecipient.size() - failedRecipients.size();
+    }
+
+    private boolean isDeliverable(User recipient) {
+        return recipient.getStatus() == User.Status.ACTIVE
+                && !Boolean.TRUE.equals(recipient.getDeleted())
+                && recipient.getEmail() != null && !recipient.getEmail().isBlank();
+    }
+
+    /**
+     * Giữ bản mới nhất của mỗi khóa gộp, theo thứ tự thời gian
+     */
+    private List<Notification> coalesce(List<Notification> notifications) {
+        Map<String, Notification> latest = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            latest.remove(notification.getCoalesceKey());
+            latest.put(notification.getCoalesceKey(), notification);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private MimeMessage buildDigest(User recipient, List<Notification> notifications) {
+        Context context = new Context();
+        context.setVariable("recipientName", recipient.getFullName());
+        context.setVariable("notifications", notifications);
+        context.setVariable("baseUrl", baseUrl);
+        String html = emailTemplateEngine.process(DIGEST_TEMPLATE, context);
+
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            helper.setFrom(mailFrom);
+            helper.setTo(recipient.getEmail());
+            helper.setSubject("Bạn có " + notifications.size() + " thông báo mới - Hệ thống Quản lý Đào tạo NUTE");
+            helper.setText(html, true);
+            return message;
+        } catch (MessagingException e) {
+            throw new IllegalArgumentException("Không tạo được email cho " + recipient.getEmail(), e);
+        }
+    }
+}
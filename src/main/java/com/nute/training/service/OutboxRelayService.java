@@ -0,0 +1,265 @@
+package com.nute.training.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nute.training.entity.OutboxEvent;
+import com.nute.training.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Service: OutboxRelayService
+ * Chuyển sự kiện trong outbox cho các DomainEventHandler theo lô.
+ * Business Rule:
+ * - Sự kiện của cùng một đối tượng (aggregate) được xử lý đúng thứ tự ID:
+ *   sự kiện đang chờ thử lại chặn các sự kiện sau nó của cùng đối tượng
+ * - Lỗi: thử lại với thời gian chờ tăng gấp đôi; hết số lần thử -> FAILED (không chặn sự kiện sau)
+ * - Chỉ một node chạy relay tại một thời điểm (khóa thuê ở OutboxRelayJob, gia hạn trong lúc xử lý)
+ * - Số sự kiện tồn đọng do lượt relay đếm lại (tối đa một lần mỗi pending-count-interval-seconds),
+ *   metrics chỉ đọc giá trị đã lưu, không truy vấn mỗi lần scrape
+ */
+@Service
+@Slf4j
+public class OutboxRelayService {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requiresNew;
+    private final Map<OutboxEvent.EventType, List<DomainEventHandler>> handlersByType =
+            new EnumMap<>(OutboxEvent.EventType.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong retriedEvents = new AtomicLong();
+    private final AtomicLong failedEvents = new AtomicLong();
+    private volatile long pendingEvents = -1;
+    private volatile long pendingCountedAt;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${app.outbox.retry-delay-seconds:5}")
+    private long retryDelaySeconds = 5;
+
+    @Value("${app.outbox.max-retry-delay-seconds:900}")
+    private long maxRetryDelaySeconds = 900;
+
+    @Value("${app.outbox.retention-days:7}")
+    private long retentionDays = 7;
+
+    @Value("${app.outbox.pending-count-interval-seconds:15}")
+    private long pendingCountIntervalSeconds = 15;
+
+    public OutboxRelayService(OutboxEventRepository outboxEventRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<DomainEventHandler> handlers) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        handlers.orderedStream().forEach(handler -> handler.eventTypes().forEach(type ->
+                handlersByType.computeIfAbsent(type, t -> new ArrayList<>()).add(handler)));
+    }
+
+    /**
+     * Xử lý các sự kiện đã đến hạn, lặp theo lô đến khi hết
+     * Trước mỗi sự kiện, nếu đã qua renewInterval từ lần gia hạn trước thì gia hạn khóa thuê;
+     * gia hạn thất bại (node khác đã giành khóa) thì dừng, sự kiện còn lại để node đang giữ khóa xử lý.
+     * @param renewLease gia hạn khóa thuê của relay, false nếu đã mất khóa
+     * @param renewInterval khoảng gia hạn (nhỏ hơn thời hạn khóa)
+     * @return số sự kiện đã xử lý thành công
+     */
+    public int relay(BooleanSupplier renewLease, Duration renewInterval) {
+        lock.lock();
+        try {
+            return relayLocked(renewLease, renewInterval);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int relayLocked(BooleanSupplier renewLease, Duration renewInterval) {
+        int processed = 0;
+        long renewAt = System.nanoTime() + renewInterval.toNanos();
+        boolean leaseHeld = true;
+        List<OutboxEvent> batch;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            batch = requiresNew.execute(status ->
+                    outboxEventRepository.findReady(now, PageRequest.of(0, batchSize)));
+
+            // Đối tượng có sự kiện vừa lỗi trong lô này: bỏ qua các sự kiện sau của nó
+            Set<String> blocked = new HashSet<>();
+            for (OutboxEvent event : batch) {
+                if (System.nanoTime() - renewAt >= 0) {
+                    leaseHeld = renewLease.getAsBoolean();
+                    if (!leaseHeld) {
+                        break;
+                    }
+                    renewAt = System.nanoTime() + renewInterval.toNanos();
+                }
+
+                String aggregateKey = event.getAggregateType() + ":" + event.getAggregateId();
+                if (blocked.contains(aggregateKey)) {
+                    continue;
+                }
+                if (dispatch(event)) {
+                    processed++;
+                } else {
+                    blocked.add(aggregateKey);
+                }
+            }
+            if (leaseHeld) {
+                countPendingIfDue();
+            }
+        } while (leaseHeld && batch.size() == batchSize);
+
+        if (!leaseHeld) {
+            log.warn("Outbox relay lost its lease after {} events, leaving the rest to the lease holder", processed);
+        }
+        if (processed > 0) {
+            log.debug("Outbox relay processed {} events", processed);
+        }
+        return processed;
+    }
+
+    /**
+     * Đếm lại sự kiện đang chờ xử lý nếu đã qua pendingCountIntervalSeconds từ lần đếm trước
+     */
+    private void countPendingIfDue() {
+        long now = System.nanoTime();
+        if (pendingEvents >= 0 && now - pendingCountedAt < Duration.ofSeconds(pendingCountIntervalSeconds).toNanos()) {
+            return;
+        }
+        Long pending = requiresNew.execute(status ->
+                outboxEventRepository.countByStatus(OutboxEvent.EventStatus.PENDING));
+        pendingCountedAt = now;
+        pendingEvents = pending != null ? pending : 0;
+    }
+
+    /**
+     * Số sự kiện đang chờ xử lý (kể cả đang chờ thử lại) theo lần đếm gần nhất của relay
+     * NaN nếu node này chưa đếm hoặc đã lâu không chạy relay (khóa thuê thuộc node khác)
+     */
+    public double getPendingEvents() {
+        long pending = pendingEvents;
+        if (pending < 0
+                || System.nanoTime() - pendingCountedAt > Duration.ofSeconds(2 * pendingCountIntervalSeconds).toNanos()) {
+            return Double.NaN;
+        }
+        return pending;
+    }
+
+    /**
+     * Tổng số sự kiện đã xử lý thành công (trên node này)
+     */
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    /**
+     * Tổng số lần xử lý lỗi sẽ được thử lại (trên node này)
+     */
+    public long getRetriedEvents() {
+        return retriedEvents.get();
+    }
+
+    /**
+     * Tổng số sự kiện chuyển FAILED do hết số lần thử (trên node này)
+     */
+    public long getFailedEvents() {
+        return failedEvents.get();
+    }
+
+    /**
+     * Xóa sự kiện đã xử lý quá thời gian lưu
+     * @return số sự kiện đã xóa
+     */
+    public int purgeProcessed() {
+        Integer deleted = requiresNew.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(LocalDateTime.now().minusDays(retentionDays)));
+        return deleted != null ? deleted : 0;
+    }
+
+    private boolean dispatch(OutboxEvent event) {
+        List<DomainEventHandler> handlers = handlersByType.getOrDefault(event.getEventType(), List.of());
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                DomainEventHandler.DomainEvent domainEvent = new DomainEventHandler.DomainEvent(
+                        event.getId(), event.getEventType(), event.getAggregateId(),
+                        readPayload(event.getPayload()), event.getCreatedAt());
+                handlers.forEach(handler -> handler.handle(domainEvent));
+                outboxEventRepository.markProcessed(event.getId(), LocalDateTime.now());
+            });
+            processedEvents.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            recordFailure(event, e);
+            return false;
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        boolean exhausted = attempts >= maxAttempts;
+        long delaySeconds = Math.min(maxRetryDelaySeconds, retryDelaySeconds << Math.min(attempts - 1, 20));
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (message.length() > 500) {
+            message = message.substring(0, 500);
+        }
+
+        String lastError = message;
+        requiresNew.executeWithoutResult(status -> outboxEventRepository.markAttemptFailed(
+                event.getId(),
+                exhausted ? OutboxEvent.EventStatus.FAILED : OutboxEvent.EventStatus.PENDING,
+                attempts,
+                LocalDateTime.now().plusSeconds(delaySeconds),
+                lastError));
+
+        (exhausted ? failedEvents : retriedEvents).incrementAndGet();
+        if (exhausted) {
+            log.error("Outbox event {} ({} {} {}) failed permanently after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                    attempts, error);
+        } else {
+            log.warn("Outbox event {} ({}) failed (attempt {}), retrying in {}s: {}",
+                    event.getId(), event.getEventType(), attempts, delaySeconds, lastError);
+        }
+    }
+
+    private Map<String, Object> readPayload(String json) {
+        if (json == null || json.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Dữ liệu sự kiện không hợp lệ", e);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.PaymentTransaction;
+import com.nute.training.entity.User;
+import com.nute.training.repository.EnrollmentRepository;
+import com.nute.training.repository.PaymentTransactionRepository;
+import com.nute.training.util.CsvLineParser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service: PaymentLedgerService
+ * Sổ cái thanh toán (chỉ ghi thêm) và đối soát sao kê ngân hàng.
+ * Enrollment.paymentAmount/paymentStatus là giá trị suy ra từ sổ cái, luôn được tính lại bằng bulk update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class PaymentLedgerService {
+
+    /**
+     * Các cột bắt buộc của file sao kê (dòng tiêu đề, không phân biệt hoa thường)
+     */
+    public static final List<String> STATEMENT_COLUMNS =
+            List.of("transaction_id", "transaction_date", "amount", "description");
+
+    private static final int MAX_REPORTED_PROBLEMS = 20;
+    private static final int IN_CLAUSE_CHUNK = 1000;
+    private static final DateTimeFormatter VN_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final String INSERT_TRANSACTION_SQL =
+            "INSERT INTO payment_transactions " +
+            "(enrollment_id, type, source, amount, transaction_date, external_reference, description, recorded_by, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReportRollupService reportRollupService;
+
+    @Value("${app.payment.reference-prefix:NUTE}")
+    private String referencePrefix = "NUTE";
+
+    @Value("${app.payment.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    /**
+     * Kết quả một lần nhập sao kê
+     */
+    public record StatementImportReport(String fileName, int linesRead, int imported, int duplicates,
+                                        int unmatched, int invalid, int ignored, BigDecimal importedAmount,
+                                        int enrollmentsUpdated, long durationMillis,
+                                        List<String> sampleProblems) implements Serializable {
+    }
+
+    /**
+     * Một dòng sao kê hợp lệ đã khớp với đăng ký
+     */
+    private record StatementLine(String transactionId, LocalDate date, BigDecimal amount,
+                                 String description, Long enrollmentId) {
+    }
+
+    /**
+     * Mã thanh toán của đăng ký (học viên ghi vào nội dung chuyển khoản)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String referenceOf(Long enrollmentId) {
+        return referencePrefix + enrollmentId;
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public String getReferencePrefix() {
+        return referencePrefix;
+    }
+
+    /**
+     * Lịch sử giao dịch của đăng ký
+     */
+    @Transactional(readOnly = true)
+    public List<PaymentTransaction> findByEnrollment(Long enrollmentId) {
+        return paymentTransactionRepository.findByEnrollmentId(enrollmentId);
+    }
+
+    /**
+     * Ghi nhận giao dịch thủ công
+     * Business Rule:
+     * - Số tiền nhập vào phải > 0; hoàn tiền được ghi với số âm
+     * - Không cho hoàn quá số tiền đã đóng
+     * - Khóa dòng đăng ký trước khi đọc tổng sổ cái: hai giao dịch đồng thời không cùng dựa trên một số dư
+     */
+    public PaymentTransaction recordTransaction(Long enrollmentId, PaymentTransaction.TransactionType type,
+                                                BigDecimal amount, String description, User recordedBy) {
+        log.info("Recording {} of {} for enrollment ID: {}", type, amount, enrollmentId);
+
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Số tiền giao dịch phải > 0");
+        }
+        if (type != PaymentTransaction.TransactionType.PAYMENT && type != PaymentTransaction.TransactionType.REFUND) {
+            throw new IllegalArgumentException("Chỉ được ghi nhận thủ công giao dịch thu hoặc hoàn tiền");
+        }
+
+        Enrollment enrollment = lockEnrollment(enrollmentId);
+        BigDecimal signedAmount = type == PaymentTransaction.TransactionType.REFUND ? amount.negate() : amount;
+        if (signedAmount.signum() < 0
+                && paymentTransactionRepository.sumAmountByEnrollmentId(enrollmentId).add(signedAmount).signum() < 0) {
+            throw new IllegalArgumentException("Số tiền hoàn vượt quá số tiền đã đóng");
+        }
+
+        return append(enrollment, type, signedAmount, description, recordedBy);
+    }
+
+    /**
+     * Đưa số tiền đã đóng về giá trị chỉ định bằng một giao dịch điều chỉnh (chênh lệch)
+     * Chênh lệch được tính khi đang giữ khóa dòng đăng ký
+     */
+    public void adjustBalanceTo(Long enrollmentId, BigDecimal targetAmount, User recordedBy) {
+        if (targetAmount == null || targetAmount.signum() < 0) {
+            throw new IllegalArgumentException("Số tiền thanh toán phải >= 0");
+        }
+
+        Enrollment enrollment = lockEnrollment(enrollmentId);
+        BigDecimal delta = targetAmount.subtract(paymentTransactionRepository.sumAmountByEnrollmentId(enrollmentId));
+        if (delta.signum() == 0) {
+            return;
+        }
+        append(enrollment, PaymentTransaction.TransactionType.ADJUSTMENT, delta,
+                "Điều chỉnh số tiền đã đóng thành " + targetAmount.toPlainString(), recordedBy);
+    }
+
+    /**
+     * Tính lại số tiền đã đóng và trạng thái thanh toán từ sổ cái
+     */
+    public int refreshBalances(Collection<Long> enrollmentIds) {
+        List<Long> ids = new ArrayList<>(enrollmentIds);
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            updated += enrollmentRepository.recalculatePaymentAmounts(chunk, now);
+            enrollmentRepository.recalculatePaymentStatuses(chunk, Enrollment.PaymentStatus.PAID,
+                    Enrollment.PaymentStatus.PARTIAL, Enrollment.PaymentStatus.UNPAID);
+            reportRollupService.markClassesChanged(enrollmentRepository.findClassIdsByEnrollmentIds(chunk));
+        }
+        return updated;
+    }
+
+    /**
+     * Chuyển payment_amount cũ thành giao dịch số dư đầu kỳ (đăng ký chưa có sổ cái)
+     */
+    public int backfillOpeningBalances() {
+        int inserted = paymentTransactionRepository.backfillOpeningBalances();
+        if (inserted > 0) {
+            log.info("Payment ledger: created {} opening-balance transactions", inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * Nhập sao kê ngân hàng (CSV) và ghi nhận các khoản thu khớp mã thanh toán
+     * Business Rule:
+     * - Đọc file từng dòng, không nạp cả file vào bộ nhớ
+     * - Chỉ mục đăng ký được nạp một lần; mỗi dòng tra mã thanh toán trong bảng băm
+     * - Chỉ nhận dòng ghi có (số tiền > 0); dòng có nhiều mã thanh toán khác nhau được bỏ qua
+     * - transaction_id đã nhập trước đó (hoặc lặp trong file) bị bỏ qua, nên nhập lại cùng file là an toàn
+     * - Giao dịch khớp được chèn theo lô (JDBC batch)
+     */
+    public StatementImportReport importBankStatement(InputStream input, String fileName, User importedBy) {
+        long startedAt = System.nanoTime();
+        log.info("Importing bank statement: {}", fileName);
+
+        Set<Long> enrollmentIndex = new HashSet<>(enrollmentRepository.findAllIds());
+        Pattern referencePattern = Pattern.compile(
+                "(?<![\\p{Alnum}])" + Pattern.quote(referencePrefix) + "[\\s-]?(\\d{1,18})(?!\\d)",
+                Pattern.CASE_INSENSITIVE);
+
+        Set<String> seenTransactionIds = new HashSet<>();
+        Set<Long> touchedEnrollments = new HashSet<>();
+        List<StatementLine> batch = new ArrayList<>(batchSize);
+        List<String> problems = new ArrayList<>();
+        int linesRead = 0;
+        int imported = 0;
+        int duplicates = 0;
+        int unmatched = 0;
+        int invalid = 0;
+        int ignored = 0;
+        BigDecimal importedAmount = BigDecimal.ZERO;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("File sao kê rỗng");
+            }
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            char delimiter = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+            int[] columns = resolveColumns(CsvLineParser.parse(header, delimiter));
+
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                linesRead++;
+
+                List<String> fields = CsvLineParser.parse(line, delimiter);
+                String transactionId = field(fields, columns[0]);
+                BigDecimal amount = parseAmount(field(fields, columns[2]));
+                LocalDate date = parseDate(field(fields, columns[1]));
+                String description = field(fields, columns[3]);
+                if (transactionId.isEmpty() || amount == null || date == null) {
+                    invalid++;
+                    addProblem(problems, "Dòng " + lineNumber + ": thiếu hoặc sai mã giao dịch/ngày/số tiền");
+                    continue;
+                }
+                if (amount.signum() <= 0) {
+                    ignored++;
+                    continue;
+                }
+                if (!seenTransactionIds.add(transactionId)) {
+                    duplicates++;
+                    continue;
+                }
+
+                Set<Long> matches = matchEnrollments(description, referencePattern, enrollmentIndex);
+                if (matches.size() != 1) {
+                    unmatched++;
+                    addProblem(problems, "Dòng " + lineNumber + " (" + transactionId + "): "
+                            + (matches.isEmpty() ? "không tìm thấy mã thanh toán" : "có nhiều mã thanh toán " + matches));
+                    continue;
+                }
+
+                batch.add(new StatementLine(transactionId, date, amount, truncate(description, 500),
+                        matches.iterator().next()));
+                if (batch.size() >= batchSize) {
+                    List<StatementLine> inserted = insertNew(batch, importedBy);
+                    imported += inserted.size();
+                    duplicates += batch.size() - inserted.size();
+                    importedAmount = importedAmount.add(sumAmounts(inserted));
+                    inserted.forEach(l -> touchedEnrollments.add(l.enrollmentId()));
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Không đọc được file sao kê: " + e.getMessage(), e);
+        }
+
+        if (!batch.isEmpty()) {
+            List<StatementLine> inserted = insertNew(batch, importedBy);
+            imported += inserted.size();
+            duplicates += batch.size() - inserted.size();
+            importedAmount = importedAmount.add(sumAmounts(inserted));
+            inserted.forEach(l -> touchedEnrollments.add(l.enrollmentId()));
+        }
+
+        int enrollmentsUpdated = refreshBalances(touchedEnrollments);
+
+        StatementImportReport report = new StatementImportReport(fileName, linesRead, imported, duplicates,
+                unmatched, invalid, ignored, importedAmount, enrollmentsUpdated,
+                (System.nanoTime() - startedAt) / 1_000_000, List.copyOf(problems));
+        log.info("Bank statement {} imported: {} lines, {} imported ({}), {} duplicates, {} unmatched, "
+                        + "{} invalid, {} ignored, {} enrollments updated in {} ms",
+                fileName, linesRead, imported, importedAmount, duplicates, unmatched, invalid, ignored,
+                enrollmentsUpdated, report.durationMillis());
+        return report;
+    }
+
+    /**
+     * Khóa dòng đăng ký (SELECT ... FOR UPDATE) đến hết transaction
+     */
+    private Enrollment lockEnrollment(Long enrollmentId) {
+        return enrollmentRepository.findByIdForUpdate(enrollmentId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Không tìm thấy đăng ký với ID: " + enrollmentId));
+    }
+
+    private PaymentTransaction append(Enrollment enrollment, PaymentTransaction.TransactionType type,
+                                      BigDecimal signedAmount, String description, User recordedBy) {
+        Long enrollmentId = enrollment.getId();
+        PaymentTransaction transaction = new PaymentTransaction();
+        transaction.setEnrollment(enrollment);
+        transaction.setType(type);
+        transaction.setSource(PaymentTransaction.TransactionSource.MANUAL);
+        transaction.setAmount(signedAmount);
+        transaction.setTransactionDate(LocalDate.now());
+        transaction.setDescription(description != null && !description.isBlank() ? truncate(description.trim(), 500) : null);
+        transaction.setRecordedBy(recordedBy);
+
+        PaymentTransaction saved = paymentTransactionRepository.save(transaction);
+        refreshBalances(List.of(enrollmentId));
+        log.info("Payment transaction {} recorded for enrollment: {}", saved.getId(), enrollmentId);
+        return saved;
+    }
+
+    /**
+     * Chèn một lô giao dịch khớp (JDBC batch), bỏ qua mã giao dịch đã có trong sổ cái
+     * Trả về các dòng đã chèn
+     */
+    private List<StatementLine> insertNew(List<StatementLine> batch, User importedBy) {
+        Set<String> existing = new HashSet<>(paymentTransactionRepository.findExistingExternalReferences(
+                PaymentTransaction.TransactionSource.BANK_STATEMENT,
+                batch.stream().map(StatementLine::transactionId).toList()));
+
+        List<StatementLine> fresh = batch.stream()
+                .filter(line -> !existing.contains(line.transactionId()))
+                .toList();
+
+        Long recordedById = importedBy != null ? importedBy.getId() : null;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, fresh, batchSize, (ps, line) -> {
+            ps.setLong(1, line.enrollmentId());
+            ps.setString(2, PaymentTransaction.TransactionType.PAYMENT.name());
+            ps.setString(3, PaymentTransaction.TransactionSource.BANK_STATEMENT.name());
+            ps.setBigDecimal(4, line.amount());
+            ps.setDate(5, Date.valueOf(line.date()));
+            ps.setString(6, line.transactionId());
+            ps.setString(7, line.description());
+            if (recordedById != null) {
+                ps.setLong(8, recordedById);
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(9, now);
+        });
+        return fresh;
+    }
+
+    private static BigDecimal sumAmounts(List<StatementLine> lines) {
+        return lines.stream().map(StatementLine::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Các đăng ký có mã thanh toán xuất hiện trong nội dung chuyển khoản
+     */
+    private static Set<Long> matchEnrollments(String description, Pattern referencePattern, Set<Long> enrollmentIndex) {
+        Set<Long> matches = new HashSet<>(2);
+        Matcher matcher = referencePattern.matcher(description);
+        while (matcher.find()) {
+            try {
+                Long enrollmentId = Long.valueOf(matcher.group(1));
+                if (enrollmentIndex.contains(enrollmentId)) {
+                    matches.add(enrollmentId);
+                }
+            } catch (NumberFormatException e) {
+                // Chuỗi số quá dài - không phải mã thanh toán
+            }
+        }
+        return matches;
+    }
+
+    private static int[] resolveColumns(List<String> header) {
+        List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        int[] columns = new int[STATEMENT_COLUMNS.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < STATEMENT_COLUMNS.size(); i++) {
+            columns[i] = names.indexOf(STATEMENT_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                missing.add(STATEMENT_COLUMNS.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("File sao kê thiếu cột: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    /**
+     * Số tiền dạng 1500000, 1,500,000 hoặc 1500000.00
+     */
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return value.isEmpty() ? null : new BigDecimal(value.replace(",", "").replace(" ", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Ngày dạng yyyy-MM-dd hoặc dd/MM/yyyy
+     */
+    private static LocalDate parseDate(String value) {
+        try {
+            if (value.isEmpty()) {
+                return null;
+            }
+            return value.indexOf('/') >= 0 ? LocalDate.parse(value, VN_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static void addProblem(List<String> problems, String problem) {
+        if (problems.size() < MAX_REPORTED_PROBLEMS) {
+            problems.add(problem);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Course;
+import com.nute.training.entity.CourseType;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.PaymentTransaction;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.CourseRepository;
+import com.nute.training.repository.CourseTypeRepository;
+import com.nute.training.repository.EnrollmentRollupRepository;
+import com.nute.training.repository.PaymentRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Service: ReportRollupService
+ * Bảng tổng hợp doanh thu/sĩ số cho báo cáo tài chính (enrollment_rollups, payment_rollups).
+ * Các thay đổi đăng ký/thanh toán đánh dấu lớp cần tính lại (sau khi commit); job định kỳ
+ * tính lại riêng các lớp đó, job hằng đêm dựng lại toàn bộ. Báo cáo chỉ đọc bảng tổng hợp.
+ */
+@Service
+@Slf4j
+public class ReportRollupService {
+
+    private static final int CLASS_CHUNK = 200;
+
+    private final EnrollmentRollupRepository enrollmentRollupRepository;
+    private final PaymentRollupRepository paymentRollupRepository;
+    private final ClassRepository classRepository;
+    private final CourseRepository courseRepository;
+    private final CourseTypeRepository courseTypeRepository;
+    private final TransactionTemplate requiresNew;
+
+    private final Set<Long> dirtyClassIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyCourseIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+
+    public ReportRollupService(EnrollmentRollupRepository enrollmentRollupRepository,
+                               PaymentRollupRepository paymentRollupRepository,
+                               ClassRepository classRepository,
+                               CourseRepository courseRepository,
+                               CourseTypeRepository courseTypeRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.enrollmentRollupRepository = enrollmentRollupRepository;
+        this.paymentRollupRepository = paymentRollupRepository;
+        this.classRepository = classRepository;
+        this.courseRepository = courseRepository;
+        this.courseTypeRepository = courseTypeRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Chiều gom nhóm của báo cáo
+     */
+    public enum Dimension {
+        COURSE_TYPE,    // Loại khóa học
+        COURSE,         // Khóa học
+        CLASS           // Lớp học
+    }
+
+    /**
+     * Một dòng báo cáo
+     * headcount/billedTuition chỉ tính đăng ký đang giữ chỗ (APPROVED, COMPLETED);
+     * net là tổng giao dịch trong kỳ, không gồm số dư đầu kỳ chuyển đổi
+     */
+    public record ReportRow(Long id, String label, long registrations, long headcount,
+                            BigDecimal billedTuition, BigDecimal received, BigDecimal refunded, BigDecimal net) {
+    }
+
+    /**
+     * Báo cáo doanh thu/sĩ số của một năm (hoặc một tháng)
+     */
+    public record RevenueReport(int year, Integer month, Dimension dimension,
+                                List<ReportRow> rows, List<ReportRow> monthly, ReportRow total) {
+    }
+
+    /**
+     * Đánh dấu lớp cần tính lại số liệu tổng hợp (sau khi commit)
+     */
+    public void markClassChanged(Long classId) {
+        afterCommit(() -> dirtyClassIds.add(classId));
+    }
+
+    /**
+     * Đánh dấu các lớp cần tính lại số liệu tổng hợp (sau khi commit)
+     */
+    public void markClassesChanged(Collection<Long> classIds) {
+        List<Long> ids = List.copyOf(classIds);
+        afterCommit(() -> dirtyClassIds.addAll(ids));
+    }
+
+    /**
+     * Đánh dấu mọi lớp của khóa học cần tính lại (đổi học phí, đổi loại khóa học)
+     */
+    public void markCourseChanged(Long courseId) {
+        afterCommit(() -> dirtyCourseIds.add(courseId));
+    }
+
+    /**
+     * Yêu cầu dựng lại toàn bộ ở lượt tiếp theo (dùng sau các bulk update)
+     */
+    public void markAllChanged() {
+        afterCommit(() -> rebuildRequested.set(true));
+    }
+
+    /**
+     * Số lớp/khóa học đang chờ cập nhật bảng tổng hợp
+     */
+    public int getPendingChanges() {
+        return dirtyClassIds.size() + dirtyCourseIds.size();
+    }
+
+    /**
+     * Tính lại các lớp đã bị đánh dấu
+     * Lớp nào lỗi được đánh dấu lại để thử ở lượt sau
+     * @return số lớp đã tính lại
+     */
+    public int flushChanges() {
+        if (rebuildRequested.getAndSet(false)) {
+            dirtyClassIds.clear();
+            dirtyCourseIds.clear();
+            return rebuildAll();
+        }
+
+        List<Long> courseIds = drain(dirtyCourseIds);
+        if (!courseIds.isEmpty()) {
+            dirtyClassIds.addAll(classRepository.findIdsByCourseIds(courseIds));
+        }
+
+        List<Long> classIds = drain(dirtyClassIds);
+        if (classIds.isEmpty()) {
+            return 0;
+        }
+
+        int refreshed = refreshInChunks(classIds);
+        log.debug("Report rollups refreshed for {} classes", refreshed);
+        return refreshed;
+    }
+
+    /**
+     * Dựng lại toàn bộ số liệu tổng hợp (theo từng nhóm lớp, mỗi nhóm một transaction)
+     */
+    public int rebuildAll() {
+        long startedAt = System.nanoTime();
+        List<Long> classIds = classRepository.findAllIds();
+        int refreshed = refreshInChunks(classIds);
+
+        // Dọn số liệu của các lớp đã bị xóa
+        requiresNew.executeWithoutResult(status -> {
+            enrollmentRollupRepository.deleteOrphans();
+            paymentRollupRepository.deleteOrphans();
+        });
+
+        log.info("Report rollups rebuilt for {} classes in {} ms",
+                refreshed, (System.nanoTime() - startedAt) / 1_000_000);
+        return refreshed;
+    }
+
+    /**
+     * Báo cáo doanh thu/sĩ số - chỉ đọc bảng tổng hợp
+     */
+    @Transactional(readOnly = true)
+    public RevenueReport getRevenueReport(int year, Integer month, Dimension dimension) {
+        Map<Long, Accumulator> byDimension = new HashMap<>();
+        Map<Integer, Accumulator> byMonth = new TreeMap<>();
+        Accumulator total = new Accumulator();
+
+        for (Object[] row : enrollmentRollupRepository.findByYear(year)) {
+            int rowMonth = (Integer) row[0];
+            Enrollment.EnrollmentStatus status = (Enrollment.EnrollmentStatus) row[4];
+            long count = ((Number) row[5]).longValue();
+            BigDecimal tuition = (BigDecimal) row[6];
+            boolean holdsSeat = StudentCountReconciliationService.SEAT_HOLDING_STATUSES.contains(status);
+
+            byMonth.computeIfAbsent(rowMonth, m -> new Accumulator()).addEnrollments(count, holdsSeat, tuition);
+            if (month == null || month == rowMonth) {
+                byDimension.computeIfAbsent(dimensionKey(dimension, row), k -> new Accumulator())
+                        .addEnrollments(count, holdsSeat, tuition);
+                total.addEnrollments(count, holdsSeat, tuition);
+            }
+        }
+
+        for (Object[] row : paymentRollupRepository.findByYear(year)) {
+            int rowMonth = (Integer) row[0];
+            PaymentTransaction.TransactionType type = (PaymentTransaction.TransactionType) row[4];
+            BigDecimal amount = (BigDecimal) row[6];
+
+            byMonth.computeIfAbsent(rowMonth, m -> new Accumulator()).addPayments(type, amount);
+            if (month == null || month == rowMonth) {
+                byDimension.computeIfAbsent(dimensionKey(dimension, row), k -> new Accumulator())
+                        .addPayments(type, amount);
+                total.addPayments(type, amount);
+            }
+        }
+
+        Map<Long, String> labels = resolveLabels(dimension, byDimension.keySet());
+        List<ReportRow> rows = byDimension.entrySet().stream()
+                .map(e -> e.getValue().toRow(e.getKey(), labels.getOrDefault(e.getKey(), "#" + e.getKey())))
+                .sorted(Comparator.comparing(ReportRow::label))
+                .toList();
+        List<ReportRow> monthly = byMonth.entrySet().stream()
+                .map(e -> e.getValue().toRow((long) e.getKey(), "Tháng " + e.getKey()))
+                .toList();
+
+        return new RevenueReport(year, month, dimension, rows, monthly, total.toRow(null, "Tổng cộng"));
+    }
+
+    /**
+     * Các năm đã có số liệu
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findReportYears() {
+        TreeSet<Integer> years = new TreeSet<>(Comparator.reverseOrder());
+        years.addAll(enrollmentRollupRepository.findYears());
+        years.addAll(paymentRollupRepository.findYears());
+        return List.copyOf(years);
+    }
+
+    private int refreshInChunks(List<Long> classIds) {
+        int refreshed = 0;
+        for (int from = 0; from < classIds.size(); from += CLASS_CHUNK) {
+            List<Long> chunk = classIds.subList(from, Math.min(from + CLASS_CHUNK, classIds.size()));
+            try {
+                requiresNew.executeWithoutResult(status -> refreshClasses(chunk));
+                refreshed += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Report rollup refresh failed for {} classes, will retry: {}", chunk.size(), e.getMessage());
+                dirtyClassIds.addAll(chunk);
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Tính lại số liệu của các lớp: khóa lớp (xếp hàng với đăng ký/hủy và node khác),
+     * xóa số liệu cũ rồi gom nhóm lại từ dữ liệu gốc
+     */
+    private void refreshClasses(List<Long> classIds) {
+        LocalDateTime now = LocalDateTime.now();
+        classRepository.findAllByIdForUpdate(classIds);
+        enrollmentRollupRepository.deleteByClassIds(classIds);
+        paymentRollupRepository.deleteByClassIds(classIds);
+        enrollmentRollupRepository.insertForClasses(classIds, now);
+        paymentRollupRepository.insertForClasses(classIds, now);
+    }
+
+    private static Long dimensionKey(Dimension dimension, Object[] row) {
+        return switch (dimension) {
+            case COURSE_TYPE -> (Long) row[1];
+            case COURSE -> (Long) row[2];
+            case CLASS -> (Long) row[3];
+        };
+    }
+
+    private Map<Long, String> resolveLabels(Dimension dimension, Collection<Long> ids) {
+        List<Long> keys = ids.stream().filter(id -> id != null).toList();
+        Map<Long, String> labels = new LinkedHashMap<>();
+        switch (dimension) {
+            case COURSE_TYPE -> labels.putAll(courseTypeRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(CourseType::getId, CourseType::getName)));
+            case COURSE -> labels.putAll(courseRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(Course::getId, c -> c.getCode() + " - " + c.getName())));
+            case CLASS -> labels.putAll(classRepository.findAllById(keys).stream()
+                    .collect(Collectors.toMap(ClassEntity::getId, c -> c.getClassCode() + " - " + c.getClassName())));
+        }
+        labels.put(null, "(Chưa phân loại)");
+        return labels;
+    }
+
+    private static List<Long> drain(Set<Long> ids) {
+        List<Long> drained = new ArrayList<>(ids);
+        ids.removeAll(drained);
+        drained.sort(Comparator.naturalOrder());
+        return drained;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Bộ cộng dồn cho một dòng báo cáo
+     */
+    private static final class Accumulator {
+
+        private long registrations;
+        private long headcount;
+        private BigDecimal billedTuition = BigDecimal.ZERO;
+        private BigDecimal received = BigDecimal.ZERO;
+        private BigDecimal refunded = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+
+        void addEnrollments(long count, boolean holdsSeat, BigDecimal tuition) {
+            registrations += count;
+            if (holdsSeat) {
+                headcount += count;
+                billedTuition = billedTuition.add(tuition);
+            }
+        }
+
+        void addPayments(PaymentTransaction.TransactionType type, BigDecimal amount) {
+            switch (type) {
+                case PAYMENT -> received = received.add(amount);
+                case REFUND -> refunded = refunded.add(amount.negate());
+                default -> {
+                }
+            }
+            if (type != PaymentTransaction.TransactionType.OPENING_BALANCE) {
+                net = net.add(amount);
+            }
+        }
+
+        ReportRow toRow(Long id, String label) {
+            return new ReportRow(id, label, registrations, headcount, billedTuition, received, refunded, net);
+        }
+    }
+}
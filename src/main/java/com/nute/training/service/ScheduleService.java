@@ -1,10 +1,12 @@
 package com.nute.training.service;
 
 import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.OutboxEvent;
 import com.nute.training.entity.Schedule;
 import com.nute.training.entity.User;
 import com.nute.training.repository.ClassRepository;
 import com.nute.training.repository.ScheduleRepository;
+import com.nute.training.util.ScheduleIntervalIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -13,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,6 +30,8 @@ public class ScheduleService {
 
     private final ScheduleRepository scheduleRepository;
     private final ClassRepository classRepository;
+    private final CalendarFeedService calendarFeedService;
+    private final DomainEventPublisher domainEventPublisher;
 
     /**
      * Tìm tất cả lịch học
@@ -108,6 +113,24 @@ public class ScheduleService {
         return scheduleRepository.findUpcomingSchedulesForStudent(student.getId(), LocalDate.now());
     }
 
+    /**
+     * Tìm các buổi học của lớp bị trùng với lịch các lớp học viên đã được duyệt
+     * Lịch hiện có của học viên được nạp bằng một query và kiểm tra trong bộ nhớ
+     */
+    @Transactional(readOnly = true)
+    public List<ScheduleIntervalIndex.Conflict> findTimetableConflicts(User student, ClassEntity classEntity) {
+        LocalDate today = LocalDate.now();
+
+        ScheduleIntervalIndex timetable = ScheduleIntervalIndex.of(
+                scheduleRepository.findActiveSessionsOfApprovedClassesForStudent(student.getId(), today));
+        if (timetable.isEmpty()) {
+            return List.of();
+        }
+
+        return timetable.findConflicts(
+                scheduleRepository.findActiveSessionsByClass(classEntity.getId(), today));
+    }
+
     /**
      * Tạo lịch học mới
      * Business Rule:
@@ -116,6 +139,18 @@ public class ScheduleService {
         log.info("Creating schedule for class: {}, session: {}",
                 schedule.getClassEntity().getClassCode(), schedule.getSessionNumber());
 
+        validateNewSchedule(schedule);
+
+        Schedule saved = scheduleRepository.save(schedule);
+        calendarFeedService.invalidateClass(saved.getClassEntity().getId());
+        log.info("Schedule created successfully with ID: {}", saved.getId());
+        return saved;
+    }
+
+    /**
+     * Kiểm tra buổi học mới trước khi lưu (trùng số buổi, khung giờ, trùng phòng) và gán trạng thái mặc định
+     */
+    private void validateNewSchedule(Schedule schedule) {
         // Check duplicate session number in class
         if (scheduleRepository.findByClassEntityAndSessionNumber(
                 schedule.getClassEntity(), schedule.getSessionNumber()).isPresent()) {
@@ -145,14 +180,12 @@ public class ScheduleService {
         if (schedule.getStatus() == null) {
             schedule.setStatus(Schedule.ScheduleStatus.SCHEDULED);
         }
-
-        Schedule saved = scheduleRepository.save(schedule);
-        log.info("Schedule created successfully with ID: {}", saved.getId());
-        return saved;
     }
 
     /**
      * Tạo lịch học hàng loạt
+     * Kiểm tra mọi buổi học trước rồi mới lưu: không query bảng schedules giữa các lần lưu,
+     * nên các INSERT được gom thành JDBC batch khi flush; lịch của lớp chỉ cần làm mới một lần
      */
     public List<Schedule> generateBatchSchedules(com.nute.training.dto.BulkScheduleCreateDto dto) {
         log.info("Generating batch schedules for class ID: {}", dto.getClassId());
@@ -183,9 +216,10 @@ public class ScheduleService {
                 schedule.setRoom(dto.getRoom() != null && !dto.getRoom().isEmpty() ? dto.getRoom() : classEntity.getRoom());
                 schedule.setStatus(Schedule.ScheduleStatus.SCHEDULED);
 
-                // Create schedule (reuses validation logic)
-                // Note: createSchedule throws RuntimeException on conflict, which will rollback transaction
-                createdSchedules.add(createSchedule(schedule));
+                // Reuses validation logic of createSchedule
+                // Note: throws RuntimeException on conflict, which will rollback transaction
+                validateNewSchedule(schedule);
+                createdSchedules.add(schedule);
             }
             currentDate = currentDate.plusDays(1);
         }
@@ -193,8 +227,14 @@ public class ScheduleService {
         if (createdSchedules.isEmpty()) {
             throw new IllegalArgumentException("Không có lịch học nào được tạo. Vui lòng kiểm tra ngày bắt đầu/kết thúc và các ngày trong tuần đã chọn.");
         }
-        
-        return createdSchedules;
+
+        List<Schedule> savedSchedules = new java.util.ArrayList<>(createdSchedules.size());
+        for (Schedule schedule : createdSchedules) {
+            savedSchedules.add(scheduleRepository.save(schedule));
+        }
+        calendarFeedService.invalidateClass(classEntity.getId());
+        log.info("Generated {} schedules for class: {}", savedSchedules.size(), classEntity.getClassCode());
+        return savedSchedules;
     }
 
     /**
@@ -243,6 +283,7 @@ public class ScheduleService {
         existing.setStatus(scheduleDetails.getStatus());
 
         Schedule updated = scheduleRepository.save(existing);
+        calendarFeedService.invalidateClass(updated.getClassEntity().getId());
         log.info("Schedule updated successfully: {}", updated.getId());
         return updated;
     }
@@ -259,6 +300,7 @@ public class ScheduleService {
 
         schedule.setStatus(Schedule.ScheduleStatus.COMPLETED);
         scheduleRepository.save(schedule);
+        calendarFeedService.invalidateClass(schedule.getClassEntity().getId());
 
         log.info("Schedule completed successfully: {}", scheduleId);
     }
@@ -275,6 +317,11 @@ public class ScheduleService {
 
         schedule.setStatus(Schedule.ScheduleStatus.CANCELLED);
         scheduleRepository.save(schedule);
+        calendarFeedService.invalidateClass(schedule.getClassEntity().getId());
+        domainEventPublisher.publish(OutboxEvent.EventType.SCHEDULE_CANCELLED, schedule.getId(), Map.of(
+                "classId", schedule.getClassEntity().getId(),
+                "sessionNumber", schedule.getSessionNumber(),
+                "sessionDate", schedule.getSessionDate().toString()));
 
         log.info("Schedule cancelled successfully: {}", scheduleId);
     }
@@ -290,6 +337,7 @@ public class ScheduleService {
                         "Không tìm thấy lịch học với ID: " + id));
 
         scheduleRepository.delete(schedule);
+        calendarFeedService.invalidateClass(schedule.getClassEntity().getId());
         log.info("Schedule deleted successfully: {}", id);
     }
 
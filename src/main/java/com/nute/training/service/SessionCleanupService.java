@@ -0,0 +1,60 @@
+package com.nute.training.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Service: SessionCleanupService
+ * Xóa session đã hết hạn trong bảng SPRING_SESSION theo từng lô nhỏ (thay cho câu DELETE một lần
+ * của Spring Session), để không khóa bảng lâu khi có nhiều session hết hạn cùng lúc.
+ * Mỗi lô tự commit; thuộc tính session được xóa theo khóa ngoại ON DELETE CASCADE.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SessionCleanupService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${spring.session.jdbc.table-name:SPRING_SESSION}")
+    private String tableName = "SPRING_SESSION";
+
+    @Value("${app.session.cleanup-batch-size:1000}")
+    private int batchSize = 1000;
+
+    /**
+     * Xóa các session hết hạn
+     * @return số session đã xóa
+     */
+    public int purgeExpired() {
+        String selectSql = "SELECT PRIMARY_ID FROM " + tableName + " "
+                + "WHERE EXPIRY_TIME < :now "
+                + "LIMIT :limit";
+        // Kiểm tra lại EXPIRY_TIME: session vừa được gia hạn giữa hai câu lệnh không bị xóa
+        String deleteSql = "DELETE FROM " + tableName + " "
+                + "WHERE PRIMARY_ID IN (:ids) "
+                + "AND EXPIRY_TIME < :now";
+
+        long now = System.currentTimeMillis();
+        int total = 0;
+        List<String> ids;
+        do {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("now", now)
+                    .addValue("limit", batchSize);
+            ids = jdbcTemplate.queryForList(selectSql, params, String.class);
+            if (!ids.isEmpty()) {
+                total += jdbcTemplate.update(deleteSql, params.addValue("ids", ids));
+            }
+        } while (ids.size() == batchSize);
+
+        log.debug("Expired session cleanup: {} sessions deleted", total);
+        return total;
+    }
+}
@@ -0,0 +1,276 @@
+package com.nute.training.service;
+
+import com.nute.training.config.SqlProfiler;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service: SqlProfileService
+ * Tổng hợp số liệu SQL theo endpoint và theo phương thức service (trên node hiện tại).
+ * Business Rule:
+ * - Request/lần gọi vượt ngưỡng số câu lệnh, hoặc lặp một dạng câu lệnh quá ngưỡng (dấu hiệu N+1),
+ *   được ghi log cảnh báo và giữ trong danh sách vi phạm gần đây
+ * - Lần gọi service chỉ bị xét vi phạm khi không nằm trong request đang đo (vd. job nền),
+ *   tránh cảnh báo trùng với request
+ */
+@Service
+@Slf4j
+public class SqlProfileService {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Value("${app.sql-profiler.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.sql-profiler.statement-threshold:50}")
+    private int statementThreshold = 50;
+
+    @Value("${app.sql-profiler.repeat-threshold:10}")
+    private int repeatThreshold = 10;
+
+    @Value("${app.sql-profiler.max-entries:500}")
+    private int maxEntries = 500;
+
+    @Value("${app.sql-profiler.recent-offenders:50}")
+    private int recentOffenderLimit = 50;
+
+    private final Map<String, ProfileStats> endpointStats = new ConcurrentHashMap<>();
+    private final Map<String, ProfileStats> methodStats = new ConcurrentHashMap<>();
+    private final Deque<Offender> recentOffenders = new ArrayDeque<>();
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    public SqlProfileService(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordRequest(SqlProfiler.Scope scope) {
+        if (scope != null) {
+            record(endpointStats, scope, true);
+        }
+    }
+
+    public void recordMethod(SqlProfiler.Scope scope) {
+        if (scope != null && scope.getStatements() > 0) {
+            record(methodStats, scope, !SqlProfiler.isActive());
+        }
+    }
+
+    /**
+     * Các endpoint có trung bình nhiều câu lệnh nhất
+     */
+    public List<ProfileStats> findTopEndpoints(int limit) {
+        return top(endpointStats, limit);
+    }
+
+    /**
+     * Các phương thức service có trung bình nhiều câu lệnh nhất
+     */
+    public List<ProfileStats> findTopMethods(int limit) {
+        return top(methodStats, limit);
+    }
+
+    /**
+     * Vi phạm gần đây, mới nhất trước
+     */
+    public List<Offender> findRecentOffenders() {
+        synchronized (recentOffenders) {
+            return new ArrayList<>(recentOffenders);
+        }
+    }
+
+    /**
+     * Truy vấn tốn thời gian nhất theo thống kê của Hibernate (rỗng nếu chưa bật thống kê)
+     */
+    public List<QueryStats> findSlowestQueries(int limit) {
+        Statistics statistics = getHibernateStatistics();
+        if (statistics == null) {
+            return List.of();
+        }
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> {
+                    QueryStatistics stats = statistics.getQueryStatistics(query);
+                    return new QueryStats(query, stats.getExecutionCount(), stats.getExecutionTotalTime(),
+                            stats.getExecutionMaxTime(), stats.getExecutionRowCount());
+                })
+                .sorted(Comparator.comparingLong(QueryStats::totalMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public Statistics getHibernateStatistics() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory == null) {
+            return null;
+        }
+        Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+        return statistics.isStatisticsEnabled() ? statistics : null;
+    }
+
+    public LocalDateTime getSince() {
+        return since;
+    }
+
+    public void reset() {
+        endpointStats.clear();
+        methodStats.clear();
+        synchronized (recentOffenders) {
+            recentOffenders.clear();
+        }
+        Statistics statistics = getHibernateStatistics();
+        if (statistics != null) {
+            statistics.clear();
+        }
+        since = LocalDateTime.now();
+    }
+
+    private void record(Map<String, ProfileStats> statsByName, SqlProfiler.Scope scope, boolean checkOffender) {
+        Map.Entry<String, Integer> repeated = scope.getMostRepeatedShape();
+        boolean offender = checkOffender && (scope.getStatements() >= statementThreshold
+                || (repeated != null && repeated.getValue() >= repeatThreshold));
+
+        ProfileStats stats = statsByName.get(scope.getName());
+        if (stats == null && statsByName.size() < maxEntries) {
+            stats = statsByName.computeIfAbsent(scope.getName(), ProfileStats::new);
+        }
+        if (stats != null) {
+            stats.record(scope, repeated, offender);
+        }
+
+        if (offender) {
+            Offender entry = new Offender(LocalDateTime.now(), scope.getName(), scope.getStatements(),
+                    toMillis(scope.getExecutionNanos()), toMillis(scope.getElapsedNanos()), scope.getEntitiesLoaded(),
+                    repeated != null ? repeated.getKey() : null, repeated != null ? repeated.getValue() : 0);
+            synchronized (recentOffenders) {
+                recentOffenders.addFirst(entry);
+                while (recentOffenders.size() > recentOffenderLimit) {
+                    recentOffenders.removeLast();
+                }
+            }
+            log.warn("SQL hotspot {}: {} statements ({} ms SQL, {} ms total, {} entities loaded), most repeated {}x: {}",
+                    entry.name(), entry.statements(), entry.executionMillis(), entry.elapsedMillis(),
+                    entry.entitiesLoaded(), entry.repeats(), entry.repeatedShape());
+        }
+    }
+
+    private static List<ProfileStats> top(Map<String, ProfileStats> statsByName, int limit) {
+        return statsByName.values().stream()
+                .sorted(Comparator.comparingDouble(ProfileStats::getAvgStatements).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Số liệu cộng dồn của một endpoint/phương thức
+     */
+    public static class ProfileStats {
+
+        private final String name;
+        private long calls;
+        private long totalStatements;
+        private int maxStatements;
+        private long totalExecutionNanos;
+        private long maxElapsedNanos;
+        private long totalEntitiesLoaded;
+        private long offenderCalls;
+        private String worstShape;
+        private int worstShapeRepeats;
+
+        ProfileStats(String name) {
+            this.name = name;
+        }
+
+        synchronized void record(SqlProfiler.Scope scope, Map.Entry<String, Integer> repeated, boolean offender) {
+            calls++;
+            totalStatements += scope.getStatements();
+            maxStatements = Math.max(maxStatements, scope.getStatements());
+            totalExecutionNanos += scope.getExecutionNanos();
+            maxElapsedNanos = Math.max(maxElapsedNanos, scope.getElapsedNanos());
+            totalEntitiesLoaded += scope.getEntitiesLoaded();
+            if (offender) {
+                offenderCalls++;
+            }
+            if (repeated != null && repeated.getValue() > worstShapeRepeats) {
+                worstShape = repeated.getKey();
+                worstShapeRepeats = repeated.getValue();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        public synchronized double getAvgStatements() {
+            return calls > 0 ? (double) totalStatements / calls : 0;
+        }
+
+        public synchronized int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public synchronized double getAvgExecutionMillis() {
+            return calls > 0 ? totalExecutionNanos / 1_000_000.0 / calls : 0;
+        }
+
+        public synchronized long getMaxElapsedMillis() {
+            return toMillis(maxElapsedNanos);
+        }
+
+        public synchronized double getAvgEntitiesLoaded() {
+            return calls > 0 ? (double) totalEntitiesLoaded / calls : 0;
+        }
+
+        public synchronized long getOffenderCalls() {
+            return offenderCalls;
+        }
+
+        public synchronized String getWorstShape() {
+            return worstShape;
+        }
+
+        public synchronized int getWorstShapeRepeats() {
+            return worstShapeRepeats;
+        }
+    }
+
+    /**
+     * Một request/lần gọi vượt ngưỡng
+     */
+    public record Offender(LocalDateTime at, String name, int statements, long executionMillis, long elapsedMillis,
+                           int entitiesLoaded, String repeatedShape, int repeats) {
+    }
+
+    /**
+     * Thống kê một truy vấn HQL/SQL của Hibernate
+     */
+    public record QueryStats(String query, long executions, long totalMillis, long maxMillis, long rows) {
+    }
+}
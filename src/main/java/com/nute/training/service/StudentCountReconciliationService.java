@@ -0,0 +1,153 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.Enrollment;
+import com.nute.training.repository.ClassRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service: StudentCountReconciliationService
+ * Đối chiếu bộ đếm ClassEntity.currentStudents với số đăng ký thực tế.
+ * Bộ đếm bị lệch khi có lỗi hoặc sửa DB trực tiếp (bỏ qua EnrollmentService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StudentCountReconciliationService {
+
+    /**
+     * Các trạng thái đăng ký đang giữ chỗ trong lớp
+     * (APPROVED tăng bộ đếm; COMPLETED không giảm lại)
+     */
+    public static final Set<Enrollment.EnrollmentStatus> SEAT_HOLDING_STATUSES =
+            EnumSet.of(Enrollment.EnrollmentStatus.APPROVED, Enrollment.EnrollmentStatus.COMPLETED);
+
+    private static final int MAX_REPORTED_DRIFTS = 20;
+
+    private final ClassRepository classRepository;
+    private final WaitlistService waitlistService;
+
+    private final AtomicReference<ReconciliationReport> lastReport = new AtomicReference<>();
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalDriftedClasses = new AtomicLong();
+
+    /**
+     * Một lớp bị lệch bộ đếm
+     */
+    public record Drift(Long classId, int stored, int actual) {
+
+        public int delta() {
+            return actual - stored;
+        }
+    }
+
+    /**
+     * Kết quả một lượt đối chiếu
+     */
+    public record ReconciliationReport(LocalDateTime ranAt, String trigger, int classesChecked,
+                                       int classesDrifted, int classesFixed, long absoluteDrift,
+                                       int maxDrift, long durationMillis, List<Drift> sampleDrifts) {
+    }
+
+    /**
+     * Đối chiếu và sửa bộ đếm
+     * Business Rule:
+     * - Đếm lại bằng một query GROUP BY cho mọi lớp
+     * - Chỉ cập nhật các lớp bị lệch, trong một câu UPDATE
+     * - Lớp được sửa giảm bộ đếm có thêm chỗ trống: xếp chỗ cho danh sách chờ (câu UPDATE đã giữ khóa dòng lớp)
+     */
+    public ReconciliationReport reconcile(String trigger) {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = classRepository.findStoredAndActualStudentCounts(SEAT_HOLDING_STATUSES);
+
+        List<Long> driftedIds = new ArrayList<>();
+        List<Long> loweredIds = new ArrayList<>();
+        List<Drift> samples = new ArrayList<>();
+        long absoluteDrift = 0;
+        int maxDrift = 0;
+        for (Object[] row : rows) {
+            Long classId = (Long) row[0];
+            int stored = row[1] != null ? ((Number) row[1]).intValue() : 0;
+            int actual = ((Number) row[2]).intValue();
+            if (row[1] != null && stored == actual) {
+                continue;
+            }
+
+            Drift drift = new Drift(classId, stored, actual);
+            driftedIds.add(classId);
+            if (row[1] != null && drift.delta() < 0) {
+                loweredIds.add(classId);
+            }
+            absoluteDrift += Math.abs(drift.delta());
+            maxDrift = Math.max(maxDrift, Math.abs(drift.delta()));
+            if (samples.size() < MAX_REPORTED_DRIFTS) {
+                samples.add(drift);
+            }
+        }
+
+        int fixed = driftedIds.isEmpty()
+                ? 0
+                : classRepository.recalculateCurrentStudents(driftedIds, SEAT_HOLDING_STATUSES, now);
+        int promoted = 0;
+        for (Long classId : loweredIds) {
+            promoted += waitlistService.promote(classId);
+        }
+
+        ReconciliationReport report = new ReconciliationReport(now, trigger, rows.size(),
+                driftedIds.size(), fixed, absoluteDrift, maxDrift,
+                (System.nanoTime() - startedAt) / 1_000_000, List.copyOf(samples));
+
+        lastReport.set(report);
+        totalRuns.incrementAndGet();
+        totalDriftedClasses.addAndGet(driftedIds.size());
+
+        if (driftedIds.isEmpty()) {
+            log.info("Student count reconciliation ({}): {} classes checked, no drift",
+                    trigger, rows.size());
+        } else {
+            log.warn("Student count reconciliation ({}): {} of {} classes drifted (total {}, max {}), fixed {}, "
+                     + "promoted {} from waitlists: {}",
+                    trigger, driftedIds.size(), rows.size(), absoluteDrift, maxDrift, fixed, promoted, samples);
+        }
+        return report;
+    }
+
+    /**
+     * Kết quả lượt đối chiếu gần nhất (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<ReconciliationReport> getLastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+
+    /**
+     * Tổng số lượt đối chiếu đã chạy (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getTotalRuns() {
+        return totalRuns.get();
+    }
+
+    /**
+     * Tổng số lớp bị lệch đã sửa qua mọi lượt (trên node này)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getTotalDriftedClasses() {
+        return totalDriftedClasses.get();
+    }
+}
@@ -9,7 +9,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service: StudentInfoService
@@ -25,13 +29,21 @@ public class StudentInfoService {
     private final UserRepository userRepository;
 
     /**
-     * Tìm thông tin sinh viên theo User ID
+     * Tìm thông tin sinh viên theo User ID (khóa chính của hồ sơ: một câu truy vấn)
      */
     @Transactional(readOnly = true)
     public Optional<StudentInfo> findByUserId(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Không tìm thấy người dùng"));
-        return studentInfoRepository.findByUser(user);
+        return studentInfoRepository.findById(userId);
+    }
+
+    /**
+     * Hồ sơ của nhiều học viên theo User ID (một câu truy vấn), dùng cho trang danh sách
+     * @return map userId -> hồ sơ (học viên chưa cập nhật hồ sơ không có trong map)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StudentInfo> findByUserIds(Collection<Long> userIds) {
+        return studentInfoRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(StudentInfo::getId, Function.identity()));
     }
 
     /**
@@ -52,7 +64,7 @@ public class StudentInfoService {
             throw new IllegalArgumentException("Mã sinh viên đã tồn tại trên hệ thống");
         }
 
-        StudentInfo studentInfo = studentInfoRepository.findByUser(user)
+        StudentInfo studentInfo = studentInfoRepository.findById(userId)
                 .orElse(new StudentInfo());
 
         studentInfo.setUser(user);
@@ -72,6 +84,6 @@ public class StudentInfoService {
     @Transactional(readOnly = true)
     public boolean isProfileComplete(User user) {
         if (user.getRole() != User.Role.STUDENT) return true;
-        return studentInfoRepository.findByUser(user).isPresent();
+        return studentInfoRepository.existsById(user.getId());
     }
 }
@@ -1,6 +1,8 @@
 package com.nute.training.service;
 
+import com.nute.training.entity.CacheInvalidation;
 import com.nute.training.entity.User;
+import com.nute.training.repository.StudentInfoRepository;
 import com.nute.training.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +24,9 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final StudentInfoRepository studentInfoRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheInvalidationBus cacheInvalidationBus;
 
     /**
      * Tìm tất cả users
@@ -40,14 +44,6 @@ public class UserService {
         return userRepository.findById(id);
     }
 
-    /**
-     * Tìm user theo ID, bao gồm StudentInfo nếu user là học viên
-     */
-    @Transactional(readOnly = true)
-    public Optional<User> findUserDetailById(Long id) {
-        return userRepository.findByIdWithStudentInfo(id);
-    }
-
     /**
      * Tìm user theo username
      */
@@ -88,6 +84,22 @@ public class UserService {
         return userRepository.findActiveStudents();
     }
 
+    /**
+     * Đếm tất cả users
+     */
+    @Transactional(readOnly = true)
+    public long countAll() {
+        return userRepository.count();
+    }
+
+    /**
+     * Đếm users theo role và status
+     */
+    @Transactional(readOnly = true)
+    public long countByRoleAndStatus(User.Role role, User.Status status) {
+        return userRepository.countByRoleAndStatus(role, status);
+    }
+
     /**
      * Tìm kiếm users theo từ khóa
      */
@@ -171,6 +183,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.USER, updatedUser.getId());
         log.info("User updated successfully: {}", updatedUser.getUsername());
         return updatedUser;
     }
@@ -205,6 +218,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.USER, updatedUser.getId());
         log.info("User profile updated successfully for user: {}", updatedUser.getUsername());
         return updatedUser;
     }
@@ -265,6 +279,7 @@ public class UserService {
 
         user.setStatus(status);
         userRepository.save(user);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.USER, userId);
 
         log.info("Status changed successfully for user: {}", user.getUsername());
     }
@@ -283,7 +298,10 @@ public class UserService {
         // TODO: Check if user has related data (enrollments, classes, etc.)
         // For now, just delete
 
+        // Hồ sơ học viên dùng chung khóa chính với user: xóa trước user
+        studentInfoRepository.deleteById(id);
         userRepository.delete(user);
+        cacheInvalidationBus.publish(CacheInvalidation.EntityType.USER, id);
         log.info("User deleted successfully: {}", user.getUsername());
     }
 
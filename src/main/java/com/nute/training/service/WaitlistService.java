@@ -0,0 +1,159 @@
+package com.nute.training.service;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Enrollment;
+import com.nute.training.entity.OutboxEvent;
+import com.nute.training.repository.ClassRepository;
+import com.nute.training.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service: WaitlistService
+ * Xếp chỗ và đóng danh sách chờ của lớp học; mỗi thay đổi ghi sự kiện để học viên được thông báo.
+ * Tách khỏi EnrollmentService để ClassService và đối chiếu sĩ số gọi được mà không tạo vòng phụ thuộc.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class WaitlistService {
+
+    /**
+     * Lớp ở các trạng thái này không còn nhận học viên: danh sách chờ bị đóng
+     */
+    public static final Set<ClassEntity.ClassStatus> CLOSED_CLASS_STATUSES =
+            EnumSet.of(ClassEntity.ClassStatus.COMPLETED, ClassEntity.ClassStatus.CANCELLED);
+
+    private final ClassRepository classRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ReportRollupService reportRollupService;
+    private final DomainEventPublisher domainEventPublisher;
+
+    /**
+     * Xếp chỗ trống của lớp cho danh sách chờ (chạy trong transaction của thao tác giải phóng chỗ)
+     * Business Rule:
+     * - Khóa dòng lớp như ClassService.lockClass, nên không chạy song song với đăng ký/duyệt
+     * - Chỉ xếp trong số chỗ trống (xem freeSeats)
+     * - Theo thứ tự vào hàng (FIFO), người được xếp chỗ chuyển sang PENDING:
+     *   admin vẫn duyệt như đăng ký thường (kiểm tra trùng lịch, tăng currentStudents)
+     * - Lớp đã kết thúc/hủy không xếp chỗ
+     * @return số đăng ký được xếp chỗ
+     */
+    public int promote(Long classId) {
+        ClassEntity classEntity = classRepository.findByIdForUpdate(classId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Không tìm thấy lớp học với ID: " + classId));
+        if (CLOSED_CLASS_STATUSES.contains(classEntity.getStatus())) {
+            return 0;
+        }
+
+        long freeSeats = freeSeats(classEntity);
+        if (freeSeats <= 0) {
+            return 0;
+        }
+
+        int promoted = 0;
+        for (Enrollment enrollment : enrollmentRepository.findWaitlistByClass(classEntity)) {
+            if (promoted >= freeSeats) {
+                break;
+            }
+
+            enrollment.setStatus(Enrollment.EnrollmentStatus.PENDING);
+            enrollment.setWaitlistPosition(null);
+            enrollmentRepository.save(enrollment);
+            publishWaitlistEvent(OutboxEvent.EventType.WAITLIST_PROMOTED, enrollment, null);
+            promoted++;
+            log.info("Waitlisted enrollment promoted to PENDING: {} in class: {}",
+                    enrollment.getId(), classEntity.getClassCode());
+        }
+
+        if (promoted > 0) {
+            reportRollupService.markClassChanged(classId);
+        }
+        return promoted;
+    }
+
+    /**
+     * Số chỗ còn nhận đăng ký chờ duyệt của lớp (gọi trên dòng lớp đã khóa)
+     * Business Rule:
+     * - Chỗ trống = sĩ số tối đa - số đã duyệt - số đăng ký PENDING đang chờ duyệt
+     * - Đăng ký mới vào danh sách chờ khi không còn chỗ trống; danh sách chờ chỉ được xếp trong số chỗ trống
+     * - Lớp không giới hạn sĩ số: luôn còn chỗ
+     */
+    public long freeSeats(ClassEntity lockedClass) {
+        if (lockedClass.getMaxStudents() == null) {
+            return Long.MAX_VALUE;
+        }
+        int current = lockedClass.getCurrentStudents() != null ? lockedClass.getCurrentStudents() : 0;
+        return lockedClass.getMaxStudents() - current
+                - enrollmentRepository.countByClassEntityAndStatus(lockedClass, Enrollment.EnrollmentStatus.PENDING);
+    }
+
+    /**
+     * Đóng danh sách chờ của một lớp vừa kết thúc/bị hủy (lớp đã được khóa)
+     * Business Rule: người đang chờ chuyển sang DROPPED và được thông báo
+     * @return số đăng ký bị đóng
+     */
+    public int close(ClassEntity lockedClass) {
+        List<Enrollment> waitlisted = enrollmentRepository.findWaitlistByClass(lockedClass);
+        if (waitlisted.isEmpty()) {
+            return 0;
+        }
+
+        for (Enrollment enrollment : waitlisted) {
+            drop(enrollment, lockedClass.getStatus());
+        }
+        reportRollupService.markClassChanged(lockedClass.getId());
+        log.info("Closed waitlist of class: {} ({} enrollments dropped)",
+                lockedClass.getClassCode(), waitlisted.size());
+        return waitlisted.size();
+    }
+
+    /**
+     * Đóng danh sách chờ của mọi lớp đã kết thúc/bị hủy (dùng cho chuyển trạng thái tự động)
+     * Chỉ còn người chờ ở các lớp vừa đóng từ lượt trước, nên xử lý từng đăng ký để ghi được sự kiện
+     * @return số đăng ký bị đóng
+     */
+    public int closeForClosedClasses() {
+        List<Enrollment> waitlisted = enrollmentRepository.findWaitlistOfClassesInStatus(CLOSED_CLASS_STATUSES);
+        if (waitlisted.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> classIds = new LinkedHashSet<>();
+        for (Enrollment enrollment : waitlisted) {
+            drop(enrollment, enrollment.getClassEntity().getStatus());
+            classIds.add(enrollment.getClassEntity().getId());
+        }
+        reportRollupService.markClassesChanged(classIds);
+        return waitlisted.size();
+    }
+
+    private void drop(Enrollment enrollment, ClassEntity.ClassStatus classStatus) {
+        enrollment.setStatus(Enrollment.EnrollmentStatus.DROPPED);
+        enrollment.setWaitlistPosition(null);
+        enrollmentRepository.save(enrollment);
+        publishWaitlistEvent(OutboxEvent.EventType.WAITLIST_CLOSED, enrollment, classStatus);
+    }
+
+    private void publishWaitlistEvent(OutboxEvent.EventType type, Enrollment enrollment,
+                                      ClassEntity.ClassStatus classStatus) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("studentId", enrollment.getStudent().getId());
+        payload.put("classId", enrollment.getClassEntity().getId());
+        if (classStatus != null) {
+            payload.put("classStatus", classStatus.name());
+        }
+        domainEventPublisher.publish(type, enrollment.getId(), payload);
+    }
+}
@@ -0,0 +1,50 @@
+package com.nute.training.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Util: CsvLineParser
+ * Tách một dòng CSV (RFC 4180) thành các trường: hỗ trợ trường bọc trong dấu ngoặc kép,
+ * dấu phẩy và "" (ngoặc kép thoát) bên trong. Không hỗ trợ trường xuống dòng,
+ * vì file được đọc từng dòng (streaming).
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Tách dòng theo dấu phân cách chỉ định
+     */
+    public static List<String> parse(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
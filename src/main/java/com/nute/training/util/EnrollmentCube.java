@@ -0,0 +1,356 @@
+package com.nute.training.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Util: EnrollmentCube
+ * Khối phân tích dạng cột trong bộ nhớ, mỗi dòng là một đăng ký học.
+ * Chiều được mã hóa từ điển thành mảng int, mỗi giá trị chiều có sẵn một bitmap các dòng,
+ * nên lọc = OR/AND bitmap và gom nhóm = một lượt quét mảng nguyên thủy, không tạo object theo dòng.
+ * Đối tượng bất biến: cập nhật tạo bản mới (chỉ thay các dòng của lớp có thay đổi),
+ * người đọc đang giữ bản cũ không bị ảnh hưởng.
+ */
+public final class EnrollmentCube {
+
+    /**
+     * Chiều phân tích
+     */
+    public enum Dimension {
+        COURSE_TYPE,    // Loại khóa học
+        COURSE,         // Khóa học
+        TEACHER,        // Giảng viên
+        MONTH,          // Tháng đăng ký (yyyyMM)
+        STATUS          // Trạng thái đăng ký (ordinal)
+    }
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+    private static final int MAX_GROUPS = 1 << 20;
+
+    /**
+     * Một dòng dữ liệu nguồn. Khóa chiều không có giá trị (vd. lớp chưa có giảng viên) dùng 0.
+     */
+    public record Fact(long classId, long courseTypeId, long courseId, long teacherId,
+                       int month, int status, boolean graded, boolean passed,
+                       int sessionsAttended, int sessionsRecorded) {
+
+        long key(Dimension dimension) {
+            return switch (dimension) {
+                case COURSE_TYPE -> courseTypeId;
+                case COURSE -> courseId;
+                case TEACHER -> teacherId;
+                case MONTH -> month;
+                case STATUS -> status;
+            };
+        }
+    }
+
+    /**
+     * Một nhóm kết quả: khóa theo thứ tự các chiều gom nhóm kèm các số đo
+     */
+    public record Group(long[] keys, long enrollments, long graded, long passed,
+                       long sessionsAttended, long sessionsRecorded) {
+
+        public double passRate() {
+            return graded == 0 ? 0 : passed * 100.0 / graded;
+        }
+
+        public double attendanceRate() {
+            return sessionsRecorded == 0 ? 0 : sessionsAttended * 100.0 / sessionsRecorded;
+        }
+    }
+
+    private final int size;
+    private final long[] classIds;
+    private final int[][] codes;            // [chiều][dòng] -> mã từ điển
+    private final long[][] dictionaries;    // [chiều][mã] -> khóa
+    private final BitSet[][] bitmaps;       // [chiều][mã] -> các dòng mang giá trị đó
+    private final BitSet graded;
+    private final BitSet passed;
+    private final int[] sessionsAttended;
+    private final int[] sessionsRecorded;
+
+    private EnrollmentCube(int size, long[] classIds, int[][] codes, long[][] dictionaries,
+                           BitSet graded, BitSet passed, int[] sessionsAttended, int[] sessionsRecorded) {
+        this.size = size;
+        this.classIds = classIds;
+        this.codes = codes;
+        this.dictionaries = dictionaries;
+        this.graded = graded;
+        this.passed = passed;
+        this.sessionsAttended = sessionsAttended;
+        this.sessionsRecorded = sessionsRecorded;
+
+        this.bitmaps = new BitSet[DIMENSIONS.length][];
+        for (Dimension dimension : DIMENSIONS) {
+            int d = dimension.ordinal();
+            bitmaps[d] = new BitSet[dictionaries[d].length];
+            for (int code = 0; code < dictionaries[d].length; code++) {
+                bitmaps[d][code] = new BitSet(size);
+            }
+            int[] column = codes[d];
+            for (int row = 0; row < size; row++) {
+                bitmaps[d][column[row]].set(row);
+            }
+        }
+    }
+
+    public static EnrollmentCube empty() {
+        return of(List.of());
+    }
+
+    /**
+     * Dựng khối từ toàn bộ dữ liệu nguồn
+     */
+    public static EnrollmentCube of(List<Fact> facts) {
+        return new Builder(facts.size(), null).addAll(facts).build();
+    }
+
+    /**
+     * Tạo bản mới: bỏ mọi dòng của các lớp chỉ định rồi thêm dữ liệu mới của các lớp đó
+     * (lớp đã bị xóa chỉ cần có trong changedClassIds và không có dòng nào trong facts).
+     * Mã từ điển được giữ nguyên nên các dòng không đổi được chép thẳng theo cột.
+     */
+    public EnrollmentCube replaceClasses(Collection<Long> changedClassIds, List<Fact> facts) {
+        Set<Long> changed = new HashSet<>(changedClassIds);
+        BitSet kept = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (!changed.contains(classIds[row])) {
+                kept.set(row);
+            }
+        }
+
+        Builder builder = new Builder(kept.cardinality() + facts.size(), dictionaries);
+        for (int row = kept.nextSetBit(0); row >= 0; row = kept.nextSetBit(row + 1)) {
+            builder.copyRow(this, row);
+        }
+        return builder.addAll(facts).build();
+    }
+
+    /**
+     * Gom nhóm theo các chiều chỉ định, chỉ tính các dòng thỏa mọi bộ lọc
+     * @param groupBy các chiều gom nhóm (rỗng = một nhóm tổng)
+     * @param filters mỗi chiều một tập khóa được chấp nhận (OR trong chiều, AND giữa các chiều)
+     */
+    public List<Group> query(List<Dimension> groupBy, Map<Dimension, ? extends Collection<Long>> filters) {
+        BitSet rows = filter(filters);
+        if (rows != null && rows.isEmpty()) {
+            return List.of();
+        }
+
+        int[] radix = new int[groupBy.size()];
+        long groupCount = 1;
+        for (int i = 0; i < groupBy.size(); i++) {
+            radix[i] = Math.max(1, dictionaries[groupBy.get(i).ordinal()].length);
+            groupCount *= radix[i];
+        }
+        if (groupCount > MAX_GROUPS) {
+            throw new IllegalArgumentException("Số nhóm quá lớn: " + groupCount);
+        }
+
+        int groups = (int) groupCount;
+        long[] enrollments = new long[groups];
+        long[] gradedCount = new long[groups];
+        long[] passedCount = new long[groups];
+        long[] attended = new long[groups];
+        long[] recorded = new long[groups];
+
+        int[][] columns = new int[groupBy.size()][];
+        for (int i = 0; i < groupBy.size(); i++) {
+            columns[i] = codes[groupBy.get(i).ordinal()];
+        }
+
+        int row = rows == null ? (size > 0 ? 0 : -1) : rows.nextSetBit(0);
+        while (row >= 0) {
+            int group = 0;
+            for (int i = 0; i < columns.length; i++) {
+                group = group * radix[i] + columns[i][row];
+            }
+            enrollments[group]++;
+            if (graded.get(row)) {
+                gradedCount[group]++;
+                if (passed.get(row)) {
+                    passedCount[group]++;
+                }
+            }
+            attended[group] += sessionsAttended[row];
+            recorded[group] += sessionsRecorded[row];
+
+            row = rows == null ? (row + 1 < size ? row + 1 : -1) : rows.nextSetBit(row + 1);
+        }
+
+        List<Group> result = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            if (enrollments[group] == 0) {
+                continue;
+            }
+            long[] keys = new long[columns.length];
+            int remainder = group;
+            for (int i = columns.length - 1; i >= 0; i--) {
+                keys[i] = dictionaries[groupBy.get(i).ordinal()][remainder % radix[i]];
+                remainder /= radix[i];
+            }
+            result.add(new Group(keys, enrollments[group], gradedCount[group], passedCount[group],
+                    attended[group], recorded[group]));
+        }
+        return result;
+    }
+
+    /**
+     * Các khóa đang có dòng dữ liệu của một chiều
+     */
+    public List<Long> keysOf(Dimension dimension) {
+        int d = dimension.ordinal();
+        List<Long> keys = new ArrayList<>();
+        for (int code = 0; code < dictionaries[d].length; code++) {
+            if (!bitmaps[d][code].isEmpty()) {
+                keys.add(dictionaries[d][code]);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Các lớp đang có dòng dữ liệu
+     */
+    public Set<Long> classIds() {
+        Set<Long> ids = new HashSet<>();
+        for (int row = 0; row < size; row++) {
+            ids.add(classIds[row]);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private BitSet filter(Map<Dimension, ? extends Collection<Long>> filters) {
+        BitSet result = null;
+        for (Map.Entry<Dimension, ? extends Collection<Long>> entry : filters.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().isEmpty()) {
+                continue;
+            }
+            int d = entry.getKey().ordinal();
+            BitSet matching = new BitSet(size);
+            for (Long key : entry.getValue()) {
+                int code = codeOf(d, key);
+                if (code >= 0) {
+                    matching.or(bitmaps[d][code]);
+                }
+            }
+            if (result == null) {
+                result = matching;
+            } else {
+                result.and(matching);
+            }
+        }
+        return result;
+    }
+
+    private int codeOf(int dimension, long key) {
+        long[] dictionary = dictionaries[dimension];
+        for (int code = 0; code < dictionary.length; code++) {
+            if (dictionary[code] == key) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Ghi dữ liệu theo cột, mã hóa từ điển các khóa chiều (tiếp nối từ điển cũ nếu có)
+     */
+    private static final class Builder {
+
+        private final int capacity;
+        private final long[] classIds;
+        private final int[][] codes;
+        private final BitSet graded;
+        private final BitSet passed;
+        private final int[] sessionsAttended;
+        private final int[] sessionsRecorded;
+        private final List<Map<Long, Integer>> lookups = new ArrayList<>(DIMENSIONS.length);
+        private final long[][] keys = new long[DIMENSIONS.length][];
+        private final int[] cardinality = new int[DIMENSIONS.length];
+        private int row;
+
+        Builder(int capacity, long[][] previousDictionaries) {
+            this.capacity = capacity;
+            this.classIds = new long[capacity];
+            this.codes = new int[DIMENSIONS.length][capacity];
+            this.graded = new BitSet(capacity);
+            this.passed = new BitSet(capacity);
+            this.sessionsAttended = new int[capacity];
+            this.sessionsRecorded = new int[capacity];
+
+            for (Dimension dimension : DIMENSIONS) {
+                int d = dimension.ordinal();
+                long[] previous = previousDictionaries != null ? previousDictionaries[d] : new long[0];
+                Map<Long, Integer> lookup = new HashMap<>(previous.length * 2 + 16);
+                for (int code = 0; code < previous.length; code++) {
+                    lookup.put(previous[code], code);
+                }
+                lookups.add(lookup);
+                keys[d] = Arrays.copyOf(previous, Math.max(previous.length, 16));
+                cardinality[d] = previous.length;
+            }
+        }
+
+        void copyRow(EnrollmentCube source, int sourceRow) {
+            classIds[row] = source.classIds[sourceRow];
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                codes[d][row] = source.codes[d][sourceRow];
+            }
+            graded.set(row, source.graded.get(sourceRow));
+            passed.set(row, source.passed.get(sourceRow));
+            sessionsAttended[row] = source.sessionsAttended[sourceRow];
+            sessionsRecorded[row] = source.sessionsRecorded[sourceRow];
+            row++;
+        }
+
+        Builder addAll(List<Fact> facts) {
+            for (Fact fact : facts) {
+                classIds[row] = fact.classId();
+                for (Dimension dimension : DIMENSIONS) {
+                    codes[dimension.ordinal()][row] = encode(dimension.ordinal(), fact.key(dimension));
+                }
+                graded.set(row, fact.graded());
+                passed.set(row, fact.graded() && fact.passed());
+                sessionsAttended[row] = fact.sessionsAttended();
+                sessionsRecorded[row] = fact.sessionsRecorded();
+                row++;
+            }
+            return this;
+        }
+
+        EnrollmentCube build() {
+            long[][] dictionaries = new long[DIMENSIONS.length][];
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                dictionaries[d] = Arrays.copyOf(keys[d], cardinality[d]);
+            }
+            return new EnrollmentCube(capacity, classIds, codes, dictionaries,
+                    graded, passed, sessionsAttended, sessionsRecorded);
+        }
+
+        private int encode(int d, long key) {
+            Integer code = lookups.get(d).get(key);
+            if (code == null) {
+                code = cardinality[d]++;
+                lookups.get(d).put(key, code);
+                if (code == keys[d].length) {
+                    keys[d] = Arrays.copyOf(keys[d], code * 2);
+                }
+                keys[d][code] = key;
+            }
+            return code;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.nute.training.util;
+
+import com.nute.training.entity.ClassEntity;
+import com.nute.training.entity.Schedule;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Util: ICalendarWriter
+ * Sinh nội dung iCalendar (RFC 5545) cho lịch học/lịch dạy.
+ * Nội dung chỉ phụ thuộc dữ liệu buổi học (không dùng thời điểm sinh file),
+ * nên cùng dữ liệu luôn cho cùng nội dung và cùng ETag.
+ */
+public final class ICalendarWriter {
+
+    public static final ZoneId TIME_ZONE = ZoneId.of("Asia/Ho_Chi_Minh");
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private final StringBuilder out = new StringBuilder(4096);
+
+    public ICalendarWriter(String calendarName) {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//NUTE//Short Term Training//VI");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + escape(calendarName));
+        line("X-WR-TIMEZONE:" + TIME_ZONE.getId());
+        // Asia/Ho_Chi_Minh cố định UTC+7, không có giờ mùa hè
+        line("BEGIN:VTIMEZONE");
+        line("TZID:" + TIME_ZONE.getId());
+        line("BEGIN:STANDARD");
+        line("DTSTART:19700101T000000");
+        line("TZOFFSETFROM:+0700");
+        line("TZOFFSETTO:+0700");
+        line("TZNAME:ICT");
+        line("END:STANDARD");
+        line("END:VTIMEZONE");
+    }
+
+    /**
+     * Thêm một buổi học (lớp và khóa học phải đã được nạp)
+     */
+    public ICalendarWriter addSession(Schedule schedule) {
+        ClassEntity classEntity = schedule.getClassEntity();
+        String summary = classEntity.getCourse().getName() + " - " + classEntity.getClassCode()
+                + " (Buổi " + schedule.getSessionNumber() + ")";
+        String room = schedule.getRoom() != null ? schedule.getRoom() : classEntity.getRoom();
+        LocalDateTime stamp = schedule.getUpdatedAt() != null ? schedule.getUpdatedAt() : schedule.getCreatedAt();
+
+        line("BEGIN:VEVENT");
+        line("UID:schedule-" + schedule.getId() + "@nute-training");
+        if (stamp != null) {
+            line("DTSTAMP:" + stamp.atZone(TIME_ZONE).withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT));
+        }
+        line("DTSTART;TZID=" + TIME_ZONE.getId() + ":"
+                + schedule.getSessionDate().atTime(schedule.getStartTime()).format(LOCAL_FORMAT));
+        line("DTEND;TZID=" + TIME_ZONE.getId() + ":"
+                + schedule.getSessionDate().atTime(schedule.getEndTime()).format(LOCAL_FORMAT));
+        line("SUMMARY:" + escape(summary));
+        if (room != null && !room.isBlank()) {
+            line("LOCATION:" + escape(room));
+        }
+        if (schedule.getTopic() != null && !schedule.getTopic().isBlank()) {
+            line("DESCRIPTION:" + escape(schedule.getTopic()));
+        }
+        line("STATUS:" + (schedule.getStatus() == Schedule.ScheduleStatus.CANCELLED ? "CANCELLED" : "CONFIRMED"));
+        line("END:VEVENT");
+        return this;
+    }
+
+    /**
+     * Kết thúc lịch và trả về nội dung UTF-8
+     */
+    public byte[] toBytes() {
+        line("END:VCALENDAR");
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Ghi một dòng, gấp dòng dài quá 75 octet theo RFC 5545 (không cắt giữa ký tự UTF-8)
+     */
+    private void line(String content) {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int width = utf8Length(codePoint);
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.append(CRLF).append(' ');
+                octets = 1;
+            }
+            out.appendCodePoint(codePoint);
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.append(CRLF);
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        } else if (codePoint < 0x800) {
+            return 2;
+        } else if (codePoint < 0x10000) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,280 @@
+package com.nute.training.util;
+
+import com.nute.training.config.SqlProfiler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Util: PageAssembler
+ * Chạy song song các truy vấn đọc độc lập của một trang (dashboard, trang chi tiết) trên virtual thread,
+ * thời gian tải trang bằng truy vấn chậm nhất thay vì tổng các truy vấn.
+ * - Mỗi trang mở một Assembly trong try-with-resources: fork từng truy vấn, join để chờ tất cả
+ * - Một truy vấn lỗi hoặc quá hạn (deadline): hủy các truy vấn còn lại và ném lỗi cho controller
+ * - Số truy vấn chạy song song trên toàn node có giới hạn (chừa kết nối trong pool cho request khác);
+ *   hết lượt thì truy vấn chạy tuần tự trên luồng request khi join
+ * - Luồng con nhận SecurityContext của request (AuthenticationHelper, định tuyến replica)
+ *   và câu lệnh SQL của nó được cộng vào số liệu của request (SqlProfiler)
+ * Mỗi truy vấn chạy trong session Hibernate riêng nên entity trả về đã tách khỏi session:
+ * truy vấn phải nạp sẵn (JOIN FETCH) mọi quan hệ mà view dùng.
+ */
+@Component
+@Slf4j
+public class PageAssembler {
+
+    @Value("${app.page-assembly.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.page-assembly.max-concurrent-queries:8}")
+    private int maxConcurrentQueries = 8;
+
+    @Value("${app.page-assembly.timeout-ms:5000}")
+    private long timeoutMs = 5000;
+
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("page-assembly-", 0).factory());
+
+    private Semaphore queryPermits;
+
+    private final AtomicLong inlineQueries = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        queryPermits = new Semaphore(Math.max(1, maxConcurrentQueries));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Bắt đầu tải dữ liệu cho một trang
+     * @param name tên trang (ghi log, số liệu SQL)
+     */
+    public Assembly begin(String name) {
+        return new Assembly(name, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+    }
+
+    /**
+     * Số truy vấn đang chạy song song trên node
+     */
+    public int getRunningQueries() {
+        return Math.max(1, maxConcurrentQueries) - queryPermits.availablePermits();
+    }
+
+    /**
+     * Tổng số truy vấn phải chạy tuần tự trên luồng request do hết lượt chạy song song
+     */
+    public long getInlineQueries() {
+        return inlineQueries.get();
+    }
+
+    /**
+     * Tổng số lượt tải trang quá hạn
+     */
+    public long getDeadlineExceeded() {
+        return deadlineExceeded.get();
+    }
+
+    /**
+     * Nhóm truy vấn của một lượt tải trang, chỉ dùng trên luồng request đã tạo nó
+     */
+    public final class Assembly implements AutoCloseable {
+
+        private final String name;
+        private final long deadlineNanos;
+        private final SecurityContext securityContext = SecurityContextHolder.getContext();
+        // Session của request: truy vấn song song cũng được giữ ở primary sau khi user vừa ghi (ReplicaRoutingPolicy)
+        private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        private final boolean profiled = SqlProfiler.isActive();
+        private final List<Subtask<?>> subtasks = new ArrayList<>();
+        private final BlockingQueue<Subtask<?>> completed = new LinkedBlockingQueue<>();
+        private boolean joined;
+
+        private Assembly(String name, long deadlineNanos) {
+            this.name = name;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Bắt đầu một truy vấn; kết quả lấy bằng Subtask.get() sau khi join
+         */
+        public <T> Subtask<T> fork(Callable<? extends T> query) {
+            if (joined) {
+                throw new IllegalStateException("Không thể thêm truy vấn sau khi đã join");
+            }
+            Subtask<T> subtask = new Subtask<>(query);
+            subtasks.add(subtask);
+            if (enabled && queryPermits.tryAcquire()) {
+                subtask.future = executor.submit(() -> runForked(subtask));
+            }
+            return subtask;
+        }
+
+        /**
+         * Chờ mọi truy vấn xong
+         * @throws IllegalStateException khi quá hạn; lỗi của truy vấn được ném lại nguyên trạng
+         */
+        public void join() {
+            joined = true;
+            try {
+                for (Subtask<?> subtask : subtasks) {
+                    if (subtask.future == null) {
+                        checkDeadline();
+                        inlineQueries.incrementAndGet();
+                        subtask.run();
+                        throwIfFailed(subtask);
+                    }
+                }
+
+                long forked = subtasks.stream().filter(subtask -> subtask.future != null).count();
+                for (long received = 0; received < forked; received++) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    Subtask<?> subtask = remaining > 0 ? completed.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (subtask == null) {
+                        throw deadlineExceeded();
+                    }
+                    throwIfFailed(subtask);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelRemaining();
+                throw new IllegalStateException("Tải dữ liệu trang " + name + " bị gián đoạn", e);
+            } catch (RuntimeException | Error e) {
+                cancelRemaining();
+                throw e;
+            }
+
+            if (profiled) {
+                subtasks.forEach(subtask -> SqlProfiler.merge(subtask.profile));
+            }
+        }
+
+        /**
+         * Hủy các truy vấn chưa xong (khi controller thoát trước join hoặc join lỗi)
+         */
+        @Override
+        public void close() {
+            cancelRemaining();
+        }
+
+        private void runForked(Subtask<?> subtask) {
+            if (!subtask.started.compareAndSet(false, true)) {
+                return;
+            }
+            SecurityContextHolder.setContext(securityContext);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            if (profiled) {
+                SqlProfiler.begin(name + " (song song)");
+            }
+            try {
+                subtask.run();
+            } finally {
+                if (profiled) {
+                    subtask.profile = SqlProfiler.end();
+                }
+                SecurityContextHolder.clearContext();
+                RequestContextHolder.resetRequestAttributes();
+                queryPermits.release();
+                completed.add(subtask);
+            }
+        }
+
+        private void checkDeadline() {
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                throw deadlineExceeded();
+            }
+        }
+
+        private IllegalStateException deadlineExceeded() {
+            deadlineExceeded.incrementAndGet();
+            log.warn("Page assembly {} exceeded {} ms ({} queries)", name, timeoutMs, subtasks.size());
+            return new IllegalStateException("Tải dữ liệu trang " + name + " quá " + timeoutMs + " ms");
+        }
+
+        private void throwIfFailed(Subtask<?> subtask) {
+            Throwable failure = subtask.failure;
+            if (failure == null) {
+                return;
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Tải dữ liệu trang " + name + " thất bại", failure);
+        }
+
+        private void cancelRemaining() {
+            for (Subtask<?> subtask : subtasks) {
+                if (subtask.future != null && !subtask.done) {
+                    subtask.future.cancel(true);
+                    // Hủy trước khi luồng con kịp chạy: trả lượt thay cho nó
+                    if (subtask.started.compareAndSet(false, true)) {
+                        queryPermits.release();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Một truy vấn trong Assembly
+     */
+    public static final class Subtask<T> {
+
+        private final Callable<? extends T> query;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private Future<?> future;
+        private volatile T result;
+        private volatile Throwable failure;
+        private volatile boolean done;
+        private SqlProfiler.Scope profile;
+
+        private Subtask(Callable<? extends T> query) {
+            this.query = query;
+        }
+
+        /**
+         * Kết quả truy vấn (chỉ gọi sau khi join thành công)
+         */
+        public T get() {
+            if (!done || failure != null) {
+                throw new IllegalStateException("Truy vấn chưa hoàn tất");
+            }
+            return result;
+        }
+
+        private void run() {
+            try {
+                result = query.call();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                done = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.nute.training.util;
+
+import com.nute.training.entity.Schedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Util: ScheduleIntervalIndex
+ * Chỉ mục khoảng thời gian các buổi học của một học viên, dùng để phát hiện trùng lịch.
+ * Mỗi ngày giữ các buổi học sắp xếp theo giờ bắt đầu kèm giờ kết thúc lớn nhất tích lũy,
+ * nên mỗi lần kiểm tra chỉ cần tìm nhị phân thay vì quét toàn bộ lịch.
+ */
+public final class ScheduleIntervalIndex {
+
+    private final Map<LocalDate, DaySlots> days;
+
+    private ScheduleIntervalIndex(Map<LocalDate, DaySlots> days) {
+        this.days = days;
+    }
+
+    /**
+     * Xây dựng chỉ mục từ danh sách buổi học (bỏ qua buổi đã hủy hoặc thiếu giờ)
+     */
+    public static ScheduleIntervalIndex of(Collection<Schedule> schedules) {
+        Map<LocalDate, List<Schedule>> grouped = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            if (!isIndexable(schedule)) {
+                continue;
+            }
+            grouped.computeIfAbsent(schedule.getSessionDate(), d -> new ArrayList<>()).add(schedule);
+        }
+
+        Map<LocalDate, DaySlots> days = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((date, list) -> days.put(date, DaySlots.of(list)));
+        return new ScheduleIntervalIndex(days);
+    }
+
+    /**
+     * Tìm một buổi học trùng với khoảng [startTime, endTime) trong ngày
+     */
+    public Optional<Schedule> findOverlap(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        DaySlots slots = days.get(date);
+        if (slots == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(slots.findOverlap(startTime.toSecondOfDay(), endTime.toSecondOfDay()));
+    }
+
+    /**
+     * Đối chiếu các buổi học của lớp muốn đăng ký với chỉ mục
+     * Bỏ qua các buổi thuộc cùng lớp với buổi đã có trong chỉ mục
+     */
+    public List<Conflict> findConflicts(Collection<Schedule> requested) {
+        List<Conflict> conflicts = new ArrayList<>();
+        for (Schedule candidate : requested) {
+            if (!isIndexable(candidate)) {
+                continue;
+            }
+            findOverlap(candidate.getSessionDate(), candidate.getStartTime(), candidate.getEndTime())
+                    .filter(existing -> !sameClass(existing, candidate))
+                    .ifPresent(existing -> conflicts.add(new Conflict(existing, candidate)));
+        }
+        return conflicts;
+    }
+
+    public boolean isEmpty() {
+        return days.isEmpty();
+    }
+
+    private static boolean isIndexable(Schedule schedule) {
+        return schedule.getSessionDate() != null
+                && schedule.getStartTime() != null
+                && schedule.getEndTime() != null
+                && schedule.getStatus() != Schedule.ScheduleStatus.CANCELLED;
+    }
+
+    private static boolean sameClass(Schedule a, Schedule b) {
+        return a.getClassEntity() != null && b.getClassEntity() != null
+                && a.getClassEntity().getId() != null
+                && a.getClassEntity().getId().equals(b.getClassEntity().getId());
+    }
+
+    /**
+     * Một cặp buổi học bị trùng: buổi đã có của học viên và buổi của lớp muốn đăng ký
+     */
+    public record Conflict(Schedule existing, Schedule requested) {
+    }
+
+    /**
+     * Các buổi học trong một ngày, sắp xếp theo giờ bắt đầu
+     */
+    private static final class DaySlots {
+
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEnds;
+        private final Schedule[] schedules;
+
+        private DaySlots(int[] starts, int[] ends, int[] maxEnds, Schedule[] schedules) {
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = maxEnds;
+            this.schedules = schedules;
+        }
+
+        static DaySlots of(List<Schedule> list) {
+            list.sort(Comparator.comparing(Schedule::getStartTime));
+            int size = list.size();
+            int[] starts = new int[size];
+            int[] ends = new int[size];
+            int[] maxEnds = new int[size];
+            Schedule[] schedules = list.toArray(new Schedule[0]);
+
+            int runningMax = Integer.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                starts[i] = schedules[i].getStartTime().toSecondOfDay();
+                ends[i] = schedules[i].getEndTime().toSecondOfDay();
+                runningMax = Math.max(runningMax, ends[i]);
+                maxEnds[i] = runningMax;
+            }
+            return new DaySlots(starts, ends, maxEnds, schedules);
+        }
+
+        /**
+         * Khoảng [start, end) trùng với buổi i khi starts[i] < end và ends[i] > start.
+         * Chỉ các buổi bắt đầu trước end mới có thể trùng; đi lùi từ đó và dừng
+         * khi giờ kết thúc lớn nhất tích lũy không còn vượt qua start.
+         */
+        Schedule findOverlap(int start, int end) {
+            for (int i = firstStartAtOrAfter(end) - 1; i >= 0 && maxEnds[i] > start; i--) {
+                if (ends[i] > start) {
+                    return schedules[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Vị trí đầu tiên có giờ bắt đầu >= value
+         */
+        private int firstStartAtOrAfter(int value) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.nute.training.util;
+
+/**
+ * Util: TokenBucket
+ * Giới hạn tốc độ theo thuật toán token bucket: token được nạp đều theo thời gian
+ * đến tối đa capacity; mỗi lượt cho qua tiêu thụ một token.
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, long capacity) {
+        if (ratePerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Tốc độ và dung lượng token bucket phải > 0");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Lấy một token nếu còn
+     */
+    public synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Lấy tối đa n token, trả về số token thực sự lấy được
+     */
+    public synchronized long consumeUpTo(long n) {
+        refill();
+        long taken = Math.min(n, (long) tokens);
+        tokens -= taken;
+        return taken;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,64 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * V4: Hồ sơ học viên dùng chung khóa chính với users (student_info.user_id = users.id, @MapsId).
+ * Hồ sơ được đọc thẳng theo ID người dùng; User không còn quan hệ một-một phía ngược
+ * (Hibernate không tạo proxy cho phía mappedBy nên mỗi lần nạp User đều phải query student_info).
+ * Cột id riêng bị bỏ; unique key trên user_id thừa khi user_id là khóa chính.
+ * Migration Java thay vì SQL: CSDL tạo bằng ddl-auto (baseline V1) có unique key mang tên Hibernate tự sinh (UK...),
+ * chỉ CSDL tạo bằng V1 mới có tên uk_student_info_user_id -> tra tên thật trong information_schema rồi mới xóa.
+ * DROP CONSTRAINT cần MySQL 8.0.19 trở lên.
+ */
+public class V4__Student_info_shared_primary_key extends BaseJavaMigration {
+
+    private static final String UNIQUE_KEYS_ON_USER_ID = "SELECT tc.constraint_name "
+            + "FROM information_schema.table_constraints tc "
+            + "JOIN information_schema.key_column_usage kcu ON kcu.constraint_schema = tc.constraint_schema "
+            + "AND kcu.constraint_name = tc.constraint_name AND kcu.table_name = tc.table_name "
+            + "WHERE tc.table_schema = ? AND LOWER(tc.table_name) = 'student_info' "
+            + "AND tc.constraint_type = 'UNIQUE' AND LOWER(kcu.column_name) = 'user_id'";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        // Tra trước khi đổi khóa chính: sau đó user_id còn nằm trong PRIMARY KEY
+        List<String> uniqueKeys = uniqueKeysOnUserId(connection);
+
+        try (Statement statement = connection.createStatement()) {
+            // Bỏ AUTO_INCREMENT trước: MySQL không cho cột AUTO_INCREMENT nằm ngoài khóa
+            statement.execute("alter table student_info modify id bigint not null");
+            statement.execute("alter table student_info drop primary key");
+            statement.execute("alter table student_info add primary key (user_id)");
+            statement.execute("alter table student_info drop column id");
+            for (String uniqueKey : uniqueKeys) {
+                statement.execute("alter table student_info drop constraint `" + uniqueKey + "`");
+            }
+        }
+    }
+
+    private static List<String> uniqueKeysOnUserId(Connection connection) throws SQLException {
+        // MySQL: database là catalog (getSchema() = null); H2: schema hiện tại
+        String schema = connection.getSchema() != null ? connection.getSchema() : connection.getCatalog();
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(UNIQUE_KEYS_ON_USER_ID)) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+}
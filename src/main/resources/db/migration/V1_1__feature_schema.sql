@@ -0,0 +1,167 @@
+-- =====================================================
+-- V1_1: Bảng và cột của các tính năng thêm sau schema gốc (chạy trước index của V2)
+-- Danh sách chờ, lịch iCalendar, khóa thuê job, outbox, idempotency, sổ cái thanh toán, bảng tổng hợp báo cáo,
+-- thông báo, bus vô hiệu hóa cache và HTTP session dùng chung (Spring Session JDBC).
+-- =====================================================
+
+-- Danh sách chờ: WAITLISTED thêm vào cuối danh sách enum để MySQL 8 đổi cột tại chỗ (INSTANT), không chép lại bảng
+alter table enrollments modify column status enum ('PENDING','APPROVED','REJECTED','COMPLETED','DROPPED','WAITLISTED') not null;
+alter table enrollments add column waitlist_position bigint;
+
+create table cache_invalidations (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    entity_id bigint,
+    origin_node varchar(150) not null,
+    entity_type enum ('COURSE','CLASS','USER') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table calendar_feed_tokens (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    user_id bigint not null,
+    token varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table enrollment_rollups (
+    id bigint not null auto_increment,
+    paid_amount decimal(15,2) not null,
+    period_month integer not null,
+    period_year integer not null,
+    tuition_amount decimal(15,2) not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    course_type_id bigint,
+    enrollment_count bigint not null,
+    refreshed_at datetime(6) not null,
+    status enum ('PENDING','WAITLISTED','APPROVED','REJECTED','COMPLETED','DROPPED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table idempotency_records (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    expires_at datetime(6) not null,
+    idempotency_key varchar(200) not null,
+    error_message TEXT,
+    flash_attributes TEXT,
+    view_name varchar(255),
+    status enum ('IN_PROGRESS','COMPLETED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table job_leases (
+    locked_at datetime(6),
+    locked_until datetime(6) not null,
+    job_name varchar(100) not null,
+    owner varchar(150),
+    primary key (job_name)
+) engine=InnoDB;
+
+create table notifications (
+    id bigint not null auto_increment,
+    attempts integer not null,
+    created_at datetime(6) not null,
+    next_attempt_at datetime(6),
+    recipient_id bigint not null,
+    sent_at datetime(6),
+    source_event_id bigint not null,
+    coalesce_key varchar(100) not null,
+    message varchar(500) not null,
+    event_type enum ('ENROLLMENT_APPROVED','ENROLLMENT_REJECTED','GRADE_POSTED','CERTIFICATE_ISSUED','SCHEDULE_CANCELLED') not null,
+    status enum ('PENDING','SENT','SKIPPED','FAILED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table outbox_events (
+    id bigint not null auto_increment,
+    attempts integer not null,
+    aggregate_id bigint not null,
+    created_at datetime(6) not null,
+    next_attempt_at datetime(6),
+    processed_at datetime(6),
+    last_error varchar(500),
+    payload TEXT,
+    aggregate_type enum ('ENROLLMENT','SCHEDULE') not null,
+    event_type enum ('ENROLLMENT_APPROVED','ENROLLMENT_REJECTED','GRADE_POSTED','CERTIFICATE_ISSUED','SCHEDULE_CANCELLED') not null,
+    status enum ('PENDING','PROCESSED','FAILED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table payment_rollups (
+    id bigint not null auto_increment,
+    amount decimal(15,2) not null,
+    period_month integer not null,
+    period_year integer not null,
+    class_id bigint not null,
+    course_id bigint not null,
+    course_type_id bigint,
+    refreshed_at datetime(6) not null,
+    transaction_count bigint not null,
+    type enum ('PAYMENT','REFUND','ADJUSTMENT','OPENING_BALANCE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table payment_transactions (
+    id bigint not null auto_increment,
+    amount decimal(12,2) not null,
+    transaction_date date not null,
+    created_at datetime(6),
+    enrollment_id bigint not null,
+    recorded_by bigint,
+    external_reference varchar(100),
+    description varchar(500),
+    source enum ('MANUAL','BANK_STATEMENT','MIGRATION') not null,
+    type enum ('PAYMENT','REFUND','ADJUSTMENT','OPENING_BALANCE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Khóa duy nhất
+alter table calendar_feed_tokens add constraint uk_calendar_feed_tokens_user_id unique (user_id);
+alter table calendar_feed_tokens add constraint uk_calendar_feed_tokens_token unique (token);
+alter table enrollment_rollups add constraint uk_enrollment_rollups_class_id_period_year_period_month_status unique (class_id, period_year, period_month, status);
+alter table idempotency_records add constraint uk_idempotency_records_idempotency_key unique (idempotency_key);
+alter table notifications add constraint uk_notifications_source_event_id_recipient_id unique (source_event_id, recipient_id);
+alter table payment_rollups add constraint uk_payment_rollups_class_id_period_year_period_month_type unique (class_id, period_year, period_month, type);
+alter table payment_transactions add constraint uk_payment_transactions_external_reference_source unique (external_reference, source);
+
+-- Index khai báo trên entity
+create index idx_attendances_updated_at on attendances (updated_at);
+create index idx_cache_invalidations_created_at on cache_invalidations (created_at);
+create index idx_enrollments_updated_at on enrollments (updated_at);
+create index idx_grades_updated_at on grades (updated_at);
+create index idx_notifications_status_recipient on notifications (status, recipient_id, created_at);
+create index idx_outbox_events_status on outbox_events (status, id);
+create index idx_outbox_events_aggregate on outbox_events (aggregate_type, aggregate_id, id);
+
+-- Khóa ngoại
+alter table calendar_feed_tokens add constraint fk_calendar_feed_tokens_user_id foreign key (user_id) references users (id);
+alter table notifications add constraint fk_notifications_recipient_id foreign key (recipient_id) references users (id);
+alter table payment_transactions add constraint fk_payment_transactions_enrollment_id foreign key (enrollment_id) references enrollments (id);
+alter table payment_transactions add constraint fk_payment_transactions_recorded_by foreign key (recorded_by) references users (id);
+
+-- HTTP session dùng chung giữa các node (Spring Session JDBC, schema-mysql.sql)
+CREATE TABLE SPRING_SESSION (
+    PRIMARY_ID CHAR(36) NOT NULL,
+    SESSION_ID CHAR(36) NOT NULL,
+    CREATION_TIME BIGINT NOT NULL,
+    LAST_ACCESS_TIME BIGINT NOT NULL,
+    MAX_INACTIVE_INTERVAL INT NOT NULL,
+    EXPIRY_TIME BIGINT NOT NULL,
+    PRINCIPAL_NAME VARCHAR(100),
+    CONSTRAINT SPRING_SESSION_PK PRIMARY KEY (PRIMARY_ID)
+) ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
+
+CREATE UNIQUE INDEX SPRING_SESSION_IX1 ON SPRING_SESSION (SESSION_ID);
+CREATE INDEX SPRING_SESSION_IX2 ON SPRING_SESSION (EXPIRY_TIME);
+CREATE INDEX SPRING_SESSION_IX3 ON SPRING_SESSION (PRINCIPAL_NAME);
+
+CREATE TABLE SPRING_SESSION_ATTRIBUTES (
+    SESSION_PRIMARY_ID CHAR(36) NOT NULL,
+    ATTRIBUTE_NAME VARCHAR(200) NOT NULL,
+    ATTRIBUTE_BYTES BLOB NOT NULL,
+    CONSTRAINT SPRING_SESSION_ATTRIBUTES_PK PRIMARY KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME),
+    CONSTRAINT SPRING_SESSION_ATTRIBUTES_FK FOREIGN KEY (SESSION_PRIMARY_ID) REFERENCES SPRING_SESSION(PRIMARY_ID) ON DELETE CASCADE
+) ENGINE=InnoDB ROW_FORMAT=DYNAMIC;
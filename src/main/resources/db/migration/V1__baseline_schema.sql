@@ -0,0 +1,196 @@
+-- =====================================================
+-- V1: Schema gốc, đúng như trước khi dùng Flyway (bảng, khóa duy nhất, khóa ngoại)
+-- Khớp với schema Hibernate tạo từ entity lúc đó (ddl-auto=update, MySQL 8, InnoDB); từ nay mọi thay đổi
+-- schema là một migration mới, không sửa file này.
+-- CSDL đã tạo bằng ddl-auto trước đây: Flyway đánh dấu sẵn V1 (baseline-on-migrate), chỉ chạy từ V1_1.
+-- =====================================================
+
+create table attendances (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    marked_at datetime(6),
+    marked_by bigint,
+    schedule_id bigint not null,
+    student_id bigint not null,
+    updated_at datetime(6),
+    note TEXT,
+    status enum ('PRESENT','ABSENT','LATE','EXCUSED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table certificates (
+    id bigint not null auto_increment,
+    issue_date date not null,
+    created_at datetime(6),
+    enrollment_id bigint not null,
+    issued_by bigint,
+    updated_at datetime(6),
+    certificate_code varchar(50) not null,
+    file_path varchar(255),
+    notes TEXT,
+    status enum ('DRAFT','ISSUED','REVOKED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table classes (
+    id bigint not null auto_increment,
+    current_students integer,
+    end_date date,
+    max_students integer,
+    start_date date,
+    course_id bigint not null,
+    created_at datetime(6),
+    teacher_id bigint not null,
+    updated_at datetime(6),
+    class_code varchar(20) not null,
+    room varchar(50),
+    class_name varchar(200),
+    status enum ('PENDING','ONGOING','COMPLETED','CANCELLED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table course_types (
+    id bigint not null auto_increment,
+    created_at datetime(6),
+    code varchar(20) not null,
+    name varchar(100) not null,
+    description TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table courses (
+    id bigint not null auto_increment,
+    duration_hours integer,
+    duration_sessions integer,
+    max_students integer,
+    tuition_fee decimal(15,2),
+    course_type_id bigint,
+    created_at datetime(6),
+    created_by bigint,
+    updated_at datetime(6),
+    code varchar(20) not null,
+    name varchar(200) not null,
+    description TEXT,
+    requirements TEXT,
+    status enum ('DRAFT','ACTIVE','INACTIVE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table enrollments (
+    id bigint not null auto_increment,
+    deleted bit,
+    enrollment_date date not null,
+    payment_amount decimal(10,2),
+    approved_at datetime(6),
+    approved_by bigint,
+    class_id bigint not null,
+    created_at datetime(6),
+    deleted_at datetime(6),
+    deleted_by bigint,
+    student_id bigint not null,
+    updated_at datetime(6),
+    notes TEXT,
+    payment_status enum ('UNPAID','PARTIAL','PAID') not null,
+    status enum ('PENDING','APPROVED','REJECTED','COMPLETED','DROPPED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table grades (
+    id bigint not null auto_increment,
+    attendance_score decimal(5,2),
+    deleted bit,
+    final_score decimal(5,2),
+    pass bit,
+    process_score decimal(5,2),
+    total_score decimal(5,2),
+    grade_letter varchar(5),
+    created_at datetime(6),
+    deleted_at datetime(6),
+    deleted_by bigint,
+    enrollment_id bigint not null,
+    graded_at datetime(6),
+    graded_by bigint,
+    updated_at datetime(6),
+    note TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table schedules (
+    id bigint not null auto_increment,
+    end_time time(6) not null,
+    session_date date not null,
+    session_number integer not null,
+    start_time time(6) not null,
+    class_id bigint not null,
+    created_at datetime(6),
+    updated_at datetime(6),
+    room varchar(50),
+    topic varchar(200),
+    description TEXT,
+    status enum ('SCHEDULED','COMPLETED','CANCELLED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table student_info (
+    id bigint not null auto_increment,
+    date_of_birth date not null,
+    user_id bigint not null,
+    student_code varchar(20),
+    specialized_class varchar(50),
+    major varchar(100),
+    address TEXT,
+    place_of_birth varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    deleted bit,
+    created_at datetime(6),
+    deleted_at datetime(6),
+    updated_at datetime(6),
+    phone varchar(20),
+    username varchar(50) not null,
+    email varchar(100) not null,
+    full_name varchar(100) not null,
+    avatar varchar(255),
+    deleted_by varchar(255),
+    password varchar(255) not null,
+    role enum ('ADMIN','TEACHER','STUDENT') not null,
+    status enum ('ACTIVE','INACTIVE','SUSPENDED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Khóa duy nhất
+alter table attendances add constraint uk_attendances_schedule_id_student_id unique (schedule_id, student_id);
+alter table certificates add constraint uk_certificates_certificate_code unique (certificate_code);
+alter table classes add constraint uk_classes_class_code unique (class_code);
+alter table course_types add constraint uk_course_types_code unique (code);
+alter table courses add constraint uk_courses_code unique (code);
+alter table enrollments add constraint uk_enrollments_student_id_class_id unique (student_id, class_id);
+alter table grades add constraint uk_grades_enrollment_id unique (enrollment_id);
+alter table schedules add constraint uk_schedules_class_id_session_number unique (class_id, session_number);
+alter table student_info add constraint uk_student_info_user_id unique (user_id);
+alter table student_info add constraint uk_student_info_student_code unique (student_code);
+alter table users add constraint uk_users_username unique (username);
+alter table users add constraint uk_users_email unique (email);
+
+-- Khóa ngoại
+alter table attendances add constraint fk_attendances_marked_by foreign key (marked_by) references users (id);
+alter table attendances add constraint fk_attendances_schedule_id foreign key (schedule_id) references schedules (id);
+alter table attendances add constraint fk_attendances_student_id foreign key (student_id) references users (id);
+alter table certificates add constraint fk_certificates_enrollment_id foreign key (enrollment_id) references enrollments (id);
+alter table certificates add constraint fk_certificates_issued_by foreign key (issued_by) references users (id);
+alter table classes add constraint fk_classes_course_id foreign key (course_id) references courses (id);
+alter table classes add constraint fk_classes_teacher_id foreign key (teacher_id) references users (id);
+alter table courses add constraint fk_courses_course_type_id foreign key (course_type_id) references course_types (id);
+alter table courses add constraint fk_courses_created_by foreign key (created_by) references users (id);
+alter table enrollments add constraint fk_enrollments_approved_by foreign key (approved_by) references users (id);
+alter table enrollments add constraint fk_enrollments_class_id foreign key (class_id) references classes (id);
+alter table enrollments add constraint fk_enrollments_deleted_by foreign key (deleted_by) references users (id);
+alter table enrollments add constraint fk_enrollments_student_id foreign key (student_id) references users (id);
+alter table grades add constraint fk_grades_deleted_by foreign key (deleted_by) references users (id);
+alter table grades add constraint fk_grades_enrollment_id foreign key (enrollment_id) references enrollments (id);
+alter table grades add constraint fk_grades_graded_by foreign key (graded_by) references users (id);
+alter table schedules add constraint fk_schedules_class_id foreign key (class_id) references classes (id);
+alter table student_info add constraint fk_student_info_user_id foreign key (user_id) references users (id);
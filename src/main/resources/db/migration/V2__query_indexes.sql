@@ -0,0 +1,53 @@
+-- =====================================================
+-- V2: Index kép theo điều kiện lọc/sắp xếp của các truy vấn trong repository
+-- Thứ tự cột: cột so sánh bằng trước, cột khoảng/ORDER BY sau; cột cuối thêm vào để
+-- truy vấn đọc thẳng từ index (covering) thay vì quay lại bảng theo từng dòng.
+-- Index FK tự tạo của MySQL trùng tiền tố (vd classes.teacher_id) được MySQL tự bỏ khi có index kép.
+-- MySQL 8 tạo index phụ online (ALGORITHM=INPLACE, LOCK=NONE): bảng lớn vẫn đọc/ghi được khi migrate.
+-- =====================================================
+
+-- Điểm danh: tỷ lệ chuyên cần / số buổi vắng của học viên trong lớp
+-- (AttendanceRepository: a.student.id = ? AND a.schedule.id thuộc lớp, đếm theo a.status)
+create index idx_attendances_student_schedule on attendances (student_id, schedule_id, status);
+
+-- Đăng ký: sĩ số, danh sách chờ theo lớp (class_id = ? AND status = ? ORDER BY waitlist_position)
+create index idx_enrollments_class_status on enrollments (class_id, status, waitlist_position);
+-- Hàng đợi duyệt đăng ký (status = ? ORDER BY created_at)
+create index idx_enrollments_status_created on enrollments (status, created_at);
+-- Lịch học / lớp của học viên (student_id = ? AND status = 'APPROVED', nối sang lớp qua class_id)
+create index idx_enrollments_student_status on enrollments (student_id, status, class_id);
+
+-- Lịch học: kiểm tra trùng phòng (room = ? AND session_date = ? AND khoảng start_time/end_time)
+create index idx_schedules_room_date_start on schedules (room, session_date, start_time);
+-- Lịch theo lớp trong khoảng ngày (lịch học viên/giảng viên, calendar feed)
+create index idx_schedules_class_date on schedules (class_id, session_date, start_time);
+-- Lịch toàn trung tâm theo khoảng ngày (session_date BETWEEN ? AND ? ORDER BY session_date, start_time)
+create index idx_schedules_date_start on schedules (session_date, start_time);
+-- Job chuyển trạng thái buổi học đã qua (status = 'SCHEDULED' AND session_date < ?)
+create index idx_schedules_status_date on schedules (status, session_date);
+
+-- Điểm: tổng hợp theo lớp nối từ enrollments, đọc kết quả ngay trên index
+create index idx_grades_enrollment_result on grades (enrollment_id, pass, total_score, grade_letter);
+
+-- Lớp: lớp đang tuyển sinh / đang học theo ngày (status = ? ORDER BY start_date), job đóng lớp theo end_date
+create index idx_classes_status_start on classes (status, start_date);
+create index idx_classes_status_end on classes (status, end_date);
+-- Lớp của giảng viên theo trạng thái
+create index idx_classes_teacher_status on classes (teacher_id, status);
+
+-- Người dùng theo vai trò và trạng thái (danh sách giảng viên/học viên đang hoạt động, thống kê)
+create index idx_users_role_status on users (role, status);
+
+-- Khóa học theo trạng thái, mới nhất trước
+create index idx_courses_status_created on courses (status, created_at);
+
+-- Chứng chỉ đã cấp, mới nhất trước
+create index idx_certificates_status_issue_date on certificates (status, issue_date);
+
+-- Dọn dữ liệu theo thời điểm (outbox đã xử lý, khóa idempotency hết hạn)
+create index idx_outbox_events_status_processed on outbox_events (status, processed_at);
+create index idx_idempotency_records_expires_at on idempotency_records (expires_at);
+
+-- Bảng tổng hợp báo cáo đọc theo năm
+create index idx_enrollment_rollups_year on enrollment_rollups (period_year, period_month);
+create index idx_payment_rollups_year on payment_rollups (period_year, period_month);
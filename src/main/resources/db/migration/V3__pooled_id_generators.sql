@@ -0,0 +1,24 @@
+-- =====================================================
+-- V3: Bộ sinh ID dạng bảng (pooled) cho các bảng ghi hàng loạt
+-- attendances, grades, certificates, schedules, enrollments: Hibernate cấp trước khối 50 ID
+-- (IdGenerators.ALLOCATION_SIZE) thay cho AUTO_INCREMENT để gom INSERT thành JDBC batch.
+-- Cột id giữ AUTO_INCREMENT: câu INSERT SQL thủ công không ghi id vẫn chạy được,
+-- nhưng dữ liệu nạp ngoài ứng dụng phải đồng bộ lại next_val (xem câu UPDATE bên dưới).
+-- =====================================================
+
+create table id_generators (
+    entity_name varchar(64) not null,
+    next_val bigint not null,
+    primary key (entity_name)
+) engine=InnoDB;
+
+-- next_val là giới hạn trên của khối kế tiếp: khối đầu tiên bắt đầu ngay sau ID lớn nhất hiện có
+insert into id_generators (entity_name, next_val) select 'attendances', coalesce(max(id), 0) + 50 from attendances;
+insert into id_generators (entity_name, next_val) select 'grades', coalesce(max(id), 0) + 50 from grades;
+insert into id_generators (entity_name, next_val) select 'certificates', coalesce(max(id), 0) + 50 from certificates;
+insert into id_generators (entity_name, next_val) select 'schedules', coalesce(max(id), 0) + 50 from schedules;
+insert into id_generators (entity_name, next_val) select 'enrollments', coalesce(max(id), 0) + 50 from enrollments;
+
+-- Đồng bộ sau khi nạp dữ liệu có ID tường minh (chạy lại được, không bao giờ lùi next_val):
+-- update id_generators set next_val = greatest(next_val, (select coalesce(max(id), 0) + 50 from attendances))
+--     where entity_name = 'attendances';
@@ -0,0 +1,7 @@
+-- =====================================================
+-- V5: Sự kiện danh sách chờ (xếp chỗ, đóng danh sách chờ) cho outbox và thông báo
+-- Giá trị mới thêm vào cuối danh sách enum để MySQL 8 đổi cột tại chỗ (INSTANT), không chép lại bảng
+-- =====================================================
+
+alter table outbox_events modify column event_type enum ('ENROLLMENT_APPROVED','ENROLLMENT_REJECTED','GRADE_POSTED','CERTIFICATE_ISSUED','SCHEDULE_CANCELLED','WAITLIST_PROMOTED','WAITLIST_CLOSED') not null;
+alter table notifications modify column event_type enum ('ENROLLMENT_APPROVED','ENROLLMENT_REJECTED','GRADE_POSTED','CERTIFICATE_ISSUED','SCHEDULE_CANCELLED','WAITLIST_PROMOTED','WAITLIST_CLOSED') not null;